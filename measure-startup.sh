@@ -0,0 +1,73 @@
+#!/bin/bash
+#
+# Время до первого запроса без AOT/AppCDS и с ними.
+# Перед запуском: ./gradlew cdsArchive (приложение и application.jsa в build/cds).
+#
+# Каждый вариант запускается RUNS раз; время считается от старта JVM до первого
+# успешного ответа POST /validateEventGraph. Печатается медиана и все замеры в мс.
+#
+#   ./measure-startup.sh            # 5 запусков каждого варианта
+#   RUNS=10 PORT=18080 ./measure-startup.sh
+#
+# В CI замер выполняет задача startup после build, таблица сохраняется в артефакт
+# build/reports/startup.md. Числа зависят от машины, поэтому сравнивать стоит варианты
+# одного прогона, а не прогоны на разных раннерах.
+
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+JAVA=${JAVA:-java}
+CDS_DIR=$(cd "$(dirname "$0")" && pwd)/build/cds
+JAR=axenapi-web-1.0-SNAPSHOT.jar
+URL="http://localhost:${PORT}/validateEventGraph"
+BODY='{"name":"startup","nodes":[],"links":[],"events":[]}'
+
+if [ ! -f "${CDS_DIR}/${JAR}" ] || [ ! -f "${CDS_DIR}/application.jsa" ]; then
+  echo "Нет ${CDS_DIR}/${JAR} или application.jsa, выполните ./gradlew cdsArchive" >&2
+  exit 1
+fi
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Один запуск: печатает время до первого ответа в мс
+measure() {
+  local start pid elapsed
+  start=$(now_ms)
+  (cd "${CDS_DIR}" && exec "${JAVA}" "$@" -jar "${JAR}" \
+      --server.port="${PORT}" \
+      --spring.datasource.url=jdbc:h2:mem:startup \
+      --spring.jpa.show-sql=false) > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null -X POST -H 'Content-Type: application/json' -d "${BODY}" "${URL}"; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "Приложение завершилось до первого ответа: $*" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+  echo "${elapsed}"
+}
+
+# Запуски варианта: название, затем аргументы JVM
+variant() {
+  local name=$1 times=() median
+  shift
+  for _ in $(seq "${RUNS}"); do
+    times+=("$(measure "$@")")
+  done
+  median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{a[NR]=$1} END {print a[int((NR + 1) / 2)]}')
+  printf '| %s | %s | %s |\n' "${name}" "${median}" "${times[*]}"
+}
+
+echo "JVM: $("${JAVA}" -version 2>&1 | head -1), запусков: ${RUNS}"
+echo "| Вариант | Медиана, мс | Замеры, мс |"
+echo "|---|---:|---|"
+variant "jar" -Xshare:auto
+variant "AOT" -Dspring.aot.enabled=true
+variant "AOT + AppCDS" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
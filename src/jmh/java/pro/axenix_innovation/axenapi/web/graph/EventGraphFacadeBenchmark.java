@@ -0,0 +1,49 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.util.BenchmarkFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Слияние графов ({@link EventGraphFacade#merge}) при загрузке сервисов: два графа из копий
+ * фикстуры, половина копий совпадает.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EventGraphFacadeBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int copies;
+
+    private EventGraphDTO left;
+    private EventGraphDTO right;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.init();
+        EventGraphDTO fixture = BenchmarkFixtures.graph("results/cart_notif_services.json");
+        left = BenchmarkFixtures.replicate(fixture, 0, copies, false);
+        right = BenchmarkFixtures.replicate(fixture, copies / 2, copies, false);
+    }
+
+    @Benchmark
+    public EventGraphDTO merge() {
+        return EventGraphFacade.merge(left, right);
+    }
+}
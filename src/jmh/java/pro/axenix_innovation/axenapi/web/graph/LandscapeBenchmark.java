@@ -0,0 +1,70 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphDiffDTO;
+import pro.axenix_innovation.axenapi.web.util.BenchmarkFixtures;
+import pro.axenix_innovation.axenapi.web.validate.EventGraphDTOValidator;
+import pro.axenix_innovation.axenapi.web.validate.GraphValidationReport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции над синтетическим ландшафтом из {@link LandscapeGenerator} масштаба реальных установок.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class LandscapeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int services;
+
+    private LandscapeOptions options;
+    private EventGraphDTO graph;
+    private EventGraphDTO regenerated;
+
+    @Setup
+    public void setUp() {
+        // проверка графа читает сообщения через MessageHelper
+        BenchmarkFixtures.init();
+        options = LandscapeOptions.ofServices(services);
+        graph = LandscapeGenerator.generate(options);
+        regenerated = LandscapeGenerator.generate(options);
+    }
+
+    @Benchmark
+    public EventGraphDTO generate() {
+        return LandscapeGenerator.generate(options);
+    }
+
+    @Benchmark
+    public GraphValidationReport validate() {
+        return EventGraphDTOValidator.validate(graph, 100);
+    }
+
+    /** Две генерации с одним seed совпадают: сопоставляются и сравниваются по полям все элементы. */
+    @Benchmark
+    public GraphDiffDTO diff() {
+        return EventGraphDiff.diff(graph, regenerated);
+    }
+
+    @Benchmark
+    public void specifications(Blackhole blackhole) throws Exception {
+        LandscapeGenerator.forEachSpecification(graph, (name, openAPI) -> blackhole.consume(openAPI));
+    }
+}
@@ -0,0 +1,57 @@
+package pro.axenix_innovation.axenapi.web.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.util.BenchmarkFixtures;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск путей между узлами в графе из копий фикстуры path/for_test.json;
+ * концы пути берутся из первой копии (как в PathsServiceTest).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class PathsServiceBenchmark {
+
+    private static final UUID FROM = UUID.fromString("a1b2c3d4-e5f6-7890-1234-567890abcdef");
+    private static final UUID TO = UUID.fromString("c3d4e5f6-7890-1234-5678-90abcdef0123");
+
+    @Param({"1", "100", "1000"})
+    public int copies;
+
+    private EventGraphDTO graph;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.init();
+        graph = BenchmarkFixtures.replicate(BenchmarkFixtures.graph("path/for_test.json"), 0, copies, false);
+    }
+
+    @Benchmark
+    public List<List<LinkDTO>> findAllPaths() {
+        return PathsService.findAllPaths(graph, FROM, TO);
+    }
+
+    @Benchmark
+    public List<List<LinkDTO>> findAllShortestPaths() {
+        return PathsService.findAllShortestPaths(graph, FROM, TO);
+    }
+}
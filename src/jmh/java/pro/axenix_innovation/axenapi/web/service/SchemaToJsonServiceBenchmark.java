@@ -0,0 +1,49 @@
+package pro.axenix_innovation.axenapi.web.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pro.axenix_innovation.axenapi.web.util.BenchmarkFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генерация примера по JSON-схеме ({@link SchemaToJsonService#generateFieldValue}) для объекта
+ * из {@code fields} полей, каждое из которых - схема фикстуры.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SchemaToJsonServiceBenchmark {
+
+    @Param({"user_profile.json", "course.json"})
+    public String fixture;
+
+    @Param({"1", "10", "100"})
+    public int fields;
+
+    private JsonNode schema;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.init();
+        schema = BenchmarkFixtures.wideSchema(BenchmarkFixtures.json("shemas/" + fixture), fields);
+    }
+
+    @Benchmark
+    public JsonNode generateFieldValue() {
+        return SchemaToJsonService.generateFieldValue(schema, "root", null);
+    }
+}
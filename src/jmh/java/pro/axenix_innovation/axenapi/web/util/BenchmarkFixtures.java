@@ -0,0 +1,166 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Фикстуры для бенчмарков. Файлы берутся из src/test/resources (подключены к ресурсам jmh),
+ * размер задается числом копий фикстуры в графе.
+ * Загрузка класса устанавливает источник сообщений {@link MessageHelper}, как в тестах:
+ * без него сообщения журнала с уровнем WARN и ERROR падают с NullPointerException.
+ */
+public final class BenchmarkFixtures {
+
+    static {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        MessageHelper.setStaticMessageSource(messageSource);
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Вызывается из {@code @Setup} каждого бенчмарка, чтобы источник сообщений был установлен. */
+    public static void init() {
+    }
+
+    public static String resource(String path) {
+        try (InputStream input = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(path)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Resource not found: " + path);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static EventGraphDTO graph(String path) {
+        try {
+            return JacksonMappers.json().readValue(resource(path), EventGraphDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static JsonNode json(String path) {
+        try {
+            return JacksonMappers.json().readTree(resource(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Граф из {@code copies} копий фикстуры, копии с номерами {@code first..first+copies-1}.
+     * Копия 0 совпадает с фикстурой (те же id и имена), в остальных id заменены, а к именам
+     * узлов и событий добавлен номер копии, поэтому копии с одинаковым номером в разных графах
+     * совпадают при слиянии.
+     *
+     * @param shareServices сервисы не копируются: все копии топиков и событий относятся к ним
+     */
+    public static EventGraphDTO replicate(EventGraphDTO fixture, int first, int copies, boolean shareServices) {
+        EventGraphDTO result = new EventGraphDTO();
+        result.setName(fixture.getName());
+        result.setNodes(new ArrayList<>());
+        result.setEvents(new ArrayList<>());
+        result.setLinks(new ArrayList<>());
+        result.setTags(fixture.getTags() != null ? new HashSet<>(fixture.getTags()) : new HashSet<>());
+
+        Map<UUID, NodeDTO> nodesById = new HashMap<>();
+        for (int copy = first; copy < first + copies; copy++) {
+            Map<UUID, UUID> ids = new HashMap<>();
+            String suffix = copy == 0 ? "" : "_" + copy;
+            for (NodeDTO node : fixture.getNodes()) {
+                boolean shared = shareServices && node.getType() == NodeDTO.TypeEnum.SERVICE;
+                if (shared && copy != first) {
+                    ids.put(node.getId(), node.getId());
+                    continue;
+                }
+                UUID id = shared ? node.getId() : copyId(node.getId(), copy);
+                ids.put(node.getId(), id);
+                NodeDTO copied = NodeDTO.builder()
+                        .id(id)
+                        .name(shared ? node.getName() : node.getName() + suffix)
+                        .type(node.getType())
+                        .brokerType(node.getBrokerType())
+                        .belongsToGraph(new ArrayList<>())
+                        .tags(node.getTags() != null ? new HashSet<>(node.getTags()) : new HashSet<>())
+                        .methodType(node.getMethodType())
+                        .requestBody(node.getRequestBody())
+                        .nodeUrl(node.getNodeUrl())
+                        .nodeDescription(node.getNodeDescription())
+                        .build();
+                nodesById.put(id, copied);
+                result.addNodesItem(copied);
+            }
+            for (NodeDTO node : fixture.getNodes()) {
+                NodeDTO copied = nodesById.get(ids.get(node.getId()));
+                if (node.getBelongsToGraph() != null) {
+                    node.getBelongsToGraph().forEach(owner -> {
+                        UUID mapped = ids.getOrDefault(owner, owner);
+                        if (!copied.getBelongsToGraph().contains(mapped)) {
+                            copied.getBelongsToGraph().add(mapped);
+                        }
+                    });
+                }
+            }
+            for (EventDTO event : fixture.getEvents()) {
+                UUID id = copyId(event.getId(), copy);
+                ids.put(event.getId(), id);
+                result.addEventsItem(EventDTO.builder()
+                        .id(id)
+                        .name(event.getName() + suffix)
+                        .schema(event.getSchema())
+                        .tags(event.getTags() != null ? new HashSet<>(event.getTags()) : new HashSet<>())
+                        .build());
+            }
+            for (LinkDTO link : fixture.getLinks()) {
+                result.addLinksItem(new LinkDTO(copyId(link.getId(), copy),
+                        ids.getOrDefault(link.getFromId(), link.getFromId()),
+                        ids.getOrDefault(link.getToId(), link.getToId()),
+                        link.getGroup(),
+                        link.getEventId() != null ? ids.getOrDefault(link.getEventId(), link.getEventId()) : null,
+                        link.getTags() != null ? new HashSet<>(link.getTags()) : new HashSet<>()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * JSON-схема объекта с {@code fields} полями, каждое из которых - схема фикстуры.
+     */
+    public static JsonNode wideSchema(JsonNode fieldSchema, int fields) {
+        ObjectNode schema = JacksonMappers.json().createObjectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        for (int i = 0; i < fields; i++) {
+            properties.set("field" + i, fieldSchema);
+        }
+        return schema;
+    }
+
+    private static UUID copyId(UUID id, int copy) {
+        if (id == null || copy == 0) {
+            return id;
+        }
+        return UUID.nameUUIDFromBytes((id + "#" + copy).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прежний вариант (новый {@link ObjectMapper} на каждый вызов) против общих мапперов
+ * {@link JacksonMappers}: разбор спецификации в дерево и сериализация графа.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JacksonMappersBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int schemas;
+
+    private String jsonSpec;
+    private String yamlSpec;
+    private EventGraphDTO graph;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkFixtures.init();
+        StringBuilder paths = new StringBuilder();
+        StringBuilder components = new StringBuilder();
+        List<NodeDTO> nodes = new ArrayList<>();
+        List<EventDTO> events = new ArrayList<>();
+        for (int i = 0; i < schemas; i++) {
+            String separator = i == 0 ? "" : ",";
+            paths.append(separator).append("\"/kafka/group/topic").append(i).append("/Event").append(i)
+                    .append("\":{\"post\":{\"responses\":{\"200\":{\"description\":\"ok\"}}}}");
+            components.append(separator).append("\"Event").append(i)
+                    .append("\":{\"type\":\"object\",\"x-incoming\":{\"topics\":[\"topic").append(i)
+                    .append("\"]},\"properties\":{\"id\":{\"type\":\"string\"},\"amount\":{\"type\":\"number\"}}}");
+            nodes.add(NodeDTO.builder()
+                    .id(UUID.randomUUID())
+                    .name("Service" + i)
+                    .type(NodeDTO.TypeEnum.SERVICE)
+                    .belongsToGraph(new ArrayList<>())
+                    .build());
+            events.add(EventDTO.builder()
+                    .id(UUID.randomUUID())
+                    .name("Event" + i)
+                    .schema("{\"type\":\"object\"}")
+                    .build());
+        }
+        jsonSpec = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"benchmark\",\"version\":\"1.0\"},"
+                + "\"paths\":{" + paths + "},\"components\":{\"schemas\":{" + components + "}}}";
+        yamlSpec = JacksonMappers.yaml().writeValueAsString(JacksonMappers.json().readTree(jsonSpec));
+
+        graph = new EventGraphDTO();
+        graph.setName("benchmark");
+        graph.setNodes(nodes);
+        graph.setEvents(events);
+        graph.setLinks(new ArrayList<>());
+    }
+
+    @Benchmark
+    public void readJsonNewMapper(Blackhole blackhole) throws Exception {
+        blackhole.consume(new ObjectMapper().readTree(jsonSpec));
+    }
+
+    @Benchmark
+    public void readJsonSharedMapper(Blackhole blackhole) throws Exception {
+        blackhole.consume(JacksonMappers.json().readTree(jsonSpec));
+    }
+
+    @Benchmark
+    public void readYamlNewMapper(Blackhole blackhole) throws Exception {
+        blackhole.consume(new ObjectMapper(new YAMLFactory()).readTree(yamlSpec));
+    }
+
+    @Benchmark
+    public void readYamlSharedMapper(Blackhole blackhole) throws Exception {
+        blackhole.consume(JacksonMappers.yaml().readTree(yamlSpec));
+    }
+
+    @Benchmark
+    public void writeGraphNewMapper(Blackhole blackhole) throws Exception {
+        blackhole.consume(new ObjectMapper().writeValueAsString(graph));
+    }
+
+    @Benchmark
+    public void writeGraphSharedMapper(Blackhole blackhole) throws Exception {
+        blackhole.consume(JacksonMappers.json().writeValueAsString(graph));
+    }
+}
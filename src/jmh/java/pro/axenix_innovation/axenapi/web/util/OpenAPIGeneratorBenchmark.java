@@ -0,0 +1,48 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генерация спецификаций по графу ({@code /generateSpec}) для графа из копий фикстуры.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class OpenAPIGeneratorBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int copies;
+
+    private EventGraphFacade graph;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.init();
+        EventGraphDTO fixture = BenchmarkFixtures.graph("results/cart_notif_services.json");
+        graph = new EventGraphFacade(BenchmarkFixtures.replicate(fixture, 0, copies, false));
+    }
+
+    @Benchmark
+    public Map<String, OpenAPI> getOpenAPISpecifications() throws Exception {
+        return OpenAPIGenerator.getOpenAPISpecifications(graph);
+    }
+}
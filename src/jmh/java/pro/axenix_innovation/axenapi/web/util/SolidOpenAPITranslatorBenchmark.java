@@ -0,0 +1,65 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Трансляция спецификации сервиса в граф ({@code /upload}). Спецификация строится по графу
+ * из копий фикстуры с одним общим сервисом, так что число топиков и событий растет с copies.
+ * parse - полный путь от текста (кэш разбора отключен), translate - только трансляция модели.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SolidOpenAPITranslatorBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int copies;
+
+    private String specification;
+    private ParsedSpecification parsed;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkFixtures.init();
+        EventGraphDTO fixture = BenchmarkFixtures.graph("results/consume_three_events_from_different_brokers_service.json");
+        EventGraphFacade graph = new EventGraphFacade(BenchmarkFixtures.replicate(fixture, 0, copies, true));
+        OpenAPI openAPI = OpenAPIGenerator.getOpenAPISpecifications(graph).values().iterator().next();
+        specification = JacksonMappers.openApiJson().writeValueAsString(openAPI);
+        parsed = OpenAPIParser.parse(specification);
+        OpenAPIParser.setCacheSize(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        OpenAPIParser.setCacheSize(64);
+    }
+
+    @Benchmark
+    public EventGraphFacade parse() throws Exception {
+        return SolidOpenAPITranslator.parseOPenAPI(specification);
+    }
+
+    @Benchmark
+    public EventGraphFacade translate() throws Exception {
+        return SolidOpenAPITranslator.parseOPenAPI(parsed);
+    }
+}
@@ -0,0 +1,98 @@
+package pro.axenix_innovation.axenapi.web.validate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.util.BenchmarkFixtures;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость аудита графа при валидации: прежний вариант (toString + полная сериализация в строку)
+ * против размера и канонического хэша из {@link ValidationAudit}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ValidationAuditBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int services;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EventGraphDTO graph;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.init();
+        List<NodeDTO> nodes = new ArrayList<>();
+        List<EventDTO> events = new ArrayList<>();
+        List<LinkDTO> links = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            NodeDTO service = NodeDTO.builder()
+                    .id(UUID.randomUUID())
+                    .name("Service" + i)
+                    .type(NodeDTO.TypeEnum.SERVICE)
+                    .belongsToGraph(new ArrayList<>())
+                    .build();
+            service.getBelongsToGraph().add(service.getId());
+            NodeDTO topic = NodeDTO.builder()
+                    .id(UUID.randomUUID())
+                    .name("topic-" + i)
+                    .type(NodeDTO.TypeEnum.TOPIC)
+                    .brokerType(NodeDTO.BrokerTypeEnum.KAFKA)
+                    .belongsToGraph(new ArrayList<>(List.of(service.getId())))
+                    .build();
+            EventDTO event = EventDTO.builder()
+                    .id(UUID.randomUUID())
+                    .name("Event" + i)
+                    .schema("{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"string\"},"
+                            + "\"amount\":{\"type\":\"number\"},\"createdAt\":{\"type\":\"string\",\"format\":\"date-time\"}}}")
+                    .build();
+            nodes.add(service);
+            nodes.add(topic);
+            events.add(event);
+            links.add(new LinkDTO(UUID.randomUUID(), topic.getId(), service.getId(), "group", event.getId(),
+                    new HashSet<>(Set.of("tag" + (i % 10)))));
+        }
+        graph = new EventGraphDTO();
+        graph.setName("benchmark");
+        graph.setNodes(nodes);
+        graph.setEvents(events);
+        graph.setLinks(links);
+    }
+
+    @Benchmark
+    public void fullSerialization(Blackhole blackhole) throws Exception {
+        blackhole.consume(graph.toString());
+        blackhole.consume(objectMapper.writeValueAsString(graph));
+    }
+
+    @Benchmark
+    public void sizeAndCanonicalHash(Blackhole blackhole) {
+        blackhole.consume(graph.getNodes().size() + graph.getEvents().size() + graph.getLinks().size());
+        blackhole.consume(ValidationAudit.canonicalHash(graph));
+    }
+}
@@ -1,9 +1,14 @@
 package pro.axenix_innovation.axenapi.web;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+
+import java.util.List;
 
 @Configuration
 @EnableWebMvc
@@ -12,8 +17,18 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
-                .allowedMethods("GET", "POST", "PUT", "DELETE")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
                 .allowedHeaders("*")
                 .allowCredentials(false);
     }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // те же ограничения чтения и Blackbird, что и у общих мапперов; кроме JSON это конвертеры
+        // Smile и CBOR, которые Spring добавляет после JSON, если форматы есть в classpath
+        converters.stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .map(AbstractJackson2HttpMessageConverter.class::cast)
+                .forEach(converter -> JacksonMappers.tune(converter.getObjectMapper()));
+    }
 }
\ No newline at end of file
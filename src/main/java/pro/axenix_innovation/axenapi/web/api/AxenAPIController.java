@@ -2,13 +2,15 @@ package pro.axenix_innovation.axenapi.web.api;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -18,12 +20,23 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import pro.axenix_innovation.axenapi.web.concurrent.Bulkheads;
+import pro.axenix_innovation.axenapi.web.concurrent.Bulkheads.Endpoint;
 import pro.axenix_innovation.axenapi.web.entity.AppCodeMessage;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
+import pro.axenix_innovation.axenapi.web.exception.BulkheadFullException;
+import pro.axenix_innovation.axenapi.web.exception.InvalidTagQueryException;
 import pro.axenix_innovation.axenapi.web.exception.NotServiceNode;
 import pro.axenix_innovation.axenapi.web.exception.OpenAPISpecParseException;
 import pro.axenix_innovation.axenapi.web.generate.DocxSpecificationDbHandler;
 import pro.axenix_innovation.axenapi.web.generate.PdfSpecificationDbHandler;
 import pro.axenix_innovation.axenapi.web.generate.SpecificationGenerator;
+import pro.axenix_innovation.axenapi.web.graph.EventGraphDiff;
+import pro.axenix_innovation.axenapi.web.graph.GraphIndex;
+import pro.axenix_innovation.axenapi.web.graph.GraphProjection;
+import pro.axenix_innovation.axenapi.web.graph.TagIndex;
+import pro.axenix_innovation.axenapi.web.graph.TagMatch;
+import pro.axenix_innovation.axenapi.web.graph.TagQuery;
 import pro.axenix_innovation.axenapi.web.model.*;
 import pro.axenix_innovation.axenapi.web.repository.DocxSpecificationRepository;
 import pro.axenix_innovation.axenapi.web.repository.MarkdownSpecificationRepository;
@@ -31,8 +44,11 @@ import pro.axenix_innovation.axenapi.web.repository.PdfSpecificationRepository;
 import pro.axenix_innovation.axenapi.web.repository.SpecificationRepository;
 import pro.axenix_innovation.axenapi.web.service.*;
 import pro.axenix_innovation.axenapi.web.service.git.GitServiceCommand;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
 import pro.axenix_innovation.axenapi.web.util.ProcessingFiles;
 import pro.axenix_innovation.axenapi.web.validate.CalculateAllPathsValidator;
+import pro.axenix_innovation.axenapi.web.validate.EventGraphDTOValidator;
+import pro.axenix_innovation.axenapi.web.validate.GraphValidationReport;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -52,21 +68,31 @@ public class AxenAPIController implements DefaultApi {
     private final PdfSpecificationRepository pdfSpecificationRepository;
     private final CodeService codeService;
     private final SpecService specService;
+    // @Lazy: прокси, тяжелые сервисы (codegen, docx4j, PDF, JGit) создаются при первом обращении
+    @Lazy
     private final MarkdownSpecService markdownSpecService;
     private final DocxSpecificationDbHandler docxSpecificationDbHandler;
     private final PdfSpecificationDbHandler pdfSpecificationDbHandler;
     private final JsonToSchemaGenerationService jsonToSchemaGenerationService;
+    @Lazy
     private final PdfGenerationService pdfGenerationService;
+    @Lazy
     private final DocxGenerationService docxGenerationService;
     private final DownloadService downloadService;
     private final MarkdownService markdownService;
     private final MessageHelper messageHelper;
+    @Lazy
     private final AllServicePdfGenerationService allServicePdfGenerationService;
+    @Lazy
     private final GitServiceCommand gitServiceCommand;
+    private final Bulkheads bulkheads;
 
 
     private static final Logger log = LoggerFactory.getLogger(AxenAPIController.class);
 
+    @Value("${axenapi.validation.max-violations:100}")
+    private int maxValidationViolations;
+
     @Override
     public Optional<NativeWebRequest> getRequest() {
         return Optional.empty();
@@ -78,7 +104,8 @@ public class AxenAPIController implements DefaultApi {
             @RequestParam(value = "format", required = false, defaultValue = "json") String format
     ) {
         try {
-            GenerateSpecPost200Response response = specService.validateAndGenerateSpec(eventGraphDTO, format);
+            GenerateSpecPost200Response response = bulkheads.of(Endpoint.GENERATE_SPEC)
+                    .call(() -> specService.validateAndGenerateSpec(eventGraphDTO, format));
 
             if (response == null) {
                 log.error(messageHelper.getMessage(ERROR_RESP_FROM_SPEC_NULL));
@@ -95,6 +122,8 @@ public class AxenAPIController implements DefaultApi {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
 
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (Exception e) {
             log.error(messageHelper.getMessage(ERROR_PROCESS_REQUEST), e);
             BaseResponse errorResponse = new BaseResponse();
@@ -105,6 +134,35 @@ public class AxenAPIController implements DefaultApi {
         }
     }
 
+    @Override
+    public ResponseEntity validateEventGraphPost(
+            @Valid @RequestBody EventGraphDTO eventGraphDTO,
+            @RequestParam(value = "maxViolations", required = false) Integer maxViolations
+    ) {
+        int limit = maxViolations == null ? maxValidationViolations : Math.min(maxViolations, maxValidationViolations);
+        GraphValidationReport report = EventGraphDTOValidator.validate(eventGraphDTO, limit);
+
+        List<ValidationViolationDTO> violations = new ArrayList<>(report.getViolations().size());
+        for (GraphValidationReport.Violation violation : report.getViolations()) {
+            AppCodeMessage message = violation.message();
+            violations.add(ValidationViolationDTO.builder()
+                    .code(message.getEnumItem().getCode())
+                    .message(messageHelper.getMessage(message.getEnumItem().getMessageKey(), message.getArgs()))
+                    .elementId(violation.elementId() != null ? violation.elementId().toString() : null)
+                    .build());
+        }
+
+        AppCodeMessageKey result = report.isValid() ? RESP_OK_VALID_EVENT_GRAPH : RESP_ERROR_VALID_EVENT_GRAPH;
+        return ResponseEntity.ok(ValidationReportDTO.builder()
+                .status(report.isValid() ? "OK" : "ERROR")
+                .code(result.getCode())
+                .message(messageHelper.getMessage(result.getMessageKey(), violations.size()))
+                .valid(report.isValid())
+                .truncated(report.isTruncated())
+                .violations(violations)
+                .build());
+    }
+
     /**
      * Uploads a list of files and returns the event graph.
      * files should be json or yaml (yml) file. Content - openapi specification >= 3.0.0 version.
@@ -193,7 +251,12 @@ public class AxenAPIController implements DefaultApi {
                         eventGraph.getLinks().size(),
                         nodeNames));
 
-        byte[] generatedCode = codeService.generateCode(eventGraph);
+        byte[] generatedCode;
+        try {
+            generatedCode = bulkheads.of(Endpoint.GENERATE_CODE).call(() -> codeService.generateCode(eventGraph));
+        } catch (BulkheadFullException e) {
+            return busy(e);
+        }
 
         if (generatedCode == null || generatedCode.length == 0) {
             log.warn(messageHelper.getMessage(WARN_EMPTY_ARCHIVE_GEN));
@@ -273,6 +336,60 @@ public class AxenAPIController implements DefaultApi {
         }
     }
 
+    @Override
+    public ResponseEntity diffGraphsPost(@Valid DiffGraphsPostRequest request) {
+        if (request == null || request.getBase() == null || request.getTarget() == null) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .message(messageHelper.getMessage(RESP_ERROR_INVALID_REQ_PARAMS.getMessageKey()))
+                            .code(RESP_ERROR_INVALID_REQ_PARAMS.getCode())
+                            .build()
+            );
+        }
+        return ResponseEntity.ok(EventGraphDiff.diff(request.getBase(), request.getTarget()));
+    }
+
+    @Override
+    public ResponseEntity projectGraphPost(@Valid ProjectGraphPostRequest request) {
+        if (request == null || request.getEventGraph() == null || request.getProjection() == null) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .message(messageHelper.getMessage(RESP_ERROR_INVALID_REQ_PARAMS.getMessageKey()))
+                            .code(RESP_ERROR_INVALID_REQ_PARAMS.getCode())
+                            .build()
+            );
+        }
+        try {
+            return ResponseEntity.ok(GraphProjection.project(request.getEventGraph(), request.getProjection()));
+        } catch (InvalidTagQueryException e) {
+            return invalidTagQuery(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity queryTagsPost(@Valid QueryTagsPostRequest request) {
+        if (request == null || request.getEventGraph() == null || request.getQuery() == null) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .message(messageHelper.getMessage(RESP_ERROR_INVALID_REQ_PARAMS.getMessageKey()))
+                            .code(RESP_ERROR_INVALID_REQ_PARAMS.getCode())
+                            .build()
+            );
+        }
+        TagMatch match;
+        TagIndex index = GraphIndex.of(request.getEventGraph()).tagIndex();
+        try {
+            match = TagQuery.parse(request.getQuery()).evaluate(index);
+        } catch (InvalidTagQueryException e) {
+            return invalidTagQuery(e);
+        }
+        return ResponseEntity.ok(TagQueryResultDTO.builder()
+                .nodeIds(match.nodes().stream().mapToObj(i -> index.nodeAt(i).getId()).toList())
+                .eventIds(match.events().stream().mapToObj(i -> index.eventAt(i).getId()).toList())
+                .linkIds(match.links().stream().mapToObj(i -> index.linkAt(i).getId()).toList())
+                .build());
+    }
+
     @Override
     public ResponseEntity getServiceSpecificationPost(
             @Valid GetServiceSpecificationPostRequest getServiceSpecificationPostRequest) {
@@ -298,14 +415,23 @@ public class AxenAPIController implements DefaultApi {
         try {
             log.info(messageHelper.getMessage("axenapi.info.received.json.schema", request.getJsonSchema()));
 
-            JsonNode schemaNode = new ObjectMapper().readTree(request.getJsonSchema());
+            JsonNode schemaNode = JacksonMappers.json().readTree(request.getJsonSchema());
 
-            String generatedJson = SchemaToJsonService.generateJsonFromSchema(schemaNode);
+            int count = request.getCount() != null ? request.getCount() : 1;
+            List<String> generatedJsons = SchemaToJsonService.generateJsonFromSchema(schemaNode, count, request.getSeed());
+            String generatedJson = generatedJsons.get(0);
 
-            log.info(messageHelper.getMessage("axenapi.info.gen.json.example", generatedJson));
+            if (count == 1) {
+                log.info(messageHelper.getMessage("axenapi.info.gen.json.example", generatedJson));
+            } else {
+                log.info(messageHelper.getMessage("axenapi.info.gen.json.examples", count));
+            }
 
             GenerateJsonExamplePost200Response response = new GenerateJsonExamplePost200Response();
             response.setJsonExample(generatedJson);
+            if (count > 1) {
+                response.setJsonExamples(generatedJsons);
+            }
             return ResponseEntity.ok(response);
 
         } catch (JsonProcessingException e) {
@@ -325,6 +451,62 @@ public class AxenAPIController implements DefaultApi {
         }
     }
 
+    @Override
+    public ResponseEntity generateJsonExamplesPost(
+            @Valid @RequestBody GenerateJsonExamplesPostRequest request) {
+        EventDTO event = request.getEvent();
+        if (event == null && request.getEventGraph() != null && request.getEventId() != null
+                && request.getEventGraph().getEvents() != null) {
+            event = request.getEventGraph().getEvents().stream()
+                    .filter(e -> request.getEventId().equals(e.getId()))
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (event == null || event.getSchema() == null) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .code(RESP_ERROR_EVENT_SCHEMA_NOT_FOUND.getCode())
+                            .message(messageHelper.getMessage(RESP_ERROR_EVENT_SCHEMA_NOT_FOUND.getMessageKey(),
+                                    event != null ? event.getName() : request.getEventId()))
+                            .build()
+            );
+        }
+
+        try {
+            JsonNode schemaNode = JacksonMappers.json().readTree(event.getSchema());
+            boolean gzip = Boolean.TRUE.equals(request.getGzip());
+
+            log.info(messageHelper.getMessage("axenapi.info.stream.json.examples", request.getCount(), event.getName()));
+
+            InputStreamResource resource = new InputStreamResource(
+                    SchemaToJsonService.streamExamples(schemaNode, request.getCount(), request.getSeed(), gzip));
+
+            HttpHeaders httpHeaders = new HttpHeaders();
+            httpHeaders.setContentType(gzip
+                    ? MediaType.parseMediaType("application/gzip")
+                    : MediaType.parseMediaType("application/x-ndjson"));
+            httpHeaders.setContentDispositionFormData("attachment", gzip ? "examples.ndjson.gz" : "examples.ndjson");
+
+            return ResponseEntity.ok()
+                    .headers(httpHeaders)
+                    .body(resource);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .code(RESP_ERROR_INVALID_INPUT_DATA.getCode())
+                            .message(messageHelper.getMessage(RESP_ERROR_INVALID_INPUT_DATA.getMessageKey(), e.getMessage()))
+                            .build()
+            );
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .code(RESP_ERROR_PROCESSING_JSON_SCHEMA.getCode())
+                            .message(messageHelper.getMessage(RESP_ERROR_PROCESSING_JSON_SCHEMA.getMessageKey(), e.getMessage()))
+                            .build()
+            );
+        }
+    }
+
     @Override
     public ResponseEntity generateJsonSchemaPost(@Valid @RequestBody GenerateJsonSchemaPostRequest request) {
         try {
@@ -379,20 +561,22 @@ public class AxenAPIController implements DefaultApi {
     @Override
     public ResponseEntity generateMarkdownPost(
             @Valid @RequestBody EventGraphDTO graph,
-            @RequestParam(value = "serviceIds", required = false) List<UUID> serviceIds) {
-
-        if (serviceIds == null) {
-            serviceIds = Collections.emptyList();
-        }
+            @RequestParam(value = "serviceIds", required = false) List<UUID> serviceIds,
+            @RequestParam(value = "tagQuery", required = false) String tagQuery) {
 
         EventGraphDTO graphToProcess;
-        if (serviceIds.isEmpty()) {
-            graphToProcess = graph;
-        } else {
-            graphToProcess = MarkdownSpecService.filterByServiceUUIDs(graph, new HashSet<>(serviceIds));
+        try {
+            graphToProcess = scopeGraph(graph, serviceIds, tagQuery);
+        } catch (InvalidTagQueryException e) {
+            return invalidTagQuery(e);
         }
 
-        GenerateMarkdownPost200Response response = markdownSpecService.generateFullMarkdown(graphToProcess);
+        GenerateMarkdownPost200Response response;
+        try {
+            response = bulkheads.of(Endpoint.GENERATE_MARKDOWN).call(() -> markdownSpecService.generateFullMarkdown(graphToProcess));
+        } catch (BulkheadFullException e) {
+            return busy(e);
+        }
 
         if ("OK".equalsIgnoreCase(response.getStatus())) {
             return ResponseEntity.ok(response);
@@ -410,20 +594,22 @@ public class AxenAPIController implements DefaultApi {
     @Override
     public ResponseEntity generateDocxPost(
             @Valid @RequestBody EventGraphDTO graph,
-            @RequestParam(value = "serviceIds", required = false) List<UUID> serviceIds) {
-
-        if (serviceIds == null) {
-            serviceIds = Collections.emptyList();
-        }
+            @RequestParam(value = "serviceIds", required = false) List<UUID> serviceIds,
+            @RequestParam(value = "tagQuery", required = false) String tagQuery) {
 
         EventGraphDTO graphToProcess;
-        if (serviceIds.isEmpty()) {
-            graphToProcess = graph;
-        } else {
-            graphToProcess = MarkdownSpecService.filterByServiceUUIDs(graph, new HashSet<>(serviceIds));
+        try {
+            graphToProcess = scopeGraph(graph, serviceIds, tagQuery);
+        } catch (InvalidTagQueryException e) {
+            return invalidTagQuery(e);
         }
 
-        GenerateDocxPost200Response response = docxGenerationService.generateDocxFromEventGraph(graphToProcess);
+        GenerateDocxPost200Response response;
+        try {
+            response = bulkheads.of(Endpoint.GENERATE_DOCX).call(() -> docxGenerationService.generateDocxFromEventGraph(graphToProcess));
+        } catch (BulkheadFullException e) {
+            return busy(e);
+        }
 
         if ("OK".equalsIgnoreCase(response.getStatus())) {
             return ResponseEntity.ok(response);
@@ -441,23 +627,21 @@ public class AxenAPIController implements DefaultApi {
     @Override
     public ResponseEntity generatePdfPost(
             @Valid @RequestBody EventGraphDTO graph,
-            @RequestParam(value = "serviceIds", required = false) List<UUID> serviceIds) {
+            @RequestParam(value = "serviceIds", required = false) List<UUID> serviceIds,
+            @RequestParam(value = "tagQuery", required = false) String tagQuery) {
 
         GeneratePdfPost200Response response = new GeneratePdfPost200Response();
 
-        if (serviceIds == null) {
-            serviceIds = Collections.emptyList();
-        }
-
         EventGraphDTO graphToProcess;
-        if (serviceIds.isEmpty()) {
-            graphToProcess = graph;
-        } else {
-            graphToProcess = MarkdownSpecService.filterByServiceUUIDs(graph, new HashSet<>(serviceIds));
+        try {
+            graphToProcess = scopeGraph(graph, serviceIds, tagQuery);
+        } catch (InvalidTagQueryException e) {
+            return invalidTagQuery(e);
         }
 
         try {
-            GeneratePdfPost200Response genResponse = pdfGenerationService.generatePdfFromEventGraph(graphToProcess);
+            GeneratePdfPost200Response genResponse = bulkheads.of(Endpoint.GENERATE_PDF)
+                    .call(() -> pdfGenerationService.generatePdfFromEventGraph(graphToProcess));
             if ("OK".equalsIgnoreCase(genResponse.getStatus())) {
                 return ResponseEntity.ok(genResponse);
             } else {
@@ -470,6 +654,8 @@ public class AxenAPIController implements DefaultApi {
                                 .build()
                 );
             }
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (Exception e) {
             response.setStatus("ERROR");
             response.setMessage(": " + e.getMessage());
@@ -486,7 +672,8 @@ public class AxenAPIController implements DefaultApi {
     @Override
     public ResponseEntity<Resource> generateAllServicePdfPost(@Valid @RequestBody EventGraphDTO eventGraphDTO) {
         try {
-            AllServicePdf allPdf = allServicePdfGenerationService.generateAllServicesPDF(eventGraphDTO);
+            AllServicePdf allPdf = bulkheads.of(Endpoint.GENERATE_ALL_SERVICE_PDF)
+                    .call(() -> allServicePdfGenerationService.generateAllServicesPDF(eventGraphDTO));
             byte[] pdfBytes = allPdf.getCombinedPdfBytes();
 
             String filename = "documentation_" + UUID.randomUUID() + ".pdf";
@@ -497,6 +684,8 @@ public class AxenAPIController implements DefaultApi {
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
                     .body(resource);
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (IllegalArgumentException e) {
             e.printStackTrace();
             return ResponseEntity.badRequest()
@@ -699,9 +888,11 @@ public class AxenAPIController implements DefaultApi {
     public ResponseEntity cloneDocumentationPost() {
         try {
             log.info("axenapi.info.clone.doc.start");
-            String cloneUrl = gitServiceCommand.cloneProject();
+            String cloneUrl = bulkheads.git().call(gitServiceCommand::cloneProject);
             log.info(messageHelper.getMessage("axenapi.info.clone.doc.success", cloneUrl));
             return ResponseEntity.ok().body(cloneUrl);
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(BaseResponse.builder()
@@ -715,9 +906,14 @@ public class AxenAPIController implements DefaultApi {
     public ResponseEntity addDocumentationPost(@RequestBody String docPath) {
         try {
             log.info("axenapi.info.add.doc.start");
-            gitServiceCommand.addFile(docPath);
+            bulkheads.git().call(() -> {
+                gitServiceCommand.addFile(docPath);
+                return null;
+            });
             log.info(messageHelper.getMessage("axenapi.info.add.doc.success", docPath));
             return new ResponseEntity<>(HttpStatus.OK);
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (Exception e) {
             log.error(messageHelper.getMessage(RESP_ERROR_ADD_DOC.getMessageKey(), e.getMessage()), e);
             return ResponseEntity.status(HttpStatus.OK).body(
@@ -733,9 +929,14 @@ public class AxenAPIController implements DefaultApi {
     public ResponseEntity commitDocumentationPost() {
         try {
             log.info("axenapi.info.commit.doc.start");
-            gitServiceCommand.createCommit();
+            bulkheads.git().call(() -> {
+                gitServiceCommand.createCommit();
+                return null;
+            });
             log.info("axenapi.info.commit.doc.success");
             return new ResponseEntity<>(HttpStatus.CREATED);
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (Exception e) {
             log.error(messageHelper.getMessage(RESP_ERROR_COMMIT_DOC, e.getMessage()), e);
             return ResponseEntity.status(HttpStatus.OK).body(
@@ -747,12 +948,49 @@ public class AxenAPIController implements DefaultApi {
         }
     }
 
+    @Override
+    public ResponseEntity syncDocumentationPost(@Valid SyncDocumentationPostRequest request) {
+        if (request == null || request.getFiles() == null || request.getFiles().isEmpty()) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .message(messageHelper.getMessage(RESP_ERROR_INVALID_REQ_PARAMS.getMessageKey()))
+                            .code(RESP_ERROR_INVALID_REQ_PARAMS.getCode())
+                            .build()
+            );
+        }
+        try {
+            log.info(messageHelper.getMessage("axenapi.info.sync.doc.start", request.getFiles().size()));
+            DocumentationSyncResultDTO result = bulkheads.git()
+                    .call(() -> gitServiceCommand.syncDocumentation(request.getFiles(), request.getTitle()));
+            log.info(messageHelper.getMessage("axenapi.info.sync.doc.success",
+                    result.getFiles().size(), result.getMergeRequestUrl()));
+            return ResponseEntity.ok(result);
+        } catch (BulkheadFullException e) {
+            return busy(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                    BaseResponse.builder()
+                            .code(RESP_ERROR_SYNC_DOC.getCode())
+                            .message(messageHelper.getMessage(RESP_ERROR_SYNC_DOC.getMessageKey(), e.getMessage()))
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error(messageHelper.getMessage(RESP_ERROR_SYNC_DOC.getMessageKey(), e.getMessage()), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                    BaseResponse.builder()
+                            .code(RESP_ERROR_SYNC_DOC.getCode())
+                            .message(messageHelper.getMessage(RESP_ERROR_SYNC_DOC.getMessageKey(), e.getMessage()))
+                            .build()
+            );
+        }
+    }
+
     @Override
     public ResponseEntity createMRDocumentationPost() {
         log.info(messageHelper.getMessage("axenapi.info.merge.request.doc.start"));
         try {
             String titleUUID = UUID.randomUUID().toString();
-            String url = gitServiceCommand.createMergeRequest(titleUUID);
+            String url = bulkheads.git().call(() -> gitServiceCommand.createMergeRequest(titleUUID));
             if (url == null || url.isEmpty()) {
                 log.error(messageHelper.getMessage(ERROR_DOC_CREATE_MR, "url = null"));
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
@@ -765,6 +1003,8 @@ public class AxenAPIController implements DefaultApi {
             log.info("axenapi.info.merge.request.doc.success", titleUUID, url);
             return ResponseEntity.ok()
                     .body(url);
+        } catch (BulkheadFullException e) {
+            return busy(e);
         } catch (Exception e) {
             log.error(messageHelper.getMessage(ERROR_DOC_CREATE_MR, e.getMessage()), e);
             return ResponseEntity.status(HttpStatus.OK).body(
@@ -779,4 +1019,42 @@ public class AxenAPIController implements DefaultApi {
     public ResponseEntity<Void> healthGet() {
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Часть графа для генерации документации: сервисы из serviceIds и/или элементы, подходящие под tagQuery.
+     */
+    private static EventGraphDTO scopeGraph(EventGraphDTO graph, List<UUID> serviceIds, String tagQuery) {
+        boolean byServices = serviceIds != null && !serviceIds.isEmpty();
+        boolean byTags = tagQuery != null && !tagQuery.isBlank();
+        if (!byServices && !byTags) {
+            return graph;
+        }
+        return MarkdownSpecService.filterByProjection(graph, GraphProjectionDTO.builder()
+                .serviceIds(byServices ? serviceIds : null)
+                .tagQuery(byTags ? tagQuery : null)
+                .build());
+    }
+
+    private ResponseEntity invalidTagQuery(InvalidTagQueryException e) {
+        return ResponseEntity.badRequest().body(BaseResponse.builder()
+                .status("ERROR")
+                .code(RESP_ERROR_INVALID_TAG_QUERY.getCode())
+                .message(messageHelper.getMessage(RESP_ERROR_INVALID_TAG_QUERY.getMessageKey(), e.getMessage()))
+                .build());
+    }
+
+    /**
+     * Ответ на запрос, не допущенный переполненным {@link pro.axenix_innovation.axenapi.web.concurrent.Bulkhead}.
+     */
+    private ResponseEntity busy(BulkheadFullException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BaseResponse.builder()
+                        .status("ERROR")
+                        .code(RESP_ERROR_BULKHEAD_FULL.getCode())
+                        .message(messageHelper.getMessage(RESP_ERROR_BULKHEAD_FULL.getMessageKey(), e.getBulkhead()))
+                        .build());
+    }
 }
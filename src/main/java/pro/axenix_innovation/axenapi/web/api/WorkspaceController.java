@@ -0,0 +1,259 @@
+package pro.axenix_innovation.axenapi.web.api;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import pro.axenix_innovation.axenapi.web.concurrent.Bulkheads;
+import pro.axenix_innovation.axenapi.web.concurrent.Bulkheads.Endpoint;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessage;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
+import pro.axenix_innovation.axenapi.web.entity.GraphWorkspace;
+import pro.axenix_innovation.axenapi.web.exception.BulkheadFullException;
+import pro.axenix_innovation.axenapi.web.exception.InvalidGraphPatchException;
+import pro.axenix_innovation.axenapi.web.exception.NotServiceNode;
+import pro.axenix_innovation.axenapi.web.exception.OpenAPISpecParseException;
+import pro.axenix_innovation.axenapi.web.exception.WorkspaceNotFoundException;
+import pro.axenix_innovation.axenapi.web.exception.WorkspaceVersionConflictException;
+import pro.axenix_innovation.axenapi.web.model.*;
+import pro.axenix_innovation.axenapi.web.service.GraphWorkspaceService;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.service.PathsService;
+import pro.axenix_innovation.axenapi.web.service.SpecService;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.*;
+
+/**
+ * Операции над графом, сохраненным на сервере ({@link GraphWorkspaceService}).
+ * Изменяющие операции возвращают {@link GraphDeltaDTO} вместо полного графа.
+ */
+@RestController
+@RequiredArgsConstructor
+public class WorkspaceController implements WorkspaceApi {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceController.class);
+
+    private final GraphWorkspaceService workspaceService;
+    private final SpecService specService;
+    private final MessageHelper messageHelper;
+    private final Bulkheads bulkheads;
+
+    @Override
+    public ResponseEntity createWorkspace(@Valid @RequestBody EventGraphDTO eventGraphDTO) {
+        GraphWorkspace workspace = workspaceService.create(eventGraphDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(workspace));
+    }
+
+    @Override
+    public ResponseEntity getWorkspaceGraph(@PathVariable("workspaceId") UUID workspaceId) {
+        try {
+            GraphWorkspace workspace = workspaceService.get(workspaceId);
+            return ResponseEntity.ok()
+                    .eTag(Long.toString(workspace.getVersion()))
+                    .body(workspaceService.graphOf(workspace));
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity deleteWorkspace(@PathVariable("workspaceId") UUID workspaceId) {
+        try {
+            workspaceService.delete(workspaceId);
+            return ResponseEntity.noContent().build();
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity patchWorkspace(@PathVariable("workspaceId") UUID workspaceId,
+                                         @Valid @RequestBody GraphPatchDTO graphPatchDTO) {
+        try {
+            return ResponseEntity.ok(workspaceService.patch(workspaceId, graphPatchDTO));
+        } catch (InvalidGraphPatchException e) {
+            return error(HttpStatus.BAD_REQUEST, RESP_ERROR_INVALID_GRAPH_PATCH, e.getMessage());
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        } catch (WorkspaceVersionConflictException e) {
+            return conflict(e);
+        } catch (OptimisticLockingFailureException e) {
+            return concurrentUpdate(workspaceId);
+        }
+    }
+
+    @Override
+    public ResponseEntity getWorkspaceDeltas(@PathVariable("workspaceId") UUID workspaceId,
+                                             @RequestParam(value = "sinceVersion") Long sinceVersion) {
+        try {
+            Optional<List<GraphDeltaDTO>> deltas = workspaceService.deltasSince(workspaceId, sinceVersion);
+            if (deltas.isEmpty()) {
+                return error(HttpStatus.GONE, RESP_ERROR_WORKSPACE_HISTORY_EXPIRED, workspaceId, String.valueOf(sinceVersion));
+            }
+            return ResponseEntity.ok(deltas.get());
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity addWorkspaceServices(@PathVariable("workspaceId") UUID workspaceId,
+                                               @RequestPart("files") List<MultipartFile> files,
+                                               @RequestParam(value = "baseVersion", required = false) Long baseVersion) {
+        if (files == null || files.isEmpty()) {
+            log.warn(messageHelper.getMessage(WARN_NO_FILES_PROVIDED));
+            return error(HttpStatus.BAD_REQUEST, RESP_ERROR_INVALID_REQ_PARAMS);
+        }
+        try {
+            GraphDeltaDTO delta = workspaceService.addServices(workspaceId, baseVersion, files);
+            if (delta.getErrors() != null && delta.getErrors().size() == files.size()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(delta);
+            }
+            return ResponseEntity.ok(delta);
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        } catch (WorkspaceVersionConflictException e) {
+            return conflict(e);
+        } catch (OptimisticLockingFailureException e) {
+            return concurrentUpdate(workspaceId);
+        }
+    }
+
+    @Override
+    public ResponseEntity updateWorkspaceService(@PathVariable("workspaceId") UUID workspaceId,
+                                                 @PathVariable("serviceNodeId") UUID serviceNodeId,
+                                                 @Valid @RequestBody ServiceSpecificationDTO serviceSpecificationDTO,
+                                                 @RequestParam(value = "baseVersion", required = false) Long baseVersion) {
+        try {
+            return ResponseEntity.ok(workspaceService.updateService(workspaceId, baseVersion, serviceNodeId,
+                    serviceSpecificationDTO.getSpecification()));
+        } catch (OpenAPISpecParseException e) {
+            return error(HttpStatus.BAD_REQUEST, RESP_UNEXPECTED_ERROR, e.getMessage());
+        } catch (NotServiceNode e) {
+            return error(HttpStatus.BAD_REQUEST, RESP_ERROR_NOT_SERVICE_NODE, e.getNodeId());
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        } catch (WorkspaceVersionConflictException e) {
+            return conflict(e);
+        } catch (OptimisticLockingFailureException e) {
+            return concurrentUpdate(workspaceId);
+        }
+    }
+
+    @Override
+    public ResponseEntity removeWorkspaceService(@PathVariable("workspaceId") UUID workspaceId,
+                                                 @PathVariable("serviceNodeId") UUID serviceNodeId,
+                                                 @RequestParam(value = "baseVersion", required = false) Long baseVersion) {
+        try {
+            return ResponseEntity.ok(workspaceService.removeService(workspaceId, baseVersion, serviceNodeId));
+        } catch (NotServiceNode e) {
+            return error(HttpStatus.BAD_REQUEST, RESP_ERROR_NOT_SERVICE_NODE, e.getNodeId());
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        } catch (WorkspaceVersionConflictException e) {
+            return conflict(e);
+        } catch (OptimisticLockingFailureException e) {
+            return concurrentUpdate(workspaceId);
+        }
+    }
+
+    @Override
+    public ResponseEntity generateWorkspaceSpec(@PathVariable("workspaceId") UUID workspaceId,
+                                                @RequestParam(value = "format", required = false, defaultValue = "json") String format) {
+        try {
+            EventGraphDTO graph = workspaceService.getGraph(workspaceId);
+            GenerateSpecPost200Response response = bulkheads.of(Endpoint.GENERATE_WORKSPACE_SPEC)
+                    .call(() -> specService.validateAndGenerateSpec(graph, format));
+            if (response == null) {
+                log.error(messageHelper.getMessage(ERROR_RESP_FROM_SPEC_NULL));
+                return error(HttpStatus.INTERNAL_SERVER_ERROR, RESP_ERROR_EMPTY_RESP_SPEC_GEN);
+            }
+            return ResponseEntity.status("OK".equalsIgnoreCase(response.getStatus())
+                    ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(response);
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        } catch (BulkheadFullException e) {
+            return busy(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity calculateWorkspacePaths(@PathVariable("workspaceId") UUID workspaceId,
+                                                  @Valid @RequestBody PathEndsDTO pathEndsDTO) {
+        EventGraphDTO graph;
+        try {
+            graph = workspaceService.getGraph(workspaceId);
+        } catch (WorkspaceNotFoundException e) {
+            return notFound(e);
+        }
+        if (pathEndsDTO.getFrom() == null || pathEndsDTO.getTo() == null) {
+            return error(HttpStatus.BAD_REQUEST, RESP_ERROR_INVALID_REQ_PARAMS);
+        }
+        try {
+            List<List<LinkDTO>> paths = PathsService.findAllPaths(graph, pathEndsDTO.getFrom(), pathEndsDTO.getTo());
+            Set<String> uniqueTags = PathsService.extractUniqueTags(paths);
+            AppCodeMessage codeMessage = paths.isEmpty()
+                    ? RESP_OK_PATH_NO_FOUND_FROM_TO.withArgs(pathEndsDTO.getFrom(), pathEndsDTO.getTo())
+                    : RESP_OK_PATH_FOUND_FROM_TO.withArgs(paths.size(), pathEndsDTO.getFrom(), pathEndsDTO.getTo());
+            return ResponseEntity.ok(CalculateAllPathsPost200Response.builder()
+                    .paths(paths)
+                    .uniqueTags(uniqueTags)
+                    .code(codeMessage.getEnumItem().getCode())
+                    .message(messageHelper.getMessage(codeMessage.getEnumItem().getMessageKey(), codeMessage.getArgs()))
+                    .build());
+        } catch (Exception e) {
+            log.error(messageHelper.getMessage(ERROR_CALCULATE_PATH), e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, RESP_ERROR_CALCULATE_PATH, e.getMessage());
+        }
+    }
+
+    private static GraphWorkspaceDTO toDto(GraphWorkspace workspace) {
+        return GraphWorkspaceDTO.builder()
+                .id(workspace.getId())
+                .name(workspace.getName())
+                .version(workspace.getVersion())
+                .createdAt(workspace.getCreatedAt() != null ? workspace.getCreatedAt().atOffset(ZoneOffset.UTC) : null)
+                .updatedAt(workspace.getUpdatedAt() != null ? workspace.getUpdatedAt().atOffset(ZoneOffset.UTC) : null)
+                .build();
+    }
+
+    private ResponseEntity<BaseResponse> notFound(WorkspaceNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, RESP_ERROR_WORKSPACE_NOT_FOUND, e.getWorkspaceId());
+    }
+
+    private ResponseEntity<BaseResponse> conflict(WorkspaceVersionConflictException e) {
+        return error(HttpStatus.CONFLICT, RESP_ERROR_WORKSPACE_VERSION_CONFLICT,
+                e.getWorkspaceId(), String.valueOf(e.getActualVersion()), String.valueOf(e.getExpectedVersion()));
+    }
+
+    private ResponseEntity<BaseResponse> concurrentUpdate(UUID workspaceId) {
+        return error(HttpStatus.CONFLICT, RESP_ERROR_WORKSPACE_CONCURRENT_UPDATE, workspaceId);
+    }
+
+    private ResponseEntity<BaseResponse> busy(BulkheadFullException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error(HttpStatus.SERVICE_UNAVAILABLE, RESP_ERROR_BULKHEAD_FULL, e.getBulkhead()).getBody());
+    }
+
+    private ResponseEntity<BaseResponse> error(HttpStatus status, AppCodeMessageKey key, Object... args) {
+        return ResponseEntity.status(status).body(BaseResponse.builder()
+                .status("ERROR")
+                .code(key.getCode())
+                .message(messageHelper.getMessage(key.getMessageKey(), args))
+                .build());
+    }
+}
@@ -0,0 +1,198 @@
+package pro.axenix_innovation.axenapi.web.concurrent;
+
+import pro.axenix_innovation.axenapi.web.exception.BulkheadFullException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение числа одновременно выполняемых вызовов одного вида работы.
+ * <p>
+ * Одновременно выполняется не больше {@code maxConcurrent} вызовов, еще не больше {@code maxQueue}
+ * ждут разрешения не дольше {@code queueTimeout}; остальные сразу получают {@link BulkheadFullException}.
+ * Вызовы выполняются либо в потоке запроса, либо (для CPU-bound работы) в собственном пуле
+ * платформенных потоков размера {@code maxConcurrent}: так рендеринг не занимает
+ * carrier-потоки виртуальных потоков, на которых обслуживаются остальные запросы.
+ */
+public final class Bulkhead implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private Bulkhead(String name, int maxConcurrent, int maxQueue, Duration queueTimeout, boolean ownExecutor) {
+        if (maxConcurrent < 1 || maxQueue < 0) {
+            throw new IllegalArgumentException("Invalid limits of bulkhead " + name
+                    + ": maxConcurrent=" + maxConcurrent + ", maxQueue=" + maxQueue);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+        // очередь пула не растет: задач в нем не больше, чем выдано разрешений;
+        // простаивающие потоки завершаются, чтобы пулы редких эндпоинтов не держали потоки
+        if (ownExecutor) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), Thread.ofPlatform().name("axenapi-" + name + "-", 0).daemon(true).factory());
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /** Вызовы выполняются в потоке запроса (блокирующий I/O). */
+    public static Bulkhead onCaller(String name, int maxConcurrent, int maxQueue, Duration queueTimeout) {
+        return new Bulkhead(name, maxConcurrent, maxQueue, queueTimeout, false);
+    }
+
+    /** Вызовы выполняются в собственном пуле платформенных потоков (CPU-bound работа). */
+    public static Bulkhead withExecutor(String name, int maxConcurrent, int maxQueue, Duration queueTimeout) {
+        return new Bulkhead(name, maxConcurrent, maxQueue, queueTimeout, true);
+    }
+
+    /**
+     * Выполняет вызов под ограничением; исключение вызова пробрасывается как есть.
+     *
+     * @throws BulkheadFullException если очередь заполнена или разрешение не получено за {@code queueTimeout}
+     */
+    public <T, E extends Exception> T call(Call<T, E> call) throws E {
+        acquire();
+        if (executor != null) {
+            return callOnExecutor(call);
+        }
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            // нулевой таймаут, в отличие от tryAcquire(), не обгоняет вызовы, уже ждущие в очереди
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                throw reject();
+            }
+            try {
+                if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw reject();
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        }
+    }
+
+    /**
+     * Разрешение освобождает задача по завершении: если ожидание прервано, а задача не реагирует на
+     * прерывание, она продолжает занимать место в bulkhead, пока не закончится. Задачу, которая еще
+     * не начала выполняться, отменяет и освобождает разрешение вызывающий поток.
+     */
+    private <T, E extends Exception> T callOnExecutor(Call<T, E> call) throws E {
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return call.call();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw Bulkhead.<E>rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            if (started.compareAndSet(false, true)) {
+                permits.release();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bulkhead " + name, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        // Call объявляет только E, другие проверяемые исключения здесь невозможны
+        return (E) cause;
+    }
+
+    private BulkheadFullException reject() {
+        rejected.incrementAndGet();
+        return new BulkheadFullException(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /** Число выполняющихся вызовов. */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /** Число вызовов, ожидающих разрешения. */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /** Число отклоненных вызовов с момента создания. */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package pro.axenix_innovation.axenapi.web.concurrent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Изоляция тяжелых эндпоинтов друг от друга и от остальных запросов.
+ * <ul>
+ *     <li>каждый эндпоинт рендеринга (PDF, DOCX, Markdown) и генерации (код, спецификации) получает
+ *     собственный {@link Bulkhead} с пулом потоков: например, поток запросов /generateAllServicePdf
+ *     заполняет только свою очередь и не отнимает разрешения у /generatePdf;</li>
+ *     <li>{@code git} - общий для всех сетевых операций JGit и GitLab API, выполняются в потоке запроса:
+ *     они работают с одной локальной копией репозитория и одним GitLab, поэтому раздельные лимиты
+ *     лишь перенесли бы ожидание на блокировку рабочей копии.</li>
+ * </ul>
+ * Лимиты эндпоинта задаются ключами {@code axenapi.bulkhead.<эндпоинт>.max-concurrent|max-queue},
+ * по умолчанию берутся лимиты его вида ({@code axenapi.bulkhead.render.*} или {@code axenapi.bulkhead.codegen.*}).
+ * Лимит {@code max-concurrent: 0} означает число доступных процессоров.
+ * Метрики: {@value #ACTIVE}, {@value #QUEUED}, {@value #REJECTED} с тегом {@code bulkhead}.
+ */
+@Component
+public class Bulkheads implements MeterBinder, DisposableBean {
+
+    public static final String ACTIVE = "axenapi.bulkhead.active";
+    public static final String QUEUED = "axenapi.bulkhead.queued";
+    public static final String REJECTED = "axenapi.bulkhead.rejected";
+
+    /** Эндпоинты с собственным bulkhead; имя совпадает с именем bulkhead и ключом настроек. */
+    public enum Endpoint {
+        GENERATE_PDF("generatePdf", true),
+        GENERATE_ALL_SERVICE_PDF("generateAllServicePdf", true),
+        GENERATE_DOCX("generateDocx", true),
+        GENERATE_MARKDOWN("generateMarkdown", true),
+        GENERATE_CODE("generateCode", false),
+        GENERATE_SPEC("generateSpec", false),
+        GENERATE_WORKSPACE_SPEC("generateWorkspaceSpec", false);
+
+        private final String key;
+        private final boolean render;
+
+        Endpoint(String key, boolean render) {
+            this.key = key;
+            this.render = render;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Map<Endpoint, Bulkhead> endpoints = new EnumMap<>(Endpoint.class);
+    private final Bulkhead git;
+
+    public Bulkheads(Environment environment,
+                     @Value("${axenapi.bulkhead.render.max-concurrent:0}") int renderConcurrent,
+                     @Value("${axenapi.bulkhead.render.max-queue:16}") int renderQueue,
+                     @Value("${axenapi.bulkhead.codegen.max-concurrent:0}") int codegenConcurrent,
+                     @Value("${axenapi.bulkhead.codegen.max-queue:16}") int codegenQueue,
+                     @Value("${axenapi.bulkhead.git.max-concurrent:4}") int gitConcurrent,
+                     @Value("${axenapi.bulkhead.git.max-queue:16}") int gitQueue,
+                     @Value("${axenapi.bulkhead.queue-timeout:30s}") Duration queueTimeout) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            String prefix = "axenapi.bulkhead." + endpoint.key;
+            int concurrent = environment.getProperty(prefix + ".max-concurrent", Integer.class,
+                    endpoint.render ? renderConcurrent : codegenConcurrent);
+            int queue = environment.getProperty(prefix + ".max-queue", Integer.class,
+                    endpoint.render ? renderQueue : codegenQueue);
+            endpoints.put(endpoint, Bulkhead.withExecutor(endpoint.key, limit(concurrent), queue, queueTimeout));
+        }
+        this.git = Bulkhead.onCaller("git", limit(gitConcurrent), gitQueue, queueTimeout);
+    }
+
+    private static int limit(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    public Bulkhead of(Endpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    public Bulkhead git() {
+        return git;
+    }
+
+    private List<Bulkhead> all() {
+        List<Bulkhead> all = new ArrayList<>(endpoints.values());
+        all.add(git);
+        return all;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Bulkhead bulkhead : all()) {
+            Gauge.builder(ACTIVE, bulkhead, Bulkhead::getActive)
+                    .description("Number of calls running inside a bulkhead")
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+            Gauge.builder(QUEUED, bulkhead, Bulkhead::getQueued)
+                    .description("Number of calls waiting for a bulkhead permit")
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+            FunctionCounter.builder(REJECTED, bulkhead, Bulkhead::getRejected)
+                    .description("Number of calls rejected by a full bulkhead")
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        all().forEach(Bulkhead::close);
+    }
+}
@@ -137,7 +137,21 @@ public enum AppCodeMessageKey {
     RESP_ERROR_CLONE_DOC_REP(70035, "axenapi.resp.error.clone.doc.rep"),
     RESP_ERROR_COMMIT_DOC(70036, "axenapi.resp.error.commit.doc"),
     RESP_ERROR_DOC_CREATE_MR(70038, "axenapi.resp.error.merge.request.doc"),
-    RESP_ERROR_ADD_DOC(70039, "axenapi.resp.error.add.doc");
+    RESP_ERROR_ADD_DOC(70039, "axenapi.resp.error.add.doc"),
+    RESP_ERROR_EVENT_SCHEMA_NOT_FOUND(70040, "axenapi.resp.error.event.schema.not.found"),
+    RESP_ERROR_VALID_LINK_ID_DUPLICATE(70041, "axenapi.resp.error.valid.link.id.duplicate"),
+    RESP_ERROR_VALID_LINK_TYPE(70042, "axenapi.resp.error.valid.link.type"),
+    RESP_OK_VALID_EVENT_GRAPH(70043, "axenapi.resp.ok.valid.event.graph"),
+    RESP_ERROR_VALID_EVENT_GRAPH(70044, "axenapi.resp.error.valid.event.graph"),
+    RESP_ERROR_WORKSPACE_NOT_FOUND(70045, "axenapi.resp.error.workspace.not.found"),
+    RESP_ERROR_WORKSPACE_VERSION_CONFLICT(70046, "axenapi.resp.error.workspace.version.conflict"),
+    RESP_ERROR_WORKSPACE_CONCURRENT_UPDATE(70047, "axenapi.resp.error.workspace.concurrent.update"),
+    RESP_ERROR_WORKSPACE_HISTORY_EXPIRED(70048, "axenapi.resp.error.workspace.history.expired"),
+    RESP_ERROR_INVALID_GRAPH_PATCH(70049, "axenapi.resp.error.invalid.graph.patch"),
+    RESP_ERROR_NOT_SERVICE_NODE(70050, "axenapi.resp.error.not.service.node"),
+    RESP_ERROR_BULKHEAD_FULL(70051, "axenapi.resp.error.bulkhead.full"),
+    RESP_ERROR_INVALID_TAG_QUERY(70052, "axenapi.resp.error.invalid.tag.query"),
+    RESP_ERROR_SYNC_DOC(70053, "axenapi.resp.error.sync.doc");
     private final int code;
     private final String messageKey;
 
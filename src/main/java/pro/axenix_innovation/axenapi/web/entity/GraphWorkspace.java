@@ -0,0 +1,49 @@
+package pro.axenix_innovation.axenapi.web.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Граф, сохраненный на сервере. Хранится как JSON EventGraphDTO; {@code version}
+ * увеличивается при каждом изменении и служит для оптимистичной блокировки.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "graph_workspace")
+@EntityListeners(AuditingEntityListener.class)
+public class GraphWorkspace {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "name")
+    private String name;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Lob
+    @Column(name = "graph", nullable = false)
+    private String graph;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+}
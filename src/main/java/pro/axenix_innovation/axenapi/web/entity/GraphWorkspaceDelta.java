@@ -0,0 +1,49 @@
+package pro.axenix_innovation.axenapi.web.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Изменение графа рабочего пространства: JSON Patch (RFC 6902), переводящий граф
+ * версии {@code fromVersion} в граф версии {@code version}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "graph_workspace_delta")
+@EntityListeners(AuditingEntityListener.class)
+public class GraphWorkspaceDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "workspace_id", nullable = false)
+    private UUID workspaceId;
+
+    @Column(name = "from_version", nullable = false)
+    private long fromVersion;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "operation", nullable = false, length = 32)
+    private String operation;
+
+    @Lob
+    @Column(name = "patch", nullable = false)
+    private String patch;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+}
@@ -0,0 +1,14 @@
+package pro.axenix_innovation.axenapi.web.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead) {
+        super("Bulkhead " + bulkhead + " is full");
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,12 @@
+package pro.axenix_innovation.axenapi.web.exception;
+
+public class InvalidGraphPatchException extends Exception {
+
+    public InvalidGraphPatchException(String message) {
+        super(message);
+    }
+
+    public InvalidGraphPatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
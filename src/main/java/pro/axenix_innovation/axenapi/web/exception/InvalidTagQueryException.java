@@ -0,0 +1,8 @@
+package pro.axenix_innovation.axenapi.web.exception;
+
+public class InvalidTagQueryException extends RuntimeException {
+
+    public InvalidTagQueryException(String message) {
+        super(message);
+    }
+}
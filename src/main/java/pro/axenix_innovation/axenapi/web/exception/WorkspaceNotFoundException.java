@@ -0,0 +1,16 @@
+package pro.axenix_innovation.axenapi.web.exception;
+
+import java.util.UUID;
+
+public class WorkspaceNotFoundException extends Exception {
+    private final UUID workspaceId;
+
+    public WorkspaceNotFoundException(UUID workspaceId) {
+        super("Workspace not found: " + workspaceId);
+        this.workspaceId = workspaceId;
+    }
+
+    public UUID getWorkspaceId() {
+        return workspaceId;
+    }
+}
@@ -0,0 +1,28 @@
+package pro.axenix_innovation.axenapi.web.exception;
+
+import java.util.UUID;
+
+public class WorkspaceVersionConflictException extends Exception {
+    private final UUID workspaceId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public WorkspaceVersionConflictException(UUID workspaceId, long expectedVersion, long actualVersion) {
+        super("Workspace " + workspaceId + " has version " + actualVersion + ", expected " + expectedVersion);
+        this.workspaceId = workspaceId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public UUID getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,67 @@
+package pro.axenix_innovation.axenapi.web.generate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pro.axenix_innovation.axenapi.web.model.ServiceInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Кэш сгенерированного кода сервисов. Ключ - хэш спецификации сервиса и параметров генерации
+ * (включая порт, который генератор вписывает в код), значение - файлы сервиса (путь внутри архива -> содержимое).
+ * Хранит не более {@code maxEntries} сервисов, вытесняя давно не использованные.
+ */
+@Component
+public class CodeArtifactCache {
+
+    private final Map<String, Map<String, byte[]>> artifacts;
+
+    public CodeArtifactCache(@Value("${code.artifact.cache.size:128}") int maxEntries) {
+        this.artifacts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, byte[]>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public static String key(String specification, ServiceInfo serviceInfo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, specification);
+            update(digest, serviceInfo.getName());
+            update(digest, serviceInfo.getBrokerAddress());
+            update(digest, serviceInfo.getPort());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public Map<String, byte[]> get(String key) {
+        return artifacts.get(key);
+    }
+
+    public void put(String key, Map<String, byte[]> files) {
+        artifacts.put(key, Collections.unmodifiableMap(new LinkedHashMap<>(files)));
+    }
+
+    public int size() {
+        return artifacts.size();
+    }
+
+    public void clear() {
+        artifacts.clear();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
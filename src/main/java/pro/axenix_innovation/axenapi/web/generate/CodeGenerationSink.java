@@ -0,0 +1,52 @@
+package pro.axenix_innovation.axenapi.web.generate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_ADDING_FILE_TO_ARCHIVE;
+
+/**
+ * Приемник результата генерации кода. Каждый файл записывается сразу по мере появления,
+ * без промежуточной общей директории.
+ */
+public interface CodeGenerationSink extends Closeable {
+
+    /**
+     * @param entryName относительный путь файла внутри результата, разделитель "/"
+     */
+    void addFile(String entryName, InputStream content) throws IOException;
+
+    /**
+     * Переносит все файлы директории в приемник за один обход.
+     * Файлы, которые не удалось прочитать, пропускаются.
+     *
+     * @param prefix префикс имен записей, например "ServiceName/"; может быть пустым
+     * @throws IOException если директорию не удалось обойти
+     */
+    default void addDirectory(Path root, String prefix) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.filter(Files::isRegularFile)
+                    .forEach(file -> {
+                        String entryName = prefix + root.relativize(file).toString().replace("\\", "/");
+                        try (InputStream in = Files.newInputStream(file)) {
+                            addFile(entryName, in);
+                        } catch (IOException e) {
+                            logSkippedFile(file, e);
+                        }
+                    });
+        }
+    }
+
+    private static void logSkippedFile(Path file, IOException e) {
+        Logger log = LoggerFactory.getLogger(CodeGenerationSink.class);
+        log.error(MessageHelper.getStaticMessage(ERROR_ADDING_FILE_TO_ARCHIVE, file), e);
+    }
+}
@@ -2,10 +2,49 @@ package pro.axenix_innovation.axenapi.web.generate;
 
 import pro.axenix_innovation.axenapi.web.model.ServiceInfo;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CodeGenerator {
 
     void generateCode(List<ServiceInfo> serviceInfoList, String directory);
 
+    /**
+     * Генерирует код сервисов и передает файлы в sink. Внешний генератор пишет только на диск,
+     * поэтому для каждого сервиса используется собственная временная директория,
+     * которая удаляется сразу после переноса файлов. Общая директория между запросами не используется.
+     */
+    default void generateCode(List<ServiceInfo> serviceInfoList, CodeGenerationSink sink) {
+        if (serviceInfoList == null) {
+            return;
+        }
+        for (ServiceInfo serviceInfo : serviceInfoList) {
+            Path workDir = null;
+            try {
+                workDir = Files.createTempDirectory("axenapi-code-");
+                generateCode(List.of(serviceInfo), workDir.toString() + File.separator);
+                sink.addDirectory(workDir, "");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                deleteRecursively(workDir);
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path path) {
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+        }
+    }
 }
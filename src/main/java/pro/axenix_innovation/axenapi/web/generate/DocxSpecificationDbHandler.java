@@ -8,6 +8,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import pro.axenix_innovation.axenapi.web.entity.DocxSpecification;
 import pro.axenix_innovation.axenapi.web.repository.DocxSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import javax.sql.rowset.serial.SerialBlob;
 import java.sql.Blob;
@@ -30,6 +31,10 @@ public class DocxSpecificationDbHandler {
     }
 
     public Map<String, String> handleDocx(Map<String, String> docxMap) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.LOB_PERSIST, () -> saveDocx(docxMap));
+    }
+
+    private Map<String, String> saveDocx(Map<String, String> docxMap) {
         Map<String, String> downloadLinks = new HashMap<>();
 
         docxMap.forEach((key, docxContent) -> {
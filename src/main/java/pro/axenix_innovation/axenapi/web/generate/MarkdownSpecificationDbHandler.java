@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pro.axenix_innovation.axenapi.web.entity.MarkdownSpecification;
 import pro.axenix_innovation.axenapi.web.repository.MarkdownSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import javax.sql.rowset.serial.SerialClob;
 import java.sql.Clob;
@@ -31,6 +32,10 @@ public class MarkdownSpecificationDbHandler implements SpecificationMarkdownHand
 
     @Override
     public Map<String, String> handleMarkdown(Map<String, String> readmeMap) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.LOB_PERSIST, () -> saveMarkdown(readmeMap));
+    }
+
+    private Map<String, String> saveMarkdown(Map<String, String> readmeMap) {
         Map<String, String> errors = new HashMap<>();
         Map<String, String> downloadLinks = new HashMap<>();
 
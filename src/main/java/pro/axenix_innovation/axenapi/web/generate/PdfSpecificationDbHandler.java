@@ -8,6 +8,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import pro.axenix_innovation.axenapi.web.entity.PdfSpecification;
 import pro.axenix_innovation.axenapi.web.repository.PdfSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import javax.sql.rowset.serial.SerialBlob;
 import java.sql.Blob;
@@ -29,6 +30,10 @@ public class PdfSpecificationDbHandler {
         this.repository = repository;
     }
     public Map<String, String> handlePdf(Map<String, String> pdfMap) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.LOB_PERSIST, () -> savePdf(pdfMap));
+    }
+
+    private Map<String, String> savePdf(Map<String, String> pdfMap) {
         Map<String, String> downloadLinks = new HashMap<>();
 
         pdfMap.forEach((key, pdfContent) -> {
@@ -1,7 +1,5 @@
 package pro.axenix_innovation.axenapi.web.generate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.OpenAPI;
 import org.slf4j.Logger;
@@ -12,6 +10,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pro.axenix_innovation.axenapi.web.entity.Specification;
 import pro.axenix_innovation.axenapi.web.repository.SpecificationRepository;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import javax.sql.rowset.serial.SerialClob;
 import java.sql.Clob;
@@ -27,15 +27,17 @@ public class SpecificationDbHandler implements SpecificationHandler {
     private static final Logger logger = LoggerFactory.getLogger(SpecificationDbHandler.class);
 
     private final SpecificationRepository specificationRepository;
-    private final ObjectMapper yamlMapper;
 
     public SpecificationDbHandler(SpecificationRepository specificationRepository) {
         this.specificationRepository = specificationRepository;
-        this.yamlMapper = new ObjectMapper(new YAMLFactory());
     }
 
     @Override
     public Map<String, String> handle(Map<String, OpenAPI> openAPIMap, String format) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.LOB_PERSIST, () -> saveSpecifications(openAPIMap, format));
+    }
+
+    private Map<String, String> saveSpecifications(Map<String, OpenAPI> openAPIMap, String format) {
         if (openAPIMap == null || openAPIMap.isEmpty()) {
             logger.warn("Received empty or null OpenAPI map");
             return Map.of("error", "No OpenAPI specifications provided");
@@ -76,7 +78,7 @@ public class SpecificationDbHandler implements SpecificationHandler {
         }
 
         return isYamlFormat(format)
-                ? yamlMapper.writeValueAsString(openAPI)
+                ? JacksonMappers.yaml().writeValueAsString(openAPI)
                 : Json.pretty(openAPI);
     }
 
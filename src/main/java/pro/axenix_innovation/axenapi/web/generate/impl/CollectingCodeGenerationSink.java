@@ -0,0 +1,30 @@
+package pro.axenix_innovation.axenapi.web.generate.impl;
+
+import pro.axenix_innovation.axenapi.web.generate.CodeGenerationSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Собирает результат генерации в память, чтобы его можно было положить в кэш
+ * и затем переписать в итоговый архив.
+ */
+public class CollectingCodeGenerationSink implements CodeGenerationSink {
+
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void addFile(String entryName, InputStream content) throws IOException {
+        files.put(entryName, content.readAllBytes());
+    }
+
+    public synchronized Map<String, byte[]> getFiles() {
+        return new LinkedHashMap<>(files);
+    }
+
+    @Override
+    public void close() {
+    }
+}
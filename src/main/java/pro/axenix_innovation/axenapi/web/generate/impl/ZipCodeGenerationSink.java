@@ -0,0 +1,38 @@
+package pro.axenix_innovation.axenapi.web.generate.impl;
+
+import pro.axenix_innovation.axenapi.web.generate.CodeGenerationSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Пишет результат генерации напрямую в ZIP-поток.
+ * Закрытие приемника завершает архив и закрывает переданный поток.
+ */
+public class ZipCodeGenerationSink implements CodeGenerationSink {
+
+    private final ZipOutputStream zipOutputStream;
+
+    public ZipCodeGenerationSink(OutputStream outputStream) {
+        this.zipOutputStream = new ZipOutputStream(outputStream);
+    }
+
+    @Override
+    public synchronized void addFile(String entryName, InputStream content) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+        try {
+            content.transferTo(zipOutputStream);
+        } finally {
+            zipOutputStream.closeEntry();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipOutputStream.finish();
+        zipOutputStream.close();
+    }
+}
@@ -0,0 +1,277 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
+import pro.axenix_innovation.axenapi.web.model.EventChangeDTO;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventDiffDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphDiffDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkChangeDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDiffDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeChangeDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDiffDTO;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static pro.axenix_innovation.axenapi.web.graph.GraphKeys.nodeKey;
+
+/**
+ * Сравнение двух версий графа для ревью изменений ландшафта.
+ * <p>
+ * Элементы сопоставляются по естественным ключам {@link EventGraphFacade#merge} (см. {@link GraphKeys}),
+ * а не по id: в разных версиях одного и того же графа id могут отличаться. Связи сопоставляются по ключам
+ * их узлов и имени события, belongsToGraph - по ключам узлов сервисов. Каждый граф индексируется
+ * хэш-таблицами за один проход, поэтому сравнение линейно по размеру графов.
+ */
+public final class EventGraphDiff {
+
+    private EventGraphDiff() {
+    }
+
+    public static GraphDiffDTO diff(EventGraphDTO base, EventGraphDTO target) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.DIFF, () -> compare(Index.of(base), Index.of(target)));
+    }
+
+    private static GraphDiffDTO compare(Index base, Index target) {
+        Map<NodeDTO.TypeEnum, NodeChanges> nodeChanges = new HashMap<>();
+        for (NodeDTO.TypeEnum type : NodeDTO.TypeEnum.values()) {
+            nodeChanges.put(type, new NodeChanges());
+        }
+        NodeChanges untyped = new NodeChanges();
+        for (Map.Entry<String, NodeDTO> entry : base.nodes.entrySet()) {
+            NodeDTO before = entry.getValue();
+            NodeDTO after = target.nodes.get(entry.getKey());
+            NodeChanges changes = before.getType() != null ? nodeChanges.get(before.getType()) : untyped;
+            if (after == null) {
+                changes.removed.add(before);
+                continue;
+            }
+            List<String> fields = changedFields(before, base, after, target);
+            if (!fields.isEmpty()) {
+                changes.changed.add(NodeChangeDTO.builder().before(before).after(after).changedFields(fields).build());
+            }
+        }
+        for (Map.Entry<String, NodeDTO> entry : target.nodes.entrySet()) {
+            NodeDTO after = entry.getValue();
+            if (!base.nodes.containsKey(entry.getKey())) {
+                (after.getType() != null ? nodeChanges.get(after.getType()) : untyped).added.add(after);
+            }
+        }
+
+        List<EventDTO> addedEvents = new ArrayList<>();
+        List<EventDTO> removedEvents = new ArrayList<>();
+        List<EventChangeDTO> changedEvents = new ArrayList<>();
+        for (Map.Entry<String, EventDTO> entry : base.events.entrySet()) {
+            EventDTO before = entry.getValue();
+            EventDTO after = target.events.get(entry.getKey());
+            if (after == null) {
+                removedEvents.add(before);
+                continue;
+            }
+            List<String> fields = changedFields(before, after);
+            if (!fields.isEmpty()) {
+                changedEvents.add(EventChangeDTO.builder().before(before).after(after).changedFields(fields).build());
+            }
+        }
+        for (Map.Entry<String, EventDTO> entry : target.events.entrySet()) {
+            if (!base.events.containsKey(entry.getKey())) {
+                addedEvents.add(entry.getValue());
+            }
+        }
+
+        List<LinkDTO> addedLinks = new ArrayList<>();
+        List<LinkDTO> removedLinks = new ArrayList<>();
+        List<LinkChangeDTO> changedLinks = new ArrayList<>();
+        for (Map.Entry<String, LinkDTO> entry : base.links.entrySet()) {
+            LinkDTO before = entry.getValue();
+            LinkDTO after = target.links.get(entry.getKey());
+            if (after == null) {
+                removedLinks.add(before);
+                continue;
+            }
+            List<String> fields = changedFields(before, after);
+            if (!fields.isEmpty()) {
+                changedLinks.add(LinkChangeDTO.builder().before(before).after(after).changedFields(fields).build());
+            }
+        }
+        for (Map.Entry<String, LinkDTO> entry : target.links.entrySet()) {
+            if (!base.links.containsKey(entry.getKey())) {
+                addedLinks.add(entry.getValue());
+            }
+        }
+
+        boolean identical = addedEvents.isEmpty() && removedEvents.isEmpty() && changedEvents.isEmpty()
+                && addedLinks.isEmpty() && removedLinks.isEmpty() && changedLinks.isEmpty()
+                && nodeChanges.values().stream().allMatch(NodeChanges::isEmpty) && untyped.isEmpty();
+        return GraphDiffDTO.builder()
+                .identical(identical)
+                .services(nodeChanges.get(NodeDTO.TypeEnum.SERVICE).toDto())
+                .topics(nodeChanges.get(NodeDTO.TypeEnum.TOPIC).toDto())
+                .httpNodes(nodeChanges.get(NodeDTO.TypeEnum.HTTP).toDto())
+                .untypedNodes(untyped.toDto())
+                .events(EventDiffDTO.builder().added(addedEvents).removed(removedEvents).changed(changedEvents).build())
+                .links(LinkDiffDTO.builder().added(addedLinks).removed(removedLinks).changed(changedLinks).build())
+                .build();
+    }
+
+    private static List<String> changedFields(NodeDTO before, Index baseIndex, NodeDTO after, Index targetIndex) {
+        List<String> fields = new ArrayList<>();
+        if (!sameElements(baseIndex.owners(before), targetIndex.owners(after))) {
+            fields.add("belongsToGraph");
+        }
+        if (!Objects.equals(before.getNodeDescription(), after.getNodeDescription())) {
+            fields.add("nodeDescription");
+        }
+        if (!Objects.equals(before.getNodeUrl(), after.getNodeUrl())) {
+            fields.add("nodeUrl");
+        }
+        if (!Objects.equals(before.getMethodType(), after.getMethodType())) {
+            fields.add("methodType");
+        }
+        if (!sameJson(before.getRequestBody(), after.getRequestBody())) {
+            fields.add("requestBody");
+        }
+        if (!sameJson(before.getResponseBody(), after.getResponseBody())) {
+            fields.add("responseBody");
+        }
+        if (!sameElements(before.getTags(), after.getTags())) {
+            fields.add("tags");
+        }
+        if (!sameElements(before.getDocumentationFileLinks(), after.getDocumentationFileLinks())) {
+            fields.add("documentationFileLinks");
+        }
+        return fields;
+    }
+
+    private static List<String> changedFields(EventDTO before, EventDTO after) {
+        List<String> fields = new ArrayList<>();
+        if (!sameJson(before.getSchema(), after.getSchema())) {
+            fields.add("schema");
+        }
+        if (!Objects.equals(before.getEventType(), after.getEventType())) {
+            fields.add("eventType");
+        }
+        if (!Objects.equals(before.getEventDescription(), after.getEventDescription())) {
+            fields.add("eventDescription");
+        }
+        if (!sameElements(before.getTags(), after.getTags())) {
+            fields.add("tags");
+        }
+        return fields;
+    }
+
+    private static List<String> changedFields(LinkDTO before, LinkDTO after) {
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(before.getGroup(), after.getGroup())) {
+            fields.add("group");
+        }
+        if (!sameElements(before.getTags(), after.getTags())) {
+            fields.add("tags");
+        }
+        return fields;
+    }
+
+    /** null и пустая коллекция считаются равными, порядок не важен. */
+    private static boolean sameElements(Collection<?> a, Collection<?> b) {
+        boolean aEmpty = a == null || a.isEmpty();
+        boolean bEmpty = b == null || b.isEmpty();
+        if (aEmpty || bEmpty) {
+            return aEmpty == bEmpty;
+        }
+        return a.size() == b.size() && new HashSet<>(a).equals(new HashSet<>(b));
+    }
+
+    /** Схемы сравниваются как JSON, чтобы форматирование и порядок полей не считались изменением. */
+    private static boolean sameJson(String a, String b) {
+        if (Objects.equals(a, b)) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        try {
+            return JacksonMappers.json().readTree(a).equals(JacksonMappers.json().readTree(b));
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    private static final class NodeChanges {
+        private final List<NodeDTO> added = new ArrayList<>();
+        private final List<NodeDTO> removed = new ArrayList<>();
+        private final List<NodeChangeDTO> changed = new ArrayList<>();
+
+        private boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+
+        private NodeDiffDTO toDto() {
+            return NodeDiffDTO.builder().added(added).removed(removed).changed(changed).build();
+        }
+    }
+
+    /**
+     * Индекс одной версии графа по естественным ключам.
+     */
+    private static final class Index {
+        private final Map<UUID, String> nodeKeys = new HashMap<>();
+        private final Map<String, NodeDTO> nodes = new LinkedHashMap<>();
+        private final Map<String, EventDTO> events = new LinkedHashMap<>();
+        private final Map<String, LinkDTO> links = new LinkedHashMap<>();
+
+        private static Index of(EventGraphDTO graph) {
+            Index index = new Index();
+            if (graph == null) {
+                return index;
+            }
+            if (graph.getNodes() != null) {
+                for (NodeDTO node : graph.getNodes()) {
+                    String key = nodeKey(node);
+                    index.nodes.putIfAbsent(key, node);
+                    index.nodeKeys.put(node.getId(), key);
+                }
+            }
+            Map<UUID, String> eventNames = new HashMap<>();
+            if (graph.getEvents() != null) {
+                for (EventDTO event : graph.getEvents()) {
+                    index.events.putIfAbsent(event.getName(), event);
+                    eventNames.put(event.getId(), event.getName());
+                }
+            }
+            if (graph.getLinks() != null) {
+                for (LinkDTO link : graph.getLinks()) {
+                    String key = index.keyOf(link.getFromId()) + "->" + index.keyOf(link.getToId()) + "#"
+                            + (link.getEventId() != null ? eventNames.getOrDefault(link.getEventId(),
+                            link.getEventId().toString()) : "");
+                    index.links.putIfAbsent(key, link);
+                }
+            }
+            return index;
+        }
+
+        private String keyOf(UUID nodeId) {
+            return nodeKeys.getOrDefault(nodeId, String.valueOf(nodeId));
+        }
+
+        private Set<String> owners(NodeDTO node) {
+            Set<String> owners = new HashSet<>();
+            if (node.getBelongsToGraph() != null) {
+                node.getBelongsToGraph().forEach(id -> owners.add(keyOf(id)));
+            }
+            return owners;
+        }
+    }
+}
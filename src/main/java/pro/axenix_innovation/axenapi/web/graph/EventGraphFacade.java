@@ -5,16 +5,20 @@ import jakarta.validation.constraints.NotNull;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import pro.axenix_innovation.axenapi.web.model.EventDTO;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.LinkDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.util.*;
 
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.FAIL_FIND_NODES_FOR_LINK;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.FAIL_FIND_NODES_FOR_LINK_G2;
+import static pro.axenix_innovation.axenapi.web.graph.GraphKeys.linkKey;
+import static pro.axenix_innovation.axenapi.web.graph.GraphKeys.nodeKey;
 
 
 public record EventGraphFacade(EventGraphDTO eventGraph) {
@@ -65,200 +69,195 @@ public record EventGraphFacade(EventGraphDTO eventGraph) {
         eventGraph.addLinksItem(incomingLink);
     }
 
+    /**
+     * Объединяет два графа. Узлы и события, которых еще нет в {@code g1}, копируются со всеми полями,
+     * включая responseBody узлов и eventType/eventDescription событий - так же, как их переносит
+     * {@link ServiceSubgraphUpdater}.
+     */
     public static EventGraphDTO merge(EventGraphDTO g1, EventGraphDTO g2) {
+        EventGraphDTO merged = PipelineMetrics.time(PipelineMetrics.Stage.MERGE, () -> mergeGraphs(g1, g2));
+        PipelineMetrics.recordGraph(PipelineMetrics.GraphKind.MERGED, merged);
+        return merged;
+    }
+
+    /**
+     * Объединяет {@code base} со всеми {@code graphs} за один проход. Результат такой же, как у
+     * последовательных {@link #merge} по списку, но узлы, события и связи ищутся по хэш-индексам,
+     * поэтому стоимость линейна по суммарному размеру графов, а не квадратична.
+     */
+    public static EventGraphDTO mergeAll(EventGraphDTO base, List<EventGraphDTO> graphs) {
+        EventGraphDTO merged = PipelineMetrics.time(PipelineMetrics.Stage.MERGE,
+                () -> mergeAllGraphs(base != null ? base : new EventGraphDTO(), graphs));
+        PipelineMetrics.recordGraph(PipelineMetrics.GraphKind.MERGED, merged);
+        return merged;
+    }
+
+    private static EventGraphDTO mergeGraphs(EventGraphDTO g1, EventGraphDTO g2) {
         if (g1 == null) {
-            log.info(MessageHelper.getStaticMessage("axenapi.info.graph.1.null.return.2"));
+            MessageHelper.log(log, Level.INFO, "axenapi.info.graph.1.null.return.2");
             return g2;
         }
         if (g2 == null) {
-            log.info(MessageHelper.getStaticMessage("axenapi.info.graph.2.null.return.1"));
+            MessageHelper.log(log, Level.INFO, "axenapi.info.graph.2.null.return.1");
             return g1;
         }
+        return mergeAllGraphs(g1, List.of(g2));
+    }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.merging.two.graph"));
+    private static EventGraphDTO mergeAllGraphs(EventGraphDTO base, List<EventGraphDTO> graphs) {
+        MessageHelper.log(log, Level.INFO, "axenapi.info.merging.two.graph");
         EventGraphDTO merged = new EventGraphDTO();
         EventGraphFacade mergedFacade = new EventGraphFacade(merged);
-        mergedFacade.addAllTagsInGraph(g1.getTags());
-        mergedFacade.addAllTagsInGraph(g2.getTags());
-        if (!Strings.isBlank(g2.getName())) {
-            if(!Strings.isBlank(g1.getName())) {
-                if(!g1.getName().contains(g2.getName())) {
-                    merged.setName(g1.getName() + "&" + g2.getName());
-                } else {
-                    merged.setName(g1.getName());
-                }
+        mergedFacade.addAllTagsInGraph(base.getTags());
+        merged.setName(base.getName());
+
+        List<NodeDTO> nodes = new ArrayList<>();
+        List<EventDTO> events = new ArrayList<>();
+        List<LinkDTO> links = new ArrayList<>();
+        Map<String, NodeDTO> nodesByKey = new HashMap<>();
+        Map<String, EventDTO> eventsByName = new HashMap<>();
+        Set<String> linkKeys = new HashSet<>();
+
+        MessageHelper.log(log, Level.INFO, "axenapi.info.add.node.from.graph");
+        for (NodeDTO node : listOrEmpty(base.getNodes())) {
+            log.debug("Adding node: {}", node.getName());
+            NodeDTO copy = copyNode(node);
+            nodes.add(copy);
+            nodesByKey.putIfAbsent(nodeKey(node), copy);
+        }
+        MessageHelper.log(log, Level.INFO, "axenapi.info.merge.events.both.graph");
+        for (EventDTO event : listOrEmpty(base.getEvents())) {
+            mergeEvent(event, events, eventsByName);
+        }
+        MessageHelper.log(log, Level.INFO, "axenapi.info.merge.links.both.graph");
+        for (LinkDTO l : listOrEmpty(base.getLinks())) {
+            if (linkKeys.add(linkKey(l.getFromId(), l.getToId(), l.getEventId()))) {
+                links.add(new LinkDTO(l.getId(), l.getFromId(), l.getToId(), l.getGroup(), l.getEventId(), l.getTags()));
             } else {
-                merged.setName(g2.getName());
+                log.debug("Duplicate link found in g1, skipping: fromId = {}, toId = {}, eventId = {}", l.getFromId(), l.getToId(), l.getEventId());
             }
-        } else {
-            merged.setName(g1.getName());
         }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.add.node.from.graph"));
-        g1.getNodes().forEach(node -> {
-            log.debug("Adding node: {}", node.getName());
-            log.debug("Node tags: {}", node.getTags());
-            merged.addNodesItem(NodeDTO.builder()
-                    .id(node.getId())
-                    .name(node.getName())
-                    .brokerType(node.getBrokerType())
-                    .type(node.getType())
-                    .belongsToGraph(new ArrayList<>(node.getBelongsToGraph()))
-                    .tags(new HashSet<>(node.getTags()))
-                    .methodType(node.getMethodType())
-                    .requestBody(node.getRequestBody())
-                    .nodeUrl(node.getNodeUrl())
-                    .nodeDescription(node.getNodeDescription())
-                    .documentationFileLinks(node.getDocumentationFileLinks() != null
-                            ? new HashSet<>(node.getDocumentationFileLinks())
-                            : null)
-                    .build());
-        });
-
-        log.info(MessageHelper.getStaticMessage("axenapi.info.process.node.from.graph.2"));
-        g2.getNodes().forEach(n -> {
-            NodeDTO existingNode = merged.getNodes().stream()
-                    .filter(node ->
-                            node.getType() == n.getType() &&
-                                    node.getName().equals(n.getName()) &&
-                                    node.getBrokerType() == n.getBrokerType())
-                    .findFirst().orElse(null);
-
-            if (existingNode != null) {
-                log.debug("Found existing node: {}", existingNode.getName());
-                existingNode.getBelongsToGraph().addAll(n.getBelongsToGraph());
-                existingNode.getTags().addAll(n.getTags());
-            } else {
-                log.debug("No existing node found, adding new node: {}", n.getName());
-                merged.addNodesItem(NodeDTO.builder()
-                        .id(n.getId())
-                        .name(n.getName())
-                        .brokerType(n.getBrokerType())
-                        .type(n.getType())
-                        .belongsToGraph(new ArrayList<>(n.getBelongsToGraph()))
-                        .tags(new HashSet<>(n.getTags()))
-                        .methodType(n.getMethodType())
-                        .requestBody(n.getRequestBody())
-                        .nodeUrl(n.getNodeUrl())
-                        .nodeDescription(n.getNodeDescription())
-                        .documentationFileLinks(n.getDocumentationFileLinks() != null
-                                ? new HashSet<>(n.getDocumentationFileLinks())
-                                : null)
-                        .build());
+        for (EventGraphDTO g2 : graphs) {
+            if (g2 == null) {
+                continue;
             }
-        });
-
-
-        log.info(MessageHelper.getStaticMessage("axenapi.info.merge.events.both.graph"));
-        g1.getEvents().forEach(( event) -> {
-            log.debug("Adding event with ID {}: {}", event.getId(), event.getName());
-            log.debug("Event tags: {}", event.getTags());
-            EventDTO eventDTOMerged = merged.getEvents().stream().filter(e -> e.getName().equals(event.getName())).findFirst().orElse(null);
-            if (eventDTOMerged != null) {
-                log.debug("Event with name {} already exists in merged graph.", event.getName());
-                eventDTOMerged.getTags().addAll(event.getTags());
-                log.debug("Merged event tags: {}", eventDTOMerged.getTags());
-            } else {
-                merged.addEventsItem(EventDTO.builder()
-                        .id(event.getId())
-                        .name(event.getName())
-                        .schema(event.getSchema())
-                        .tags(new HashSet<>(event.getTags()))
-                        .build());
-            }
-        });
-        g2.getEvents().forEach((event) -> {
-            log.debug("Adding event with ID {}: {}", event.getId(), event.getName());
-            log.debug("Event tags: {}", event.getTags());
-            EventDTO eventDTOMerged = merged.getEvents().stream().filter(e -> e.getName().equals(event.getName())).findFirst().orElse(null);
-            if (eventDTOMerged != null) {
-                log.debug("Event with name {} already exists in merged graph.", event.getName());
-                eventDTOMerged.getTags().addAll(event.getTags());
-                log.debug("Merged event tags: {}", eventDTOMerged.getTags());
-            } else {
-                merged.addEventsItem(EventDTO.builder()
-                        .id(event.getId())
-                        .name(event.getName())
-                        .schema(event.getSchema())
-                        .tags(new HashSet<>(event.getTags()))
-                        .build());
-            }
-        });
-
-        // Merge links from both graphs
-        log.info(MessageHelper.getStaticMessage("axenapi.info.merge.links.both.graph"));
-        // Add all links from g1 into merged
-        g1.getLinks().forEach(l -> {
-            log.debug("Processing link from g1: fromId = {}, toId = {}", l.getFromId(), l.getToId());
-
-            boolean linkExists = merged.getLinks().stream().anyMatch(existingLink ->
-                    existingLink.getFromId().equals(l.getFromId()) &&
-                            existingLink.getToId().equals(l.getToId()) &&
-                            Objects.equals(existingLink.getEventId(), l.getEventId())
-            );
-
-            if (!linkExists) {
-                merged.addLinksItem(new LinkDTO(
-                        l.getId(),
-                        l.getFromId(), l.getToId(), l.getGroup(), l.getEventId(), l.getTags()
-                ));
-            } else {
-                log.debug("Duplicate link found in g1, skipping: fromId = {}, toId = {}, eventId = {}", l.getFromId(), l.getToId(), l.getEventId());
+            mergedFacade.addAllTagsInGraph(g2.getTags());
+            merged.setName(mergedName(merged.getName(), g2.getName()));
+
+            MessageHelper.log(log, Level.INFO, "axenapi.info.process.node.from.graph.2");
+            Map<UUID, NodeDTO> g2Nodes = new HashMap<>();
+            for (NodeDTO n : listOrEmpty(g2.getNodes())) {
+                g2Nodes.putIfAbsent(n.getId(), n);
+                NodeDTO existingNode = nodesByKey.get(nodeKey(n));
+                if (existingNode != null) {
+                    log.debug("Found existing node: {}", existingNode.getName());
+                    existingNode.getBelongsToGraph().addAll(listOrEmpty(n.getBelongsToGraph()));
+                    existingNode.getTags().addAll(setOrEmpty(n.getTags()));
+                } else {
+                    log.debug("No existing node found, adding new node: {}", n.getName());
+                    NodeDTO copy = copyNode(n);
+                    nodes.add(copy);
+                    nodesByKey.put(nodeKey(n), copy);
+                }
             }
-        });
-
-
-        // Process links from g2 and avoid duplicates
-        g2.getLinks().forEach(l -> {
-            log.debug("Processing link from g2: fromId = {}, toId = {}", l.getFromId(), l.getToId());
-            // Get nodes from g2
-            NodeDTO fromG2 = g2.getNodes().stream().filter(node -> node.getId().equals(l.getFromId())).findFirst().orElse(null);
-            NodeDTO toG2 = g2.getNodes().stream().filter(node -> node.getId().equals(l.getToId())).findFirst().orElse(null);
-            
-            // Handle case where eventId might be null (for undefined_event)
-            EventDTO eventG2 = null;
-            if (l.getEventId() != null) {
-                eventG2 = g2.getEvents().stream().filter(e -> e.getId().equals(l.getEventId())).findFirst().orElse(null);
+
+            Map<UUID, EventDTO> g2Events = new HashMap<>();
+            for (EventDTO event : listOrEmpty(g2.getEvents())) {
+                g2Events.putIfAbsent(event.getId(), event);
+                mergeEvent(event, events, eventsByName);
             }
 
-            if (fromG2 != null && toG2 != null) {
-                // Find merged nodes based on name, type, and brokerType
-                NodeDTO mergedFrom = mergedFacade.getNode(fromG2.getName(), fromG2.getType(), fromG2.getBrokerType());
-                NodeDTO mergedTo = mergedFacade.getNode(toG2.getName(), toG2.getType(), toG2.getBrokerType());
-                
-                // Handle event merging - can be null for undefined_event
-                EventDTO eventMerged = null;
-                if (eventG2 != null) {
-                    eventMerged = mergedFacade.getEvent(eventG2.getName());
+            for (LinkDTO l : listOrEmpty(g2.getLinks())) {
+                NodeDTO fromG2 = g2Nodes.get(l.getFromId());
+                NodeDTO toG2 = g2Nodes.get(l.getToId());
+                if (fromG2 == null || toG2 == null) {
+                    MessageHelper.log(log, Level.ERROR, FAIL_FIND_NODES_FOR_LINK_G2, l.getFromId(), l.getToId(), l.getEventId());
+                    continue;
+                }
+                // Узлы в объединенном графе ищутся по name, type и brokerType
+                NodeDTO mergedFrom = nodesByKey.get(nodeKey(fromG2));
+                NodeDTO mergedTo = nodesByKey.get(nodeKey(toG2));
+                if (mergedFrom == null || mergedTo == null) {
+                    MessageHelper.log(log, Level.ERROR, FAIL_FIND_NODES_FOR_LINK, l.getFromId(), l.getToId(), l.getEventId());
+                    continue;
                 }
-                final UUID eventMergedId = eventMerged != null ? eventMerged.getId() : null;
-
-                if (mergedFrom != null && mergedTo != null) {
-                    // Check if the link already exists
-                    boolean linkExists = merged.getLinks().stream().anyMatch(existingLink ->
-                            existingLink.getFromId().equals(mergedFrom.getId()) &&
-                                    existingLink.getToId().equals(mergedTo.getId()) &&
-                                    Objects.equals(existingLink.getEventId(), eventMergedId)
-                    );
-
-                    if (!linkExists) {
-                        // Add new link if not exists
-                        merged.addLinksItem(new LinkDTO(UUID.randomUUID(), mergedFrom.getId(), mergedTo.getId(), l.getGroup(), eventMergedId, l.getTags()));
-                    } else {
-                        log.debug("Link already exists: fromId = {}, toId = {}, eventId = {}", mergedFrom.getId(), mergedTo.getId(), eventMergedId);
-                    }
+                // eventId может быть null для undefined_event
+                EventDTO eventG2 = l.getEventId() != null ? g2Events.get(l.getEventId()) : null;
+                EventDTO eventMerged = eventG2 != null ? eventsByName.get(eventG2.getName()) : null;
+                UUID eventMergedId = eventMerged != null ? eventMerged.getId() : null;
+                if (linkKeys.add(linkKey(mergedFrom.getId(), mergedTo.getId(), eventMergedId))) {
+                    links.add(new LinkDTO(UUID.randomUUID(), mergedFrom.getId(), mergedTo.getId(), l.getGroup(), eventMergedId, l.getTags()));
                 } else {
-                    log.error(MessageHelper.getStaticMessage(FAIL_FIND_NODES_FOR_LINK, l.getFromId(), l.getToId(), l.getEventId()));
+                    log.debug("Link already exists: fromId = {}, toId = {}, eventId = {}", mergedFrom.getId(), mergedTo.getId(), eventMergedId);
                 }
-            } else {
-                log.error(MessageHelper.getStaticMessage(FAIL_FIND_NODES_FOR_LINK_G2, l.getFromId(), l.getToId(), l.getEventId()));
             }
-        });
+        }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.merge.graph.success"));
+        merged.setNodes(nodes);
+        merged.setEvents(events);
+        merged.setLinks(links);
+        MessageHelper.log(log, Level.INFO, "axenapi.info.merge.graph.success");
         return merged;
     }
 
+    private static String mergedName(String name, String added) {
+        if (Strings.isBlank(added)) {
+            return name;
+        }
+        if (Strings.isBlank(name)) {
+            return added;
+        }
+        return name.contains(added) ? name : name + "&" + added;
+    }
+
+    private static void mergeEvent(EventDTO event, List<EventDTO> events, Map<String, EventDTO> eventsByName) {
+        log.debug("Adding event with ID {}: {}", event.getId(), event.getName());
+        EventDTO eventDTOMerged = eventsByName.get(event.getName());
+        if (eventDTOMerged != null) {
+            log.debug("Event with name {} already exists in merged graph.", event.getName());
+            eventDTOMerged.getTags().addAll(setOrEmpty(event.getTags()));
+        } else {
+            EventDTO copy = EventDTO.builder()
+                    .id(event.getId())
+                    .name(event.getName())
+                    .schema(event.getSchema())
+                    .eventType(event.getEventType())
+                    .eventDescription(event.getEventDescription())
+                    .tags(new HashSet<>(setOrEmpty(event.getTags())))
+                    .build();
+            events.add(copy);
+            eventsByName.put(event.getName(), copy);
+        }
+    }
+
+    private static NodeDTO copyNode(NodeDTO node) {
+        return NodeDTO.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .brokerType(node.getBrokerType())
+                .type(node.getType())
+                .belongsToGraph(new ArrayList<>(listOrEmpty(node.getBelongsToGraph())))
+                .tags(new HashSet<>(setOrEmpty(node.getTags())))
+                .methodType(node.getMethodType())
+                .requestBody(node.getRequestBody())
+                .responseBody(node.getResponseBody())
+                .nodeUrl(node.getNodeUrl())
+                .nodeDescription(node.getNodeDescription())
+                .documentationFileLinks(node.getDocumentationFileLinks() != null
+                        ? new HashSet<>(node.getDocumentationFileLinks())
+                        : null)
+                .build();
+    }
+
+    private static <T> List<T> listOrEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static <T> Set<T> setOrEmpty(Set<T> set) {
+        return set != null ? set : Set.of();
+    }
+
     public NodeDTO getNode(@NotNull String name, NodeDTO.TypeEnum type, NodeDTO.BrokerTypeEnum brokerType) {
         return eventGraph.getNodes().stream()
                 .filter(node -> node.getName().equals(name) &&
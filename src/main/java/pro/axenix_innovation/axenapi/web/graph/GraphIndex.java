@@ -0,0 +1,184 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Индексы графа для выборок: узлы по типу, брокеру и сервису-владельцу, связи по узлу и событию,
+ * инвертированный индекс тегов ({@link TagIndex}, строится при первом обращении).
+ * Строится за один проход; позиции элементов сохраняются, чтобы срез графа
+ * возвращался в исходном порядке без повторного обхода всего графа.
+ */
+public final class GraphIndex {
+
+    private final EventGraphDTO graph;
+    private final Map<UUID, NodeDTO> nodes = new HashMap<>();
+    private final Map<UUID, EventDTO> events = new HashMap<>();
+    private final Map<Object, Integer> positions = new IdentityHashMap<>();
+    private final Map<NodeDTO.TypeEnum, Set<UUID>> nodesByType = new EnumMap<>(NodeDTO.TypeEnum.class);
+    private final Map<NodeDTO.BrokerTypeEnum, Set<UUID>> nodesByBroker = new EnumMap<>(NodeDTO.BrokerTypeEnum.class);
+    private final Map<UUID, Set<UUID>> nodesByService = new HashMap<>();
+    private final Map<UUID, List<LinkDTO>> linksByNode = new HashMap<>();
+    private final Map<UUID, List<LinkDTO>> linksByEvent = new HashMap<>();
+    private TagIndex tagIndex;
+
+    private GraphIndex(EventGraphDTO graph) {
+        this.graph = graph;
+    }
+
+    public static GraphIndex of(EventGraphDTO graph) {
+        GraphIndex index = new GraphIndex(graph);
+        if (graph.getNodes() != null) {
+            List<NodeDTO> graphNodes = graph.getNodes();
+            for (int i = 0; i < graphNodes.size(); i++) {
+                index.addNode(graphNodes.get(i), i);
+            }
+        }
+        if (graph.getEvents() != null) {
+            List<EventDTO> graphEvents = graph.getEvents();
+            for (int i = 0; i < graphEvents.size(); i++) {
+                index.addEvent(graphEvents.get(i), i);
+            }
+        }
+        if (graph.getLinks() != null) {
+            List<LinkDTO> graphLinks = graph.getLinks();
+            for (int i = 0; i < graphLinks.size(); i++) {
+                index.addLink(graphLinks.get(i), i);
+            }
+        }
+        return index;
+    }
+
+    private void addNode(NodeDTO node, int position) {
+        if (node.getId() == null || nodes.putIfAbsent(node.getId(), node) != null) {
+            return;
+        }
+        positions.put(node, position);
+        UUID id = node.getId();
+        if (node.getType() != null) {
+            nodesByType.computeIfAbsent(node.getType(), key -> new HashSet<>()).add(id);
+        }
+        if (node.getBrokerType() != null) {
+            nodesByBroker.computeIfAbsent(node.getBrokerType(), key -> new HashSet<>()).add(id);
+        }
+        nodesByService.computeIfAbsent(id, key -> new HashSet<>()).add(id);
+        if (node.getBelongsToGraph() != null) {
+            node.getBelongsToGraph().forEach(service ->
+                    nodesByService.computeIfAbsent(service, key -> new HashSet<>()).add(id));
+        }
+    }
+
+    private void addEvent(EventDTO event, int position) {
+        if (event.getId() == null || events.putIfAbsent(event.getId(), event) != null) {
+            return;
+        }
+        positions.put(event, position);
+    }
+
+    private void addLink(LinkDTO link, int position) {
+        positions.put(link, position);
+        linksByNode.computeIfAbsent(link.getFromId(), key -> new ArrayList<>()).add(link);
+        if (!Objects.equals(link.getToId(), link.getFromId())) {
+            linksByNode.computeIfAbsent(link.getToId(), key -> new ArrayList<>()).add(link);
+        }
+        if (link.getEventId() != null) {
+            linksByEvent.computeIfAbsent(link.getEventId(), key -> new ArrayList<>()).add(link);
+        }
+    }
+
+    public EventGraphDTO graph() {
+        return graph;
+    }
+
+    public NodeDTO node(UUID id) {
+        return nodes.get(id);
+    }
+
+    public EventDTO event(UUID id) {
+        return events.get(id);
+    }
+
+    public Set<UUID> nodesOfType(NodeDTO.TypeEnum type) {
+        return nodesByType.getOrDefault(type, Collections.emptySet());
+    }
+
+    public Set<UUID> nodesOfBroker(NodeDTO.BrokerTypeEnum brokerType) {
+        return nodesByBroker.getOrDefault(brokerType, Collections.emptySet());
+    }
+
+    /** Сам узел сервиса и узлы, у которых он указан в belongsToGraph. */
+    public Set<UUID> nodesOfService(UUID serviceId) {
+        return nodesByService.getOrDefault(serviceId, Collections.emptySet());
+    }
+
+    /** Входящие и исходящие связи узла. */
+    public List<LinkDTO> linksOf(UUID nodeId) {
+        return linksByNode.getOrDefault(nodeId, Collections.emptyList());
+    }
+
+    public List<LinkDTO> linksWithEvent(UUID eventId) {
+        return linksByEvent.getOrDefault(eventId, Collections.emptyList());
+    }
+
+    public TagIndex tagIndex() {
+        if (tagIndex == null) {
+            tagIndex = TagIndex.of(graph);
+        }
+        return tagIndex;
+    }
+
+    /**
+     * Подграф из заданных узлов: связи, оба конца которых выбраны, и события этих связей.
+     * Элементы идут в порядке исходного графа; ошибки исходного графа не переносятся.
+     */
+    public EventGraphDTO subgraph(Collection<UUID> nodeIds) {
+        Set<UUID> selected = nodeIds instanceof Set<UUID> set ? set : new HashSet<>(nodeIds);
+        List<NodeDTO> resultNodes = new ArrayList<>(selected.size());
+        Set<LinkDTO> resultLinks = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<EventDTO> resultEvents = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (UUID id : selected) {
+            NodeDTO node = nodes.get(id);
+            if (node == null) {
+                continue;
+            }
+            resultNodes.add(node);
+            for (LinkDTO link : linksOf(id)) {
+                if (selected.contains(link.getFromId()) && selected.contains(link.getToId()) && resultLinks.add(link)) {
+                    EventDTO event = link.getEventId() != null ? events.get(link.getEventId()) : null;
+                    if (event != null) {
+                        resultEvents.add(event);
+                    }
+                }
+            }
+        }
+        return EventGraphDTO.builder()
+                .name(graph.getName())
+                .tags(graph.getTags())
+                .nodes(inGraphOrder(resultNodes))
+                .links(inGraphOrder(resultLinks))
+                .events(inGraphOrder(resultEvents))
+                .build();
+    }
+
+    private <T> List<T> inGraphOrder(Collection<T> elements) {
+        List<T> ordered = new ArrayList<>(elements);
+        ordered.sort(Comparator.comparingInt(positions::get));
+        return ordered;
+    }
+}
@@ -0,0 +1,25 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Естественные ключи элементов графа, по которым {@link EventGraphFacade#merge} считает элементы одинаковыми:
+ * узлы - (type, brokerType, name), связи - (fromId, toId, eventId). События сравниваются по имени.
+ */
+final class GraphKeys {
+
+    private GraphKeys() {
+    }
+
+    /** Узел без типа получает отдельный ключ и не совпадает с узлом любого типа с тем же именем. */
+    static String nodeKey(NodeDTO node) {
+        return (node.getType() != null ? node.getType().name() : "-") + "|" + node.getBrokerType() + "|" + node.getName();
+    }
+
+    static String linkKey(UUID fromId, UUID toId, UUID eventId) {
+        return fromId + "|" + toId + "|" + Objects.toString(eventId);
+    }
+}
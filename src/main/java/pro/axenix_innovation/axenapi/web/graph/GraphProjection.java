@@ -0,0 +1,123 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphProjectionDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Срез графа по критериям {@link GraphProjectionDTO}.
+ * <p>
+ * Каждый критерий дает множество узлов из {@link GraphIndex} (значения внутри критерия объединяются),
+ * множества пересекаются начиная с наименьшего. Затем выборка расширяется на {@code hops} связей
+ * в обе стороны, и возвращаются выбранные узлы, связи между ними и события этих связей.
+ * Полный обход графа выполняется только при построении индекса.
+ */
+public final class GraphProjection {
+
+    private GraphProjection() {
+    }
+
+    public static EventGraphDTO project(EventGraphDTO graph, GraphProjectionDTO projection) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.PROJECTION,
+                () -> project(GraphIndex.of(graph), projection));
+    }
+
+    public static EventGraphDTO project(GraphIndex index, GraphProjectionDTO projection) {
+        List<Set<UUID>> criteria = new ArrayList<>();
+        if (projection.getServiceIds() != null && !projection.getServiceIds().isEmpty()) {
+            criteria.add(union(projection.getServiceIds(), index::nodesOfService));
+        }
+        if (projection.getTags() != null && !projection.getTags().isEmpty()) {
+            criteria.add(nodesMatching(index, TagQuery.anyOf(projection.getTags())));
+        }
+        if (projection.getTagQuery() != null && !projection.getTagQuery().isBlank()) {
+            criteria.add(nodesMatching(index, TagQuery.parse(projection.getTagQuery())));
+        }
+        if (projection.getNodeTypes() != null && !projection.getNodeTypes().isEmpty()) {
+            criteria.add(union(projection.getNodeTypes(),
+                    type -> index.nodesOfType(NodeDTO.TypeEnum.fromValue(type.getValue()))));
+        }
+        if (projection.getBrokerTypes() != null && !projection.getBrokerTypes().isEmpty()) {
+            criteria.add(union(projection.getBrokerTypes(),
+                    broker -> index.nodesOfBroker(NodeDTO.BrokerTypeEnum.fromValue(broker.getValue()))));
+        }
+
+        Set<UUID> selected = criteria.isEmpty() ? allNodes(index) : intersection(criteria);
+
+        int hops = projection.getHops() != null ? projection.getHops() : 0;
+        expand(index, selected, hops);
+        return index.subgraph(selected);
+    }
+
+    private static Set<UUID> allNodes(GraphIndex index) {
+        Set<UUID> nodes = new HashSet<>();
+        if (index.graph().getNodes() != null) {
+            index.graph().getNodes().forEach(node -> nodes.add(node.getId()));
+        }
+        return nodes;
+    }
+
+    private static Set<UUID> intersection(List<Set<UUID>> sets) {
+        sets.sort(Comparator.comparingInt(Set::size));
+        Set<UUID> result = sets.get(0);
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result.retainAll(sets.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Узлы, подходящие под выражение, концы подходящих связей и концы связей с подходящими событиями.
+     */
+    static Set<UUID> nodesMatching(GraphIndex index, TagQuery query) {
+        TagIndex tags = index.tagIndex();
+        TagMatch match = query.evaluate(tags);
+        Set<UUID> nodes = new HashSet<>();
+        match.nodes().stream().forEach(i -> nodes.add(tags.nodeAt(i).getId()));
+        match.links().stream().forEach(i -> addEnds(nodes, tags.linkAt(i)));
+        match.events().stream().forEach(i ->
+                index.linksWithEvent(tags.eventAt(i).getId()).forEach(link -> addEnds(nodes, link)));
+        return nodes;
+    }
+
+    private static void addEnds(Set<UUID> nodes, LinkDTO link) {
+        nodes.add(link.getFromId());
+        nodes.add(link.getToId());
+    }
+
+    /** Добавляет к выборке узлы на расстоянии до {@code hops} связей (направление связей не учитывается). */
+    private static void expand(GraphIndex index, Set<UUID> selected, int hops) {
+        Collection<UUID> frontier = new ArrayList<>(selected);
+        for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++) {
+            List<UUID> next = new ArrayList<>();
+            for (UUID id : frontier) {
+                for (LinkDTO link : index.linksOf(id)) {
+                    UUID other = id.equals(link.getFromId()) ? link.getToId() : link.getFromId();
+                    if (index.node(other) != null && selected.add(other)) {
+                        next.add(other);
+                    }
+                }
+            }
+            frontier = next;
+        }
+    }
+
+    private static <T> Set<UUID> union(Collection<T> values, Function<T, Set<UUID>> nodes) {
+        Set<UUID> result = new HashSet<>();
+        for (T value : values) {
+            result.addAll(nodes.apply(value));
+        }
+        return result;
+    }
+}
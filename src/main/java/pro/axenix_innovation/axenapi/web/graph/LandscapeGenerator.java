@@ -0,0 +1,254 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.v3.oas.models.OpenAPI;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.service.GenerationContext;
+import pro.axenix_innovation.axenapi.web.util.OpenAPIGenerator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Генератор синтетических ландшафтов событий для нагрузочных тестов и бенчмарков.
+ * Строит {@link EventGraphDTO} по {@link LandscapeOptions} и спецификации сервисов в формате AxenAPI
+ * (через {@link OpenAPIGenerator}, так же как {@code /generateSpec}). Генерация детерминирована
+ * по seed и линейна по размеру графа, поэтому подходит для ландшафтов до десятков тысяч сервисов.
+ */
+public final class LandscapeGenerator {
+
+    private static final String[] FIELD_TYPES = {"integer", "number", "boolean", "string"};
+    private static final NodeDTO.MethodTypeEnum[] HTTP_METHODS = {
+            NodeDTO.MethodTypeEnum.GET, NodeDTO.MethodTypeEnum.POST,
+            NodeDTO.MethodTypeEnum.PUT, NodeDTO.MethodTypeEnum.DELETE
+    };
+
+    private LandscapeGenerator() {
+    }
+
+    public static EventGraphDTO generate(LandscapeOptions options) {
+        GenerationContext random = GenerationContext.create(options.seed());
+
+        EventGraphDTO graph = new EventGraphDTO();
+        graph.setName("landscape-" + options.services());
+        graph.setNodes(new ArrayList<>());
+        graph.setEvents(new ArrayList<>());
+        graph.setLinks(new ArrayList<>());
+        graph.setTags(new HashSet<>());
+
+        List<EventDTO> events = new ArrayList<>(options.events());
+        for (int k = 0; k < options.events(); k++) {
+            EventDTO event = EventDTO.builder()
+                    .id(random.randomUUID())
+                    .name(String.format("Event%05d", k))
+                    .schema(eventSchema(k))
+                    .tags(new HashSet<>())
+                    .build();
+            events.add(event);
+            graph.addEventsItem(event);
+        }
+
+        List<NodeDTO> topics = new ArrayList<>(options.topics());
+        List<List<EventDTO>> topicEvents = new ArrayList<>(options.topics());
+        for (int j = 0; j < options.topics(); j++) {
+            NodeDTO topic = node(random.randomUUID(), String.format("topic-%05d", j), NodeDTO.TypeEnum.TOPIC);
+            topic.setBrokerType(pickBroker(options.brokerMix(), random));
+            topics.add(topic);
+            graph.addNodesItem(topic);
+
+            List<EventDTO> carried = new ArrayList<>();
+            if (options.events() >= options.topics()) {
+                for (int k = j; k < options.events(); k += options.topics()) {
+                    carried.add(events.get(k));
+                }
+            } else {
+                carried.add(events.get(j % options.events()));
+            }
+            topicEvents.add(carried);
+        }
+
+        for (int i = 0; i < options.services(); i++) {
+            String serviceName = String.format("service-%05d", i);
+            NodeDTO service = node(random.randomUUID(), serviceName, NodeDTO.TypeEnum.SERVICE);
+            service.getBelongsToGraph().add(service.getId());
+            graph.addNodesItem(service);
+
+            Set<Integer> consumed = pickDistinct(options.fanIn(), options.topics(), Set.of(), random);
+            Set<Integer> produced = pickDistinct(Math.min(options.fanOut(), options.topics() - consumed.size()),
+                    options.topics(), consumed, random);
+
+            for (int j : consumed) {
+                NodeDTO topic = topics.get(j);
+                addOwner(topic, service.getId());
+                String group = topic.getBrokerType() == NodeDTO.BrokerTypeEnum.KAFKA ? "group-" + serviceName : null;
+                for (EventDTO event : topicEvents.get(j)) {
+                    graph.addLinksItem(link(random, topic.getId(), service.getId(), group, event.getId()));
+                }
+            }
+            for (int j : produced) {
+                NodeDTO topic = topics.get(j);
+                addOwner(topic, service.getId());
+                for (EventDTO event : topicEvents.get(j)) {
+                    graph.addLinksItem(link(random, service.getId(), topic.getId(), null, event.getId()));
+                }
+            }
+
+            for (int h = 0; h < options.httpPerService(); h++) {
+                String url = "/" + serviceName + "/resource-" + h;
+                NodeDTO http = node(random.randomUUID(), url, NodeDTO.TypeEnum.HTTP);
+                http.setNodeUrl(url);
+                http.setMethodType(HTTP_METHODS[h % HTTP_METHODS.length]);
+                http.getBelongsToGraph().add(service.getId());
+                graph.addNodesItem(http);
+                EventDTO body = events.get(random.nextInt(events.size()));
+                graph.addLinksItem(link(random, http.getId(), service.getId(), null, body.getId()));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Спецификации всех сервисов графа: имя сервиса - спецификация.
+     */
+    public static Map<String, OpenAPI> specifications(EventGraphDTO graph) throws JsonProcessingException {
+        Map<String, OpenAPI> result = new LinkedHashMap<>();
+        forEachSpecification(graph, result::put);
+        return result;
+    }
+
+    /**
+     * Строит спецификации сервисов по одной, не держа их все в памяти. Каждая спецификация
+     * генерируется по подграфу из сервиса и его связей, поэтому время линейно по размеру графа.
+     */
+    public static void forEachSpecification(EventGraphDTO graph, SpecificationConsumer consumer)
+            throws JsonProcessingException {
+        Map<UUID, NodeDTO> nodes = new HashMap<>();
+        graph.getNodes().forEach(node -> nodes.put(node.getId(), node));
+        Map<UUID, EventDTO> events = new HashMap<>();
+        graph.getEvents().forEach(event -> events.put(event.getId(), event));
+        Map<UUID, List<LinkDTO>> serviceLinks = new LinkedHashMap<>();
+        for (LinkDTO link : graph.getLinks()) {
+            for (UUID end : List.of(link.getFromId(), link.getToId())) {
+                NodeDTO node = nodes.get(end);
+                if (node != null && node.getType() == NodeDTO.TypeEnum.SERVICE) {
+                    serviceLinks.computeIfAbsent(end, id -> new ArrayList<>()).add(link);
+                }
+            }
+        }
+
+        for (NodeDTO service : graph.getNodes()) {
+            if (service.getType() != NodeDTO.TypeEnum.SERVICE) {
+                continue;
+            }
+            EventGraphDTO subgraph = new EventGraphDTO();
+            subgraph.setName(service.getName());
+            Map<UUID, NodeDTO> subNodes = new LinkedHashMap<>();
+            Map<UUID, EventDTO> subEvents = new LinkedHashMap<>();
+            subNodes.put(service.getId(), service);
+            for (LinkDTO link : serviceLinks.getOrDefault(service.getId(), List.of())) {
+                NodeDTO other = nodes.get(link.getFromId().equals(service.getId()) ? link.getToId() : link.getFromId());
+                if (other != null && other.getType() != NodeDTO.TypeEnum.SERVICE) {
+                    subNodes.put(other.getId(), other);
+                    subgraph.addLinksItem(link);
+                    EventDTO event = events.get(link.getEventId());
+                    if (event != null) {
+                        subEvents.put(event.getId(), event);
+                    }
+                }
+            }
+            subgraph.setNodes(new ArrayList<>(subNodes.values()));
+            subgraph.setEvents(new ArrayList<>(subEvents.values()));
+            if (subgraph.getLinks() == null) {
+                subgraph.setLinks(new ArrayList<>());
+            }
+            OpenAPI openAPI = OpenAPIGenerator.getOpenAPISpecifications(new EventGraphFacade(subgraph))
+                    .get(service.getName());
+            consumer.accept(service.getName(), openAPI);
+        }
+    }
+
+    @FunctionalInterface
+    public interface SpecificationConsumer {
+        void accept(String serviceName, OpenAPI openAPI) throws JsonProcessingException;
+    }
+
+    private static NodeDTO node(UUID id, String name, NodeDTO.TypeEnum type) {
+        return NodeDTO.builder()
+                .id(id)
+                .name(name)
+                .type(type)
+                .belongsToGraph(new ArrayList<>())
+                .tags(new HashSet<>())
+                .build();
+    }
+
+    private static LinkDTO link(GenerationContext random, UUID from, UUID to, String group, UUID eventId) {
+        return new LinkDTO(random.randomUUID(), from, to, group, eventId, new HashSet<>());
+    }
+
+    private static void addOwner(NodeDTO node, UUID serviceId) {
+        if (!node.getBelongsToGraph().contains(serviceId)) {
+            node.getBelongsToGraph().add(serviceId);
+        }
+    }
+
+    private static NodeDTO.BrokerTypeEnum pickBroker(Map<NodeDTO.BrokerTypeEnum, Integer> mix, GenerationContext random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int point = random.nextInt(total);
+        for (Map.Entry<NodeDTO.BrokerTypeEnum, Integer> entry : mix.entrySet()) {
+            point -= entry.getValue();
+            if (point < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Broker mix is empty");
+    }
+
+    /**
+     * {@code count} различных номеров из {@code [0, bound)}, не входящих в {@code excluded}.
+     */
+    private static Set<Integer> pickDistinct(int count, int bound, Set<Integer> excluded, GenerationContext random) {
+        Set<Integer> result = new LinkedHashSet<>();
+        int available = bound - excluded.size();
+        if (count * 2 > available) {
+            List<Integer> candidates = new ArrayList<>(available);
+            for (int i = 0; i < bound; i++) {
+                if (!excluded.contains(i)) {
+                    candidates.add(i);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int swap = i + random.nextInt(candidates.size() - i);
+                Integer chosen = candidates.set(swap, candidates.get(i));
+                candidates.set(i, chosen);
+                result.add(chosen);
+            }
+            return result;
+        }
+        while (result.size() < count) {
+            int candidate = random.nextInt(bound);
+            if (!excluded.contains(candidate)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    private static String eventSchema(int index) {
+        StringBuilder schema = new StringBuilder("{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"string\"}");
+        for (int f = 0; f <= index % 4; f++) {
+            schema.append(",\"field").append(f).append("\":{\"type\":\"").append(FIELD_TYPES[f]).append("\"}");
+        }
+        return schema.append("}}").toString();
+    }
+}
@@ -0,0 +1,96 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Консольная генерация ландшафта для нагрузочных тестов {@code /upload} и {@code /generateSpec}.
+ * Пишет граф в {@code <out>/graph.json} и спецификации сервисов в {@code <out>/specs}.
+ * <pre>
+ * ./gradlew generateLandscape --args="--services=10000 --out=build/landscape"
+ * </pre>
+ * Параметры: --services, --topics, --events, --http, --fan-in, --fan-out,
+ * --brokers=KAFKA:3,JMS:1,RABBITMQ:1, --seed, --out, --specs=json|yaml|none.
+ * Не заданные параметры берутся из {@link LandscapeOptions#ofServices(int)}.
+ */
+public final class LandscapeGeneratorCli {
+
+    private LandscapeGeneratorCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> params = parse(args);
+        LandscapeOptions defaults = LandscapeOptions.ofServices(intParam(params, "services", 100));
+        LandscapeOptions options = new LandscapeOptions(
+                defaults.services(),
+                intParam(params, "topics", defaults.topics()),
+                intParam(params, "events", defaults.events()),
+                intParam(params, "http", defaults.httpPerService()),
+                intParam(params, "fan-in", defaults.fanIn()),
+                intParam(params, "fan-out", defaults.fanOut()),
+                params.containsKey("brokers") ? brokerMix(params.get("brokers")) : defaults.brokerMix(),
+                params.containsKey("seed") ? Long.parseLong(params.get("seed")) : defaults.seed());
+        Path out = Path.of(params.getOrDefault("out", "build/landscape"));
+        String specFormat = params.getOrDefault("specs", "json");
+
+        long start = System.nanoTime();
+        EventGraphDTO graph = LandscapeGenerator.generate(options);
+        Files.createDirectories(out);
+        JacksonMappers.json().writeValue(out.resolve("graph.json").toFile(), graph);
+        System.out.printf("Graph: %d nodes, %d events, %d links -> %s%n",
+                graph.getNodes().size(), graph.getEvents().size(), graph.getLinks().size(), out.resolve("graph.json"));
+
+        if (!"none".equals(specFormat)) {
+            boolean yaml = "yaml".equals(specFormat);
+            ObjectWriter writer = (yaml ? JacksonMappers.openApiYaml() : JacksonMappers.openApiJson())
+                    .writerWithDefaultPrettyPrinter();
+            Path specs = Files.createDirectories(out.resolve("specs"));
+            int[] written = {0};
+            LandscapeGenerator.forEachSpecification(graph, (serviceName, openAPI) -> {
+                try {
+                    writer.writeValue(specs.resolve(serviceName + (yaml ? ".yaml" : ".json")).toFile(), openAPI);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to write specification of " + serviceName, e);
+                }
+                written[0]++;
+            });
+            System.out.printf("Specifications: %d -> %s%n", written[0], specs);
+        }
+        System.out.printf("Done in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> params = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            params.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return params;
+    }
+
+    static Map<NodeDTO.BrokerTypeEnum, Integer> brokerMix(String value) {
+        Map<NodeDTO.BrokerTypeEnum, Integer> mix = new EnumMap<>(NodeDTO.BrokerTypeEnum.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split(":");
+            mix.put(NodeDTO.BrokerTypeEnum.valueOf(weight[0].trim().toUpperCase()),
+                    weight.length > 1 ? Integer.parseInt(weight[1].trim()) : 1);
+        }
+        return mix;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        return params.containsKey(name) ? Integer.parseInt(params.get(name)) : defaultValue;
+    }
+}
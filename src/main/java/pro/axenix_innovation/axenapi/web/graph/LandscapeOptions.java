@@ -0,0 +1,62 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры синтетического ландшафта для {@link LandscapeGenerator}.
+ *
+ * @param services        число сервисов
+ * @param topics          число топиков
+ * @param events          число событий; события распределяются по топикам по кругу
+ * @param httpPerService  число HTTP-узлов на сервис
+ * @param fanIn           число топиков, которые читает каждый сервис
+ * @param fanOut          число топиков, в которые пишет каждый сервис
+ * @param brokerMix       веса типов брокеров для топиков
+ * @param seed            seed генерации: при одинаковых параметрах граф совпадает
+ */
+public record LandscapeOptions(int services, int topics, int events, int httpPerService,
+                               int fanIn, int fanOut, Map<NodeDTO.BrokerTypeEnum, Integer> brokerMix, long seed) {
+
+    public LandscapeOptions {
+        if (services < 1) {
+            throw new IllegalArgumentException("services must be positive: " + services);
+        }
+        if (topics < 1 || events < 1) {
+            throw new IllegalArgumentException("topics and events must be positive: " + topics + ", " + events);
+        }
+        if (httpPerService < 0 || fanIn < 0 || fanOut < 0) {
+            throw new IllegalArgumentException("httpPerService, fanIn and fanOut must not be negative");
+        }
+        if (fanIn > topics || fanOut > topics) {
+            throw new IllegalArgumentException("fanIn and fanOut must not exceed topics: " + topics);
+        }
+        brokerMix = brokerMix == null || brokerMix.isEmpty()
+                ? Map.of(NodeDTO.BrokerTypeEnum.KAFKA, 1)
+                : Collections.unmodifiableMap(new EnumMap<>(brokerMix));
+        if (brokerMix.values().stream().anyMatch(weight -> weight == null || weight < 0)
+                || brokerMix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("brokerMix weights must be non-negative with a positive sum: " + brokerMix);
+        }
+    }
+
+    /**
+     * Ландшафт с пропорциями по умолчанию: по два топика и события на сервис, по одному
+     * HTTP-узлу, сервис читает три и пишет в два топика, брокеры Kafka/JMS/RabbitMQ как 3:1:1.
+     */
+    public static LandscapeOptions ofServices(int services) {
+        int topics = Math.max(3, services * 2);
+        Map<NodeDTO.BrokerTypeEnum, Integer> mix = new EnumMap<>(NodeDTO.BrokerTypeEnum.class);
+        mix.put(NodeDTO.BrokerTypeEnum.KAFKA, 3);
+        mix.put(NodeDTO.BrokerTypeEnum.JMS, 1);
+        mix.put(NodeDTO.BrokerTypeEnum.RABBITMQ, 1);
+        return new LandscapeOptions(services, topics, topics, 1, 3, 2, mix, 42L);
+    }
+
+    public LandscapeOptions withSeed(long seed) {
+        return new LandscapeOptions(services, topics, events, httpPerService, fanIn, fanOut, brokerMix, seed);
+    }
+}
@@ -0,0 +1,364 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import org.apache.logging.log4j.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.FAIL_FIND_NODES_FOR_LINK_G2;
+import static pro.axenix_innovation.axenapi.web.graph.GraphKeys.linkKey;
+import static pro.axenix_innovation.axenapi.web.graph.GraphKeys.nodeKey;
+
+/**
+ * Замена подграфа сервиса (или нескольких сервисов за один проход) на граф из новой спецификации
+ * без пересборки всего графа.
+ * <p>
+ * Результат совпадает с удалением сервиса и последующим {@link EventGraphFacade#merge}, но граф меняется
+ * на месте: узлы, события и связи, которые есть и в старой, и в новой версии сервиса, остаются теми же
+ * объектами с прежними id, удаляется и добавляется только разница. Сопоставление идет по тем же ключам,
+ * что и в merge: узлы по (type, name, brokerType), события по имени, связи по (fromId, toId, eventId).
+ * Узел сервиса новой версии всегда сопоставляется с заменяемым узлом, даже если изменилось имя.
+ * <p>
+ * Граф приходит целиком в каждом запросе, и принадлежность элементов сервису видна только по
+ * belongsToGraph узлов и концам связей, поэтому замена стоит O(граф + сервис): по одному проходу
+ * по узлам, событиям и связям с поиском по хэшу, без копий графа и без merge.
+ */
+public final class ServiceSubgraphUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceSubgraphUpdater.class);
+
+    private ServiceSubgraphUpdater() {
+    }
+
+    /**
+     * @param graph            граф, в котором заменяется сервис; изменяется на месте и возвращается
+     * @param serviceNodeId    id узла заменяемого сервиса в {@code graph}
+     * @param serviceGraph     граф новой версии сервиса (результат трансляции спецификации); его узлы,
+     *                         события и связи могут быть перенесены в {@code graph}
+     * @param dropUnusedEvents удалять события, на которые не осталось связей после удаления
+     *                         старых связей сервиса
+     */
+    public static EventGraphDTO replace(EventGraphDTO graph, UUID serviceNodeId, EventGraphDTO serviceGraph,
+                                        boolean dropUnusedEvents) {
+        return replaceAll(graph, Map.of(serviceNodeId, serviceGraph), dropUnusedEvents);
+    }
+
+    /**
+     * Заменяет несколько сервисов за один проход по графу. Результат совпадает с последовательными
+     * вызовами {@link #replace} в порядке {@code services}: узел, который принадлежал только заменяемым
+     * сервисам, остается за первой новой версией, содержащей его, а следующие версии дополняют его, как в merge.
+     *
+     * @param services id узла заменяемого сервиса в {@code graph} -> граф его новой версии
+     */
+    public static EventGraphDTO replaceAll(EventGraphDTO graph, Map<UUID, EventGraphDTO> services,
+                                           boolean dropUnusedEvents) {
+        EventGraphDTO updated = PipelineMetrics.time(PipelineMetrics.Stage.SERVICE_UPDATE,
+                () -> new Replacement(graph, services, dropUnusedEvents).apply());
+        PipelineMetrics.recordGraph(PipelineMetrics.GraphKind.MERGED, updated);
+        return updated;
+    }
+
+    /**
+     * Узел новой версии сервиса и узел графа, с которым он сопоставлен: {@code target == null} - новый узел,
+     * {@code shared} - узел, принадлежащий и другим сервисам (только дополняется, как в merge).
+     */
+    private record NodeMatch(NodeDTO source, NodeDTO target, boolean shared) {
+    }
+
+    private static final class Replacement {
+
+        private final EventGraphDTO graph;
+        private final Map<UUID, EventGraphDTO> services;
+        private final boolean dropUnusedEvents;
+
+        /** id узла новой версии сервиса -> id узла в итоговом графе */
+        private final Map<UUID, UUID> nodeIds = new HashMap<>();
+        /** id события новой версии сервиса -> id события в итоговом графе */
+        private final Map<UUID, UUID> eventIds = new HashMap<>();
+
+        private Replacement(EventGraphDTO graph, Map<UUID, EventGraphDTO> services, boolean dropUnusedEvents) {
+            this.graph = graph;
+            this.services = services;
+            this.dropUnusedEvents = dropUnusedEvents;
+        }
+
+        private EventGraphDTO apply() {
+            Set<UUID> ownedIds = new HashSet<>();
+            Set<NodeDTO> keptNodes = replaceNodes(mutable(graph.getNodes(), graph::setNodes), ownedIds);
+            Set<LinkDTO> ownedLinks = newIdentitySet();
+            Map<String, LinkDTO> keptLinks = new HashMap<>();
+            Map<String, LinkDTO> ownedLinksByKey = new HashMap<>();
+            for (LinkDTO link : mutable(graph.getLinks(), graph::setLinks)) {
+                String key = linkKey(link.getFromId(), link.getToId(), link.getEventId());
+                if (ownedIds.contains(link.getFromId()) || ownedIds.contains(link.getToId())) {
+                    ownedLinks.add(link);
+                    ownedLinksByKey.putIfAbsent(key, link);
+                } else {
+                    keptLinks.putIfAbsent(key, link);
+                }
+            }
+            replaceEvents(mutable(graph.getEvents(), graph::setEvents), keptLinks);
+            replaceLinks(graph.getLinks(), keptLinks, ownedLinks, ownedLinksByKey);
+            graph.getNodes().removeIf(node -> ownedIds.contains(node.getId()) && !keptNodes.contains(node));
+            services.values().forEach(this::updateNameAndTags);
+            graph.setErrors(new ArrayList<>());
+            return graph;
+        }
+
+        /**
+         * Сопоставляет узлы новых версий с узлами графа и обновляет их. Возвращает узлы заменяемых сервисов,
+         * которые остаются в графе; в {@code ownedIds} - id всех узлов, принадлежавших только этим сервисам.
+         */
+        private Set<NodeDTO> replaceNodes(List<NodeDTO> nodes, Set<UUID> ownedIds) {
+            Map<String, NodeDTO> owned = new HashMap<>();
+            Map<String, NodeDTO> shared = new HashMap<>();
+            Map<UUID, NodeDTO> oldServices = new HashMap<>();
+            for (NodeDTO node : nodes) {
+                List<UUID> belongsToGraph = listOrEmpty(node.getBelongsToGraph());
+                boolean belongs = belongsToGraph.stream().anyMatch(services::containsKey);
+                if (services.containsKey(node.getId())
+                        || belongs && services.keySet().containsAll(belongsToGraph)) {
+                    ownedIds.add(node.getId());
+                    owned.putIfAbsent(nodeKey(node), node);
+                    if (services.containsKey(node.getId())) {
+                        oldServices.put(node.getId(), node);
+                    }
+                } else {
+                    if (belongs) {
+                        List<UUID> rest = new ArrayList<>(belongsToGraph);
+                        rest.removeAll(services.keySet());
+                        node.setBelongsToGraph(rest);
+                    }
+                    shared.putIfAbsent(nodeKey(node), node);
+                }
+            }
+
+            Set<NodeDTO> kept = newIdentitySet();
+            List<NodeMatch> matches = new ArrayList<>();
+            for (Map.Entry<UUID, EventGraphDTO> service : services.entrySet()) {
+                NodeDTO oldService = oldServices.get(service.getKey());
+                NodeDTO newService = findService(service.getValue());
+                for (NodeDTO node : listOrEmpty(service.getValue().getNodes())) {
+                    String key = nodeKey(node);
+                    NodeDTO ownedTarget = owned.get(key);
+                    NodeMatch match;
+                    if (node == newService && oldService != null && !kept.contains(oldService)) {
+                        kept.add(oldService);
+                        match = new NodeMatch(node, oldService, false);
+                    } else if (shared.containsKey(key)) {
+                        match = new NodeMatch(node, shared.get(key), true);
+                    } else if (ownedTarget != null && !kept.contains(ownedTarget)) {
+                        kept.add(ownedTarget);
+                        match = new NodeMatch(node, ownedTarget, false);
+                    } else {
+                        match = new NodeMatch(node, null, false);
+                    }
+                    nodeIds.put(node.getId(), match.target() != null ? match.target().getId() : node.getId());
+                    matches.add(match);
+                    // следующие сервисы пакета дополняют этот узел, как в merge
+                    shared.putIfAbsent(key, match.target() != null ? match.target() : node);
+                }
+            }
+
+            // belongsToGraph новой версии ссылается на id ее узлов, поэтому переносится после сопоставления
+            int added = 0;
+            for (NodeMatch match : matches) {
+                NodeDTO source = match.source();
+                List<UUID> belongsToGraph = mapNodeIds(source.getBelongsToGraph());
+                if (match.target() == null) {
+                    source.setBelongsToGraph(belongsToGraph);
+                    source.setTags(copyOf(source.getTags()));
+                    nodes.add(source);
+                    added++;
+                } else if (match.shared()) {
+                    NodeDTO target = match.target();
+                    List<UUID> merged = new ArrayList<>(listOrEmpty(target.getBelongsToGraph()));
+                    merged.addAll(belongsToGraph);
+                    target.setBelongsToGraph(merged);
+                    Set<String> tags = copyOf(target.getTags());
+                    if (source.getTags() != null) {
+                        tags.addAll(source.getTags());
+                    }
+                    target.setTags(tags);
+                } else {
+                    copyInto(match.target(), source, belongsToGraph);
+                }
+            }
+            log.debug("Services {}: {} nodes added, {} removed", services.keySet(), added,
+                    ownedIds.size() - kept.size());
+            return kept;
+        }
+
+        private void replaceEvents(List<EventDTO> events, Map<String, LinkDTO> keptLinks) {
+            Set<UUID> usedEventIds = new HashSet<>();
+            keptLinks.values().forEach(link -> usedEventIds.add(link.getEventId()));
+            Map<String, EventDTO> kept = new HashMap<>();
+            Map<String, EventDTO> unused = new HashMap<>();
+            for (EventDTO event : events) {
+                if (!dropUnusedEvents || usedEventIds.contains(event.getId())) {
+                    kept.putIfAbsent(event.getName(), event);
+                } else {
+                    unused.putIfAbsent(event.getName(), event);
+                }
+            }
+
+            Set<EventDTO> reused = newIdentitySet();
+            int added = 0;
+            for (EventGraphDTO serviceGraph : services.values()) {
+                for (EventDTO event : listOrEmpty(serviceGraph.getEvents())) {
+                    EventDTO target = kept.get(event.getName());
+                    if (target != null) {
+                        Set<String> tags = copyOf(target.getTags());
+                        if (event.getTags() != null) {
+                            tags.addAll(event.getTags());
+                        }
+                        target.setTags(tags);
+                    } else if ((target = unused.get(event.getName())) != null && reused.add(target)) {
+                        target.setSchema(event.getSchema());
+                        target.setTags(copyOf(event.getTags()));
+                        kept.put(target.getName(), target);
+                    } else {
+                        target = event;
+                        target.setTags(copyOf(event.getTags()));
+                        events.add(target);
+                        kept.put(target.getName(), target);
+                        added++;
+                    }
+                    eventIds.put(event.getId(), target.getId());
+                }
+            }
+
+            if (dropUnusedEvents) {
+                reused.forEach(event -> usedEventIds.add(event.getId()));
+                events.removeIf(event -> !usedEventIds.contains(event.getId()) && kept.get(event.getName()) != event);
+            }
+            log.debug("Services {}: {} events added", services.keySet(), added);
+        }
+
+        private void replaceLinks(List<LinkDTO> links, Map<String, LinkDTO> keptLinks, Set<LinkDTO> ownedLinks,
+                                  Map<String, LinkDTO> ownedLinksByKey) {
+            Set<LinkDTO> reused = newIdentitySet();
+            int added = 0;
+            for (EventGraphDTO serviceGraph : services.values()) {
+                for (LinkDTO link : listOrEmpty(serviceGraph.getLinks())) {
+                    UUID fromId = nodeIds.get(link.getFromId());
+                    UUID toId = nodeIds.get(link.getToId());
+                    if (fromId == null || toId == null) {
+                        MessageHelper.log(log, Level.ERROR, FAIL_FIND_NODES_FOR_LINK_G2,
+                                link.getFromId(), link.getToId(), link.getEventId());
+                        continue;
+                    }
+                    UUID eventId = link.getEventId() != null ? eventIds.get(link.getEventId()) : null;
+                    String key = linkKey(fromId, toId, eventId);
+                    LinkDTO target = ownedLinksByKey.get(key);
+                    if (keptLinks.containsKey(key) || target != null && !reused.add(target)) {
+                        continue;
+                    }
+                    if (target != null) {
+                        target.setGroup(link.getGroup());
+                        target.setTags(link.getTags());
+                        keptLinks.put(key, target);
+                    } else {
+                        link.setFromId(fromId);
+                        link.setToId(toId);
+                        link.setEventId(eventId);
+                        links.add(link);
+                        keptLinks.put(key, link);
+                        added++;
+                    }
+                }
+            }
+            int before = links.size();
+            links.removeIf(link -> ownedLinks.contains(link) && !reused.contains(link));
+            log.debug("Services {}: {} links added, {} removed", services.keySet(), added, before - links.size());
+        }
+
+        private List<UUID> mapNodeIds(List<UUID> ids) {
+            List<UUID> mapped = new ArrayList<>();
+            for (UUID id : listOrEmpty(ids)) {
+                mapped.add(nodeIds.getOrDefault(id, id));
+            }
+            return mapped;
+        }
+
+        /** Имя и теги графа - так же, как в {@link EventGraphFacade#merge}. */
+        private void updateNameAndTags(EventGraphDTO serviceGraph) {
+            String serviceName = serviceGraph.getName();
+            if (!Strings.isBlank(serviceName)) {
+                if (Strings.isBlank(graph.getName())) {
+                    graph.setName(serviceName);
+                } else if (!graph.getName().contains(serviceName)) {
+                    graph.setName(graph.getName() + "&" + serviceName);
+                }
+            }
+            Set<String> tags = copyOf(graph.getTags());
+            if (serviceGraph.getTags() != null) {
+                tags.addAll(serviceGraph.getTags());
+            }
+            graph.setTags(tags);
+        }
+    }
+
+    private static void copyInto(NodeDTO target, NodeDTO source, List<UUID> belongsToGraph) {
+        target.setName(source.getName());
+        target.setType(source.getType());
+        target.setBrokerType(source.getBrokerType());
+        target.setBelongsToGraph(belongsToGraph);
+        target.setTags(copyOf(source.getTags()));
+        target.setMethodType(source.getMethodType());
+        target.setRequestBody(source.getRequestBody());
+        target.setResponseBody(source.getResponseBody());
+        target.setNodeUrl(source.getNodeUrl());
+        target.setNodeDescription(source.getNodeDescription());
+        target.setDocumentationFileLinks(source.getDocumentationFileLinks() != null
+                ? new HashSet<>(source.getDocumentationFileLinks())
+                : null);
+    }
+
+    private static NodeDTO findService(EventGraphDTO serviceGraph) {
+        for (NodeDTO node : listOrEmpty(serviceGraph.getNodes())) {
+            if (node.getType() == NodeDTO.TypeEnum.SERVICE) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static <T> List<T> mutable(List<T> list, Consumer<List<T>> setter) {
+        if (list instanceof ArrayList) {
+            return list;
+        }
+        List<T> copy = list != null ? new ArrayList<>(list) : new ArrayList<>();
+        setter.accept(copy);
+        return copy;
+    }
+
+    private static Set<String> copyOf(Set<String> set) {
+        return set != null ? new HashSet<>(set) : new HashSet<>();
+    }
+
+    private static <T> List<T> listOrEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static <T> Set<T> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
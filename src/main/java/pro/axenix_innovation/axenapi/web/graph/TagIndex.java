@@ -0,0 +1,100 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Инвертированный индекс тегов: тег - битовые множества порядковых номеров узлов, событий и связей
+ * (номер элемента - его позиция в списке графа). Строится один раз на граф, после чего
+ * булевы выражения над тегами ({@link TagQuery}) вычисляются операциями над {@link BitSet}.
+ * Теги самого графа не индексируются.
+ */
+public final class TagIndex {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final List<NodeDTO> nodes;
+    private final List<EventDTO> events;
+    private final List<LinkDTO> links;
+    private final Map<String, BitSet> nodesByTag = new HashMap<>();
+    private final Map<String, BitSet> eventsByTag = new HashMap<>();
+    private final Map<String, BitSet> linksByTag = new HashMap<>();
+
+    private TagIndex(EventGraphDTO graph) {
+        this.nodes = graph.getNodes() != null ? graph.getNodes() : Collections.emptyList();
+        this.events = graph.getEvents() != null ? graph.getEvents() : Collections.emptyList();
+        this.links = graph.getLinks() != null ? graph.getLinks() : Collections.emptyList();
+    }
+
+    public static TagIndex of(EventGraphDTO graph) {
+        TagIndex index = new TagIndex(graph);
+        for (int i = 0; i < index.nodes.size(); i++) {
+            index(index.nodesByTag, index.nodes.get(i).getTags(), i);
+        }
+        for (int i = 0; i < index.events.size(); i++) {
+            index(index.eventsByTag, index.events.get(i).getTags(), i);
+        }
+        for (int i = 0; i < index.links.size(); i++) {
+            index(index.linksByTag, index.links.get(i).getTags(), i);
+        }
+        return index;
+    }
+
+    private static void index(Map<String, BitSet> byTag, Set<String> tags, int ordinal) {
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            byTag.computeIfAbsent(tag, key -> new BitSet()).set(ordinal);
+        }
+    }
+
+    /** Элементы с тегом. Возвращаемые множества общие для индекса и не должны изменяться. */
+    TagMatch match(String tag) {
+        return new TagMatch(
+                nodesByTag.getOrDefault(tag, EMPTY),
+                eventsByTag.getOrDefault(tag, EMPTY),
+                linksByTag.getOrDefault(tag, EMPTY));
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    public int eventCount() {
+        return events.size();
+    }
+
+    public int linkCount() {
+        return links.size();
+    }
+
+    public NodeDTO nodeAt(int ordinal) {
+        return nodes.get(ordinal);
+    }
+
+    public EventDTO eventAt(int ordinal) {
+        return events.get(ordinal);
+    }
+
+    public LinkDTO linkAt(int ordinal) {
+        return links.get(ordinal);
+    }
+
+    public Set<String> tags() {
+        Set<String> tags = new HashSet<>(nodesByTag.keySet());
+        tags.addAll(eventsByTag.keySet());
+        tags.addAll(linksByTag.keySet());
+        return tags;
+    }
+}
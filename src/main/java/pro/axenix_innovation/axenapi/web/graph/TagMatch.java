@@ -0,0 +1,13 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import java.util.BitSet;
+
+/**
+ * Результат вычисления {@link TagQuery}: порядковые номера подходящих узлов, событий и связей графа.
+ */
+public record TagMatch(BitSet nodes, BitSet events, BitSet links) {
+
+    TagMatch copy() {
+        return new TagMatch((BitSet) nodes.clone(), (BitSet) events.clone(), (BitSet) links.clone());
+    }
+}
@@ -0,0 +1,224 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import pro.axenix_innovation.axenapi.web.exception.InvalidTagQueryException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Булево выражение над тегами, вычисляемое по {@link TagIndex}.
+ * <p>
+ * Синтаксис: {@code kafka AND (orders OR billing) AND NOT deprecated}. Операторы записываются
+ * словами AND/OR/NOT в любом регистре или символами {@code & | !}; приоритет NOT, затем AND, затем OR.
+ * Тег с пробелами, скобками или совпадающий с оператором берется в двойные кавычки.
+ * Каждый элемент графа (узел, событие, связь) проверяется по своему набору тегов.
+ */
+public sealed interface TagQuery {
+
+    TagMatch evaluate(TagIndex index);
+
+    static TagQuery parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new InvalidTagQueryException("empty expression");
+        }
+        return new Parser(expression).parse();
+    }
+
+    /** Элементы, у которых есть хотя бы один из тегов. */
+    static TagQuery anyOf(Collection<String> tags) {
+        TagQuery query = null;
+        for (String tag : tags) {
+            query = query == null ? new Tag(tag) : new Or(query, new Tag(tag));
+        }
+        if (query == null) {
+            throw new InvalidTagQueryException("empty tag list");
+        }
+        return query;
+    }
+
+    record Tag(String name) implements TagQuery {
+        @Override
+        public TagMatch evaluate(TagIndex index) {
+            return index.match(name).copy();
+        }
+    }
+
+    record Not(TagQuery operand) implements TagQuery {
+        @Override
+        public TagMatch evaluate(TagIndex index) {
+            TagMatch match = operand.evaluate(index);
+            match.nodes().flip(0, index.nodeCount());
+            match.events().flip(0, index.eventCount());
+            match.links().flip(0, index.linkCount());
+            return match;
+        }
+    }
+
+    record And(TagQuery left, TagQuery right) implements TagQuery {
+        @Override
+        public TagMatch evaluate(TagIndex index) {
+            TagMatch match = left.evaluate(index);
+            TagMatch other = right.evaluate(index);
+            match.nodes().and(other.nodes());
+            match.events().and(other.events());
+            match.links().and(other.links());
+            return match;
+        }
+    }
+
+    record Or(TagQuery left, TagQuery right) implements TagQuery {
+        @Override
+        public TagMatch evaluate(TagIndex index) {
+            TagMatch match = left.evaluate(index);
+            TagMatch other = right.evaluate(index);
+            match.nodes().or(other.nodes());
+            match.events().or(other.events());
+            match.links().or(other.links());
+            return match;
+        }
+    }
+
+    /**
+     * Рекурсивный спуск: or := and (OR and)*, and := not (AND not)*, not := NOT not | (or) | tag.
+     * Длина выражения, число токенов и вложенность NOT и скобок ограничены, чтобы разбор и вычисление
+     * не переполняли стек на выражениях вида {@code ((((...}.
+     */
+    final class Parser {
+        static final int MAX_LENGTH = 10_000;
+        static final int MAX_TOKENS = 1_000;
+        static final int MAX_DEPTH = 64;
+
+        private final String expression;
+        private final List<String> tokens = new ArrayList<>();
+        private final List<Boolean> quoted = new ArrayList<>();
+        private int position;
+        private int depth;
+
+        private Parser(String expression) {
+            if (expression.length() > MAX_LENGTH) {
+                throw new InvalidTagQueryException("expression is longer than " + MAX_LENGTH + " characters");
+            }
+            this.expression = expression;
+            tokenize();
+        }
+
+        private TagQuery parse() {
+            TagQuery query = or();
+            if (position < tokens.size()) {
+                throw error("unexpected '" + tokens.get(position) + "'");
+            }
+            return query;
+        }
+
+        private TagQuery or() {
+            TagQuery query = and();
+            while (accept("OR", "|")) {
+                query = new Or(query, and());
+            }
+            return query;
+        }
+
+        private TagQuery and() {
+            TagQuery query = not();
+            while (accept("AND", "&")) {
+                query = new And(query, not());
+            }
+            return query;
+        }
+
+        private TagQuery not() {
+            if (accept("NOT", "!")) {
+                enter();
+                TagQuery query = new Not(not());
+                depth--;
+                return query;
+            }
+            if (accept("(", "(")) {
+                enter();
+                TagQuery query = or();
+                if (!accept(")", ")")) {
+                    throw error("missing ')'");
+                }
+                depth--;
+                return query;
+            }
+            if (position >= tokens.size()) {
+                throw error("tag expected at the end of expression");
+            }
+            String token = tokens.get(position);
+            if (!quoted.get(position) && isOperator(token)) {
+                throw error("tag expected, found '" + token + "'");
+            }
+            position++;
+            return new Tag(token);
+        }
+
+        private void enter() {
+            if (++depth > MAX_DEPTH) {
+                throw error("NOT and parentheses are nested deeper than " + MAX_DEPTH);
+            }
+        }
+
+        private boolean accept(String word, String symbol) {
+            if (position >= tokens.size() || quoted.get(position)) {
+                return false;
+            }
+            String token = tokens.get(position);
+            if (token.equals(symbol) || token.equalsIgnoreCase(word)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean isOperator(String token) {
+            return switch (token.toUpperCase()) {
+                case "AND", "OR", "NOT", "&", "|", "!", "(", ")" -> true;
+                default -> false;
+            };
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')' || c == '&' || c == '|' || c == '!') {
+                    add(String.valueOf(c), false);
+                    i++;
+                } else if (c == '"') {
+                    int end = expression.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw error("unterminated quote at " + i);
+                    }
+                    add(expression.substring(i + 1, end), true);
+                    i = end + 1;
+                } else {
+                    int start = i;
+                    while (i < expression.length() && !isDelimiter(expression.charAt(i))) {
+                        i++;
+                    }
+                    add(expression.substring(start, i), false);
+                }
+            }
+        }
+
+        private static boolean isDelimiter(char c) {
+            return Character.isWhitespace(c) || c == '(' || c == ')' || c == '&' || c == '|' || c == '!' || c == '"';
+        }
+
+        private void add(String token, boolean isQuoted) {
+            if (tokens.size() == MAX_TOKENS) {
+                throw error("more than " + MAX_TOKENS + " tokens");
+            }
+            tokens.add(token);
+            quoted.add(isQuoted);
+        }
+
+        private InvalidTagQueryException error(String reason) {
+            return new InvalidTagQueryException(reason + " in \"" + expression + "\"");
+        }
+    }
+}
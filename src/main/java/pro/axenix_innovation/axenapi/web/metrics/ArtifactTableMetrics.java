@@ -0,0 +1,57 @@
+package pro.axenix_innovation.axenapi.web.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+import pro.axenix_innovation.axenapi.web.repository.DocxSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.repository.MarkdownSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.repository.PdfSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.repository.ServiceCodeRepository;
+import pro.axenix_innovation.axenapi.web.repository.SpecificationRepository;
+
+/**
+ * Число строк в таблицах сгенерированных артефактов (спецификации, документы, код).
+ * Значение запрашивается из БД при каждом снятии метрик.
+ */
+@Component
+public class ArtifactTableMetrics implements MeterBinder {
+
+    public static final String ARTIFACT_ROWS = "axenapi.artifacts.rows";
+
+    private final SpecificationRepository specificationRepository;
+    private final MarkdownSpecificationRepository markdownSpecificationRepository;
+    private final PdfSpecificationRepository pdfSpecificationRepository;
+    private final DocxSpecificationRepository docxSpecificationRepository;
+    private final ServiceCodeRepository serviceCodeRepository;
+
+    public ArtifactTableMetrics(SpecificationRepository specificationRepository,
+                                MarkdownSpecificationRepository markdownSpecificationRepository,
+                                PdfSpecificationRepository pdfSpecificationRepository,
+                                DocxSpecificationRepository docxSpecificationRepository,
+                                ServiceCodeRepository serviceCodeRepository) {
+        this.specificationRepository = specificationRepository;
+        this.markdownSpecificationRepository = markdownSpecificationRepository;
+        this.pdfSpecificationRepository = pdfSpecificationRepository;
+        this.docxSpecificationRepository = docxSpecificationRepository;
+        this.serviceCodeRepository = serviceCodeRepository;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "specification", specificationRepository);
+        register(registry, "markdown_specification", markdownSpecificationRepository);
+        register(registry, "pdf_specification", pdfSpecificationRepository);
+        register(registry, "docx_specification", docxSpecificationRepository);
+        register(registry, "service_code", serviceCodeRepository);
+    }
+
+    private static void register(MeterRegistry registry, String table, CrudRepository<?, ?> repository) {
+        Gauge.builder(ARTIFACT_ROWS, repository, CrudRepository::count)
+                .description("Number of rows in a generated artifact table")
+                .tag("table", table)
+                .strongReference(true)
+                .register(registry);
+    }
+}
@@ -0,0 +1,152 @@
+package pro.axenix_innovation.axenapi.web.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Метрики этапов обработки запросов. Этапы в основном выполняются статическими утилитами,
+ * поэтому метрики пишутся в {@link Metrics#globalRegistry}, к которому Spring Boot подключает
+ * свои реестры (в том числе Prometheus).
+ * <ul>
+ *     <li>{@value #STAGE_TIMER} - таймер с гистограммой, теги {@code stage} и {@code outcome};</li>
+ *     <li>{@value #GRAPH_SIZE} - размер последнего обработанного графа, теги {@code graph} и {@code element}.</li>
+ * </ul>
+ */
+public final class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "axenapi.pipeline.stage";
+    public static final String GRAPH_SIZE = "axenapi.graph.size";
+
+    public enum Stage {
+        PARSE("parse"),
+        TRANSLATE("translate"),
+        MERGE("merge"),
+        SERVICE_UPDATE("service_update"),
+        DIFF("diff"),
+        PROJECTION("projection"),
+        VALIDATE("validate"),
+        OPENAPI_GENERATION("openapi_generation"),
+        MARKDOWN_CODEGEN("markdown_codegen"),
+        PDF_RENDER("pdf_render"),
+        DOCX_RENDER("docx_render"),
+        LOB_PERSIST("lob_persist"),
+        DOWNLOAD("download");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /** Какой граф измеряется: результат слияния или граф, пришедший на валидацию. */
+    public enum GraphKind {
+        MERGED("merged"),
+        VALIDATED("validated");
+
+        private final String tag;
+
+        GraphKind(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<GraphKind, AtomicLong[]> GRAPH_SIZES = new ConcurrentHashMap<>();
+    private static final List<String> GRAPH_ELEMENTS = List.of("nodes", "events", "links");
+
+    private PipelineMetrics() {
+    }
+
+    @FunctionalInterface
+    public interface StageCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Выполняет этап и записывает его длительность; исключение этапа пробрасывается как есть.
+     */
+    public static <T, E extends Exception> T time(Stage stage, StageCall<T, E> call) throws E {
+        try (StageTimer timer = start(stage)) {
+            return timer.success(call.call());
+        }
+    }
+
+    /**
+     * Начинает замер этапа. Если до {@link StageTimer#close()} не вызван
+     * {@link StageTimer#success}, этап записывается с {@code outcome=error}.
+     */
+    public static StageTimer start(Stage stage) {
+        return new StageTimer(stage, System.nanoTime());
+    }
+
+    public static void recordGraph(GraphKind kind, EventGraphDTO graph) {
+        if (graph == null) {
+            return;
+        }
+        AtomicLong[] sizes = GRAPH_SIZES.computeIfAbsent(kind, PipelineMetrics::registerGraphGauges);
+        sizes[0].set(graph.getNodes() != null ? graph.getNodes().size() : 0);
+        sizes[1].set(graph.getEvents() != null ? graph.getEvents().size() : 0);
+        sizes[2].set(graph.getLinks() != null ? graph.getLinks().size() : 0);
+    }
+
+    static Timer timer(Stage stage, String outcome) {
+        return TIMERS.computeIfAbsent(stage.tag() + ':' + outcome, key -> Timer.builder(STAGE_TIMER)
+                .description("Duration of a request pipeline stage")
+                .tag("stage", stage.tag())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry));
+    }
+
+    private static AtomicLong[] registerGraphGauges(GraphKind kind) {
+        AtomicLong[] sizes = new AtomicLong[GRAPH_ELEMENTS.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = new AtomicLong();
+            Gauge.builder(GRAPH_SIZE, sizes[i], AtomicLong::get)
+                    .description("Size of the last processed event graph")
+                    .tag("graph", kind.tag)
+                    .tag("element", GRAPH_ELEMENTS.get(i))
+                    .register(Metrics.globalRegistry);
+        }
+        return sizes;
+    }
+
+    public static final class StageTimer implements AutoCloseable {
+
+        private final Stage stage;
+        private final long startNanos;
+        private boolean succeeded;
+
+        private StageTimer(Stage stage, long startNanos) {
+            this.stage = stage;
+            this.startNanos = startNanos;
+        }
+
+        public <T> T success(T result) {
+            succeeded = true;
+            return result;
+        }
+
+        public void success() {
+            succeeded = true;
+        }
+
+        @Override
+        public void close() {
+            timer(stage, succeeded ? "success" : "error").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
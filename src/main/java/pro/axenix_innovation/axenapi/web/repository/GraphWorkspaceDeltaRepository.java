@@ -0,0 +1,26 @@
+package pro.axenix_innovation.axenapi.web.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pro.axenix_innovation.axenapi.web.entity.GraphWorkspaceDelta;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GraphWorkspaceDeltaRepository extends JpaRepository<GraphWorkspaceDelta, UUID> {
+
+    List<GraphWorkspaceDelta> findByWorkspaceIdAndVersionGreaterThanOrderByVersionAsc(UUID workspaceId, long version);
+
+    @Query("SELECT MIN(d.fromVersion) FROM GraphWorkspaceDelta d WHERE d.workspaceId = :workspaceId")
+    Long findOldestFromVersion(@Param("workspaceId") UUID workspaceId);
+
+    @Modifying
+    @Query("DELETE FROM GraphWorkspaceDelta d WHERE d.workspaceId = :workspaceId AND d.version <= :version")
+    void deleteUpToVersion(@Param("workspaceId") UUID workspaceId, @Param("version") long version);
+
+    @Modifying
+    @Query("DELETE FROM GraphWorkspaceDelta d WHERE d.workspaceId = :workspaceId")
+    void deleteAllByWorkspace(@Param("workspaceId") UUID workspaceId);
+}
@@ -0,0 +1,9 @@
+package pro.axenix_innovation.axenapi.web.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import pro.axenix_innovation.axenapi.web.entity.GraphWorkspace;
+
+import java.util.UUID;
+
+public interface GraphWorkspaceRepository extends JpaRepository<GraphWorkspace, UUID> {
+}
@@ -2,6 +2,7 @@ package pro.axenix_innovation.axenapi.web.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
@@ -13,6 +14,7 @@ import java.util.regex.Pattern;
 
 @Slf4j
 @Service
+@Lazy
 @RequiredArgsConstructor
 public class AllServicePdfGenerationService {
 
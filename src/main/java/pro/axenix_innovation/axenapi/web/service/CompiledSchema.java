@@ -0,0 +1,357 @@
+package pro.axenix_innovation.axenapi.web.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.RegExp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * JSON-схема, заранее разобранная в дерево генераторов значений.
+ * Схема обходится один раз при компиляции, после чего {@link #generate()} только
+ * вызывает готовые генераторы. Автоматы для {@code pattern} кэшируются между схемами.
+ * Правила генерации совпадают с {@link SchemaToJsonService#generateFieldValue}.
+ */
+public final class CompiledSchema {
+
+    /** Размер порции при параллельной генерации; каждая порция получает свой контекст. */
+    static final int CHUNK_SIZE = 256;
+    private static final int PATTERN_CACHE_LIMIT = 1024;
+    private static final Map<String, Automaton> PATTERN_CACHE = new ConcurrentHashMap<>();
+    /** Классы символов, которые Generex заменяет перед разбором шаблона. */
+    private static final Map<String, String> PREDEFINED_CHARACTER_CLASSES = Map.of(
+            "\\\\d", "[0-9]",
+            "\\\\D", "[^0-9]",
+            "\\\\s", "[ \t\n\f\r]",
+            "\\\\S", "[^ \t\n\f\r]",
+            "\\\\w", "[a-zA-Z_0-9]",
+            "\\\\W", "[^a-zA-Z_0-9]");
+    private static final Pattern QUOTED = Pattern.compile("\\\\Q(.*?)\\\\E");
+    private static final Pattern SPECIAL = Pattern.compile("[.^$*+?(){|\\[\\\\@]");
+
+    private final ValueGenerator root;
+
+    private CompiledSchema(ValueGenerator root) {
+        this.root = root;
+    }
+
+    /**
+     * Компилирует схему значения поля (type, oneOf/anyOf/allOf, enum, pattern и т.д.).
+     */
+    public static CompiledSchema compile(JsonNode schemaNode, String contentType) {
+        return new CompiledSchema(compileNode(schemaNode, contentType));
+    }
+
+    /**
+     * Компилирует схему как объект по её {@code properties}, без учета остальных ключевых слов.
+     */
+    public static CompiledSchema compileObject(JsonNode schemaNode, String contentType) {
+        return new CompiledSchema(compileProperties(schemaNode, contentType));
+    }
+
+    public JsonNode generate() {
+        return root.generate(GenerationContext.create(), null);
+    }
+
+    public JsonNode generate(String fieldName) {
+        return root.generate(GenerationContext.create(), fieldName);
+    }
+
+    public JsonNode generate(GenerationContext context) {
+        return root.generate(context, null);
+    }
+
+    public JsonNode generate(GenerationContext context, String fieldName) {
+        return root.generate(context, fieldName);
+    }
+
+    public List<JsonNode> generate(int count) {
+        return generate(count, null);
+    }
+
+    /**
+     * Генерирует {@code count} примеров. Примеры делятся на порции по {@link #CHUNK_SIZE},
+     * порции генерируются параллельно, каждая в своем контексте, производном от seed.
+     * При одинаковом seed результат одинаков независимо от числа потоков.
+     */
+    public List<JsonNode> generate(int count, Long seed) {
+        GenerationContext context = GenerationContext.create(seed);
+        JsonNode[] result = new JsonNode[count];
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream chunkStream = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            chunkStream = chunkStream.parallel();
+        }
+        chunkStream.forEach(chunk -> {
+            int[] index = {chunk * CHUNK_SIZE};
+            generateChunk(context, chunk, count, node -> result[index[0]++] = node);
+        });
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Генерирует примеры порции {@code chunk} из общего числа {@code count}
+     * в контексте, производном от {@code context}.
+     */
+    void generateChunk(GenerationContext context, long chunk, long count, Consumer<JsonNode> consumer) {
+        GenerationContext chunkContext = context.fork(chunk);
+        long end = Math.min(count, (chunk + 1) * CHUNK_SIZE);
+        for (long i = chunk * CHUNK_SIZE; i < end; i++) {
+            consumer.accept(root.generate(chunkContext, null));
+        }
+    }
+
+    @FunctionalInterface
+    interface ValueGenerator {
+        JsonNode generate(GenerationContext context, String fieldName);
+    }
+
+    private static ValueGenerator compileNode(JsonNode schemaNode, String contentType) {
+        if (schemaNode == null || schemaNode.isNull()) {
+            return (ctx, fieldName) -> NullNode.getInstance();
+        }
+
+        if (schemaNode.has("oneOf") && schemaNode.get("oneOf").isArray()) {
+            JsonNode oneOfArray = schemaNode.get("oneOf");
+            JsonNode chosen = contentType != null ? chooseByContentType(oneOfArray, contentType) : null;
+            if (chosen != null) {
+                return compileNode(chosen, contentType);
+            }
+            return choice(compileAll(oneOfArray, contentType));
+        }
+
+        if (schemaNode.has("anyOf") && schemaNode.get("anyOf").isArray()) {
+            return choice(compileAll(schemaNode.get("anyOf"), contentType));
+        }
+
+        if (schemaNode.has("allOf") && schemaNode.get("allOf").isArray()) {
+            List<ValueGenerator> parts = compileAll(schemaNode.get("allOf"), contentType);
+            return (ctx, fieldName) -> {
+                ObjectNode mergedNode = JsonNodeFactory.instance.objectNode();
+                for (ValueGenerator part : parts) {
+                    JsonNode partial = part.generate(ctx, fieldName);
+                    if (partial.isObject()) {
+                        mergedNode.setAll((ObjectNode) partial);
+                    }
+                }
+                return mergedNode;
+            };
+        }
+
+        String type = resolveType(schemaNode);
+
+        if (schemaNode.has("enum") && schemaNode.get("enum").isArray() && schemaNode.get("enum").size() > 0) {
+            JsonNode enumArray = schemaNode.get("enum");
+            return (ctx, fieldName) -> enumArray.get(ctx.nextInt(enumArray.size()));
+        }
+
+        if ("string".equals(type) && schemaNode.has("pattern")) {
+            String pattern = schemaNode.get("pattern").asText();
+            if (compilePattern(pattern) == null) {
+                return (ctx, fieldName) -> TextNode.valueOf("example_" + fieldName);
+            }
+            return (ctx, fieldName) -> {
+                try {
+                    return TextNode.valueOf(ctx.generex(pattern).random());
+                } catch (Exception e) {
+                    return TextNode.valueOf("example_" + fieldName);
+                }
+            };
+        }
+
+        switch (type) {
+            case "integer": {
+                int min = schemaNode.has("minimum") ? schemaNode.get("minimum").asInt() : 0;
+                int max = schemaNode.has("maximum") ? schemaNode.get("maximum").asInt() : min + 100;
+                int bound = max - min + 1;
+                return (ctx, fieldName) -> IntNode.valueOf(min + ctx.nextInt(bound));
+            }
+            case "number": {
+                double min = schemaNode.has("minimum") ? schemaNode.get("minimum").asDouble() : 0.0;
+                double max = schemaNode.has("maximum") ? schemaNode.get("maximum").asDouble() : min + 100.0;
+                return (ctx, fieldName) -> DoubleNode.valueOf(min + (max - min) * ctx.nextDouble());
+            }
+            case "boolean":
+                return (ctx, fieldName) -> BooleanNode.valueOf(ctx.nextBoolean());
+            case "string":
+                return compileString(schemaNode);
+            case "object":
+                return compileProperties(schemaNode, contentType);
+            case "array": {
+                if (!schemaNode.has("items")) {
+                    return (ctx, fieldName) -> NullNode.getInstance();
+                }
+                ValueGenerator item = compileNode(schemaNode.get("items"), contentType);
+                return (ctx, fieldName) -> {
+                    ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+                    int count = 1 + ctx.nextInt(3);
+                    for (int i = 0; i < count; i++) {
+                        arrayNode.add(item.generate(ctx, fieldName + "_" + i));
+                    }
+                    return arrayNode;
+                };
+            }
+            default:
+                return (ctx, fieldName) -> NullNode.getInstance();
+        }
+    }
+
+    private static ValueGenerator compileString(JsonNode schemaNode) {
+        if (schemaNode.has("format")) {
+            switch (schemaNode.get("format").asText()) {
+                case "email":
+                    return constant("example@example.com");
+                case "date-time":
+                    return constant("2025-01-01T12:00:00Z");
+                case "uri":
+                    return constant("https://example.com/resource");
+                default:
+                    break;
+            }
+        }
+        return (ctx, fieldName) -> TextNode.valueOf("example_" + fieldName);
+    }
+
+    private static ValueGenerator compileProperties(JsonNode schemaNode, String contentType) {
+        Map<String, ValueGenerator> properties = new LinkedHashMap<>();
+        if (schemaNode != null && schemaNode.has("properties")) {
+            Iterator<Map.Entry<String, JsonNode>> fields = schemaNode.get("properties").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                properties.put(field.getKey(), compileNode(field.getValue(), contentType));
+            }
+        }
+        return (ctx, fieldName) -> {
+            ObjectNode result = JsonNodeFactory.instance.objectNode();
+            properties.forEach((name, generator) -> result.set(name, generator.generate(ctx, name)));
+            return result;
+        };
+    }
+
+    private static JsonNode chooseByContentType(JsonNode oneOfArray, String contentType) {
+        for (JsonNode candidate : oneOfArray) {
+            if (candidate.has("title") && contentType.equalsIgnoreCase(candidate.get("title").asText())) {
+                return candidate;
+            }
+            if (candidate.has("description") && contentType.equalsIgnoreCase(candidate.get("description").asText())) {
+                return candidate;
+            }
+            if (candidate.has("$ref")
+                    && candidate.get("$ref").asText().toLowerCase().contains(contentType.toLowerCase())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static List<ValueGenerator> compileAll(JsonNode schemas, String contentType) {
+        List<ValueGenerator> generators = new ArrayList<>(schemas.size());
+        for (JsonNode schema : schemas) {
+            generators.add(compileNode(schema, contentType));
+        }
+        return generators;
+    }
+
+    private static ValueGenerator choice(List<ValueGenerator> generators) {
+        if (generators.isEmpty()) {
+            return (ctx, fieldName) -> NullNode.getInstance();
+        }
+        return (ctx, fieldName) -> generators.get(ctx.nextInt(generators.size())).generate(ctx, fieldName);
+    }
+
+    private static ValueGenerator constant(String value) {
+        TextNode node = TextNode.valueOf(value);
+        return (ctx, fieldName) -> node;
+    }
+
+    /**
+     * Возвращает автомат для шаблона из кэша или строит новый; null, если шаблон не поддерживается.
+     * Автомат общий для всех потоков и только читается; случайность у каждого контекста своя
+     * (см. {@link GenerationContext#generex}).
+     */
+    static Automaton compilePattern(String pattern) {
+        String trimmed = trimAnchors(pattern);
+
+        Automaton cached = PATTERN_CACHE.get(trimmed);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Automaton automaton = new RegExp(toAutomatonSyntax(trimmed)).toAutomaton();
+            // раскрываем singleton-автомат до публикации: дальше автомат не изменяется
+            automaton.getInitialState();
+            if (PATTERN_CACHE.size() >= PATTERN_CACHE_LIMIT) {
+                PATTERN_CACHE.clear();
+            }
+            PATTERN_CACHE.put(trimmed, automaton);
+            return automaton;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** Приводит шаблон к синтаксису dk.brics так же, как {@code new Generex(String)}. */
+    private static String toAutomatonSyntax(String pattern) {
+        StringBuilder sb = new StringBuilder(pattern);
+        Matcher quoted = QUOTED.matcher(sb);
+        int from = 0;
+        while (quoted.find(from)) {
+            int start = quoted.start();
+            String literal = SPECIAL.matcher(quoted.group(1)).replaceAll("\\\\$0");
+            sb.replace(start, quoted.end(), literal);
+            from = start + literal.length();
+            quoted = QUOTED.matcher(sb);
+        }
+        String result = sb.toString();
+        for (Map.Entry<String, String> characterClass : PREDEFINED_CHARACTER_CLASSES.entrySet()) {
+            result = result.replaceAll(characterClass.getKey(), characterClass.getValue());
+        }
+        return result;
+    }
+
+    static String trimAnchors(String pattern) {
+        if (pattern.startsWith("^")) pattern = pattern.substring(1);
+        if (pattern.endsWith("$")) pattern = pattern.substring(0, pattern.length() - 1);
+        return pattern;
+    }
+
+    static String resolveType(JsonNode schemaNode) {
+        JsonNode typeNode = schemaNode.get("type");
+
+        if (typeNode == null) {
+            return "object";
+        }
+
+        if (typeNode.isTextual()) {
+            return typeNode.asText();
+        }
+
+        if (typeNode.isArray()) {
+            for (JsonNode node : typeNode) {
+                if (!"null".equals(node.asText())) {
+                    return node.asText();
+                }
+            }
+        }
+
+        return "object";
+    }
+}
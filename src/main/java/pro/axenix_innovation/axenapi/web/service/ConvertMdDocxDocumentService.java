@@ -18,7 +18,9 @@ import org.docx4j.convert.in.xhtml.XHTMLImporter;
 import org.docx4j.convert.in.xhtml.XHTMLImporterImpl;
 import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
@@ -32,6 +34,7 @@ import java.util.stream.Collectors;
  * в .docx файл в виде byte[]
  */
 @Service
+@Lazy
 @RequiredArgsConstructor
 @Slf4j
 public class ConvertMdDocxDocumentService {
@@ -42,6 +45,10 @@ public class ConvertMdDocxDocumentService {
      * @return byte[] - конвертированный .docx файл
      */
     public byte[] convertMdToDocx(List<String> mdDocuments) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.DOCX_RENDER, () -> renderDocx(mdDocuments));
+    }
+
+    private byte[] renderDocx(List<String> mdDocuments) {
         log.info(messageHelper.getMessage("axenapi.info.convert.document.md.docx"));
 
         if (mdDocuments == null || mdDocuments.isEmpty()) {
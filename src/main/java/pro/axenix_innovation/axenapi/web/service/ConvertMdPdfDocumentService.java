@@ -11,7 +11,9 @@ import com.vladsch.flexmark.util.data.MutableDataSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -24,6 +26,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
+@Lazy
 @RequiredArgsConstructor
 @Slf4j
 public class ConvertMdPdfDocumentService {
@@ -34,6 +37,10 @@ public class ConvertMdPdfDocumentService {
     private final MessageHelper messageHelper;
 
     public byte[] convertMdToPdf(List<String> mdDocuments) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.PDF_RENDER, () -> renderPdf(mdDocuments));
+    }
+
+    private byte[] renderPdf(List<String> mdDocuments) {
         log.info(messageHelper.getMessage("axenapi.info.convert.document.md.pdf"));
 
         if (mdDocuments == null || mdDocuments.isEmpty()) {
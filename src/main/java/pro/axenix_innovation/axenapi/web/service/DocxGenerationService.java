@@ -3,6 +3,7 @@ package pro.axenix_innovation.axenapi.web.service;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import pro.axenix_innovation.axenapi.web.generate.DocxSpecificationDbHandler;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
@@ -13,6 +14,7 @@ import java.util.*;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_DURING_DOCX_GEN;
 
 @Service
+@Lazy
 @RequiredArgsConstructor
 public class DocxGenerationService {
 
@@ -10,6 +10,7 @@ import pro.axenix_innovation.axenapi.web.repository.DocxSpecificationRepository;
 import pro.axenix_innovation.axenapi.web.repository.MarkdownSpecificationRepository;
 import pro.axenix_innovation.axenapi.web.repository.PdfSpecificationRepository;
 import pro.axenix_innovation.axenapi.web.repository.SpecificationRepository;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.io.FileNotFoundException;
 import java.io.Reader;
@@ -37,6 +38,12 @@ public class DownloadService {
 
     @Transactional(readOnly = true)
     public byte[] getDocxFileBytes(String fileId) throws SQLException, FileNotFoundException {
+        try (PipelineMetrics.StageTimer timer = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            return timer.success(readDocxFileBytes(fileId));
+        }
+    }
+
+    private byte[] readDocxFileBytes(String fileId) throws SQLException, FileNotFoundException {
         DocxSpecification docxSpecification = docxSpecificationRepository.findById(fileId)
                 .orElseThrow(() -> new FileNotFoundException("DOCX specification not found for fileId: " + fileId));
 
@@ -51,6 +58,12 @@ public class DownloadService {
 
     @Transactional(readOnly = true)
     public byte[] getPdfFileBytes(String fileId) throws SQLException, FileNotFoundException {
+        try (PipelineMetrics.StageTimer timer = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            return timer.success(readPdfFileBytes(fileId));
+        }
+    }
+
+    private byte[] readPdfFileBytes(String fileId) throws SQLException, FileNotFoundException {
         PdfSpecification pdfSpecification = pdfSpecificationRepository.findById(fileId)
                 .orElseThrow(() -> new FileNotFoundException("PDF specification not found for fileId: " + fileId));
 
@@ -65,6 +78,12 @@ public class DownloadService {
 
     @Transactional(readOnly = true)
     public byte[] getMarkdownFileBytes(String fileId) throws SQLException, FileNotFoundException {
+        try (PipelineMetrics.StageTimer timer = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            return timer.success(readMarkdownFileBytes(fileId));
+        }
+    }
+
+    private byte[] readMarkdownFileBytes(String fileId) throws SQLException, FileNotFoundException {
         MarkdownSpecification markdownSpecification = markdownSpecificationRepository.findById(fileId)
                 .orElseThrow(() -> new FileNotFoundException("Markdown specification not found for fileId: " + fileId));
 
@@ -80,6 +99,12 @@ public class DownloadService {
 
     @Transactional(readOnly = true)
     public byte[] getJsonSpecBytes(String fileId) throws Exception {
+        try (PipelineMetrics.StageTimer timer = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            return timer.success(readJsonSpecBytes(fileId));
+        }
+    }
+
+    private byte[] readJsonSpecBytes(String fileId) throws Exception {
         Specification specification = specificationRepository.findById(fileId)
                 .orElseThrow(() -> new FileNotFoundException("Specification not found by id: " + fileId));
 
@@ -102,6 +127,12 @@ public class DownloadService {
 
     @Transactional(readOnly = true)
     public byte[] getYamlSpecBytes(String fileId) throws Exception {
+        try (PipelineMetrics.StageTimer timer = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            return timer.success(readYamlSpecBytes(fileId));
+        }
+    }
+
+    private byte[] readYamlSpecBytes(String fileId) throws Exception {
         Specification specification = specificationRepository.findById(fileId)
                 .orElseThrow(() -> new FileNotFoundException("Specification not found by id: " + fileId));
 
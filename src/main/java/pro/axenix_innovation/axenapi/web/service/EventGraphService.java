@@ -1,8 +1,6 @@
 package pro.axenix_innovation.axenapi.web.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.swagger.v3.oas.models.OpenAPI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +10,7 @@ import pro.axenix_innovation.axenapi.web.api.AxenAPIController;
 import pro.axenix_innovation.axenapi.web.exception.NotServiceNode;
 import pro.axenix_innovation.axenapi.web.exception.OpenAPISpecParseException;
 import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
+import pro.axenix_innovation.axenapi.web.graph.ServiceSubgraphUpdater;
 import pro.axenix_innovation.axenapi.web.model.ErrorDTO;
 import pro.axenix_innovation.axenapi.web.model.EventDTO;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
@@ -19,6 +18,7 @@ import pro.axenix_innovation.axenapi.web.model.LinkDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
 import pro.axenix_innovation.axenapi.web.model.UpdateServiceSpecificationPostRequest;
 import pro.axenix_innovation.axenapi.web.util.OpenAPIParser;
+import pro.axenix_innovation.axenapi.web.util.ParsedSpecification;
 import pro.axenix_innovation.axenapi.web.util.SolidOpenAPITranslator;
 import pro.axenix_innovation.axenapi.web.util.ProcessingFiles;
 import pro.axenix_innovation.axenapi.web.validate.OpenApiValidator;
@@ -31,69 +31,110 @@ import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_U
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_ALL_ITEMS_HAD_ERRORS;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_INVALID_JSON_FORMAT_SPEC;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_INVALID_OPEN_API_FORMAT_TITLE;
-import static pro.axenix_innovation.axenapi.web.graph.EventGraphFacade.merge;
 
 @Service
 public class EventGraphService {
 
     private static final Logger log = LoggerFactory.getLogger(AxenAPIController.class);
 
+    /**
+     * Добавляет сервисы из файлов спецификаций в граф в три этапа:
+     * <ol>
+     *     <li>все файлы разбираются, валидируются и транслируются параллельно, ошибки собираются по файлам;</li>
+     *     <li>сервисы группируются по имени (из нескольких файлов одного сервиса берется последний)
+     *     и делятся на заменяющие уже существующие в графе и новые;</li>
+     *     <li>существующие сервисы заменяются на месте одним проходом по графу
+     *     ({@link ServiceSubgraphUpdater#replaceAll}), новые добавляются одним {@link EventGraphFacade#mergeAll}.</li>
+     * </ol>
+     */
     public static EventGraphDTO addServiceToGraph(List<MultipartFile> files, EventGraphDTO eventGraph) {
         EventGraphDTO updatedGraph = initGraph(eventGraph);
         List<ErrorDTO> errors = new ArrayList<>();
 
-        for (MultipartFile file : files) {
-            try {
-                if (file.isEmpty()) {
-                    errors.add(new ErrorDTO("File: " + file.getOriginalFilename(), "File is empty"));
-                    continue;
+        Map<String, EventGraphDTO> services = new LinkedHashMap<>();
+        for (ParsedFile file : parseFiles(files)) {
+            if (file.error() != null) {
+                errors.add(file.error());
+            } else if (file.graph() != null) {
+                String serviceName = file.graph().getName();
+                if (serviceName == null || serviceName.isEmpty()) {
+                    errors.add(new ErrorDTO("File: " + file.name(), "Service name is missing"));
+                } else {
+                    services.put(serviceName, file.graph());
                 }
+            }
+        }
 
-                if (!OpenApiValidator.validateOpenApiSpec(file)) {
-                    errors.add(new ErrorDTO("File: " + file.getOriginalFilename(), "Invalid OpenAPI format"));
-                    continue;
-                }
-
-                ObjectMapper objectMapper = getObjectMapperByFilename(file.getOriginalFilename());
-
-                EventGraphDTO newGraph = ProcessingFiles.processFile(file, objectMapper);
-                if (newGraph == null) {
-                    continue;
+        Map<String, UUID> existingServices = new HashMap<>();
+        if (updatedGraph.getNodes() != null) {
+            for (NodeDTO node : updatedGraph.getNodes()) {
+                if (NodeDTO.TypeEnum.SERVICE.equals(node.getType()) && node.getName() != null) {
+                    existingServices.putIfAbsent(node.getName(), node.getId());
                 }
-                updatedGraph = addGraphToService(updatedGraph, newGraph, errors);
-            } catch (IllegalArgumentException e) {
-                errors.add(new ErrorDTO("File: " + file.getOriginalFilename(),
-                        "Invalid OpenAPI format"));
-                log.warn(MessageHelper.getStaticMessage(WARN_INVALID_OPEN_API_FORMAT_TITLE, file.getOriginalFilename()), e);
-            } catch (Exception e) {
-                errors.add(new ErrorDTO("File: " + file.getOriginalFilename(),
-                        "Unknown error occurred"));
-                log.error(MessageHelper.getStaticMessage(ERROR_UNKNOWN_ERROR_PROC_FILE, file.getOriginalFilename()), e);
             }
         }
+        Map<UUID, EventGraphDTO> replacedServices = new LinkedHashMap<>();
+        List<EventGraphDTO> newServices = new ArrayList<>();
+        for (Map.Entry<String, EventGraphDTO> service : services.entrySet()) {
+            UUID serviceUUID = existingServices.get(service.getKey());
+            if (serviceUUID != null) {
+                log.info(MessageHelper.getStaticMessage("axenapi.info.updating.exist.service", service.getKey()));
+                replacedServices.put(serviceUUID, service.getValue());
+            } else {
+                newServices.add(service.getValue());
+            }
+        }
+        if (!replacedServices.isEmpty()) {
+            logGraphState("Before replace of " + replacedServices.size() + " services", updatedGraph);
+            updatedGraph = ServiceSubgraphUpdater.replaceAll(updatedGraph, replacedServices, false);
+            logGraphState("After replace of " + replacedServices.size() + " services", updatedGraph);
+        }
+        if (!newServices.isEmpty()) {
+            logGraphState("Before merge of " + newServices.size() + " services", updatedGraph);
+            updatedGraph = EventGraphFacade.mergeAll(updatedGraph, newServices);
+            logGraphState("After merge of " + newServices.size() + " services", updatedGraph);
+        }
 
         return handleResult(updatedGraph, errors, files.size(), eventGraph);
     }
 
-    private static EventGraphDTO addGraphToService(EventGraphDTO oldGraph, EventGraphDTO newGraph, List<ErrorDTO> errors) {
-        String serviceName = newGraph.getName();
+    /**
+     * Результат разбора одного файла: граф сервиса или ошибка.
+     */
+    private record ParsedFile(String name, EventGraphDTO graph, ErrorDTO error) {
+    }
 
-        if (serviceName == null || serviceName.isEmpty()) {
-            errors.add(new ErrorDTO("File: some_file", "Service name is missing"));
-            return null;
+    /**
+     * Разбирает файлы параллельно, сохраняя их порядок.
+     */
+    private static List<ParsedFile> parseFiles(List<MultipartFile> files) {
+        if (files.size() < 2) {
+            return files.stream().map(EventGraphService::parseFile).toList();
         }
+        return files.parallelStream().map(EventGraphService::parseFile).toList();
+    }
 
-        boolean serviceExists = oldGraph.getNodes() != null && oldGraph.getNodes().stream()
-                .anyMatch(node -> NodeDTO.TypeEnum.SERVICE.equals(node.getType()) && serviceName.equals(node.getName()));
+    private static ParsedFile parseFile(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        try {
+            if (file.isEmpty()) {
+                return new ParsedFile(fileName, null, new ErrorDTO("File: " + fileName, "File is empty"));
+            }
 
-        if (serviceExists) {
-            log.info(MessageHelper.getStaticMessage("axenapi.info.updating.exist.service", serviceName));
-            logGraphState("Before removeServiceByName", oldGraph);
-            oldGraph = removeServiceByName(oldGraph, serviceName);
-            logGraphState("After removeServiceByName", oldGraph);
-        }
+            // Потоковая проверка до разбора: невалидный файл не разбирается в дерево и модель OpenAPI
+            if (!OpenApiValidator.validateOpenApiSpecStreaming(file)) {
+                return new ParsedFile(fileName, null, new ErrorDTO("File: " + fileName, "Invalid OpenAPI format"));
+            }
 
-        return mergeGraphs(oldGraph, newGraph, "File: " + serviceName);
+            ParsedSpecification specification = OpenAPIParser.parse(ProcessingFiles.getFileContent(file));
+            return new ParsedFile(fileName, ProcessingFiles.processFile(fileName, specification), null);
+        } catch (IllegalArgumentException e) {
+            log.warn(MessageHelper.getStaticMessage(WARN_INVALID_OPEN_API_FORMAT_TITLE, fileName), e);
+            return new ParsedFile(fileName, null, new ErrorDTO("File: " + fileName, "Invalid OpenAPI format"));
+        } catch (Exception e) {
+            log.error(MessageHelper.getStaticMessage(ERROR_UNKNOWN_ERROR_PROC_FILE, fileName), e);
+            return new ParsedFile(fileName, null, new ErrorDTO("File: " + fileName, "Unknown error occurred"));
+        }
     }
 
     public static EventGraphDTO updateServiceSpecification(UpdateServiceSpecificationPostRequest request) throws OpenAPISpecParseException, NotServiceNode {
@@ -101,7 +142,6 @@ public class EventGraphService {
             throw new OpenAPISpecParseException("Specification is empty");
         }
         EventGraphDTO updatedGraph = initGraph(request.getEventGraph());
-        List<ErrorDTO> errors = new ArrayList<>();
         EventGraphFacade graphFacade = new EventGraphFacade(updatedGraph);
         NodeDTO nodeById = graphFacade.getNodeById(request.getServiceNodeId());
         if(nodeById == null || nodeById.getType() != NodeDTO.TypeEnum.SERVICE) {
@@ -111,10 +151,19 @@ public class EventGraphService {
         if (eventGraphFacade == null || eventGraphFacade.eventGraph() == null || eventGraphFacade.eventGraph().getName() == null || eventGraphFacade.eventGraph().getName().trim().isEmpty()) {
             throw new OpenAPISpecParseException("Service name is missing in specification");
         }
-        updatedGraph = removeService(updatedGraph, request.getServiceNodeId(), "");
-        updatedGraph = filterUnusedEvents(updatedGraph);
-        EventGraphDTO result = addGraphToService(updatedGraph, eventGraphFacade.eventGraph(), errors);
-        return handleResult(result, errors, 1, request.getEventGraph());
+        return replaceService(updatedGraph, request.getServiceNodeId(), eventGraphFacade.eventGraph(), true);
+    }
+
+    /**
+     * Удаляет сервис, узлы, принадлежащие только ему, их связи и события, на которые больше нет связей.
+     */
+    public static EventGraphDTO removeServiceFromGraph(EventGraphDTO eventGraph, UUID serviceNodeId) throws NotServiceNode {
+        EventGraphDTO graph = initGraph(eventGraph);
+        NodeDTO nodeById = new EventGraphFacade(graph).getNodeById(serviceNodeId);
+        if (nodeById == null || nodeById.getType() != NodeDTO.TypeEnum.SERVICE) {
+            throw new NotServiceNode(serviceNodeId);
+        }
+        return filterUnusedEvents(removeServiceById(graph, serviceNodeId));
     }
 
     private static EventGraphDTO filterUnusedEvents(EventGraphDTO graph) {
@@ -151,14 +200,6 @@ public class EventGraphService {
         return updatedGraph;
     }
 
-    private static ObjectMapper getObjectMapperByFilename(String filename) {
-        if (filename != null && (filename.endsWith(".yaml") || filename.endsWith(".yml"))) {
-            return new ObjectMapper(new YAMLFactory());
-        } else {
-            return new ObjectMapper();
-        }
-    }
-
     private static EventGraphDTO removeServiceById(EventGraphDTO graph, UUID serviceNodeId) {
         logGraphState("Before removeServiceById", graph);
         EventGraphDTO eventGraphDTO = removeService(graph,
@@ -169,17 +210,16 @@ public class EventGraphService {
         return eventGraphDTO;
     }
 
-    private static EventGraphDTO removeServiceByName(EventGraphDTO graph, String serviceName) {
-        logGraphState("Before removeServiceByName", graph);
-        UUID serviceUUID = Objects.requireNonNull(graph.getNodes().stream()
-                .filter(node -> NodeDTO.TypeEnum.SERVICE.equals(node.getType())
-                        && serviceName.equals(node.getName())).findFirst().orElse(null)).getId();
-        EventGraphDTO eventGraphDTO = removeService(graph,
-                serviceUUID,
-                "service '" + serviceName + "'");
-        logGraphState("After removeServiceByName", graph);
-
-        return eventGraphDTO;
+    /**
+     * Заменяет подграф сервиса на месте, сохраняя id неизменившихся узлов, событий и связей
+     * (см. {@link ServiceSubgraphUpdater}).
+     */
+    private static EventGraphDTO replaceService(EventGraphDTO graph, UUID serviceUUID, EventGraphDTO serviceGraph,
+                                                boolean dropUnusedEvents) {
+        logGraphState("Before replace of service '" + serviceGraph.getName() + "'", graph);
+        EventGraphDTO updated = ServiceSubgraphUpdater.replace(graph, serviceUUID, serviceGraph, dropUnusedEvents);
+        logGraphState("After replace of service '" + serviceGraph.getName() + "'", updated);
+        return updated;
     }
 
     private static EventGraphDTO removeService(EventGraphDTO graph,
@@ -258,13 +298,6 @@ public class EventGraphService {
         return newGraph;
     }
 
-    private static EventGraphDTO mergeGraphs(EventGraphDTO updatedGraph, EventGraphDTO newGraph, String sourceDescription) {
-        logGraphState("Before merge from " + sourceDescription, updatedGraph);
-        updatedGraph = merge(updatedGraph, newGraph);
-        logGraphState("After merge from " + sourceDescription, updatedGraph);
-        return updatedGraph;
-    }
-
     private static void logGraphState(String prefix, EventGraphDTO graph) {
         log.debug("{}: nodes={}, links={}, events={}",
                 prefix,
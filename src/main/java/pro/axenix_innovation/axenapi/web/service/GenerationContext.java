@@ -0,0 +1,108 @@
+package pro.axenix_innovation.axenapi.web.service;
+
+import com.mifmif.common.regex.Generex;
+import dk.brics.automaton.Automaton;
+import net.datafaker.Faker;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Источник случайности для генерации примеров в рамках одного запроса (или одной порции
+ * при параллельной генерации). Контекст не потокобезопасен: каждый поток использует свой.
+ * При одинаковом seed последовательность сгенерированных значений повторяется.
+ */
+public final class GenerationContext {
+
+    private final long seed;
+    private final SplittableRandom random;
+    private final Random generexRandom;
+    private final Map<String, Generex> generexCache = new HashMap<>();
+    private Faker faker;
+
+    private GenerationContext(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.generexRandom = new Random(random.nextLong());
+    }
+
+    public static GenerationContext create() {
+        return new GenerationContext(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param seed seed генерации; null - недетерминированная генерация
+     */
+    public static GenerationContext create(Long seed) {
+        return seed != null ? new GenerationContext(seed) : create();
+    }
+
+    /**
+     * Контекст для порции {@code index} при параллельной генерации. Зависит только от seed
+     * и номера порции, поэтому результат не зависит от числа потоков.
+     */
+    public GenerationContext fork(long index) {
+        return new GenerationContext(new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L)).nextLong());
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    public <T> T pick(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.get(random.nextInt(values.size()));
+    }
+
+    public UUID randomUUID() {
+        long most = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long least = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    public Faker faker() {
+        if (faker == null) {
+            faker = new Faker(new Random(random.nextLong()));
+        }
+        return faker;
+    }
+
+    /**
+     * Генератор строк по шаблону. Автомат шаблона общий (кэшируется в {@link CompiledSchema}),
+     * а генератор строится один раз на контекст со случайностью этого контекста, поэтому
+     * параллельные порции не делят один {@link Random}.
+     *
+     * @return null, если шаблон не поддерживается
+     */
+    Generex generex(String pattern) {
+        Generex generex = generexCache.get(pattern);
+        if (generex == null) {
+            Automaton automaton = CompiledSchema.compilePattern(pattern);
+            if (automaton == null) {
+                return null;
+            }
+            generex = new Generex(automaton, generexRandom);
+            generexCache.put(pattern, generex);
+        }
+        return generex;
+    }
+}
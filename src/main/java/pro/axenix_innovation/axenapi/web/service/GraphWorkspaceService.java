@@ -0,0 +1,324 @@
+package pro.axenix_innovation.axenapi.web.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessage;
+import pro.axenix_innovation.axenapi.web.entity.GraphWorkspace;
+import pro.axenix_innovation.axenapi.web.entity.GraphWorkspaceDelta;
+import pro.axenix_innovation.axenapi.web.exception.InvalidGraphPatchException;
+import pro.axenix_innovation.axenapi.web.exception.NotServiceNode;
+import pro.axenix_innovation.axenapi.web.exception.OpenAPISpecParseException;
+import pro.axenix_innovation.axenapi.web.exception.WorkspaceNotFoundException;
+import pro.axenix_innovation.axenapi.web.exception.WorkspaceVersionConflictException;
+import pro.axenix_innovation.axenapi.web.model.ErrorDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphDeltaDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphPatchDTO;
+import pro.axenix_innovation.axenapi.web.model.JsonPatchOperationDTO;
+import pro.axenix_innovation.axenapi.web.model.UpdateServiceSpecificationPostRequest;
+import pro.axenix_innovation.axenapi.web.repository.GraphWorkspaceDeltaRepository;
+import pro.axenix_innovation.axenapi.web.repository.GraphWorkspaceRepository;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+import pro.axenix_innovation.axenapi.web.util.JsonPatch;
+import pro.axenix_innovation.axenapi.web.validate.EventGraphDTOValidator;
+
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Рабочие пространства графов: граф сохраняется на сервере один раз, дальше клиент присылает
+ * операции по id пространства и получает в ответ только изменения (JSON Patch) с новой версией.
+ * Операции над графом выполняет {@link EventGraphService}, как и для запросов с полным графом.
+ * <p>
+ * Разобранный граф последней версии пространства кэшируется ({@code axenapi.workspace.graph-cache-size}
+ * пространств), поэтому последовательные операции не разбирают сохраненный JSON заново.
+ * Запись попадает в кэш только после фиксации транзакции и используется, пока версия в БД та же.
+ */
+@Service
+public class GraphWorkspaceService {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphWorkspaceService.class);
+    private static final TypeReference<List<JsonPatchOperationDTO>> OPERATIONS = new TypeReference<>() {
+    };
+
+    public enum Operation {
+        PATCH, ADD_SERVICES, UPDATE_SERVICE, REMOVE_SERVICE
+    }
+
+    private final GraphWorkspaceRepository workspaceRepository;
+    private final GraphWorkspaceDeltaRepository deltaRepository;
+
+    @Value("${axenapi.workspace.delta-history:100}")
+    private int deltaHistory;
+
+    @Value("${axenapi.workspace.graph-cache-size:64}")
+    private int graphCacheSize = 64;
+
+    /** Разобранный граф версии {@code version}; только для чтения. */
+    private record CachedGraph(long version, JsonNode graph) {
+    }
+
+    private final Map<UUID, CachedGraph> graphs = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedGraph> eldest) {
+            return size() > graphCacheSize;
+        }
+    });
+
+    public GraphWorkspaceService(GraphWorkspaceRepository workspaceRepository,
+                                 GraphWorkspaceDeltaRepository deltaRepository) {
+        this.workspaceRepository = workspaceRepository;
+        this.deltaRepository = deltaRepository;
+    }
+
+    @Transactional
+    public GraphWorkspace create(EventGraphDTO eventGraph) {
+        eventGraph.setErrors(new ArrayList<>());
+        GraphWorkspace workspace = new GraphWorkspace();
+        workspace.setName(eventGraph.getName());
+        JsonNode graph = JacksonMappers.json().valueToTree(eventGraph);
+        workspace.setGraph(write(graph));
+        GraphWorkspace saved = workspaceRepository.save(workspace);
+        cacheAfterCommit(saved.getId(), saved.getVersion(), graph);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public GraphWorkspace get(UUID workspaceId) throws WorkspaceNotFoundException {
+        return workspaceRepository.findById(workspaceId)
+                .orElseThrow(() -> new WorkspaceNotFoundException(workspaceId));
+    }
+
+    @Transactional(readOnly = true)
+    public EventGraphDTO getGraph(UUID workspaceId) throws WorkspaceNotFoundException {
+        return graphOf(get(workspaceId));
+    }
+
+    public EventGraphDTO graphOf(GraphWorkspace workspace) {
+        return toGraph(read(workspace));
+    }
+
+    @Transactional
+    public void delete(UUID workspaceId) throws WorkspaceNotFoundException {
+        GraphWorkspace workspace = get(workspaceId);
+        deltaRepository.deleteAllByWorkspace(workspaceId);
+        workspaceRepository.delete(workspace);
+        graphs.remove(workspaceId);
+    }
+
+    /**
+     * Добавляет или заменяет сервисы из файлов спецификаций (см. {@link EventGraphService#addServiceToGraph}).
+     * Ошибки по файлам возвращаются в дельте; если ни один файл не добавлен, граф не меняется.
+     */
+    @Transactional
+    public GraphDeltaDTO addServices(UUID workspaceId, Long baseVersion, List<MultipartFile> files)
+            throws WorkspaceNotFoundException, WorkspaceVersionConflictException {
+        GraphWorkspace workspace = lock(workspaceId, baseVersion);
+        JsonNode before = read(workspace);
+        EventGraphDTO updated = EventGraphService.addServiceToGraph(files, toGraph(before));
+        List<ErrorDTO> errors = updated.getErrors() != null ? new ArrayList<>(updated.getErrors()) : new ArrayList<>();
+        return commit(workspace, before, updated, Operation.ADD_SERVICES, errors);
+    }
+
+    /**
+     * Заменяет спецификацию сервиса (см. {@link EventGraphService#updateServiceSpecification}).
+     */
+    @Transactional
+    public GraphDeltaDTO updateService(UUID workspaceId, Long baseVersion, UUID serviceNodeId, String specification)
+            throws WorkspaceNotFoundException, WorkspaceVersionConflictException, OpenAPISpecParseException, NotServiceNode {
+        GraphWorkspace workspace = lock(workspaceId, baseVersion);
+        JsonNode before = read(workspace);
+        UpdateServiceSpecificationPostRequest request = new UpdateServiceSpecificationPostRequest();
+        request.setServiceNodeId(serviceNodeId);
+        request.setSpecification(specification);
+        request.setEventGraph(toGraph(before));
+        EventGraphDTO updated = EventGraphService.updateServiceSpecification(request);
+        if (updated.getErrors() != null && !updated.getErrors().isEmpty()) {
+            throw new OpenAPISpecParseException(updated.getErrors().get(0).getErrorMessage());
+        }
+        return commit(workspace, before, updated, Operation.UPDATE_SERVICE, new ArrayList<>());
+    }
+
+    @Transactional
+    public GraphDeltaDTO removeService(UUID workspaceId, Long baseVersion, UUID serviceNodeId)
+            throws WorkspaceNotFoundException, WorkspaceVersionConflictException, NotServiceNode {
+        GraphWorkspace workspace = lock(workspaceId, baseVersion);
+        JsonNode before = read(workspace);
+        EventGraphDTO updated = EventGraphService.removeServiceFromGraph(toGraph(before), serviceNodeId);
+        return commit(workspace, before, updated, Operation.REMOVE_SERVICE, new ArrayList<>());
+    }
+
+    /**
+     * Применяет JSON Patch клиента. Граф после патча должен проходить
+     * {@link EventGraphDTOValidator#validateEventGraph(EventGraphDTO)}.
+     */
+    @Transactional
+    public GraphDeltaDTO patch(UUID workspaceId, GraphPatchDTO patch)
+            throws WorkspaceNotFoundException, WorkspaceVersionConflictException, InvalidGraphPatchException {
+        GraphWorkspace workspace = lock(workspaceId, patch.getBaseVersion());
+        JsonNode before = read(workspace);
+        EventGraphDTO updated;
+        try {
+            JsonNode operations = JacksonMappers.json().valueToTree(patch.getOperations());
+            updated = JacksonMappers.json().treeToValue(JsonPatch.apply(before, operations), EventGraphDTO.class);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new InvalidGraphPatchException(e.getMessage(), e);
+        }
+        AppCodeMessage violation = EventGraphDTOValidator.validateEventGraph(updated);
+        if (violation != null) {
+            throw new InvalidGraphPatchException(MessageHelper.getStaticMessage(
+                    violation.getEnumItem(), violation.getArgs()));
+        }
+        return commit(workspace, before, updated, Operation.PATCH, new ArrayList<>());
+    }
+
+    /**
+     * Дельты с версией больше {@code sinceVersion} по возрастанию версии. Пусто, если история
+     * уже не доходит до {@code sinceVersion} и клиенту нужно заново загрузить граф.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<GraphDeltaDTO>> deltasSince(UUID workspaceId, long sinceVersion) throws WorkspaceNotFoundException {
+        GraphWorkspace workspace = get(workspaceId);
+        if (sinceVersion >= workspace.getVersion()) {
+            return Optional.of(List.of());
+        }
+        Long oldest = deltaRepository.findOldestFromVersion(workspaceId);
+        if (oldest == null || oldest > sinceVersion) {
+            return Optional.empty();
+        }
+        List<GraphDeltaDTO> result = new ArrayList<>();
+        for (GraphWorkspaceDelta delta : deltaRepository
+                .findByWorkspaceIdAndVersionGreaterThanOrderByVersionAsc(workspaceId, sinceVersion)) {
+            result.add(toDelta(delta, readOperations(delta.getPatch()), List.of()));
+        }
+        return Optional.of(result);
+    }
+
+    private GraphWorkspace lock(UUID workspaceId, Long baseVersion)
+            throws WorkspaceNotFoundException, WorkspaceVersionConflictException {
+        GraphWorkspace workspace = get(workspaceId);
+        if (baseVersion != null && baseVersion != workspace.getVersion()) {
+            throw new WorkspaceVersionConflictException(workspaceId, baseVersion, workspace.getVersion());
+        }
+        return workspace;
+    }
+
+    /**
+     * Сохраняет новый граф и дельту к нему. Параллельное изменение того же пространства
+     * отклоняется оптимистичной блокировкой по версии.
+     */
+    private GraphDeltaDTO commit(GraphWorkspace workspace, JsonNode before, EventGraphDTO updated,
+                                 Operation operation, List<ErrorDTO> errors) {
+        updated.setErrors(new ArrayList<>());
+        JsonNode after = JacksonMappers.json().valueToTree(updated);
+        ArrayNode operations = JsonPatch.diff(before, after);
+        long fromVersion = workspace.getVersion();
+
+        GraphWorkspaceDelta delta = new GraphWorkspaceDelta();
+        delta.setWorkspaceId(workspace.getId());
+        delta.setFromVersion(fromVersion);
+        delta.setOperation(operation.name());
+        delta.setPatch(write(operations));
+        if (operations.isEmpty()) {
+            delta.setVersion(fromVersion);
+            return toDelta(delta, operations, errors);
+        }
+
+        workspace.setName(updated.getName());
+        workspace.setGraph(write(after));
+        workspaceRepository.saveAndFlush(workspace);
+        cacheAfterCommit(workspace.getId(), workspace.getVersion(), after);
+        delta.setVersion(workspace.getVersion());
+        deltaRepository.save(delta);
+        deltaRepository.deleteUpToVersion(workspace.getId(), workspace.getVersion() - deltaHistory);
+        log.debug("Workspace {}: {} {} -> {}, {} patch operations", workspace.getId(), operation,
+                fromVersion, workspace.getVersion(), operations.size());
+        return toDelta(delta, operations, errors);
+    }
+
+    private static GraphDeltaDTO toDelta(GraphWorkspaceDelta delta, JsonNode operations, List<ErrorDTO> errors) {
+        return GraphDeltaDTO.builder()
+                .workspaceId(delta.getWorkspaceId())
+                .fromVersion(delta.getFromVersion())
+                .version(delta.getVersion())
+                .operation(delta.getOperation())
+                .operations(JacksonMappers.json().convertValue(operations, OPERATIONS))
+                .errors(errors)
+                .createdAt(delta.getCreatedAt() != null ? delta.getCreatedAt().atOffset(ZoneOffset.UTC) : null)
+                .build();
+    }
+
+    /** Граф пространства; результат разделяется через кэш и не должен изменяться. */
+    private JsonNode read(GraphWorkspace workspace) {
+        CachedGraph cached = graphs.get(workspace.getId());
+        if (cached != null && cached.version() == workspace.getVersion()) {
+            return cached.graph();
+        }
+        JsonNode graph;
+        try {
+            graph = JacksonMappers.json().readTree(workspace.getGraph());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Stored graph of workspace " + workspace.getId() + " is not valid JSON", e);
+        }
+        graphs.put(workspace.getId(), new CachedGraph(workspace.getVersion(), graph));
+        return graph;
+    }
+
+    /**
+     * Кэширует граф новой версии после фиксации транзакции: при откате та же версия
+     * может позже получить другое содержимое.
+     */
+    private void cacheAfterCommit(UUID workspaceId, long version, JsonNode graph) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            graphs.put(workspaceId, new CachedGraph(version, graph));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                graphs.put(workspaceId, new CachedGraph(version, graph));
+            }
+        });
+    }
+
+    private static JsonNode readOperations(String patch) {
+        try {
+            return JacksonMappers.json().readTree(patch);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Stored delta is not valid JSON", e);
+        }
+    }
+
+    private static EventGraphDTO toGraph(JsonNode graph) {
+        try {
+            return JacksonMappers.json().treeToValue(graph, EventGraphDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String write(JsonNode node) {
+        try {
+            return JacksonMappers.json().writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
 
 import java.io.IOException;
 @Service
@@ -16,7 +17,7 @@ import java.io.IOException;
 public class JsonToSchemaGenerationService {
 
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper = JacksonMappers.json();
     private static final Logger logger = LoggerFactory.getLogger(JsonToSchemaGenerationService.class);
 
     private String schema;
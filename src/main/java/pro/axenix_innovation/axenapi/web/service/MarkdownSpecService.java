@@ -1,20 +1,23 @@
 package pro.axenix_innovation.axenapi.web.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
 import lombok.extern.slf4j.Slf4j;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConstants;
 import org.openapitools.codegen.DefaultGenerator;
 import org.openapitools.codegen.languages.MarkdownDocumentationCodegen;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pro.axenix_innovation.axenapi.web.generate.SpecificationMarkdownHandler;
 import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
+import pro.axenix_innovation.axenapi.web.graph.GraphProjection;
 import pro.axenix_innovation.axenapi.web.model.*;
 import pro.axenix_innovation.axenapi.web.repository.MarkdownSpecificationRepository;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
 import pro.axenix_innovation.axenapi.web.util.OpenAPIGenerator;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.io.File;
 import java.io.IOException;
@@ -22,12 +25,11 @@ import java.nio.file.Files;
 import java.sql.Clob;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.*;
 
 @Service
+@Lazy
 @Slf4j
 public class MarkdownSpecService {
 
@@ -79,6 +81,10 @@ public class MarkdownSpecService {
     }
 
     public Map<String, String> generateMarkdownMap(EventGraphDTO graphDTO) throws Exception {
+        return PipelineMetrics.time(PipelineMetrics.Stage.MARKDOWN_CODEGEN, () -> buildMarkdownMap(graphDTO));
+    }
+
+    private Map<String, String> buildMarkdownMap(EventGraphDTO graphDTO) throws Exception {
         if (graphDTO == null) {
             log.error(messageHelper.getMessage(ERROR_INPUT_GRAPHDTO_NULL));
             throw new IllegalArgumentException("Input graphDTO is null");
@@ -152,7 +158,7 @@ public class MarkdownSpecService {
                 }
             }
 
-            String yamlSpec = Yaml.mapper().writeValueAsString(openAPI);
+            String yamlSpec = JacksonMappers.openApiYaml().writeValueAsString(openAPI);
 
             String safeYamlSpec = escapeForMarkdownCodeBlock(yamlSpec);
 
@@ -185,73 +191,16 @@ public class MarkdownSpecService {
 
     public static EventGraphDTO filterByServiceUUIDs(EventGraphDTO graph, Set<UUID> serviceUUIDs) {
         log.debug("Filtering EventGraphDTO by service UUIDs: {}", serviceUUIDs);
+        return filterByProjection(graph, GraphProjectionDTO.builder().serviceIds(new ArrayList<>(serviceUUIDs)).build());
+    }
 
-        Set<UUID> filteredNodeIds = new HashSet<>();
-
-        for (NodeDTO node : graph.getNodes()) {
-            if (serviceUUIDs.contains(node.getId())) {
-                filteredNodeIds.add(node.getId());
-                log.trace("Node {} added directly because its ID is in serviceUUIDs", node.getId());
-                continue;
-            }
-            List<UUID> belongs = node.getBelongsToGraph();
-            if (belongs != null) {
-                for (UUID belongsToId : belongs) {
-                    if (serviceUUIDs.contains(belongsToId)) {
-                        filteredNodeIds.add(node.getId());
-                        log.trace("Node {} added due to belongsToGraph -> {}", node.getId(), belongsToId);
-                        break;
-                    }
-                }
-            }
-        }
-
-        List<LinkDTO> filteredLinks = graph.getLinks().stream()
-                .filter(link -> filteredNodeIds.contains(link.getFromId()) && filteredNodeIds.contains(link.getToId()))
-                .collect(Collectors.toList());
-
-        for (LinkDTO link : filteredLinks) {
-            filteredNodeIds.add(link.getFromId());
-            filteredNodeIds.add(link.getToId());
-        }
-
-        List<NodeDTO> filteredNodes = graph.getNodes().stream()
-                .filter(node -> filteredNodeIds.contains(node.getId()))
-                .collect(Collectors.toList());
-
-        Set<UUID> usedEventIds = filteredLinks.stream()
-                .map(LinkDTO::getEventId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        List<EventDTO> filteredEvents = graph.getEvents().stream()
-                .filter(event -> event.getId() != null && usedEventIds.contains(event.getId()))
-                .collect(Collectors.collectingAndThen(
-                        Collectors.toMap(
-                                EventDTO::getId,
-                                Function.identity(),
-                                (existing, duplicate) -> existing
-                        ),
-                        map -> {
-                            map.values().forEach(event ->
-                                    log.debug("Checking event id: {}, included: true", event.getId())
-                            );
-                            return new ArrayList<>(map.values());
-                        }
-                ));
-
-        log.debug("Filtered nodes: {}, links: {}, events: {}", filteredNodes.size(), filteredLinks.size(), filteredEvents.size());
-
-        EventGraphDTO result = new EventGraphDTO.Builder()
-                .name(graph.getName() + "_filtered")
-                .nodes(filteredNodes)
-                .links(filteredLinks)
-                .events(filteredEvents)
-                .errors(graph.getErrors())
-                .tags(graph.getTags())
-                .build();
+    public static EventGraphDTO filterByProjection(EventGraphDTO graph, GraphProjectionDTO projection) {
+        EventGraphDTO result = GraphProjection.project(graph, projection);
+        result.setName(graph.getName() + "_filtered");
+        result.setErrors(graph.getErrors());
 
-        log.debug("Resulting filtered graph name: {}", result.getName());
+        log.debug("Filtered nodes: {}, links: {}, events: {}",
+                result.getNodes().size(), result.getLinks().size(), result.getEvents().size());
         return result;
     }
 
@@ -2,11 +2,18 @@ package pro.axenix_innovation.axenapi.web.service;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
 import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
 import org.springframework.stereotype.Component;
 import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
 
+import java.text.MessageFormat;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Хелпер для сообщений интернационализации со статическими и не статическими методами
@@ -18,16 +25,24 @@ import java.util.Locale;
 public class MessageHelper {
     private static MessageSource staticMessageSource;
 
+    /**
+     * Скомпилированные шаблоны сообщений статического источника по (ключ, локаль).
+     * MessageFormat не потокобезопасен, поэтому форматирование синхронизировано на шаблоне.
+     */
+    private static final Map<TemplateKey, Template> TEMPLATES = new ConcurrentHashMap<>();
+
     private final MessageSource messageSource;
 
     @PostConstruct
     public void init() {
         staticMessageSource = messageSource;
+        TEMPLATES.clear();
     }
 
 //    Для тестов
     public static void setStaticMessageSource(MessageSource ms) {
         staticMessageSource = ms;
+        TEMPLATES.clear();
     }
 
     public String getMessage(AppCodeMessageKey item, Locale locale, Object... args) {
@@ -65,4 +80,102 @@ public class MessageHelper {
     public static String getStaticMessage(String messageKey, Object... args) {
         return staticMessageSource.getMessage(messageKey, args, Locale.ENGLISH);
     }
+
+    /**
+     * Пишет сообщение в лог, только если уровень включен: поиск шаблона и форматирование
+     * при выключенном уровне не выполняются. Шаблон компилируется один раз на (ключ, локаль).
+     */
+    public static void log(Logger logger, Level level, String messageKey, Object... args) {
+        if (logger.isEnabledForLevel(level)) {
+            logger.atLevel(level).log(formatStatic(messageKey, Locale.ENGLISH, args));
+        }
+    }
+
+    public static void log(Logger logger, Level level, AppCodeMessageKey item, Object... args) {
+        if (logger.isEnabledForLevel(level)) {
+            logger.atLevel(level).log(withCode(item, formatStatic(item.getMessageKey(), Locale.ENGLISH, args)));
+        }
+    }
+
+    public static void log(Logger logger, Level level, Throwable throwable, AppCodeMessageKey item, Object... args) {
+        if (logger.isEnabledForLevel(level)) {
+            logger.atLevel(level)
+                    .setCause(throwable)
+                    .log(withCode(item, formatStatic(item.getMessageKey(), Locale.ENGLISH, args)));
+        }
+    }
+
+    /**
+     * Сообщение, которое форматируется только при первом обращении
+     * (например, в {@code logger.atDebug().log(supplier)}).
+     */
+    public static Supplier<String> lazyMessage(String messageKey, Object... args) {
+        return new LazyMessage(() -> formatStatic(messageKey, Locale.ENGLISH, args));
+    }
+
+    public static Supplier<String> lazyMessage(AppCodeMessageKey item, Object... args) {
+        return new LazyMessage(() -> withCode(item, formatStatic(item.getMessageKey(), Locale.ENGLISH, args)));
+    }
+
+    static String formatStatic(String messageKey, Locale locale, Object... args) {
+        Template template = TEMPLATES.computeIfAbsent(new TemplateKey(messageKey, locale), MessageHelper::compile);
+        if (args == null || args.length == 0) {
+            // Как и MessageSource, без аргументов шаблон возвращается без форматирования
+            return template.pattern();
+        }
+        synchronized (template.format()) {
+            return template.format().format(args);
+        }
+    }
+
+    private static Template compile(TemplateKey key) {
+        String pattern = resolvePattern(key);
+        try {
+            return new Template(pattern, new MessageFormat(pattern, key.locale()));
+        } catch (IllegalArgumentException e) {
+            // Некорректный шаблон выводим как есть
+            return new Template(pattern, new MessageFormat("'" + pattern.replace("'", "''") + "'", key.locale()));
+        }
+    }
+
+    private static String resolvePattern(TemplateKey key) {
+        try {
+            String pattern = staticMessageSource.getMessage(key.messageKey(), null, key.locale());
+            return pattern != null ? pattern : key.messageKey();
+        } catch (NoSuchMessageException e) {
+            return key.messageKey();
+        }
+    }
+
+    private static String withCode(AppCodeMessageKey item, String message) {
+        return "Code: [" + item.getCode() + "], message: " + message;
+    }
+
+    private record TemplateKey(String messageKey, Locale locale) {
+    }
+
+    private record Template(String pattern, MessageFormat format) {
+    }
+
+    private static final class LazyMessage implements Supplier<String> {
+        private final Supplier<String> formatter;
+        private String value;
+
+        private LazyMessage(Supplier<String> formatter) {
+            this.formatter = formatter;
+        }
+
+        @Override
+        public String get() {
+            if (value == null) {
+                value = formatter.get();
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return get();
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package pro.axenix_innovation.axenapi.web.service;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Поток NDJSON-примеров, которые генерируются по мере чтения. В памяти держится только
+ * текущая пачка порций ({@link CompiledSchema#CHUNK_SIZE} примеров в порции), порции пачки
+ * генерируются параллельно. Для одинакового seed строки совпадают с
+ * {@link CompiledSchema#generate(int, Long)}.
+ */
+class NdjsonExampleInputStream extends InputStream {
+
+    private static final ObjectWriter WRITER = JacksonMappers.json().writer();
+    private static final int CHUNKS_PER_BATCH = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final CompiledSchema schema;
+    private final GenerationContext context;
+    private final long count;
+    private final long totalChunks;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final OutputStream sink;
+
+    private long nextChunk;
+    private boolean finished;
+    private byte[] buffer = new byte[0];
+    private int position;
+
+    NdjsonExampleInputStream(CompiledSchema schema, long count, Long seed, boolean gzip) throws IOException {
+        this.schema = schema;
+        this.context = GenerationContext.create(seed);
+        this.count = count;
+        this.totalChunks = (count + CompiledSchema.CHUNK_SIZE - 1) / CompiledSchema.CHUNK_SIZE;
+        this.sink = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return buffer.length - position;
+    }
+
+    private boolean fill() throws IOException {
+        while (position >= buffer.length) {
+            if (finished) {
+                return false;
+            }
+            nextBatch();
+        }
+        return true;
+    }
+
+    private void nextBatch() throws IOException {
+        if (nextChunk >= totalChunks) {
+            sink.close();
+            finished = true;
+        } else {
+            int batch = (int) Math.min(CHUNKS_PER_BATCH, totalChunks - nextChunk);
+            long first = nextChunk;
+            byte[][] rendered = new byte[batch][];
+            LongStream.range(0, batch).parallel()
+                    .forEach(i -> rendered[(int) i] = renderChunk(first + i));
+            for (byte[] part : rendered) {
+                sink.write(part);
+            }
+            nextChunk += batch;
+        }
+        buffer = out.toByteArray();
+        position = 0;
+        out.reset();
+    }
+
+    private byte[] renderChunk(long chunk) {
+        ByteArrayOutputStream chunkOut = new ByteArrayOutputStream();
+        schema.generateChunk(context, chunk, count, node -> {
+            try {
+                WRITER.writeValue(chunkOut, node);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunkOut.write('\n');
+        });
+        return chunkOut.toByteArray();
+    }
+}
@@ -115,7 +115,7 @@ public class PathsService {
         logger.info("Validation completed. Found {} invalid links.", invalidLinks.size());
         return invalidLinks;
     }
-    private static boolean isValidLink(String fromType, String toType) {
+    public static boolean isValidLink(String fromType, String toType) {
         return ("SERVICE".equals(fromType) && "TOPIC".equals(toType)) || // Сервис → Топик
                 ("TOPIC".equals(fromType) && "SERVICE".equals(toType)) || // Топик → Сервис
                 ("HTTP".equals(fromType) && "SERVICE".equals(toType));    // HTTP → Сервис
@@ -1,7 +1,6 @@
 package pro.axenix_innovation.axenapi.web.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.OpenAPI;
 import lombok.extern.slf4j.Slf4j;
@@ -31,14 +30,12 @@ import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ER
 public class SpecService {
 
     private final SpecificationGenerator specificationGenerator;
-    private final ObjectMapper objectMapper;
     private final MessageHelper messageHelper;
 
     @Autowired
     public SpecService(SpecificationGenerator specificationGenerator, MessageHelper messageHelper) {
         this.specificationGenerator = specificationGenerator;
         this.messageHelper = messageHelper;
-        this.objectMapper = new ObjectMapper();
     }
 
 
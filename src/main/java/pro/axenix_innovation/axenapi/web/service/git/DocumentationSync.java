@@ -0,0 +1,212 @@
+package pro.axenix_innovation.axenapi.web.service.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Синхронизация документации без рабочей копии.
+ * <p>
+ * Используется bare-репозиторий: ветка по умолчанию забирается неглубоким fetch, сгенерированные файлы
+ * записываются сразу в объекты и одним изменением индекса поверх дерева ветки, после чего создается
+ * один коммит в новой ветке. Файлы вне каталога документации не читаются и не извлекаются на диск,
+ * поэтому время синхронизации не зависит от размера репозитория.
+ */
+public final class DocumentationSync {
+
+    private DocumentationSync() {
+    }
+
+    /** Коммит синхронизации: ветка, идентификатор и пути измененных файлов. */
+    public record Commit(String branch, ObjectId id, List<String> paths) {
+    }
+
+    public static Repository openRepository(File directory) throws IOException, GitAPIException {
+        if (new File(directory, "HEAD").isFile()) {
+            return new FileRepositoryBuilder().setGitDir(directory).setMustExist(true).build();
+        }
+        try (Git git = Git.init().setBare(true).setDirectory(directory).call()) {
+            return new FileRepositoryBuilder().setGitDir(git.getRepository().getDirectory()).setMustExist(true).build();
+        }
+    }
+
+    /** Забирает последние {@code depth} коммитов ветки в {@code refs/remotes/origin/<branch>}. */
+    public static void fetch(Repository repository, String url, String branch, int depth,
+                             CredentialsProvider credentials) throws GitAPIException {
+        Git.wrap(repository).fetch()
+                .setRemote(url)
+                .setRefSpecs(new RefSpec("+%s:%s".formatted(Constants.R_HEADS + branch, remoteRef(branch))))
+                .setDepth(depth)
+                .setCredentialsProvider(credentials)
+                .call();
+    }
+
+    /**
+     * Создает ветку {@code branch} с одним коммитом поверх {@code refs/remotes/origin/<baseBranch>},
+     * в котором файлы {@code files} (путь в репозитории - содержимое) добавлены или заменены.
+     *
+     * @return коммит или {@code null}, если содержимое всех файлов совпадает с базовой веткой
+     */
+    public static Commit commit(Repository repository, String baseBranch, String branch, Map<String, byte[]> files,
+                                PersonIdent author, String message) throws IOException {
+        try (ObjectInserter inserter = repository.newObjectInserter();
+             RevWalk walk = new RevWalk(repository)) {
+            ObjectId baseId = repository.resolve(remoteRef(baseBranch));
+            if (baseId == null) {
+                throw new IOException("Branch %s is not fetched".formatted(baseBranch));
+            }
+            RevCommit base = walk.parseCommit(baseId);
+
+            DirCache index = DirCache.newInCore();
+            DirCacheBuilder builder = index.builder();
+            builder.addTree(new byte[0], DirCacheEntry.STAGE_0, walk.getObjectReader(), base.getTree());
+            builder.finish();
+
+            DirCacheEditor editor = index.editor();
+            List<String> changed = new ArrayList<>();
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                ObjectId blob = inserter.insert(Constants.OBJ_BLOB, file.getValue());
+                DirCacheEntry existing = index.getEntry(file.getKey());
+                if (existing != null && blob.equals(existing.getObjectId())) {
+                    continue;
+                }
+                changed.add(file.getKey());
+                editor.add(new DirCacheEditor.PathEdit(file.getKey()) {
+                    @Override
+                    public void apply(DirCacheEntry entry) {
+                        entry.setFileMode(FileMode.REGULAR_FILE);
+                        entry.setObjectId(blob);
+                    }
+                });
+            }
+            if (changed.isEmpty()) {
+                return null;
+            }
+            editor.finish();
+
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(index.writeTree(inserter));
+            commit.setParentId(base);
+            commit.setAuthor(author);
+            commit.setCommitter(author);
+            commit.setMessage(message);
+            ObjectId commitId = inserter.insert(commit);
+            inserter.flush();
+
+            RefUpdate update = repository.updateRef(Constants.R_HEADS + branch);
+            update.setNewObjectId(commitId);
+            update.setExpectedOldObjectId(ObjectId.zeroId());
+            update.setRefLogMessage("documentation sync", false);
+            RefUpdate.Result result = update.update(walk);
+            if (result != RefUpdate.Result.NEW) {
+                throw new IOException("Could not create branch %s: %s".formatted(branch, result));
+            }
+            return new Commit(branch, commitId, changed);
+        }
+    }
+
+    /**
+     * Отправляет ветку в удаленный репозиторий и удаляет ее локально, в том числе если отправка не удалась.
+     *
+     * @throws IOException если удаленный репозиторий не принял ветку
+     */
+    public static void push(Repository repository, String url, String branch,
+                            CredentialsProvider credentials) throws GitAPIException, IOException {
+        String ref = Constants.R_HEADS + branch;
+        try {
+            checkPushed(branch, Git.wrap(repository).push()
+                    .setRemote(url)
+                    .setRefSpecs(new RefSpec(ref + ":" + ref))
+                    .setCredentialsProvider(credentials)
+                    .call(), RemoteRefUpdate.Status.OK);
+        } finally {
+            RefUpdate delete = repository.updateRef(ref);
+            delete.setForceUpdate(true);
+            delete.delete();
+        }
+    }
+
+    /**
+     * Удаляет ветку в удаленном репозитории, например если по ней не удалось создать merge request.
+     * Отсутствие ветки ошибкой не считается.
+     */
+    public static void deleteRemoteBranch(Repository repository, String url, String branch,
+                                          CredentialsProvider credentials) throws GitAPIException, IOException {
+        checkPushed(branch, Git.wrap(repository).push()
+                .setRemote(url)
+                .setRefSpecs(new RefSpec(":" + Constants.R_HEADS + branch))
+                .setCredentialsProvider(credentials)
+                .call(), RemoteRefUpdate.Status.NON_EXISTING);
+    }
+
+    /** Проверяет, что удаленный репозиторий принял все обновления ссылок ({@code OK} или {@code accepted}). */
+    private static void checkPushed(String branch, Iterable<PushResult> results,
+                                    RemoteRefUpdate.Status accepted) throws IOException {
+        for (PushResult result : results) {
+            for (RemoteRefUpdate update : result.getRemoteUpdates()) {
+                if (update.getStatus() != RemoteRefUpdate.Status.OK && update.getStatus() != accepted) {
+                    throw new IOException("Push of branch %s was rejected: %s%s".formatted(branch, update.getStatus(),
+                            update.getMessage() != null ? " (" + update.getMessage() + ")" : ""));
+                }
+            }
+        }
+    }
+
+    /**
+     * Путь файла в репозитории внутри каталога документации {@code root}.
+     * Абсолютные пути и выход за пределы каталога запрещены.
+     */
+    public static String resolvePath(String root, String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Documentation path is empty");
+        }
+        String normalized = path.replace('\\', '/').trim();
+        if (normalized.startsWith("/")) {
+            throw new IllegalArgumentException("Documentation path must be relative: " + path);
+        }
+        List<String> parts = new ArrayList<>();
+        for (String part : normalized.split("/")) {
+            if (part.isEmpty() || part.equals(".")) {
+                continue;
+            }
+            if (part.equals("..") || part.equalsIgnoreCase(Constants.DOT_GIT)) {
+                throw new IllegalArgumentException("Documentation path is outside of the documentation root: " + path);
+            }
+            parts.add(part);
+        }
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("Documentation path is empty");
+        }
+        String prefix = root == null ? "" : root.replace('\\', '/').replaceAll("^/+|/+$", "");
+        String relative = String.join("/", parts);
+        return prefix.isEmpty() ? relative : prefix + "/" + relative;
+    }
+
+    private static String remoteRef(String branch) {
+        return Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + branch;
+    }
+}
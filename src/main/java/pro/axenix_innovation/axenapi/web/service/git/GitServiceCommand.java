@@ -2,6 +2,10 @@ package pro.axenix_innovation.axenapi.web.service.git;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.gitlab4j.api.GitLabApiException;
+import pro.axenix_innovation.axenapi.web.model.DocumentationFileDTO;
+import pro.axenix_innovation.axenapi.web.model.DocumentationSyncResultDTO;
+
+import java.util.List;
 
 public interface GitServiceCommand {
 
@@ -12,4 +16,10 @@ public interface GitServiceCommand {
     void addFile(String docPath) throws GitAPIException;
 
     String createMergeRequest(String title) throws GitAPIException, GitLabApiException;
+
+    /**
+     * Записывает все файлы одного запуска генерации одним коммитом в новую ветку и создает для нее merge request.
+     */
+    DocumentationSyncResultDTO syncDocumentation(List<DocumentationFileDTO> files, String title)
+            throws GitAPIException, GitLabApiException;
 }
@@ -1,48 +1,126 @@
 package pro.axenix_innovation.axenapi.web.service.git;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.gitlab4j.api.GitLabApi;
 import org.gitlab4j.api.GitLabApiException;
 import org.gitlab4j.api.models.Project;
-
-import java.net.MalformedURLException;
-import java.net.URL;
+import org.gitlab4j.api.models.User;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import pro.axenix_innovation.axenapi.web.entity.GitRepo;
 import pro.axenix_innovation.axenapi.web.service.GitRepositoryService;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Доступ к локальной копии репозитория документации и к GitLab.
+ * <p>
+ * JGit {@link Repository} открывается один раз и переиспользуется всеми командами до повторного клонирования,
+ * так же держится bare-репозиторий синхронизации документации ({@code axenapi.git.doc-sync.path}).
+ * Настройки репозитория из БД, клиент GitLab, текущий пользователь и проект кэшируются на
+ * {@code axenapi.git.session-ttl}: после истечения срока сессия создается заново с актуальными URL и токеном.
+ * <p>
+ * Рабочая копия одна на приложение. Команды над ней выполняются через {@link #withWorkTree} целиком,
+ * а цепочка clone → add → commit → merge request закрепляет рабочую копию за собой ({@link #beginFlow})
+ * до создания merge request или истечения {@code axenapi.git.flow-lease}: клонирование для другой цепочки
+ * в это время отклоняется, и ветки двух цепочек не смешиваются.
+ */
 @Service
-@AllArgsConstructor
-public class LocalGitRepositoryService {
+@Lazy
+@RequiredArgsConstructor
+public class LocalGitRepositoryService implements DisposableBean {
 
     private final GitRepositoryService gitRepositoryService;
 
+    @Value("${axenapi.git.session-ttl:10m}")
+    private Duration sessionTtl = Duration.ofMinutes(10);
+
+    @Value("${axenapi.git.doc-sync.path:/documentation/sync.git}")
+    private String docSyncPath = "/documentation/sync.git";
+
+    @Value("${axenapi.git.flow-lease:10m}")
+    private Duration flowLease = Duration.ofMinutes(10);
+
+    private final ReentrantLock workTree = new ReentrantLock();
+    /** Срок, до которого рабочая копия закреплена за начатой цепочкой; защищено {@link #workTree}. */
+    private Instant flowExpiresAt;
+
+    private Repository repository;
+    private Repository docSyncRepository;
+    private GitLabSession session;
+    private GitLabSession previousSession;
+
+    /** Последовательность команд над рабочей копией. */
+    @FunctionalInterface
+    public interface WorkTreeCommand<T> {
+        T run() throws GitAPIException, GitLabApiException, IOException;
+    }
+
     public final static String DOC_REPOSITORY_PATH = "/documentation/articles";
     public final static String DEFAULT_BRANCH = "develop";
 
-    public String getRepositoryUrl() {
-        GitRepo gitRepository = gitRepositoryService.getDocumentationGitRepository();
+    /** Выполняет команды над рабочей копией под одной блокировкой, без вклинивания других запросов. */
+    public <T> T withWorkTree(WorkTreeCommand<T> command) throws GitAPIException, GitLabApiException, IOException {
+        workTree.lock();
+        try {
+            return command.run();
+        } finally {
+            workTree.unlock();
+        }
+    }
 
-        return Optional.ofNullable(gitRepository)
-                .orElseThrow(() -> new RuntimeException("Git repository to clone not found"))
-                .getUrl();
+    /**
+     * Закрепляет рабочую копию за новой цепочкой; вызывается внутри {@link #withWorkTree}.
+     *
+     * @throws IllegalStateException если рабочая копия закреплена за другой незавершенной цепочкой
+     */
+    public void beginFlow() {
+        checkWorkTreeLocked();
+        Instant now = Instant.now();
+        if (flowExpiresAt != null && now.isBefore(flowExpiresAt)) {
+            throw new IllegalStateException("Documentation work tree is used by another flow until " + flowExpiresAt);
+        }
+        flowExpiresAt = now.plus(flowLease);
     }
 
-    public String getRepositoryToken() {
-        GitRepo gitRepository = gitRepositoryService.getDocumentationGitRepository();
+    /** Продлевает закрепление текущей цепочки; вызывается внутри {@link #withWorkTree}. */
+    public void continueFlow() {
+        checkWorkTreeLocked();
+        flowExpiresAt = Instant.now().plus(flowLease);
+    }
+
+    /** Освобождает рабочую копию для следующей цепочки; вызывается внутри {@link #withWorkTree}. */
+    public void endFlow() {
+        checkWorkTreeLocked();
+        flowExpiresAt = null;
+    }
+
+    private void checkWorkTreeLocked() {
+        if (!workTree.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Work tree is not locked by the current thread");
+        }
+    }
 
-        return Optional.ofNullable(gitRepository)
-                .orElseThrow(() -> new RuntimeException("Git repository to clone not found"))
-                .getToken();
+    public String getRepositoryUrl() {
+        return session().url;
+    }
 
+    public String getRepositoryToken() {
+        return session().token;
     }
 
     public boolean isRepositoryExists() {
@@ -51,45 +129,143 @@ public class LocalGitRepositoryService {
         return gitDir.exists() && gitDir.isDirectory();
     }
 
-    public Repository getLocalGitRepository() {
+    public synchronized Repository getLocalGitRepository() {
+        if (repository != null && repository.getDirectory().isDirectory()) {
+            return repository;
+        }
+        closeLocalGitRepository();
         try {
             FileRepositoryBuilder repositoryBuilder = new FileRepositoryBuilder();
-            return repositoryBuilder
+            repository = repositoryBuilder
                     .setGitDir(new File("%s/.git".formatted(DOC_REPOSITORY_PATH)))
                     .readEnvironment()
                     .findGitDir()
                     .setMustExist(true)
                     .build();
+            return repository;
         } catch (IOException e) {
             throw new RuntimeException("Could not get git repository", e);
         }
     }
 
+    /**
+     * Обертка над общим {@link Repository}; закрывать ее не требуется, репозиторий при этом не закрывается.
+     */
     public Git getClonedLocalGit() {
         return new Git(getLocalGitRepository());
     }
 
-    public UsernamePasswordCredentialsProvider getLocalCredentialsProvider() throws GitLabApiException {
-        return new UsernamePasswordCredentialsProvider(
-                getGitLabApi().getUserApi().getCurrentUser().getUsername(),
-                getRepositoryToken());
+    /** Закрывает открытый репозиторий, например перед повторным клонированием. */
+    public synchronized void closeLocalGitRepository() {
+        if (repository != null) {
+            repository.close();
+            repository = null;
+        }
     }
 
-    public GitLabApi getGitLabApi() {
+    /** Bare-репозиторий для {@link DocumentationSync}; создается при первом обращении. */
+    public synchronized Repository getDocSyncRepository() {
+        if (docSyncRepository != null && docSyncRepository.getDirectory().isDirectory()) {
+            return docSyncRepository;
+        }
+        closeDocSyncRepository();
         try {
-            URL uri = new URL(getRepositoryUrl());
-            return new GitLabApi("%s://%s".formatted(uri.getProtocol(),uri.getHost()), getRepositoryToken());
-        } catch (MalformedURLException e) {
-            throw new RuntimeException(e);
+            docSyncRepository = DocumentationSync.openRepository(new File(docSyncPath));
+            return docSyncRepository;
+        } catch (IOException | GitAPIException e) {
+            throw new RuntimeException("Could not open documentation sync repository", e);
+        }
+    }
+
+    private synchronized void closeDocSyncRepository() {
+        if (docSyncRepository != null) {
+            docSyncRepository.close();
+            docSyncRepository = null;
         }
     }
 
+    public UsernamePasswordCredentialsProvider getLocalCredentialsProvider() throws GitLabApiException {
+        GitLabSession current = session();
+        return new UsernamePasswordCredentialsProvider(current.currentUser().getUsername(), current.token);
+    }
+
+    public GitLabApi getGitLabApi() {
+        return session().api;
+    }
+
+    public User getCurrentUser() throws GitLabApiException {
+        return session().currentUser();
+    }
+
     public Project getGitLabApiProject() throws GitLabApiException {
-        GitRepo gitRepository = gitRepositoryService.getDocumentationGitRepository();
-        List<String> parts = Arrays.stream(gitRepository.getUrl().split("/"))
-                .filter(s -> !s.isEmpty())
-                .toList();
+        return session().project();
+    }
 
-        return getGitLabApi().getProjectApi().getProject(parts.get(parts.size() - 2), parts.getLast());
+    private synchronized GitLabSession session() {
+        if (session != null && Instant.now().isBefore(session.expiresAt)) {
+            return session;
+        }
+        GitRepo gitRepository = Optional.ofNullable(gitRepositoryService.getDocumentationGitRepository())
+                .orElseThrow(() -> new RuntimeException("Git repository to clone not found"));
+        // прежний клиент еще может использоваться выполняющейся командой, поэтому закрывается
+        // на следующей смене сессии, через session-ttl
+        if (previousSession != null) {
+            previousSession.api.close();
+        }
+        previousSession = session;
+        session = new GitLabSession(gitRepository.getUrl(), gitRepository.getToken(), Instant.now().plus(sessionTtl));
+        return session;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closeLocalGitRepository();
+        closeDocSyncRepository();
+        if (previousSession != null) {
+            previousSession.api.close();
+            previousSession = null;
+        }
+        if (session != null) {
+            session.api.close();
+            session = null;
+        }
+    }
+
+    private static final class GitLabSession {
+        private final String url;
+        private final String token;
+        private final Instant expiresAt;
+        private final GitLabApi api;
+        private User currentUser;
+        private Project project;
+
+        private GitLabSession(String url, String token, Instant expiresAt) {
+            this.url = url;
+            this.token = token;
+            this.expiresAt = expiresAt;
+            try {
+                URL uri = new URL(url);
+                this.api = new GitLabApi("%s://%s".formatted(uri.getProtocol(), uri.getHost()), token);
+            } catch (MalformedURLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private synchronized User currentUser() throws GitLabApiException {
+            if (currentUser == null) {
+                currentUser = api.getUserApi().getCurrentUser();
+            }
+            return currentUser;
+        }
+
+        private synchronized Project project() throws GitLabApiException {
+            if (project == null) {
+                List<String> parts = Arrays.stream(url.split("/"))
+                        .filter(s -> !s.isEmpty())
+                        .toList();
+                project = api.getProjectApi().getProject(parts.get(parts.size() - 2), parts.getLast());
+            }
+            return project;
+        }
     }
 }
@@ -4,13 +4,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jgit.api.*;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.gitlab4j.api.GitLabApi;
 import org.gitlab4j.api.GitLabApiException;
 import org.gitlab4j.api.models.MergeRequest;
 import org.gitlab4j.api.models.Project;
+import org.gitlab4j.api.models.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import pro.axenix_innovation.axenapi.web.model.DocumentationFileDTO;
+import pro.axenix_innovation.axenapi.web.model.DocumentationSyncResultDTO;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.service.git.DocumentationSync;
 import pro.axenix_innovation.axenapi.web.service.git.LocalGitRepositoryService;
 import pro.axenix_innovation.axenapi.web.service.git.GitServiceCommand;
 
@@ -21,34 +30,52 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_COMMIT_DOC_NOT_CHANGES;
 import static pro.axenix_innovation.axenapi.web.service.git.LocalGitRepositoryService.DEFAULT_BRANCH;
 import static pro.axenix_innovation.axenapi.web.service.git.LocalGitRepositoryService.DOC_REPOSITORY_PATH;
 
 @Service
+@Lazy
 @Slf4j
 @RequiredArgsConstructor
 public class GitServiceCommandImpl implements GitServiceCommand {
 
-    private Git localGit;
     private final MessageHelper messageHelper;
+    // рабочая копия блокируется через LocalGitRepositoryService.withWorkTree, bare-репозиторий синхронизации - здесь
+    private final ReentrantLock docSync = new ReentrantLock();
+
+    @Value("${axenapi.git.doc-sync.root:}")
+    private String docSyncRoot = "";
+
+    @Value("${axenapi.git.doc-sync.depth:1}")
+    private int docSyncDepth = 1;
 
     private final LocalGitRepositoryService localGitRepositoryService;
 
     @Override
     public String cloneProject() {
         try {
-            if (localGitRepositoryService.isRepositoryExists()) {
-                checkoutCommand(DEFAULT_BRANCH, false);
-                pullCommand(DEFAULT_BRANCH);
-            } else {
-                cloneCommand();
-                checkoutCommand(DEFAULT_BRANCH, true);
-            }
-            checkoutCommand(String.valueOf(UUID.randomUUID()), true);
-
-            return localGit.getRepository().getDirectory().getAbsolutePath().replaceAll(".git", "");
+            return localGitRepositoryService.withWorkTree(() -> {
+                localGitRepositoryService.beginFlow();
+                try {
+                    if (localGitRepositoryService.isRepositoryExists()) {
+                        checkoutCommand(DEFAULT_BRANCH, false);
+                        pullCommand(DEFAULT_BRANCH);
+                    } else {
+                        cloneCommand();
+                        checkoutCommand(DEFAULT_BRANCH, true);
+                    }
+                    checkoutCommand(String.valueOf(UUID.randomUUID()), true);
+                } catch (GitAPIException | GitLabApiException | IOException | RuntimeException e) {
+                    localGitRepositoryService.endFlow();
+                    throw e;
+                }
+
+                return localGitRepositoryService.getLocalGitRepository().getDirectory().getAbsolutePath()
+                        .replaceAll(".git", "");
+            });
         } catch (GitAPIException | GitLabApiException | IOException e) {
             throw new RuntimeException("Failed to clone repository: %s".formatted(e.getMessage()), e);
         }
@@ -57,10 +84,14 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     @Override
     public void createCommit() {
         try {
-            if (localGitRepositoryService.getLocalGitRepository().getBranch().equals(DEFAULT_BRANCH)) {
-                checkoutCommand(String.valueOf(UUID.randomUUID()), true);
-            }
-            commitCommand();
+            localGitRepositoryService.withWorkTree(() -> {
+                localGitRepositoryService.continueFlow();
+                if (localGitRepositoryService.getLocalGitRepository().getBranch().equals(DEFAULT_BRANCH)) {
+                    checkoutCommand(String.valueOf(UUID.randomUUID()), true);
+                }
+                commitCommand();
+                return null;
+            });
         } catch (GitAPIException | GitLabApiException | IOException e) {
             throw new RuntimeException("Failed to create commit: %s".formatted(e.getMessage()), e);
         }
@@ -69,11 +100,15 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     @Override
     public void addFile(String docPath) {
         try {
-            if (localGitRepositoryService.getLocalGitRepository().getBranch().equals(DEFAULT_BRANCH)) {
-                checkoutCommand(String.valueOf(UUID.randomUUID()), true);
-            }
-            addCommand(docPath);
-        } catch (GitAPIException | IOException e) {
+            localGitRepositoryService.withWorkTree(() -> {
+                localGitRepositoryService.continueFlow();
+                if (localGitRepositoryService.getLocalGitRepository().getBranch().equals(DEFAULT_BRANCH)) {
+                    checkoutCommand(String.valueOf(UUID.randomUUID()), true);
+                }
+                addCommand(docPath);
+                return null;
+            });
+        } catch (GitAPIException | GitLabApiException | IOException e) {
             throw new RuntimeException("Failed to add file: %s".formatted(e.getMessage()), e);
         }
 
@@ -82,24 +117,103 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     @Override
     public String createMergeRequest(String title) {
         try {
-            pushCommand();
-            return createMergeRequestCommand(title);
+            return localGitRepositoryService.withWorkTree(() -> {
+                pushCommand();
+                String url = createMergeRequestCommand(title);
+                localGitRepositoryService.endFlow();
+                return url;
+            });
         } catch (GitAPIException | GitLabApiException | IOException e) {
             throw new RuntimeException("Failed to create merge request: %s".formatted(e.getMessage()), e);
         }
     }
 
+    @Override
+    public DocumentationSyncResultDTO syncDocumentation(List<DocumentationFileDTO> files, String title) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No documentation files to sync");
+        }
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (DocumentationFileDTO file : files) {
+            String path = DocumentationSync.resolvePath(docSyncRoot, file.getPath());
+            byte[] content = Objects.requireNonNullElse(file.getContent(), "").getBytes(StandardCharsets.UTF_8);
+            if (contents.put(path, content) != null) {
+                throw new IllegalArgumentException("Duplicate documentation path: " + path);
+            }
+        }
+        String mergeRequestTitle = title == null || title.isBlank() ? String.valueOf(UUID.randomUUID()) : title;
+
+        docSync.lock();
+        try {
+            Repository repository = localGitRepositoryService.getDocSyncRepository();
+            String url = localGitRepositoryService.getRepositoryUrl();
+            UsernamePasswordCredentialsProvider credentials = localGitRepositoryService.getLocalCredentialsProvider();
+            User user = localGitRepositoryService.getCurrentUser();
+
+            DocumentationSync.fetch(repository, url, DEFAULT_BRANCH, docSyncDepth, credentials);
+            DocumentationSync.Commit commit = DocumentationSync.commit(repository, DEFAULT_BRANCH,
+                    String.valueOf(UUID.randomUUID()), contents, author(user), mergeRequestTitle);
+            if (commit == null) {
+                log.info(messageHelper.getMessage("axenapi.info.sync.doc.no.changes", contents.size()));
+                return DocumentationSyncResultDTO.builder().files(List.of()).build();
+            }
+            DocumentationSync.push(repository, url, commit.branch(), credentials);
+
+            MergeRequest mergeRequest;
+            try {
+                mergeRequest = localGitRepositoryService.getGitLabApi().getMergeRequestApi().createMergeRequest(
+                        localGitRepositoryService.getGitLabApiProject().getId(),
+                        commit.branch(),
+                        DEFAULT_BRANCH,
+                        mergeRequestTitle,
+                        "",
+                        user.getId()
+                );
+            } catch (GitLabApiException | RuntimeException e) {
+                deleteRemoteBranch(repository, url, commit.branch(), credentials);
+                throw e;
+            }
+            return DocumentationSyncResultDTO.builder()
+                    .branch(commit.branch())
+                    .commitId(commit.id().name())
+                    .mergeRequestUrl(mergeRequest.getWebUrl())
+                    .files(commit.paths())
+                    .build();
+        } catch (GitAPIException | GitLabApiException | IOException e) {
+            throw new RuntimeException("Failed to sync documentation: %s".formatted(e.getMessage()), e);
+        } finally {
+            docSync.unlock();
+        }
+    }
+
+    /** Удаляет отправленную ветку, по которой не создан merge request; ошибка удаления только логируется. */
+    private void deleteRemoteBranch(Repository repository, String url, String branch,
+                                    UsernamePasswordCredentialsProvider credentials) {
+        try {
+            DocumentationSync.deleteRemoteBranch(repository, url, branch, credentials);
+        } catch (GitAPIException | IOException | RuntimeException e) {
+            log.warn(messageHelper.getMessage("axenapi.warn.sync.doc.delete.branch", branch, e.getMessage()), e);
+        }
+    }
+
+    private static PersonIdent author(User user) {
+        String name = user.getName() != null ? user.getName() : user.getUsername();
+        return new PersonIdent(name, Objects.requireNonNullElse(user.getEmail(), ""));
+    }
+
     private void cloneCommand() throws GitLabApiException, GitAPIException {
+        localGitRepositoryService.closeLocalGitRepository();
         Git.cloneRepository()
             .setURI(localGitRepositoryService.getRepositoryUrl())
             .setCredentialsProvider(localGitRepositoryService.getLocalCredentialsProvider())
             .setDirectory(new File(DOC_REPOSITORY_PATH))
             .setCloneAllBranches(true)
-            .call();
+            .call()
+            .close();
     }
 
     private void checkoutCommand(String checkoutBranch, Boolean isNewLocalBranch) throws GitAPIException, IOException {
-        localGit = localGitRepositoryService.getClonedLocalGit();
+        Git localGit = localGitRepositoryService.getClonedLocalGit();
 
         CheckoutCommand checkoutCommand = localGit.checkout()
                 .setCreateBranch(isNewLocalBranch)
@@ -112,7 +226,7 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     }
 
     private void addCommand(String docPath) throws GitAPIException {
-        localGit = localGitRepositoryService.getClonedLocalGit();
+        Git localGit = localGitRepositoryService.getClonedLocalGit();
         localGit.add().addFilepattern(docPath).call();
         Status status = localGit.status().call();
 
@@ -130,7 +244,7 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     }
 
     private void commitCommand() throws GitAPIException, GitLabApiException {
-        localGit = localGitRepositoryService.getClonedLocalGit();
+        Git localGit = localGitRepositoryService.getClonedLocalGit();
 
         Status status = localGit.status().call();
         Set<String> added = status.getAdded();
@@ -145,14 +259,14 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     }
 
     private void pushCommand() throws GitLabApiException, GitAPIException {
-        localGit = localGitRepositoryService.getClonedLocalGit();
+        Git localGit = localGitRepositoryService.getClonedLocalGit();
         localGit.push()
                 .setCredentialsProvider(localGitRepositoryService.getLocalCredentialsProvider())
                 .call();
     }
 
     private PullResult pullCommand(String pullBranch) throws GitLabApiException, GitAPIException {
-        localGit = localGitRepositoryService.getClonedLocalGit();
+        Git localGit = localGitRepositoryService.getClonedLocalGit();
 
         return localGit.pull()
                 .setCredentialsProvider(localGitRepositoryService.getLocalCredentialsProvider())
@@ -161,7 +275,6 @@ public class GitServiceCommandImpl implements GitServiceCommand {
     }
 
     private String createMergeRequestCommand(String title) throws GitLabApiException, IOException {
-        localGit = localGitRepositoryService.getClonedLocalGit();
         GitLabApi gitLabApi = localGitRepositoryService.getGitLabApi();
         Project project = localGitRepositoryService.getGitLabApiProject();
         MergeRequest mergeRequest = gitLabApi.getMergeRequestApi().createMergeRequest(
@@ -170,7 +283,7 @@ public class GitServiceCommandImpl implements GitServiceCommand {
                 DEFAULT_BRANCH,
                 title,
                 "",
-                gitLabApi.getUserApi().getCurrentUser().getId()
+                localGitRepositoryService.getCurrentUser().getId()
         );
 
         return mergeRequest.getWebUrl();
@@ -196,36 +309,45 @@ public class GitServiceCommandImpl implements GitServiceCommand {
             Git localGit
     ) {
         try {
-            checkoutCommand(currentBranch, false);
-            PullResult pullResult = pullCommand("refs/heads/" + targetBranch);
-            MergeResult mergeResult = pullResult.getMergeResult();
-
-            Map<String, String> conflictingFiles = new HashMap<>();
-            for (String path : mergeResult.getConflicts().keySet()) {
-                byte[] fileBytes = Files.readAllBytes(
-                        Paths.get(localGit.getRepository().getDirectory().getPath() + "/" + path)
-                );
-                String fileContent = new String(fileBytes, StandardCharsets.UTF_8);
-                conflictingFiles.put(path, fileContent);
-            }
-
-            return conflictingFiles;
+            return localGitRepositoryService.withWorkTree(() -> {
+                checkoutCommand(currentBranch, false);
+                PullResult pullResult = pullCommand("refs/heads/" + targetBranch);
+                MergeResult mergeResult = pullResult.getMergeResult();
+
+                Map<String, String> conflictingFiles = new HashMap<>();
+                for (String path : mergeResult.getConflicts().keySet()) {
+                    byte[] fileBytes = Files.readAllBytes(
+                            Paths.get(localGit.getRepository().getDirectory().getPath() + "/" + path)
+                    );
+                    String fileContent = new String(fileBytes, StandardCharsets.UTF_8);
+                    conflictingFiles.put(path, fileContent);
+                }
+
+                return conflictingFiles;
+            });
         } catch (IOException | GitAPIException | GitLabApiException e) {
             throw new RuntimeException(e);
         }
     }
 
     public void resolveMergeConflicts(Map<String, String> updatedFiles, Git localGit) throws GitAPIException, GitLabApiException {
-        for (Map.Entry<String, String> file : updatedFiles.entrySet()) {
-            try (FileWriter fileWriter = new FileWriter(localGit.getRepository().getDirectory().getPath() + "/" + file.getKey())) {
-                fileWriter.write(file.getValue());
-            } catch (IOException e) {
-                throw new RuntimeException("Could not write updated content", e);
-            }
+        try {
+            localGitRepositoryService.withWorkTree(() -> {
+                for (Map.Entry<String, String> file : updatedFiles.entrySet()) {
+                    try (FileWriter fileWriter = new FileWriter(localGit.getRepository().getDirectory().getPath() + "/" + file.getKey())) {
+                        fileWriter.write(file.getValue());
+                    } catch (IOException e) {
+                        throw new RuntimeException("Could not write updated content", e);
+                    }
+                }
+
+                commitCommand();
+                pushCommand();
+                return null;
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write updated content", e);
         }
-
-        commitCommand();
-        pushCommand();
     }
 
 }
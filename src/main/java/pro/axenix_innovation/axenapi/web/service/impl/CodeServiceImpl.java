@@ -1,44 +1,47 @@
 package pro.axenix_innovation.axenapi.web.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.models.OpenAPI;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pro.axenix_innovation.axenapi.web.entity.ServiceCode;
+import pro.axenix_innovation.axenapi.web.generate.CodeArtifactCache;
+import pro.axenix_innovation.axenapi.web.generate.CodeGenerationSink;
 import pro.axenix_innovation.axenapi.web.generate.CodeGenerator;
+import pro.axenix_innovation.axenapi.web.generate.impl.CollectingCodeGenerationSink;
+import pro.axenix_innovation.axenapi.web.generate.impl.ZipCodeGenerationSink;
+import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
 import pro.axenix_innovation.axenapi.web.model.ServiceInfo;
 import pro.axenix_innovation.axenapi.web.repository.ServiceCodeRepository;
 import pro.axenix_innovation.axenapi.web.service.CodeService;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+import pro.axenix_innovation.axenapi.web.util.OpenAPIGenerator;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
-import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_ADDING_FILE_TO_ARCHIVE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_CREATE_ZIP_ARCHIVE;
-import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_DELETING_PATH;
-import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_READ_FILE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_TRAVERSING_FILES_DIRECTORY;
-import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.FAIL_TO_PREPARE_DIR;
-import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_COUL_NOT_DELETE_FILE;
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_UNEXPECTED_DURING_SPEC_GEN;
 
 @Service
 @RequiredArgsConstructor
@@ -46,12 +49,15 @@ public class CodeServiceImpl implements CodeService {
 
     private static final Logger log = LoggerFactory.getLogger(CodeServiceImpl.class);
 
+    // сортировка ключей дает одинаковый текст (и хэш) для одинаковых спецификаций
+    private static final ObjectWriter SPEC_WRITER = JacksonMappers.openApiJson().copy()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .writerWithDefaultPrettyPrinter();
+
     private final ServiceCodeRepository serviceCodeRepository;
     private final CodeGenerator codeGenerator;
     private final MessageHelper messageHelper;
-
-    @Value("${export.code.folder:src/main/resources/code}")
-    String exportCodeDirectory;
+    private final CodeArtifactCache codeArtifactCache;
 
     @Override
     @Transactional
@@ -71,10 +77,22 @@ public class CodeServiceImpl implements CodeService {
                 ))
                 .toList();
 
-        prepareCodeDirectory(exportCodeDirectory);
-        codeGenerator.generateCode(serviceInfoList, exportCodeDirectory);
+        Map<String, String> specifications = serializeSpecifications(eventGraph);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (CodeGenerationSink sink = new ZipCodeGenerationSink(byteArrayOutputStream)) {
+            for (ServiceInfo serviceInfo : serviceInfoList) {
+                String specification = specifications.getOrDefault(serviceInfo.getName(), "");
+                for (Map.Entry<String, byte[]> file : generateService(serviceInfo, specification).entrySet()) {
+                    sink.addFile(file.getKey(), new ByteArrayInputStream(file.getValue()));
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error(messageHelper.getMessage(ERROR_CREATE_ZIP_ARCHIVE), e);
+            throw new RuntimeException("Failed to generate code archive", e);
+        }
 
-        byte[] zip = packToZip(Path.of(exportCodeDirectory));
+        byte[] zip = byteArrayOutputStream.toByteArray();
         log.info(messageHelper.getMessage("axenapi.info.gen.byte.code", zip.length));
 
         ServiceCode serviceCode = save(zip);
@@ -82,9 +100,6 @@ public class CodeServiceImpl implements CodeService {
                 serviceCode.getId(),
                 serviceCode.getServiceCodeFile() != null ? serviceCode.getServiceCodeFile().length : 0));
 
-
-        cleanExportDir(exportCodeDirectory);
-
         return serviceCode.getServiceCodeFile();
     }
 
@@ -102,99 +117,72 @@ public class CodeServiceImpl implements CodeService {
         Instant fiveMinutesAgo = Instant.now().minus(5, ChronoUnit.MINUTES);
         serviceCodeRepository.deleteAllCreatedBefore(fiveMinutesAgo);
     }
-    public byte[] packToZip(Path exportCodeDirectory) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        List<Path> successfulFiles = new ArrayList<>();
 
-        try {
-            Files.walk(exportCodeDirectory)
-                    .filter(path -> !Files.isDirectory(path))
-                    .forEach(file -> {
-                        if (Files.exists(file) && Files.isReadable(file)) {
-                            try (InputStream in = Files.newInputStream(file)) {
-                                successfulFiles.add(file);
-                            } catch (IOException e) {
-                                log.error(messageHelper.getMessage(ERROR_READ_FILE, file, e.getMessage()));
-                            }
-                        }
-                    });
-        } catch (IOException e) {
-            log.error(messageHelper.getMessage(ERROR_TRAVERSING_FILES_DIRECTORY, exportCodeDirectory, e.getMessage()));
-            return new byte[0];
+    /**
+     * Возвращает файлы сервиса из кэша или генерирует их, если спецификация
+     * или параметры генерации изменились.
+     */
+    private Map<String, byte[]> generateService(ServiceInfo serviceInfo, String specification) throws IOException {
+        String key = CodeArtifactCache.key(specification, serviceInfo);
+        Map<String, byte[]> cached = codeArtifactCache.get(key);
+        if (cached != null) {
+            log.debug("Reusing cached code for service {} ({} files)", serviceInfo.getName(), cached.size());
+            return cached;
         }
 
-
-
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(byteArrayOutputStream)) {
-            for (Path file : successfulFiles) {
-                try (InputStream in = Files.newInputStream(file)) {
-                    ZipEntry zipEntry = new ZipEntry(
-                            exportCodeDirectory.relativize(file).toString().replace("\\", "/")
-                    );
-
-                    zipOutputStream.putNextEntry(zipEntry);
-                    in.transferTo(zipOutputStream);
-                    zipOutputStream.closeEntry();
-                } catch (IOException e) {
-
-                    log.error(messageHelper.getMessage(ERROR_ADDING_FILE_TO_ARCHIVE, file), e);
-                }
+        Path specFile = Files.createTempFile("axenapi-spec-", ".json");
+        try {
+            Files.writeString(specFile, specification);
+            ServiceInfo generationInfo = new ServiceInfo(
+                    specFile.toString(),
+                    serviceInfo.getPort(),
+                    serviceInfo.getName(),
+                    serviceInfo.getBrokerAddress()
+            );
+
+            CollectingCodeGenerationSink collector = new CollectingCodeGenerationSink();
+            codeGenerator.generateCode(List.of(generationInfo), collector);
+            Map<String, byte[]> files = collector.getFiles();
+            // пустой результат не кэшируем: внешний генератор мог завершиться с ошибкой
+            if (!files.isEmpty()) {
+                codeArtifactCache.put(key, files);
             }
-
-            zipOutputStream.finish();
-        } catch (IOException e) {
-            log.error(messageHelper.getMessage(ERROR_CREATE_ZIP_ARCHIVE), e);
-            return new byte[0];
+            return files;
+        } finally {
+            Files.deleteIfExists(specFile);
         }
-
-        return byteArrayOutputStream.toByteArray();
     }
 
-
-    private static void prepareCodeDirectory(String directoryPath) {
-        Path path = Path.of(directoryPath);
-
+    private static Map<String, String> serializeSpecifications(EventGraphDTO eventGraph) {
+        Map<String, String> result = new HashMap<>();
         try {
-            if (!Files.exists(path)) {
-                Files.createDirectories(path);
-                log.info(MessageHelper.getStaticMessage("axenapi.info.dir.created.success", directoryPath));
+            Map<String, OpenAPI> specifications = OpenAPIGenerator.getOpenAPISpecifications(new EventGraphFacade(eventGraph));
+            for (Map.Entry<String, OpenAPI> entry : specifications.entrySet()) {
+                result.put(entry.getKey(), SPEC_WRITER.writeValueAsString(entry.getValue()));
             }
-
-            try (Stream<Path> walk = Files.walk(path)) {
-                walk.sorted(Comparator.reverseOrder())
-                        .filter(p -> !p.equals(path))
-                        .forEach(p -> {
-                            try {
-                                Files.deleteIfExists(p);
-                                log.debug("Deleted file or directory: {}", p);
-                            } catch (IOException e) {
-                                log.warn(MessageHelper.getStaticMessage(WARN_COUL_NOT_DELETE_FILE, p), e);
-                            }
-                        });
-            }
-        } catch (IOException e) {
-            log.error(MessageHelper.getStaticMessage(FAIL_TO_PREPARE_DIR, directoryPath), e);
-            throw new RuntimeException("Failed to prepare export directory", e);
+        } catch (JsonProcessingException e) {
+            log.error(MessageHelper.getStaticMessage(ERROR_UNEXPECTED_DURING_SPEC_GEN), e);
+            throw new RuntimeException("Failed to generate specifications for code generation", e);
         }
+        return result;
     }
 
+    public byte[] packToZip(Path exportCodeDirectory) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
-    private static void cleanExportDir(String directoryPath) {
-        Path path = Paths.get(directoryPath);
-        if (Files.exists(path)) {
-            try (Stream<Path> walk = Files.walk(path)) {
-                walk.sorted(Comparator.reverseOrder())
-                        .forEach(p -> {
-                            try {
-                                Files.delete(p);
-                            } catch (IOException e) {
-                                log.info(MessageHelper.getStaticMessage(ERROR_DELETING_PATH, p, e.getMessage()));
-                            }
-                        });
+        try (CodeGenerationSink sink = new ZipCodeGenerationSink(byteArrayOutputStream)) {
+            try {
+                sink.addDirectory(exportCodeDirectory, "");
             } catch (IOException e) {
-                throw new RuntimeException("Failed to clean directory", e);
+                log.error(messageHelper.getMessage(ERROR_TRAVERSING_FILES_DIRECTORY, exportCodeDirectory, e.getMessage()));
+                return new byte[0];
             }
+        } catch (IOException e) {
+            log.error(messageHelper.getMessage(ERROR_CREATE_ZIP_ARCHIVE), e);
+            return new byte[0];
         }
+
+        return byteArrayOutputStream.toByteArray();
     }
 
 }
@@ -7,6 +7,7 @@ import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
 import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -18,6 +19,10 @@ import java.util.UUID;
 public class DefaultEventGraphBuilder implements EventGraphBuilder {
     @Override
     public EventGraphFacade build(OpenAPI openAPI, UUID serviceNodeId) throws OpenAPISpecParseException {
+        return PipelineMetrics.time(PipelineMetrics.Stage.TRANSLATE, () -> buildGraph(openAPI, serviceNodeId));
+    }
+
+    private EventGraphFacade buildGraph(OpenAPI openAPI, UUID serviceNodeId) throws OpenAPISpecParseException {
         if (openAPI == null) {
             throw new OpenAPISpecParseException("Failed to parse OpenAPI specification");
         }
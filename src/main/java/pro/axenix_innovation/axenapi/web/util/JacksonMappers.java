@@ -0,0 +1,113 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import org.yaml.snakeyaml.LoaderOptions;
+
+/**
+ * Общие, заранее настроенные экземпляры Jackson. Маппер дорого создавать, а его кэши
+ * сериализаторов живут вместе с ним, поэтому вместо {@code new ObjectMapper()} на каждый вызов
+ * используются экземпляры отсюда. Экземпляры потокобезопасны и не должны перенастраиваться:
+ * для отличающихся настроек используйте {@code copy()}/{@code rebuild()}.
+ * <ul>
+ *     <li>{@link #json()}, {@link #yaml()} - обычные мапперы (DTO, деревья JSON) с модулем Blackbird;</li>
+ *     <li>{@link #openApiJson()}, {@link #openApiYaml()} - мапперы swagger-core для моделей OpenAPI;</li>
+ *     <li>{@link #jsonFactory()}, {@link #yamlFactory()} - фабрики для потокового чтения.</li>
+ * </ul>
+ */
+public final class JacksonMappers {
+
+    /** Максимальная длина строкового значения (примеры и описания в сгенерированных спецификациях). */
+    static final int MAX_STRING_LENGTH = 64 * 1024 * 1024;
+    static final int MAX_NESTING_DEPTH = 1000;
+    /** Лимит символов YAML-документа; по умолчанию SnakeYAML отклоняет документы больше 3 МБ. */
+    static final int MAX_YAML_CODE_POINTS = 256 * 1024 * 1024;
+
+    private static final StreamReadConstraints READ_CONSTRAINTS = StreamReadConstraints.builder()
+            .maxStringLength(MAX_STRING_LENGTH)
+            .maxNestingDepth(MAX_NESTING_DEPTH)
+            .build();
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .streamReadConstraints(READ_CONSTRAINTS)
+            .build();
+
+    private static final YAMLFactory YAML_FACTORY = YAMLFactory.builder()
+            .streamReadConstraints(READ_CONSTRAINTS)
+            .loaderOptions(yamlLoaderOptions())
+            .build();
+
+    private static final JsonMapper JSON_MAPPER = JsonMapper.builder(JSON_FACTORY)
+            .addModule(new BlackbirdModule())
+            .build();
+
+    private static final YAMLMapper YAML_MAPPER = YAMLMapper.builder(YAML_FACTORY)
+            .addModule(new BlackbirdModule())
+            .build();
+
+    private JacksonMappers() {
+    }
+
+    public static JsonMapper json() {
+        return JSON_MAPPER;
+    }
+
+    public static YAMLMapper yaml() {
+        return YAML_MAPPER;
+    }
+
+    /**
+     * Маппер по расширению файла: YAML для .yaml/.yml, иначе JSON.
+     */
+    public static ObjectMapper forFileName(String fileName) {
+        return isYaml(fileName) ? YAML_MAPPER : JSON_MAPPER;
+    }
+
+    public static JsonFactory jsonFactory() {
+        return JSON_FACTORY;
+    }
+
+    public static YAMLFactory yamlFactory() {
+        return YAML_FACTORY;
+    }
+
+    public static JsonFactory factoryForFileName(String fileName) {
+        return isYaml(fileName) ? YAML_FACTORY : JSON_FACTORY;
+    }
+
+    /**
+     * Маппер swagger-core с модулями для моделей OpenAPI (пропуск null, расширения x-*).
+     */
+    public static ObjectMapper openApiJson() {
+        return Json.mapper();
+    }
+
+    public static ObjectMapper openApiYaml() {
+        return Yaml.mapper();
+    }
+
+    /**
+     * Применяет общие настройки к мапперу, созданному не здесь (например, маппер HTTP-конвертера).
+     */
+    public static ObjectMapper tune(ObjectMapper mapper) {
+        mapper.getFactory().setStreamReadConstraints(READ_CONSTRAINTS);
+        return mapper.registerModule(new BlackbirdModule());
+    }
+
+    private static boolean isYaml(String fileName) {
+        return fileName != null && (fileName.endsWith(".yaml") || fileName.endsWith(".yml"));
+    }
+
+    private static LoaderOptions yamlLoaderOptions() {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(MAX_YAML_CODE_POINTS);
+        return options;
+    }
+}
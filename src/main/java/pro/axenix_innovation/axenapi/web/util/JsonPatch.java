@@ -0,0 +1,330 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Patch (RFC 6902) для графов рабочих пространств: построение разницы двух документов и применение патча.
+ * <p>
+ * Массивы объектов с уникальным полем {@code id} (узлы, события, связи) сравниваются по id за O(n log n):
+ * удаленные элементы дают {@code remove}, новые - {@code add}, переставленные - {@code move}, измененные -
+ * вложенные операции по полям. Остальные различающиеся массивы (теги, belongsToGraph) заменяются целиком.
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final String ID = "id";
+
+    private JsonPatch() {
+    }
+
+    /**
+     * Операции, переводящие {@code source} в {@code target}. Пустой массив, если документы равны.
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode operations = NODES.arrayNode();
+        diff("", source, target, operations);
+        return operations;
+    }
+
+    /**
+     * Применяет операции к копии {@code document}; исходный документ не меняется.
+     *
+     * @throws IllegalArgumentException если операция некорректна или не может быть применена
+     */
+    public static JsonNode apply(JsonNode document, JsonNode operations) {
+        if (operations == null || !operations.isArray()) {
+            throw new IllegalArgumentException("Patch must be an array of operations");
+        }
+        JsonNode[] root = {document.deepCopy()};
+        int index = 0;
+        for (JsonNode operation : operations) {
+            try {
+                applyOperation(root, operation);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Operation " + index + ": " + e.getMessage(), e);
+            }
+            index++;
+        }
+        return root[0];
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            diffObjects(path, (ObjectNode) source, (ObjectNode) target, operations);
+        } else if (source.isArray() && target.isArray() && hasUniqueIds(source) && hasUniqueIds(target)) {
+            diffArraysById(path, (ArrayNode) source, (ArrayNode) target, operations);
+        } else {
+            operations.add(operation("replace", path).set("value", target));
+        }
+    }
+
+    private static void diffObjects(String path, ObjectNode source, ObjectNode target, ArrayNode operations) {
+        Iterator<String> names = source.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!target.has(name)) {
+                operations.add(operation("remove", path + "/" + escape(name)));
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = target.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String fieldPath = path + "/" + escape(field.getKey());
+            JsonNode before = source.get(field.getKey());
+            if (before == null) {
+                operations.add(operation("add", fieldPath).set("value", field.getValue()));
+            } else {
+                diff(fieldPath, before, field.getValue(), operations);
+            }
+        }
+    }
+
+    /**
+     * После удалений массив на шаге {@code j} состоит из уже расставленных элементов {@code target[0..j)}
+     * и еще не расставленных элементов источника в исходном порядке. Позиция не расставленного элемента -
+     * {@code j} плюс число не расставленных перед ним; оно считается деревом Фенвика по индексам источника.
+     */
+    private static void diffArraysById(String path, ArrayNode source, ArrayNode target, ArrayNode operations) {
+        Set<String> targetIds = new HashSet<>();
+        target.forEach(element -> targetIds.add(element.get(ID).asText()));
+
+        // удаление с конца, чтобы индексы оставшихся элементов не сдвигались
+        for (int i = source.size() - 1; i >= 0; i--) {
+            if (!targetIds.contains(source.get(i).get(ID).asText())) {
+                operations.add(operation("remove", path + "/" + i));
+            }
+        }
+
+        Map<String, Integer> remaining = new HashMap<>();
+        for (JsonNode element : source) {
+            String id = element.get(ID).asText();
+            if (targetIds.contains(id)) {
+                remaining.put(id, remaining.size());
+            }
+        }
+        JsonNode[] kept = new JsonNode[remaining.size()];
+        for (JsonNode element : source) {
+            Integer index = remaining.get(element.get(ID).asText());
+            if (index != null) {
+                kept[index] = element;
+            }
+        }
+        Unplaced unplaced = new Unplaced(kept.length);
+
+        for (int j = 0; j < target.size(); j++) {
+            JsonNode wanted = target.get(j);
+            String elementPath = path + "/" + j;
+            Integer index = remaining.get(wanted.get(ID).asText());
+            if (index == null) {
+                operations.add(operation("add", elementPath).set("value", wanted));
+                continue;
+            }
+            int before = unplaced.countBefore(index);
+            if (before > 0) {
+                operations.add(operation("move", elementPath).put("from", path + "/" + (j + before)));
+            }
+            unplaced.place(index);
+            diff(elementPath, kept[index], wanted, operations);
+        }
+    }
+
+    /** Дерево Фенвика: сколько элементов источника с меньшим индексом еще не расставлено. */
+    private static final class Unplaced {
+        private final int[] tree;
+
+        private Unplaced(int size) {
+            tree = new int[size + 1];
+            for (int i = 1; i <= size; i++) {
+                tree[i]++;
+                int parent = i + (i & -i);
+                if (parent <= size) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        private int countBefore(int index) {
+            int count = 0;
+            for (int i = index; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+
+        private void place(int index) {
+            for (int i = index + 1; i < tree.length; i += i & -i) {
+                tree[i]--;
+            }
+        }
+    }
+
+    private static boolean hasUniqueIds(JsonNode array) {
+        Set<String> ids = new HashSet<>();
+        for (JsonNode element : array) {
+            JsonNode id = element.get(ID);
+            if (!element.isObject() || id == null || !id.isTextual() || !ids.add(id.asText())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ObjectNode operation(String op, String path) {
+        ObjectNode operation = NODES.objectNode();
+        operation.put("op", op);
+        operation.put("path", path);
+        return operation;
+    }
+
+    private static void applyOperation(JsonNode[] root, JsonNode operation) {
+        String op = requiredText(operation, "op");
+        String path = requiredText(operation, "path");
+        if (!path.isEmpty() && !path.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid JSON pointer: " + path);
+        }
+        switch (op) {
+            case "add" -> add(root, path, requiredValue(operation));
+            case "remove" -> remove(root[0], path);
+            case "replace" -> {
+                get(root[0], path);
+                if (path.isEmpty()) {
+                    root[0] = requiredValue(operation).deepCopy();
+                } else {
+                    remove(root[0], path);
+                    add(root, path, requiredValue(operation));
+                }
+            }
+            case "move" -> {
+                String from = requiredText(operation, "from");
+                if (path.startsWith(from + "/")) {
+                    throw new IllegalArgumentException("Cannot move " + from + " into its own child " + path);
+                }
+                JsonNode value = get(root[0], from);
+                remove(root[0], from);
+                add(root, path, value);
+            }
+            case "copy" -> add(root, path, get(root[0], requiredText(operation, "from")).deepCopy());
+            case "test" -> {
+                if (!get(root[0], path).equals(requiredValue(operation))) {
+                    throw new IllegalArgumentException("Test failed at " + path);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + op);
+        }
+    }
+
+    private static void add(JsonNode[] root, String path, JsonNode value) {
+        if (path.isEmpty()) {
+            root[0] = value.deepCopy();
+            return;
+        }
+        JsonNode parent = get(root[0], parentOf(path));
+        String token = lastToken(path);
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(token, value.deepCopy());
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            if ("-".equals(token)) {
+                array.add(value.deepCopy());
+            } else {
+                array.insert(index(token, array.size() + 1, path), value.deepCopy());
+            }
+        } else {
+            throw new IllegalArgumentException("Parent of " + path + " is not a container");
+        }
+    }
+
+    private static void remove(JsonNode root, String path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Cannot remove the whole document");
+        }
+        JsonNode parent = get(root, parentOf(path));
+        String token = lastToken(path);
+        if (parent.isObject() && parent.has(token)) {
+            ((ObjectNode) parent).remove(token);
+        } else if (parent.isArray()) {
+            ((ArrayNode) parent).remove(index(token, parent.size(), path));
+        } else {
+            throw new IllegalArgumentException("Path not found: " + path);
+        }
+    }
+
+    private static JsonNode get(JsonNode root, String path) {
+        if (path.isEmpty()) {
+            return root;
+        }
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid JSON pointer: " + path);
+        }
+        JsonNode node = root;
+        for (String rawToken : path.substring(1).split("/", -1)) {
+            String token = unescape(rawToken);
+            if (node.isObject()) {
+                node = node.get(token);
+            } else if (node.isArray()) {
+                node = node.get(index(token, node.size(), path));
+            } else {
+                node = null;
+            }
+            if (node == null) {
+                throw new IllegalArgumentException("Path not found: " + path);
+            }
+        }
+        return node;
+    }
+
+    private static int index(String token, int bound, String path) {
+        try {
+            int index = Integer.parseInt(token);
+            if (index >= 0 && index < bound && (token.length() == 1 || token.charAt(0) != '0')) {
+                return index;
+            }
+        } catch (NumberFormatException ignored) {
+            // ниже общее сообщение об ошибке
+        }
+        throw new IllegalArgumentException("Invalid array index '" + token + "' in " + path);
+    }
+
+    private static String parentOf(String path) {
+        return path.substring(0, path.lastIndexOf('/'));
+    }
+
+    private static String lastToken(String path) {
+        return unescape(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static String requiredText(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException("Missing '" + field + "'");
+        }
+        return value.asText();
+    }
+
+    private static JsonNode requiredValue(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw new IllegalArgumentException("Missing 'value'");
+        }
+        return operation.get("value");
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static String unescape(String token) {
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+}
@@ -8,11 +8,13 @@ import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
 import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
 import pro.axenix_innovation.axenapi.web.model.EventDTO;
 import pro.axenix_innovation.axenapi.web.model.LinkDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.util.*;
 
@@ -32,12 +34,16 @@ public class OpenAPIGenerator {
      * @throws JsonProcessingException if serialization fails
      */
     public static Map<String, OpenAPI> getOpenAPISpecifications(EventGraphFacade eventGraph) throws JsonProcessingException {
+        return PipelineMetrics.time(PipelineMetrics.Stage.OPENAPI_GENERATION, () -> generateSpecifications(eventGraph));
+    }
+
+    private static Map<String, OpenAPI> generateSpecifications(EventGraphFacade eventGraph) throws JsonProcessingException {
         logGraphInfo(eventGraph);
 
         Map<String, OpenAPI> openAPIMap = createOpenAPIMap(eventGraph);
         processLinks(eventGraph, openAPIMap);
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.finish.create.open.api.spec.service", openAPIMap.size()));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.finish.create.open.api.spec.service", openAPIMap.size());
         return openAPIMap;
     }
 
@@ -52,7 +58,7 @@ public class OpenAPIGenerator {
     public static OpenAPI getOpenAPISpecByServiceId(EventGraphFacade eventGraph, UUID serviceID) throws JsonProcessingException {
         NodeDTO nodeById = eventGraph.getNodeById(serviceID);
         if(nodeById == null) {
-            log.warn(MessageHelper.getStaticMessage(WARN_NODE_NOT_FOUND, serviceID));
+            MessageHelper.log(log, Level.WARN, WARN_NODE_NOT_FOUND, serviceID);
             return null;
         }
         String name = nodeById.getName();
@@ -61,10 +67,10 @@ public class OpenAPIGenerator {
     }
 
     private static void logGraphInfo(EventGraphFacade eventGraph) {
-        log.info(MessageHelper.getStaticMessage("axenapi.info.received.graph.nodes.links",
+        MessageHelper.log(log, Level.INFO, "axenapi.info.received.graph.nodes.links",
                 eventGraph.getNodes().size(),
                 eventGraph.getLinks().size()
-        ));
+        );
 
         if (log.isDebugEnabled()) {
             for (NodeDTO node : eventGraph.getNodes()) {
@@ -89,8 +95,8 @@ public class OpenAPIGenerator {
                                 openAPI.addExtension("x-documentation-file-links", new ArrayList<>(node.getDocumentationFileLinks()));
                             }
                             map.put(node.getName(), openAPI);
-                            log.info(MessageHelper.getStaticMessage("axenapi.info.created.open.api.spec.service.node",
-                                    node.getName()));
+                            MessageHelper.log(log, Level.INFO, "axenapi.info.created.open.api.spec.service.node",
+                                    node.getName());
                         },
                         Map::putAll
                 );
@@ -103,7 +109,7 @@ public class OpenAPIGenerator {
             EventDTO event = eventGraph.getEventById(link.getEventId());
 
             if (toNode == null || fromNode == null) {
-                log.warn(MessageHelper.getStaticMessage(WARN_SKIPPING_LINK, link.getToId(), link.getFromId(), link.getEventId()));
+                MessageHelper.log(log, Level.WARN, WARN_SKIPPING_LINK, link.getToId(), link.getFromId(), link.getEventId());
                 continue;
             }
 
@@ -129,7 +135,7 @@ public class OpenAPIGenerator {
             throws JsonProcessingException {
         OpenAPI openAPI = openAPIMap.get(toNode.getName());
         if (openAPI == null) {
-            log.warn(MessageHelper.getStaticMessage(WARN_NO_OPEN_API_SPEC_FOUND_SKIP_INC, toNode.getName()));
+            MessageHelper.log(log, Level.WARN, WARN_NO_OPEN_API_SPEC_FOUND_SKIP_INC, toNode.getName());
             return;
         }
         ensureComponents(openAPI);
@@ -160,7 +166,7 @@ public class OpenAPIGenerator {
                     break;
                 default:
                     path = "/" + broker + "/" + fromNode.getName() + "/undefined_event";
-                    log.info(MessageHelper.getStaticMessage("axenapi.info.broker.unrecognized.use.default", broker, path));
+                    MessageHelper.log(log, Level.INFO, "axenapi.info.broker.unrecognized.use.default", broker, path);
                     break;
             }
         } else {
@@ -180,12 +186,12 @@ public class OpenAPIGenerator {
                     break;
                 default:
                     path = "/" + broker + "/" + fromNode.getName() + "/" + event.getName();
-                    log.info(MessageHelper.getStaticMessage("axenapi.info.broker.unrecognized.use.default", broker, path));
+                    MessageHelper.log(log, Level.INFO, "axenapi.info.broker.unrecognized.use.default", broker, path);
                     break;
             }
         }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.add.post.path.service", path, toNode.getName()));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.add.post.path.service", path, toNode.getName());
 
         Set<String> tags = new LinkedHashSet<>();
         if (!link.getTags().isEmpty()) {
@@ -228,7 +234,7 @@ public class OpenAPIGenerator {
             throws JsonProcessingException {
         OpenAPI openAPI = openAPIMap.get(fromNode.getName());
         if (openAPI == null) {
-            log.warn(MessageHelper.getStaticMessage(WARN_NO_OPEN_API_SPEC_FOUND_SKIP_OUT, fromNode.getName()));
+            MessageHelper.log(log, Level.WARN, WARN_NO_OPEN_API_SPEC_FOUND_SKIP_OUT, fromNode.getName());
             return;
         }
         ensureComponents(openAPI);
@@ -272,18 +278,18 @@ public class OpenAPIGenerator {
             throws JsonProcessingException {
         OpenAPI openAPI = openAPIMap.get(toNode.getName());
         if (openAPI == null) {
-            log.warn(MessageHelper.getStaticMessage(WARN_NO_OPEN_API_SPEC_FOUND_SKIP_HTTP, toNode.getName()));
+            MessageHelper.log(log, Level.WARN, WARN_NO_OPEN_API_SPEC_FOUND_SKIP_HTTP, toNode.getName());
             return;
         }
         ensureComponents(openAPI);
 
         String httpPath = fromNode.getNodeUrl();
         if (httpPath == null || httpPath.isBlank()) {
-            log.warn(MessageHelper.getStaticMessage(WARN_HTTP_URL_SKIP_LINK, fromNode.getName()));
+            MessageHelper.log(log, Level.WARN, WARN_HTTP_URL_SKIP_LINK, fromNode.getName());
             return;
         }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.add.get.patch.path.service", httpPath, toNode.getName()));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.add.get.patch.path.service", httpPath, toNode.getName());
 
         if (event == null) {
             Operation operation = new Operation().responses(new ApiResponses()
@@ -1,33 +1,142 @@
 package pro.axenix_innovation.axenapi.web.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.DeserializationUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.ERROR_PARSING_OPEN_API_SPEC;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_DURING_OPEN_API_PARSE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_EMPTY_NULL_SPEC;
 
+/**
+ * Разбор спецификаций OpenAPI. Содержимое разбирается один раз в дерево Jackson, из которого
+ * строится модель OpenAPI. Результаты для спецификаций кэшируются по SHA-256 содержимого
+ * (не более {@code openapi.parse.cache.size} записей, вытесняются давно не использованные),
+ * поэтому валидация и трансляция одного файла не разбирают его повторно.
+ */
 @Slf4j
+@Component
 public class OpenAPIParser {
-    
+
+    private static final int DEFAULT_CACHE_SIZE = 64;
+
+    private static volatile Map<String, ParsedSpecification> cache = newCache(DEFAULT_CACHE_SIZE);
+
+    @Value("${openapi.parse.cache.size:64}")
+    private int configuredCacheSize;
+
+    @PostConstruct
+    public void init() {
+        setCacheSize(configuredCacheSize);
+    }
+
+    //    Для тестов
+    public static void setCacheSize(int maxEntries) {
+        cache = newCache(maxEntries);
+    }
+
+    public static int cacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * @return модель из кэша разбора; изменять ее нельзя (см. {@link ParsedSpecification})
+     */
     public static OpenAPI parseSpecification(String specification) {
         if (specification == null || specification.trim().isEmpty()) {
             log.warn(MessageHelper.getStaticMessage(WARN_EMPTY_NULL_SPEC));
             return null;
         }
+        ParsedSpecification parsed = parse(specification);
+        return parsed != null ? parsed.openAPI() : null;
+    }
+
+    /**
+     * Разбирает содержимое файла (JSON или YAML). Модель OpenAPI строится только для документов
+     * с полем {@code openapi}, и только они попадают в кэш.
+     *
+     * @return null, если содержимое пустое или не разбирается
+     */
+    public static ParsedSpecification parse(String content) {
+        if (content == null || content.trim().isEmpty()) {
+            return null;
+        }
 
+        String hash = contentHash(content);
+        ParsedSpecification cached = cache.get(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        ParsedSpecification parsed = PipelineMetrics.time(PipelineMetrics.Stage.PARSE, () -> parseContent(content, hash));
+        if (parsed != null && parsed.hasOpenAPI()) {
+            cache.put(hash, parsed);
+        }
+        return parsed;
+    }
+
+    private static ParsedSpecification parseContent(String content, String hash) {
+        JsonNode tree;
         try {
-            SwaggerParseResult result = new OpenAPIV3Parser().readContents(specification);
-            if (result.getMessages() != null && !result.getMessages().isEmpty()) {
-                log.warn(MessageHelper.getStaticMessage(WARN_DURING_OPEN_API_PARSE, result.getMessages()));
-            }
-            return result.getOpenAPI();
+            tree = DeserializationUtils.deserializeIntoTree(content, null);
         } catch (Exception e) {
             log.error(MessageHelper.getStaticMessage(ERROR_PARSING_OPEN_API_SPEC), e);
             return null;
         }
+        if (tree == null) {
+            return null;
+        }
+        if (!tree.has("openapi")) {
+            return new ParsedSpecification(hash, tree, null, List.of());
+        }
+
+        ParsedSpecification parsed;
+        try {
+            SwaggerParseResult result = new OpenAPIV3Parser().parseJsonNode(null, tree);
+            List<String> messages = result.getMessages() != null ? List.copyOf(result.getMessages()) : List.of();
+            if (!messages.isEmpty()) {
+                log.warn(MessageHelper.getStaticMessage(WARN_DURING_OPEN_API_PARSE, messages));
+            }
+            parsed = new ParsedSpecification(hash, tree, result.getOpenAPI(), messages);
+        } catch (Exception e) {
+            log.error(MessageHelper.getStaticMessage(ERROR_PARSING_OPEN_API_SPEC), e);
+            return new ParsedSpecification(hash, tree, null, List.of());
+        }
+        return parsed;
+    }
+
+    static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Map<String, ParsedSpecification> newCache(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedSpecification> eldest) {
+                return size() > maxEntries;
+            }
+        });
     }
-} 
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
 import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
 import pro.axenix_innovation.axenapi.web.model.EventDTO;
 import pro.axenix_innovation.axenapi.web.model.LinkDTO;
@@ -44,11 +45,11 @@ public class OpenAPIProcessor {
 
         if (documentationFileLinks != null && !documentationFileLinks.isEmpty()) {
             serviceNode.setDocumentationFileLinks(new HashSet<>(documentationFileLinks));
-            log.info(MessageHelper.getStaticMessage("axenapi.info.set.document.file.links", serviceNode.getDocumentationFileLinks()));
+            MessageHelper.log(log, Level.INFO, "axenapi.info.set.document.file.links", serviceNode.getDocumentationFileLinks());
         }
 
         eventGraph.addNode(serviceNode);
-        log.info(MessageHelper.getStaticMessage("axenapi.info.service.node.create.id", serviceNodeUUId));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.service.node.create.id", serviceNodeUUId);
         return serviceNodeUUId;
     }
 
@@ -59,7 +60,7 @@ public class OpenAPIProcessor {
                                     Map<String, String> consumerGroup,
                                     Map<String, Set<String>> topicTags,
                                     Set<String> allTags) {
-        log.info(MessageHelper.getStaticMessage("axenapi.info.processing.open.api.path"));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.processing.open.api.path");
         paths.forEach((key, path) -> {
             log.debug("Processing path: {}", key);
             List<String> pathDocumentationLinks = null;
@@ -97,10 +98,10 @@ public class OpenAPIProcessor {
                             topicNode.setDocumentationFileLinks(new HashSet<>());
                         }
                         topicNode.getDocumentationFileLinks().addAll(pathDocumentationLinks);
-                        log.info(MessageHelper.getStaticMessage("axenapi.info.add.document.file.link.topic.node",
-                                pathDocumentationLinks, topicNode.getName()));
+                        MessageHelper.log(log, Level.INFO, "axenapi.info.add.document.file.link.topic.node",
+                                pathDocumentationLinks, topicNode.getName());
                     } else {
-                        log.warn(MessageHelper.getStaticMessage(WARN_TOPIC_NODE_NOT_FOUND_DOC_LINK, brokerInfo.getTopic()));
+                        MessageHelper.log(log, Level.WARN, WARN_TOPIC_NODE_NOT_FOUND_DOC_LINK, brokerInfo.getTopic());
                     }
                 }
             } else {
@@ -176,11 +177,11 @@ public class OpenAPIProcessor {
                                       Map<String, EventDTO> createdEvents) {
 
         if (schemas == null || schemas.isEmpty()) {
-            log.warn(MessageHelper.getStaticMessage(WARN_NO_SCHEMAS_FOUND));
+            MessageHelper.log(log, Level.WARN, WARN_NO_SCHEMAS_FOUND);
             return;
         }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.processing.schemas", schemas.size()));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.processing.schemas", schemas.size());
 
         schemas.forEach((key, schema) -> {
             try {
@@ -191,7 +192,7 @@ public class OpenAPIProcessor {
                             brokers, consumerGroup, topicTags, allTags, createdEvents);
                 }
             } catch (Exception e) {
-                log.error(MessageHelper.getStaticMessage(ERROR_PROCESSING_SCHEMA, key, e.getMessage()));
+                MessageHelper.log(log, Level.ERROR, ERROR_PROCESSING_SCHEMA, key, e.getMessage());
             }
         });
     }
@@ -244,7 +245,7 @@ public class OpenAPIProcessor {
             topicTags.put(brokerInfo.getEventName(), brokerInfo.getTags());
             topicTags.put(brokerInfo.getTopic() + brokerInfo.getEventName(), new HashSet<>(brokerInfo.getTags()));
         }
-        log.info(MessageHelper.getStaticMessage("axenapi.info.tags.path", brokerInfo.getTopic(), brokerInfo.getTags()));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.tags.path", brokerInfo.getTopic(), brokerInfo.getTags());
     }
 
     private static List<Operation> getOperations(PathItem pathItem) {
@@ -372,7 +373,7 @@ public class OpenAPIProcessor {
                                       Set<String> allTags,
                                       Map<String, EventDTO> createdEvents) {
         if (createdEvents.containsKey(schemaKey)) {
-            log.info(MessageHelper.getStaticMessage("axenapi.info.event.created.skip.duplicate", schemaKey));
+            MessageHelper.log(log, Level.INFO, "axenapi.info.event.created.skip.duplicate", schemaKey);
             return;
         }
         Map<String, Object> extensions = schema.getExtensions();
@@ -387,10 +388,10 @@ public class OpenAPIProcessor {
                 .tags(eventTags);
         eventGraph.addEvent(event);
         createdEvents.put(schemaKey, event);
-        log.info(MessageHelper.getStaticMessage("axenapi.info.tags.for.event", event.getId(), event.getTags()));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.tags.for.event", event.getId(), event.getTags());
 
         if (extensions == null) {
-            log.warn(MessageHelper.getStaticMessage(WARN_NO_EXTENSIONS_IN_SCHEMA, schemaKey));
+            MessageHelper.log(log, Level.WARN, WARN_NO_EXTENSIONS_IN_SCHEMA, schemaKey);
             return;
         }
 
@@ -482,7 +483,7 @@ public class OpenAPIProcessor {
         }
 
         Set<String> curTopicEvTags = topicTags.getOrDefault(topic + eventKey, new HashSet<>());
-        log.info(MessageHelper.getStaticMessage("axenapi.info.tags.for.topic.event", topic, eventKey, curTopicEvTags));
+        MessageHelper.log(log, Level.INFO, "axenapi.info.tags.for.topic.event", topic, eventKey, curTopicEvTags);
 
         NodeDTO incomingTopic = new NodeDTO().id(UUID.randomUUID())
                 .name(topic)
@@ -545,7 +546,7 @@ public class OpenAPIProcessor {
 
         topics.forEach(topicSpec -> {
             log.debug("Processing outgoing topic: {}", topicSpec);
-            log.info(MessageHelper.getStaticMessage("axenapi.info.outgoing.topic", topicSpec, topicTags.get(topicSpec)));
+            MessageHelper.log(log, Level.INFO, "axenapi.info.outgoing.topic", topicSpec, topicTags.get(topicSpec));
             if (topicSpec instanceof String topic) {
                 List<String> tags = new ArrayList<>();
                 if (event != null && event.getTags() != null && !event.getTags().isEmpty()) {
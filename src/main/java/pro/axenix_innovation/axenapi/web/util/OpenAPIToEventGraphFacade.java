@@ -22,6 +22,13 @@ public class OpenAPIToEventGraphFacade {
         return eventGraphBuilder.build(openAPI, serviceNodeId);
     }
 
+    /**
+     * Builds the graph from an already parsed specification, without parsing it again.
+     */
+    public EventGraphFacade fromOpenAPI(OpenAPI openAPI, UUID serviceNodeId) throws OpenAPISpecParseException {
+        return eventGraphBuilder.build(openAPI, serviceNodeId);
+    }
+
     public EventGraphFacade fromSpec(String spec) throws OpenAPISpecParseException {
         return fromSpec(spec, null);
     }
@@ -0,0 +1,35 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.OpenAPI;
+
+import java.util.List;
+
+/**
+ * Результат однократного разбора файла спецификации: дерево Jackson и модель OpenAPI
+ * (null, если файл не является спецификацией OpenAPI). Экземпляры разделяются через кэш
+ * {@link OpenAPIParser}, поэтому {@link #tree()} и {@link #openAPI()} возвращают закэшированные
+ * объекты только для чтения: изменять их нельзя, вызывающий код, которому нужно изменить
+ * дерево или модель, сам делает копию.
+ *
+ * @param contentHash SHA-256 содержимого
+ * @param messages    предупреждения парсера OpenAPI
+ */
+public record ParsedSpecification(String contentHash, JsonNode tree, OpenAPI openAPI, List<String> messages) {
+
+    public ParsedSpecification {
+        messages = messages != null ? List.copyOf(messages) : List.of();
+    }
+
+    public boolean isOpenAPI() {
+        return tree != null && tree.has("openapi");
+    }
+
+    public boolean hasTree() {
+        return tree != null;
+    }
+
+    public boolean hasOpenAPI() {
+        return openAPI != null;
+    }
+}
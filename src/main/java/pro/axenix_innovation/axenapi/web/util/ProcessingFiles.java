@@ -3,9 +3,9 @@ package pro.axenix_innovation.axenapi.web.util;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.web.multipart.MultipartFile;
 import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
 import pro.axenix_innovation.axenapi.web.exception.OpenAPISpecParseException;
@@ -33,36 +33,33 @@ public class ProcessingFiles {
                 String fileName = multipartFile.getOriginalFilename();
                 String fileContent = new String(multipartFile.getBytes());
 
-                ObjectMapper mapper;
-                if (fileName != null && (fileName.endsWith(".yaml") || fileName.endsWith(".yml"))) {
-                    mapper = new ObjectMapper(new YAMLFactory());
-                } else {
-                    mapper = new ObjectMapper();
+                // Файл разбирается один раз: дерево и модель OpenAPI берутся из одного результата
+                ParsedSpecification parsed = OpenAPIParser.parse(fileContent);
+                if (parsed == null) {
+                    throw new IOException("Unable to parse file content");
                 }
 
-                JsonNode rootNode = mapper.readTree(fileContent);
-
                 EventGraphDTO eventGraph;
-                if (rootNode.has("openapi")) {
-                    EventGraphFacade eventGraphFacade = SolidOpenAPITranslator.parseOPenAPI(fileContent);
+                if (parsed.isOpenAPI()) {
+                    EventGraphFacade eventGraphFacade = SolidOpenAPITranslator.parseOPenAPI(parsed);
                     eventGraph = eventGraphFacade != null ? eventGraphFacade.eventGraph() : null;
-                    log.info(MessageHelper.getStaticMessage("axenapi.info.parse.open.api.event"));
+                    MessageHelper.log(log, Level.INFO, "axenapi.info.parse.open.api.event");
                     if (eventGraph != null && eventGraph.getEvents() != null) {
                         eventGraph.getEvents().forEach(event ->
-                                log.info(MessageHelper.getStaticMessage("axenapi.info.event.name.id", event.getName(), event.getId()))
+                                MessageHelper.log(log, Level.INFO, "axenapi.info.event.name.id", event.getName(), event.getId())
                         );
                     } else {
-                        log.warn(MessageHelper.getStaticMessage(WARN_PARSE_OPEN_API_NO_EVENTS));
+                        MessageHelper.log(log, Level.WARN, WARN_PARSE_OPEN_API_NO_EVENTS);
                     }
                 } else {
-                    eventGraph = mapper.treeToValue(rootNode, EventGraphDTO.class);
-                    log.info(MessageHelper.getStaticMessage("axenapi.info.parse.json.event"));
+                    eventGraph = JacksonMappers.json().treeToValue(parsed.tree(), EventGraphDTO.class);
+                    MessageHelper.log(log, Level.INFO, "axenapi.info.parse.json.event");
                     if (eventGraph.getEvents() != null) {
                         eventGraph.getEvents().forEach(event ->
-                                log.info(MessageHelper.getStaticMessage("axenapi.info.event.name.id", event.getName(), event.getId()))
+                                MessageHelper.log(log, Level.INFO, "axenapi.info.event.name.id", event.getName(), event.getId())
                         );
                     } else {
-                        log.warn(MessageHelper.getStaticMessage(WARN_PARSE_JSON_NO_EVENTS));
+                        MessageHelper.log(log, Level.WARN, WARN_PARSE_JSON_NO_EVENTS);
                     }
                 }
 
@@ -72,13 +69,13 @@ public class ProcessingFiles {
 
                 result = merge(eventGraph, result);
 
-                log.info(MessageHelper.getStaticMessage("axenapi.info.after.merge.all.events"));
+                MessageHelper.log(log, Level.INFO, "axenapi.info.after.merge.all.events");
                 if (result.getEvents() != null) {
                     result.getEvents().forEach(event ->
-                            log.info(MessageHelper.getStaticMessage("axenapi.info.event.name.id", event.getName(), event.getId()))
+                            MessageHelper.log(log, Level.INFO, "axenapi.info.event.name.id", event.getName(), event.getId())
                     );
                 } else {
-                    log.warn(MessageHelper.getStaticMessage(WARN_MERGED_GRAPH_NO_EVENTS));
+                    MessageHelper.log(log, Level.WARN, WARN_MERGED_GRAPH_NO_EVENTS);
                 }
 
             } catch (OpenAPISpecParseException e) {
@@ -103,19 +100,32 @@ public class ProcessingFiles {
 
     public static EventGraphDTO processFile(MultipartFile file, ObjectMapper objectMapper) throws OpenAPISpecParseException {
         try {
-            log.info(MessageHelper.getStaticMessage("axenapi.info.process.file", file.getOriginalFilename()));
+            MessageHelper.log(log, Level.INFO, "axenapi.info.process.file", file.getOriginalFilename());
             String fileContent = getFileContent(file);
             JsonNode rootNode = objectMapper.readTree(fileContent);
             if (rootNode.has("openapi")) {
                 EventGraphFacade eventGraphFacade = SolidOpenAPITranslator.parseOPenAPI(fileContent);
                 return eventGraphFacade != null ? eventGraphFacade.eventGraph() : null;
             } else {
-                log.error(MessageHelper.getStaticMessage(AppCodeMessageKey.ERROR_PARSE_OPEN_API_SPEC_FAIL));
-                throw new OpenAPISpecParseException(file.getOriginalFilename(), "Failed to parse OpenAPI specification for file: " + file.getOriginalFilename() + "is not an openapi");
+                MessageHelper.log(log, Level.ERROR, AppCodeMessageKey.ERROR_PARSE_OPEN_API_SPEC_FAIL);
+                throw new OpenAPISpecParseException(file.getOriginalFilename(), "Failed to parse OpenAPI specification for file: " + file.getOriginalFilename() + " is not an openapi");
             }
 
         } catch (JsonProcessingException e) {
             throw new OpenAPISpecParseException(file.getOriginalFilename(), "Failed to parse OpenAPI specification for file: " + file.getOriginalFilename());
         }
     }
+
+    /**
+     * Строит граф по уже разобранной спецификации (см. {@link OpenAPIParser#parse(String)}).
+     */
+    public static EventGraphDTO processFile(String fileName, ParsedSpecification specification) throws OpenAPISpecParseException {
+        MessageHelper.log(log, Level.INFO, "axenapi.info.process.file", fileName);
+        if (specification == null || !specification.isOpenAPI()) {
+            MessageHelper.log(log, Level.ERROR, AppCodeMessageKey.ERROR_PARSE_OPEN_API_SPEC_FAIL);
+            throw new OpenAPISpecParseException(fileName, "Failed to parse OpenAPI specification for file: " + fileName + " is not an openapi");
+        }
+        EventGraphFacade eventGraphFacade = SolidOpenAPITranslator.parseOPenAPI(specification);
+        return eventGraphFacade != null ? eventGraphFacade.eventGraph() : null;
+    }
 }
@@ -3,7 +3,6 @@ package pro.axenix_innovation.axenapi.web.util;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.Json31;
 import io.swagger.v3.oas.models.media.*;
 import lombok.extern.slf4j.Slf4j;
@@ -17,29 +16,29 @@ import java.util.Map;
 public class SchemaProcessor {
     
     public static Schema deserializeSchema(String text) throws JsonProcessingException {
-        JsonNode node = Json.mapper().readTree(text);
+        JsonNode node = JacksonMappers.openApiJson().readTree(text);
         JsonNode additionalProperties = node.get("additionalProperties");
         Schema schema = null;
         
         if (additionalProperties != null) {
             if (additionalProperties.isBoolean()) {
-                Boolean additionalPropsBoolean = Json.mapper().convertValue(additionalProperties, Boolean.class);
+                Boolean additionalPropsBoolean = JacksonMappers.openApiJson().convertValue(additionalProperties, Boolean.class);
                 ((ObjectNode)node).remove("additionalProperties");
                 if (additionalPropsBoolean) {
-                    schema = Json.mapper().convertValue(node, MapSchema.class);
+                    schema = JacksonMappers.openApiJson().convertValue(node, MapSchema.class);
                 } else {
-                    schema = Json.mapper().convertValue(node, ObjectSchema.class);
+                    schema = JacksonMappers.openApiJson().convertValue(node, ObjectSchema.class);
                 }
                 schema.setAdditionalProperties(additionalPropsBoolean);
             } else {
-                Schema innerSchema = Json.mapper().convertValue(additionalProperties, Schema.class);
+                Schema innerSchema = JacksonMappers.openApiJson().convertValue(additionalProperties, Schema.class);
                 ((ObjectNode)node).remove("additionalProperties");
-                MapSchema ms = Json.mapper().convertValue(node, MapSchema.class);
+                MapSchema ms = JacksonMappers.openApiJson().convertValue(node, MapSchema.class);
                 ms.setAdditionalProperties(innerSchema);
                 schema = ms;
             }
         } else {
-            schema = Json.mapper().convertValue(node, ObjectSchema.class);
+            schema = JacksonMappers.openApiJson().convertValue(node, ObjectSchema.class);
         }
 
         if (schema != null) {
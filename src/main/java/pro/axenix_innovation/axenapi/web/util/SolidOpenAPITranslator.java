@@ -22,4 +22,8 @@ public class SolidOpenAPITranslator {
     public static EventGraphFacade parseOPenAPI(String specification, UUID serviceNodeId) throws OpenAPISpecParseException {
         return FACADE.fromSpec(specification, serviceNodeId);
     }
+
+    public static EventGraphFacade parseOPenAPI(ParsedSpecification specification) throws OpenAPISpecParseException {
+        return FACADE.fromOpenAPI(specification != null ? specification.openAPI() : null, null);
+    }
 }
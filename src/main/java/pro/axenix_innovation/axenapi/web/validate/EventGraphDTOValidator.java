@@ -1,6 +1,5 @@
 package pro.axenix_innovation.axenapi.web.validate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pro.axenix_innovation.axenapi.web.entity.AppCodeMessage;
@@ -9,6 +8,8 @@ import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.LinkDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.service.PathsService;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,8 +24,10 @@ import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ER
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_INVALID_NODE_BROKER_TYPE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_INVALID_NODE_TYPE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_LINKS_NULL_EVENTS;
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_LINK_ID_DUPLICATE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_LINK_ID_FROM_NULL;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_LINK_ID_TO_NULL;
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_LINK_TYPE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_NODE_ID_DUPLICATE;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_NODE_ID_FROM_NULL;
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ERROR_VALID_NODE_ID_TO_NULL;
@@ -34,48 +37,177 @@ import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.RESP_ER
 public class EventGraphDTOValidator {
 
     private static final Logger log = LoggerFactory.getLogger(EventGraphDTOValidator.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Проверяет структуру графа и возвращает первое нарушение (или null).
+     * Правила типов связей и наличие событий у связей здесь не проверяются,
+     * см. {@link #validate(EventGraphDTO, int)} и {@link #validateLinksHaveEvents(EventGraphDTO)}.
+     */
     public static AppCodeMessage validateEventGraph(EventGraphDTO eventGraph) {
+        ValidationAudit.auditEventGraph(eventGraph);
+        PipelineMetrics.recordGraph(PipelineMetrics.GraphKind.VALIDATED, eventGraph);
+        return PipelineMetrics.time(PipelineMetrics.Stage.VALIDATE,
+                () -> collect(eventGraph, new GraphValidationReport(1), false).first());
+    }
 
-        log.info(MessageHelper.getStaticMessage("axenapi.info.valid.event.graph", eventGraph));
-
-        try {
-            if (eventGraph == null) {
-                log.info(MessageHelper.getStaticMessage("axenapi.info.received.event.graph", "null"));
-            } else {
-                String json = objectMapper.writeValueAsString(eventGraph);
-                log.info(MessageHelper.getStaticMessage("axenapi.info.received.event.graph", json));
-            }
-        } catch (Exception e) {
-            log.warn(MessageHelper.getStaticMessage("axenapi.warn.unable.serialize.event.graph", e.getMessage()));
-        }
+    /**
+     * Полная проверка графа за один проход по узлам, событиям и связям с индексами id в хэш-множествах.
+     * Собирает все нарушения (не больше {@code maxViolations}): структура, дубли id узлов, событий и связей,
+     * связи на несуществующие узлы и события, допустимость направления связи
+     * ({@link PathsService#isValidLink(String, String)}).
+     */
+    public static GraphValidationReport validate(EventGraphDTO eventGraph, int maxViolations) {
+        ValidationAudit.auditEventGraph(eventGraph);
+        PipelineMetrics.recordGraph(PipelineMetrics.GraphKind.VALIDATED, eventGraph);
+        return PipelineMetrics.time(PipelineMetrics.Stage.VALIDATE,
+                () -> collect(eventGraph, new GraphValidationReport(maxViolations), true));
+    }
 
+    private static GraphValidationReport collect(EventGraphDTO eventGraph, GraphValidationReport report,
+                                                 boolean linkRules) {
         if (eventGraph == null) {
-            return RESP_ERROR_VALID_EVENT_GRAPH_NULL.withArgs();
+            report.add(null, RESP_ERROR_VALID_EVENT_GRAPH_NULL);
+            return report;
         }
 
         if (eventGraph.getNodes() == null) {
-            return RESP_ERROR_VALID_GRAPH_NULL_NODES.withArgs();
+            report.add(null, RESP_ERROR_VALID_GRAPH_NULL_NODES);
+            return report;
         }
 
         if (isCompletelyEmpty(eventGraph)) {
-            return null;
+            return report;
         }
 
-        AppCodeMessage validationResult = validateEventGraphName(eventGraph);
-        if (validationResult != null) return validationResult;
+        if (eventGraph.getName() == null || eventGraph.getName().isEmpty()) {
+            report.add(null, RESP_ERROR_VALID_GRAPH_NAME_NULL);
+        }
 
-        validationResult = validateNodes(eventGraph.getNodes());
-        if (validationResult != null) return validationResult;
+        Map<UUID, NodeDTO.TypeEnum> nodeTypes = HashMap.newHashMap(eventGraph.getNodes().size());
+        for (NodeDTO node : eventGraph.getNodes()) {
+            if (report.isTruncated()) return report;
+            collectNode(node, nodeTypes, report);
+        }
 
-        validationResult = validateEvents(eventGraph.getEvents());
-        if (validationResult != null) return validationResult;
+        Set<UUID> eventIds = Collections.emptySet();
+        if (eventGraph.getEvents() != null) {
+            eventIds = HashSet.newHashSet(eventGraph.getEvents().size());
+            for (EventDTO event : eventGraph.getEvents()) {
+                if (report.isTruncated()) return report;
+                collectEvent(event, eventIds, report);
+            }
+        }
 
-        validationResult = validateLinks(eventGraph.getLinks(), eventGraph.getNodes());
-        if (validationResult != null) return validationResult;
+        if (eventGraph.getLinks() != null) {
+            Set<UUID> linkIds = linkRules ? HashSet.newHashSet(eventGraph.getLinks().size()) : null;
+            for (LinkDTO link : eventGraph.getLinks()) {
+                if (report.isTruncated()) return report;
+                collectLink(link, nodeTypes, eventIds, linkIds, report);
+            }
+        }
 
-        return null;
+        return report;
+    }
+
+    private static void collectNode(NodeDTO node, Map<UUID, NodeDTO.TypeEnum> nodeTypes, GraphValidationReport report) {
+        if (node == null) {
+            report.add(null, RESP_ERROR_VALID_NODE_IN_NULL);
+            return;
+        }
+
+        if (node.getType() == null || (!node.getType().equals(NodeDTO.TypeEnum.SERVICE) &&
+                !node.getType().equals(NodeDTO.TypeEnum.TOPIC) && !node.getType().equals(NodeDTO.TypeEnum.HTTP))) {
+            report.add(node.getId(), RESP_ERROR_VALID_INVALID_NODE_TYPE, node.getType());
+        }
+
+        if (node.getBrokerType() != null &&
+                !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.UNDEFINED) &&
+                !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.KAFKA) &&
+                !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.JMS) &&
+                !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.RABBITMQ)) {
+            report.add(node.getId(), RESP_ERROR_VALID_INVALID_NODE_BROKER_TYPE, node.getBrokerType());
+        }
+
+        if (node.getName() == null || node.getName().isEmpty()) {
+            report.add(node.getId(), RESP_ERROR_VALID_NODE_NAME_NULL, node.getId());
+        }
+
+        if (node.getId() == null) {
+            report.add(null, RESP_ERROR_VALID_NODE_IN_NULL);
+        } else if (nodeTypes.containsKey(node.getId())) {
+            report.add(node.getId(), RESP_ERROR_VALID_NODE_ID_DUPLICATE, node.getId());
+        } else {
+            nodeTypes.put(node.getId(), node.getType());
+        }
+    }
+
+    private static void collectEvent(EventDTO event, Set<UUID> eventIds, GraphValidationReport report) {
+        if (event == null || event.getId() == null) {
+            report.add(null, RESP_ERROR_VALID_EVENT_ID_NULL);
+            return;
+        }
+
+        if (!eventIds.add(event.getId())) {
+            report.add(event.getId(), RESP_ERROR_VALID_EVENT_ID_DUPLICATE, event.getId());
+        }
+
+        if (event.getName() == null || event.getName().isEmpty()) {
+            report.add(event.getId(), RESP_ERROR_VALID_EVENT_NAME_NULL, event.getId());
+        }
+
+        if (event.getSchema() == null || event.getSchema().isEmpty()) {
+            report.add(event.getId(), RESP_ERROR_VALID_EVENT_SCHEMA_NULL, event.getId());
+        }
+    }
+
+    /**
+     * @param linkIds null - проверяются только ссылки на узлы (режим {@link #validateEventGraph})
+     */
+    private static void collectLink(LinkDTO link, Map<UUID, NodeDTO.TypeEnum> nodeTypes, Set<UUID> eventIds,
+                                    Set<UUID> linkIds, GraphValidationReport report) {
+        if (link == null) {
+            report.add(null, RESP_ERROR_VALID_LINK_ID_FROM_NULL);
+            return;
+        }
+
+        if (linkIds != null && link.getId() != null && !linkIds.add(link.getId())) {
+            report.add(link.getId(), RESP_ERROR_VALID_LINK_ID_DUPLICATE, link.getId());
+        }
+
+        if (link.getFromId() == null) {
+            report.add(link.getId(), RESP_ERROR_VALID_LINK_ID_FROM_NULL);
+        }
+
+        if (link.getToId() == null) {
+            report.add(link.getId(), RESP_ERROR_VALID_LINK_ID_TO_NULL);
+        }
+
+        boolean fromExists = link.getFromId() != null && nodeTypes.containsKey(link.getFromId());
+        boolean toExists = link.getToId() != null && nodeTypes.containsKey(link.getToId());
+        if (link.getFromId() != null && !fromExists) {
+            report.add(link.getId(), RESP_ERROR_VALID_NODE_ID_FROM_NULL, link.getFromId());
+        }
+        if (link.getToId() != null && !toExists) {
+            report.add(link.getId(), RESP_ERROR_VALID_NODE_ID_TO_NULL, link.getToId());
+        }
+
+        if (linkIds == null) {
+            return;
+        }
+
+        if (fromExists && toExists) {
+            NodeDTO.TypeEnum fromType = nodeTypes.get(link.getFromId());
+            NodeDTO.TypeEnum toType = nodeTypes.get(link.getToId());
+            if (fromType != null && toType != null && !PathsService.isValidLink(fromType.name(), toType.name())) {
+                report.add(link.getId(), RESP_ERROR_VALID_LINK_TYPE,
+                        link.getFromId(), fromType, link.getToId(), toType);
+            }
+        }
+
+        if (link.getEventId() == null || !eventIds.contains(link.getEventId())) {
+            report.add(link.getId(), RESP_ERROR_VALID_LINKS_NULL_EVENTS,
+                    link.getId() != null ? link.getId() : "from:" + link.getFromId() + "-to:" + link.getToId());
+        }
     }
 
     private static boolean isCompletelyEmpty(EventGraphDTO eventGraph) {
@@ -122,98 +254,6 @@ public class EventGraphDTOValidator {
     }
 
 
-    private static AppCodeMessage validateEventGraphName(EventGraphDTO eventGraph) {
-        if (eventGraph.getName() == null || eventGraph.getName().isEmpty()) {
-            return RESP_ERROR_VALID_GRAPH_NAME_NULL.withArgs();
-        }
-        return null;
-    }
-
-    private static AppCodeMessage validateNodes(List<NodeDTO> nodes) {
-
-        Set<String> nodeIds = new HashSet<>();
-        for (NodeDTO node : nodes) {
-            if (node.getType() == null || (!node.getType().equals(NodeDTO.TypeEnum.SERVICE) &&
-                    !node.getType().equals(NodeDTO.TypeEnum.TOPIC) && !node.getType().equals(NodeDTO.TypeEnum.HTTP))) {
-                return RESP_ERROR_VALID_INVALID_NODE_TYPE.withArgs(node.getType());
-            }
-
-            if (node.getBrokerType() != null &&
-                    !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.UNDEFINED) &&
-                    !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.KAFKA) &&
-                    !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.JMS) &&
-                    !node.getBrokerType().equals(NodeDTO.BrokerTypeEnum.RABBITMQ)) {
-                return RESP_ERROR_VALID_INVALID_NODE_BROKER_TYPE.withArgs(node.getBrokerType());
-            }
-
-            if (node.getName() == null || node.getName().isEmpty()) {
-                return RESP_ERROR_VALID_NODE_NAME_NULL.withArgs(node.getId());
-            }
-
-            if (node.getId() == null) {
-                return RESP_ERROR_VALID_NODE_IN_NULL.withArgs();
-            }
-
-            if (!nodeIds.add(node.getId().toString())) {
-                return RESP_ERROR_VALID_NODE_ID_DUPLICATE.withArgs(node.getId());
-            }
-        }
-
-        return null;
-    }
-
-    private static AppCodeMessage validateEvents(List<EventDTO> events) {
-        if (events != null && !events.isEmpty()) {
-            Set<String> eventIds = new HashSet<>();
-            for (EventDTO event : events) {
-
-                if (event.getId() == null) {
-                    return RESP_ERROR_VALID_EVENT_ID_NULL.withArgs();
-                }
-
-                if (!eventIds.add(event.getId().toString())) {
-                    return RESP_ERROR_VALID_EVENT_ID_DUPLICATE.withArgs(event.getId());
-                }
-
-                if (event.getName() == null || event.getName().isEmpty()) {
-                    return RESP_ERROR_VALID_EVENT_NAME_NULL.withArgs(event.getId());
-                }
-
-                if (event.getSchema() == null || event.getSchema().isEmpty()) {
-                    return RESP_ERROR_VALID_EVENT_SCHEMA_NULL.withArgs(event.getId());
-                }
-            }
-        }
-        return null;
-    }
-
-    private static AppCodeMessage validateLinks(List<LinkDTO> links, List<NodeDTO> nodes) {
-        if (links != null && !links.isEmpty()) {
-            Set<String> validNodeIds = new HashSet<>();
-            for (NodeDTO node : nodes) {
-                validNodeIds.add(node.getId().toString());
-            }
-
-            for (LinkDTO link : links) {
-                if (link.getFromId() == null) {
-                    return RESP_ERROR_VALID_LINK_ID_FROM_NULL.withArgs();
-                }
-
-                if (link.getToId() == null) {
-                    return RESP_ERROR_VALID_LINK_ID_TO_NULL.withArgs();
-                }
-
-                if (!validNodeIds.contains(link.getFromId().toString())) {
-                    return RESP_ERROR_VALID_NODE_ID_FROM_NULL.withArgs(link.getFromId());
-                }
-                if (!validNodeIds.contains(link.getToId().toString())) {
-                    return RESP_ERROR_VALID_NODE_ID_TO_NULL.withArgs(link.getToId());
-                }
-            }
-        }
-        return null;
-    }
-
     public static AppCodeMessage validateLinksHaveEvents(EventGraphDTO eventGraph) {
         if (eventGraph == null) {
             log.warn(MessageHelper.getStaticMessage("axenapi.warn.event.graph.null"));
@@ -0,0 +1,60 @@
+package pro.axenix_innovation.axenapi.web.validate;
+
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessage;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат валидации графа: все найденные нарушения в порядке обхода, но не больше {@code limit}.
+ * Если нарушений больше, выставляется {@link #isTruncated()}.
+ */
+public class GraphValidationReport {
+
+    private final int limit;
+    private final List<Violation> violations = new ArrayList<>();
+    private boolean truncated;
+
+    public GraphValidationReport(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Нарушение с идентификатором элемента графа (узла, события или связи), к которому оно относится.
+     */
+    public record Violation(AppCodeMessage message, Object elementId) {
+    }
+
+    /**
+     * Добавляет нарушение. Нарушение сверх лимита не сохраняется, а помечает отчет как усеченный.
+     */
+    void add(Object elementId, AppCodeMessageKey key, Object... args) {
+        if (violations.size() >= limit) {
+            truncated = true;
+            return;
+        }
+        violations.add(new Violation(key.withArgs(args), elementId));
+    }
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public List<Violation> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    public AppCodeMessage first() {
+        return violations.isEmpty() ? null : violations.get(0).message();
+    }
+}
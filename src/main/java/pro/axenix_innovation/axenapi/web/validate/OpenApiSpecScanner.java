@@ -0,0 +1,203 @@
+package pro.axenix_innovation.axenapi.web.validate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Однопроходный сбор данных для валидации OpenAPI-спецификации поверх потокового парсера.
+ * Дерево документа не строится: в памяти остаются только имена путей, схем и топиков,
+ * остальные части спецификации пропускаются через {@link JsonParser#skipChildren()}.
+ */
+final class OpenApiSpecScanner {
+
+    boolean hasOpenapi;
+    boolean hasInfo;
+    boolean hasTitle;
+    boolean hasVersion;
+    /** Пути в порядке следования в документе. */
+    final List<String> paths = new ArrayList<>();
+    /** Топики из responses.x-incoming.topics операций в paths. */
+    final Set<String> pathIncomingTopics = new HashSet<>();
+    /** Имена схем из components.schemas. */
+    final Set<String> schemaNames = new HashSet<>();
+    /** Значения топиков x-incoming схем, как они учитываются при проверке использования. */
+    final List<String> schemaTopics = new ArrayList<>();
+    /** Текстовые значения топиков x-incoming схем (для поиска топика в components). */
+    final Set<String> schemaTopicTexts = new HashSet<>();
+
+    private OpenApiSpecScanner() {
+    }
+
+    static OpenApiSpecScanner scan(InputStream input, String fileName) throws IOException {
+        OpenApiSpecScanner scanner = new OpenApiSpecScanner();
+        try (JsonParser parser = JacksonMappers.factoryForFileName(fileName).createParser(input)) {
+            // не объект - обязательные поля не найдены, это сообщит проверка полей
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                scanner.readRoot(parser);
+            }
+        }
+        return scanner;
+    }
+
+    private void readRoot(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "openapi" -> {
+                    hasOpenapi = true;
+                    parser.skipChildren();
+                }
+                case "info" -> {
+                    hasInfo = true;
+                    readInfo(parser, value);
+                }
+                case "paths" -> readFields(parser, value, this::readPath);
+                case "components" -> readObject(parser, value, name -> {
+                    if ("schemas".equals(name)) {
+                        readFields(parser, parser.currentToken(), this::readSchema);
+                    } else {
+                        parser.skipChildren();
+                    }
+                });
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readInfo(JsonParser parser, JsonToken value) throws IOException {
+        readObject(parser, value, name -> {
+            if ("title".equals(name)) {
+                hasTitle = true;
+            } else if ("version".equals(name)) {
+                hasVersion = true;
+            }
+            parser.skipChildren();
+        });
+    }
+
+    private void readPath(String path, JsonParser parser) throws IOException {
+        paths.add(path);
+        readObject(parser, parser.currentToken(), operation ->
+                readObject(parser, parser.currentToken(), field -> {
+                    if ("responses".equals(field)) {
+                        readObject(parser, parser.currentToken(), response -> {
+                            if ("x-incoming".equals(response)) {
+                                readIncoming(parser, item -> pathIncomingTopics.add(item.text()));
+                            } else {
+                                parser.skipChildren();
+                            }
+                        });
+                    } else {
+                        parser.skipChildren();
+                    }
+                }));
+    }
+
+    private void readSchema(String name, JsonParser parser) throws IOException {
+        if (!schemaNames.add(name.trim())) {
+            throw new IllegalArgumentException("Событие с именем '" + name.trim() + "' уже существует в schemas.");
+        }
+        readObject(parser, parser.currentToken(), field -> {
+            if ("x-incoming".equals(field)) {
+                readIncoming(parser, item -> {
+                    schemaTopics.add(item.topic());
+                    schemaTopicTexts.add(item.text());
+                });
+            } else {
+                parser.skipChildren();
+            }
+        });
+    }
+
+    private void readIncoming(JsonParser parser, Consumer<TopicItem> consumer) throws IOException {
+        readObject(parser, parser.currentToken(), field -> {
+            if (!"topics".equals(field)) {
+                parser.skipChildren();
+                return;
+            }
+            JsonToken container = parser.currentToken();
+            if (container != JsonToken.START_ARRAY && container != JsonToken.START_OBJECT) {
+                return;
+            }
+            JsonToken end = container == JsonToken.START_ARRAY ? JsonToken.END_ARRAY : JsonToken.END_OBJECT;
+            JsonToken token;
+            while ((token = parser.nextToken()) != end) {
+                if (token == JsonToken.FIELD_NAME) {
+                    token = parser.nextToken();
+                }
+                consumer.accept(readTopicItem(parser, token));
+            }
+        });
+    }
+
+    /**
+     * Значение элемента topics: для объекта - его поле name, для строки - сама строка.
+     * Текст элемента совпадает с {@code JsonNode.asText().trim()} в древовидном режиме.
+     */
+    private static TopicItem readTopicItem(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.START_OBJECT) {
+            String[] name = {null};
+            readObject(parser, token, field -> {
+                if ("name".equals(field) && parser.currentToken().isScalarValue()) {
+                    String text = parser.getText().trim();
+                    name[0] = text.isEmpty() ? null : text;
+                } else {
+                    parser.skipChildren();
+                }
+            });
+            return new TopicItem(name[0], "");
+        }
+        if (token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return new TopicItem(null, "");
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            return new TopicItem(text, text);
+        }
+        return new TopicItem(null, parser.getText().trim());
+    }
+
+    /**
+     * Обходит поля объекта; обработчик вызывается, когда парсер стоит на значении поля,
+     * и должен полностью прочитать или пропустить это значение. Не-объекты пропускаются.
+     */
+    private static void readObject(JsonParser parser, JsonToken value, FieldHandler handler) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            handler.handle(name);
+        }
+    }
+
+    private static void readFields(JsonParser parser, JsonToken value, NamedHandler handler) throws IOException {
+        readObject(parser, value, name -> handler.handle(name, parser));
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        void handle(String name) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface NamedHandler {
+        void handle(String name, JsonParser parser) throws IOException;
+    }
+
+    private record TopicItem(String topic, String text) {
+    }
+}
@@ -1,12 +1,13 @@
 package pro.axenix_innovation.axenapi.web.validate;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.util.OpenAPIParser;
+import pro.axenix_innovation.axenapi.web.util.ParsedSpecification;
+import pro.axenix_innovation.axenapi.web.metrics.PipelineMetrics;
 
 
 import java.io.IOException;
@@ -14,15 +15,39 @@ import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.WARN_FAIL_EXTRACT_FROM_TOPIC;
 
 public class OpenApiValidator {
 
     private static final Logger log = LoggerFactory.getLogger(OpenApiValidator.class);
+    private static final Pattern BROKER_PATH = Pattern.compile("^/(kafka|jms|rabbitmq)(/[a-zA-Z0-9-_]+){2,3}$");
 
     public static boolean validateOpenApiSpec(MultipartFile specFile) {
-            JsonNode rootNode = parseSpec(specFile);
+        checkFileFormat(specFile.getOriginalFilename());
+        try {
+            return validateOpenApiSpec(specFile.getOriginalFilename(), OpenAPIParser.parse(new String(specFile.getBytes())));
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла OpenAPI: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Проверяет уже разобранную спецификацию (см. {@link OpenAPIParser#parse(String)}),
+     * чтобы не разбирать файл повторно перед трансляцией.
+     */
+    public static boolean validateOpenApiSpec(String fileName, ParsedSpecification specification) {
+        return PipelineMetrics.time(PipelineMetrics.Stage.VALIDATE, () -> validateTree(fileName, specification));
+    }
+
+    private static boolean validateTree(String fileName, ParsedSpecification specification) {
+            checkFileFormat(fileName);
+            if (specification == null || !specification.hasTree()) {
+                throw new RuntimeException("Ошибка чтения файла OpenAPI: " + fileName);
+            }
+            JsonNode rootNode = specification.tree();
 
             JsonNode pathsNode = rootNode.path("paths");
             JsonNode componentsNode = rootNode.path("components").path("schemas");
@@ -49,31 +74,62 @@ public class OpenApiValidator {
             return true;
     }
 
-    private static JsonNode parseSpec(MultipartFile specFile) {
-        try (InputStream inputStream = specFile.getInputStream()) {
-            String fileName = specFile.getOriginalFilename();
-            if (fileName.endsWith(".yaml") || fileName.endsWith(".yml")) {
-                return new ObjectMapper(new YAMLFactory()).readTree(inputStream);
-            } else if (fileName.endsWith(".json")) {
-                return new ObjectMapper().readTree(inputStream);
-            } else {
-                throw new IllegalArgumentException("Файл должен быть в формате YAML или JSON");
-            }
+    /**
+     * Потоковый режим: спецификация читается одним проходом токенов без построения дерева,
+     * поэтому память не растет с размером документа (кроме имен путей, схем и топиков).
+     * Правила проверки те же, что у {@link #validateOpenApiSpec(MultipartFile)};
+     * дополнительно обнаруживаются повторяющиеся имена схем в components.schemas.
+     */
+    public static boolean validateOpenApiSpecStreaming(MultipartFile specFile) {
+        checkFileFormat(specFile.getOriginalFilename());
+        try (InputStream input = specFile.getInputStream()) {
+            return validateOpenApiSpecStreaming(input, specFile.getOriginalFilename());
         } catch (IOException e) {
             throw new RuntimeException("Ошибка чтения файла OpenAPI: " + e.getMessage(), e);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Ошибка формата файла: " + e.getMessage(), e);
         }
     }
 
-    private static void validateRequiredFields(JsonNode rootNode) {
-        checkField(rootNode, "openapi", requiredFieldMessage("openapi"));
-        checkField(rootNode, "info", requiredFieldMessage("info"));
+    public static boolean validateOpenApiSpecStreaming(InputStream input, String fileName) throws IOException {
+        return PipelineMetrics.time(PipelineMetrics.Stage.VALIDATE, () -> validateStream(input, fileName));
+    }
+
+    private static boolean validateStream(InputStream input, String fileName) throws IOException {
+        checkFileFormat(fileName);
+        OpenApiSpecScanner spec = OpenApiSpecScanner.scan(input, fileName);
 
+        checkRequiredFields(spec.hasOpenapi, spec.hasInfo, spec.hasTitle, spec.hasVersion);
+
+        Set<String> validTopics = new HashSet<>();
+        Set<String> usedTopics = new HashSet<>();
+
+        validatePaths(spec.paths.iterator(), spec.schemaNames::contains, validTopics);
+        spec.schemaTopics.forEach(topic -> addTopicToUsedIfNotValid(topic, validTopics, usedTopics));
+        checkUsedTopics(usedTopics, spec.pathIncomingTopics, spec.schemaTopicTexts::contains);
+
+        log.info(MessageHelper.getStaticMessage("axenapi.info.valid.open.api.spec"));
+        return true;
+    }
+
+    private static void checkFileFormat(String fileName) {
+        if (!fileName.endsWith(".yaml") && !fileName.endsWith(".yml") && !fileName.endsWith(".json")) {
+            throw new IllegalArgumentException("Ошибка формата файла: Файл должен быть в формате YAML или JSON");
+        }
+    }
+
+    private static void validateRequiredFields(JsonNode rootNode) {
         JsonNode infoNode = rootNode.get("info");
-        if (infoNode != null) {
-            checkField(infoNode, "title", requiredSubFieldMessage("info", "title"));
-            checkField(infoNode, "version", requiredSubFieldMessage("info", "version"));
+        checkRequiredFields(rootNode.get("openapi") != null, infoNode != null,
+                infoNode != null && infoNode.get("title") != null,
+                infoNode != null && infoNode.get("version") != null);
+    }
+
+    static void checkRequiredFields(boolean hasOpenapi, boolean hasInfo, boolean hasTitle, boolean hasVersion) {
+        checkField(hasOpenapi, requiredFieldMessage("openapi"));
+        checkField(hasInfo, requiredFieldMessage("info"));
+
+        if (hasInfo) {
+            checkField(hasTitle, requiredSubFieldMessage("info", "title"));
+            checkField(hasVersion, requiredSubFieldMessage("info", "version"));
         }
     }
 
@@ -85,8 +141,8 @@ public class OpenApiValidator {
         return String.format("Спецификация должна содержать поле '%s' с обязательным полем '%s'", parent, field);
     }
 
-    private static void checkField(JsonNode node, String field, String errorMessage) {
-        if (node.get(field) == null) {
+    private static void checkField(boolean present, String errorMessage) {
+        if (!present) {
             throwValidationException(errorMessage);
         }
     }
@@ -104,7 +160,11 @@ public class OpenApiValidator {
      * @return true - if is event handler, false - if not = simple http
      */
     private static void validatePaths(JsonNode pathsNode, JsonNode componentsNode, Set<String> definedEvents, Set<String> validTopics) {
-        pathsNode.fieldNames().forEachRemaining(path -> {
+        validatePaths(pathsNode.fieldNames(), componentsNode::has, validTopics);
+    }
+
+    static void validatePaths(Iterator<String> paths, Predicate<String> eventDefined, Set<String> validTopics) {
+        paths.forEachRemaining(path -> {
 
 
             String[] pathParts = path.split("/");
@@ -136,19 +196,19 @@ public class OpenApiValidator {
 
             log.debug("Путь: {}, Группа: {}, Тема: {}, Событие: {}", path, group, topic, event);
 
-            validateEventInPath(event, componentsNode);
+            validateEventInPath(event, eventDefined);
 
             addValidTopicIfNecessary(topic, validTopics);
         });
     }
 
     private static void validatePathFormat(String path) {
-        if (!path.matches("^/(kafka|jms|rabbitmq)(/[a-zA-Z0-9-_]+){2,3}$")) {
+        if (!BROKER_PATH.matcher(path).matches()) {
             throw new IllegalArgumentException("Неверный формат пути: " + path);
         }
     }
 
-    private static void validateEventInPath(String event, JsonNode componentsNode) {
+    private static void validateEventInPath(String event, Predicate<String> eventDefined) {
         if (event == null || event.trim().isEmpty()) {
             throw new IllegalArgumentException("В пути отсутствует название события.");
         }
@@ -156,7 +216,7 @@ public class OpenApiValidator {
         if ("undefined_event".equals(event)) {
             return;
         }
-        if (!componentsNode.has(event)) {
+        if (!eventDefined.test(event)) {
             throw new NullPointerException("Событие " + event + " в пути не найдено в components.schemas");
         }
     }
@@ -217,7 +277,7 @@ public class OpenApiValidator {
     }
 
     // ассерт не использовать (это слово мешает тестам и не поддерживается в сервисах, не предсказуемо, не заменить иф элз)
-    private static void addTopicToUsedIfNotValid(String topic, Set<String> validTopics, Set<String> usedTopics) {
+    static void addTopicToUsedIfNotValid(String topic, Set<String> validTopics, Set<String> usedTopics) {
         if (!validTopics.contains(topic)) {
             usedTopics.add(topic);
         }
@@ -247,11 +307,19 @@ public class OpenApiValidator {
             }
         });
 
+        checkUsedTopics(usedTopics, validTopics, topic -> isTopicPresentInComponents(topic, componentsNode));
+    }
+
+    /**
+     * @param pathTopics      топики из responses.x-incoming в paths
+     * @param componentTopics проверка наличия топика в x-incoming схем components.schemas
+     */
+    static void checkUsedTopics(Set<String> usedTopics, Set<String> pathTopics, Predicate<String> componentTopics) {
         usedTopics.forEach(topic -> {
             if (topic == null || topic.trim().isEmpty()) {
                 throw new NullPointerException("Обнаружен пустой топик в x-incoming. Проверьте, что все топики заданы корректно.");
             }
-            if (!validTopics.contains(topic) && !isTopicPresentInComponents(topic, componentsNode)) {
+            if (!pathTopics.contains(topic) && !componentTopics.test(topic)) {
                 throw new NullPointerException("Топик '" + topic + "' из x-incoming отсутствует в paths.");
             }
         });
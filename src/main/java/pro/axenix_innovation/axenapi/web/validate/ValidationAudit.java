@@ -0,0 +1,107 @@
+package pro.axenix_innovation.axenapi.web.validate;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Аудит входных данных валидации. На INFO пишется только размер графа и канонический хэш
+ * (сериализация с сортировкой ключей сразу в SHA-256, без построения строки).
+ * Полное тело графа пишется на DEBUG, либо на INFO для доли запросов
+ * {@code axenapi.validation.audit.sample-rate} (0 - никогда, 1 - всегда).
+ */
+@Component
+public class ValidationAudit {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationAudit.class);
+
+    private static final JsonMapper CANONICAL_MAPPER = JacksonMappers.json().rebuild()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+    private static final ObjectWriter DUMP_WRITER = CANONICAL_MAPPER.writer();
+
+    private static volatile double sampleRate = 0.0;
+
+    @Value("${axenapi.validation.audit.sample-rate:0}")
+    private double configuredSampleRate;
+
+    @PostConstruct
+    public void init() {
+        setSampleRate(configuredSampleRate);
+    }
+
+    //    Для тестов
+    public static void setSampleRate(double rate) {
+        sampleRate = Math.max(0.0, Math.min(1.0, rate));
+    }
+
+    public static void auditEventGraph(EventGraphDTO eventGraph) {
+        if (eventGraph == null) {
+            log.info(MessageHelper.getStaticMessage("axenapi.info.received.event.graph", "null"));
+            return;
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info(MessageHelper.getStaticMessage("axenapi.info.valid.event.graph",
+                    eventGraph.getName(),
+                    size(eventGraph.getNodes()),
+                    size(eventGraph.getEvents()),
+                    size(eventGraph.getLinks()),
+                    canonicalHash(eventGraph)));
+        }
+
+        boolean debug = log.isDebugEnabled();
+        boolean sampled = !debug && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (debug || sampled) {
+            try {
+                String json = DUMP_WRITER.writeValueAsString(eventGraph);
+                String message = MessageHelper.getStaticMessage("axenapi.info.received.event.graph", json);
+                if (debug) {
+                    log.debug(message);
+                } else {
+                    log.info(message);
+                }
+            } catch (Exception e) {
+                log.warn(MessageHelper.getStaticMessage("axenapi.warn.unable.serialize.event.graph", e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * SHA-256 канонического JSON графа (первые 16 hex-символов). Одинаковые графы дают одинаковый
+     * хэш независимо от порядка ключей в исходном запросе.
+     */
+    public static String canonicalHash(EventGraphDTO eventGraph) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                CANONICAL_MAPPER.writeValue(out, eventGraph);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (Exception e) {
+            log.warn(MessageHelper.getStaticMessage("axenapi.warn.unable.serialize.event.graph", e.getMessage()));
+            return "unknown";
+        }
+    }
+
+    private static int size(Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+}
@@ -0,0 +1,21 @@
+create table if not exists graph_workspace
+(
+    id                  uuid PRIMARY KEY,
+    name                varchar(255),
+    version             bigint not null,
+    graph               clob not null,
+    created_at          timestamp(6) with time zone not null,
+    updated_at          timestamp(6) with time zone not null
+);
+
+create table if not exists graph_workspace_delta
+(
+    id                  uuid PRIMARY KEY,
+    workspace_id        uuid not null references graph_workspace (id) on delete cascade,
+    from_version        bigint not null,
+    version             bigint not null,
+    operation           varchar(32) not null,
+    patch               clob not null,
+    created_at          timestamp(6) with time zone not null,
+    constraint uk_graph_workspace_delta_version unique (workspace_id, version)
+);
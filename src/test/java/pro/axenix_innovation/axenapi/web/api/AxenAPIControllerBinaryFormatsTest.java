@@ -0,0 +1,73 @@
+package pro.axenix_innovation.axenapi.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AxenAPIControllerBinaryFormatsTest {
+
+    private static final String SPEC = "specs/json/consume_three_events_from_different_brokers_service.json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/x-jackson-smile", "application/cbor"})
+    void testUploadReturnsNegotiatedBinaryFormat(String accept) throws Exception {
+        EventGraphDTO json = objectMapper.readValue(
+                upload(MediaType.APPLICATION_JSON_VALUE).getResponse().getContentAsByteArray(), EventGraphDTO.class);
+
+        MvcResult result = upload(accept);
+        assertEquals(accept, MediaType.parseMediaType(result.getResponse().getContentType()).toString());
+        ObjectMapper binaryMapper = accept.contains("smile") ? new SmileMapper() : new CBORMapper();
+        EventGraphDTO binary = binaryMapper.readValue(result.getResponse().getContentAsByteArray(), EventGraphDTO.class);
+
+        assertEquals(json.getName(), binary.getName());
+        assertEquals(json.getNodes().size(), binary.getNodes().size());
+        assertEquals(json.getEvents().size(), binary.getEvents().size());
+        assertEquals(json.getLinks().size(), binary.getLinks().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"*/*", "application/json"})
+    void testUploadDefaultsToJson(String accept) throws Exception {
+        MvcResult result = upload(accept);
+
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(
+                MediaType.parseMediaType(result.getResponse().getContentType())));
+        assertNotNull(objectMapper.readValue(result.getResponse().getContentAsString(), EventGraphDTO.class).getNodes());
+    }
+
+    private MvcResult upload(String accept) throws Exception {
+        ClassPathResource spec = new ClassPathResource(SPEC);
+        MockMultipartFile file = new MockMultipartFile(
+                "files", spec.getFilename(), MediaType.MULTIPART_FORM_DATA_VALUE, spec.getInputStream());
+        return mockMvc.perform(multipart("/upload")
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA)
+                        .header(HttpHeaders.ACCEPT, accept))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import pro.axenix_innovation.axenapi.web.graph.EventGraphDiff;
 import pro.axenix_innovation.axenapi.web.graph.EventGraphFacade;
 import pro.axenix_innovation.axenapi.web.model.*;
 
@@ -388,6 +389,68 @@ public class AxenAPIControllerPostAddServiceToGraphTest {
 
     }
 
+    @Test
+    void testAddServiceToGraph_replacesAndAddsServicesInOneBatch() throws Exception {
+        EventGraphDTO emptyGraph = new EventGraphDTO();
+        emptyGraph.setName("TestGraph");
+        EventGraphDTO base = addServices(emptyGraph,
+                specFile("consume_three_events_from_different_brokers_service"),
+                specFile("consume_one_event_service"));
+        Map<String, UUID> baseServiceIds = serviceIds(base);
+
+        EventGraphDTO batch = addServices(base,
+                specFile("consume_three_events_from_different_brokers_service_updated"),
+                specFile("consume_one_event_service"),
+                specFile("http_request_processing_service"),
+                new MockMultipartFile("files", "broken.json", MediaType.APPLICATION_JSON_VALUE,
+                        "{\"info\": {\"title\": \"broken\"}}".getBytes(StandardCharsets.UTF_8)));
+
+        // тот же результат, что и у добавления файлов по одному
+        EventGraphDTO sequential = base;
+        for (String spec : List.of("consume_three_events_from_different_brokers_service_updated",
+                "consume_one_event_service", "http_request_processing_service")) {
+            sequential = addServices(sequential, specFile(spec));
+        }
+        assertTrue(EventGraphDiff.diff(sequential, batch).getIdentical());
+
+        Map<String, UUID> batchServiceIds = serviceIds(batch);
+        assertEquals(3, batchServiceIds.size());
+        baseServiceIds.forEach((name, id) -> assertEquals(id, batchServiceIds.get(name), name));
+        assertTrue(batch.getNodes().stream()
+                .anyMatch(n -> "topicKafkaUpdated".equals(n.getName()) && n.getType() == NodeDTO.TypeEnum.TOPIC));
+
+        assertEquals(1, batch.getErrors().size());
+        assertEquals("File: broken.json", batch.getErrors().getFirst().getFileName());
+        assertEquals("Invalid OpenAPI format", batch.getErrors().getFirst().getErrorMessage());
+    }
+
+    private EventGraphDTO addServices(EventGraphDTO graph, MockMultipartFile... files) throws Exception {
+        MockMultipartHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.multipart("/addServiceToGraph");
+        for (MockMultipartFile file : files) {
+            requestBuilder.file(file);
+        }
+        requestBuilder.file(new MockMultipartFile("eventGraph", "", MediaType.APPLICATION_JSON_VALUE,
+                objectMapper.writeValueAsBytes(graph)));
+        MvcResult result = mockMvc.perform(requestBuilder.contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), EventGraphDTO.class);
+    }
+
+    private MockMultipartFile specFile(String specName) throws Exception {
+        String filePath = "specs/json/" + specName + ".json";
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath)) {
+            assertNotNull(inputStream, "Файл не найден: " + filePath);
+            return new MockMultipartFile("files", specName + ".json", MediaType.APPLICATION_JSON_VALUE, inputStream);
+        }
+    }
+
+    private static Map<String, UUID> serviceIds(EventGraphDTO graph) {
+        return graph.getNodes().stream()
+                .filter(n -> n.getType() == NodeDTO.TypeEnum.SERVICE)
+                .collect(Collectors.toMap(NodeDTO::getName, NodeDTO::getId));
+    }
+
     @Test
     void testAddServiceToGraph_httpMethodWithEmptyRequestAndKafkaUndefinedEvent() throws Exception {
         // Create OpenAPI specification with HTTP method with empty request and kafka undefined_event
@@ -12,8 +12,11 @@ import pro.axenix_innovation.axenapi.web.model.GenerateJsonSchemaPostRequest;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -98,6 +101,56 @@ public class AxenAPIControllerPostGenerateJsonExampleTest {
     }
 
 
+    @Test
+    void shouldReturnSeveralExamples_whenCountIsSet() throws Exception {
+        String wrappedRequestBody = objectMapper.writeValueAsString(
+                Map.of("jsonSchema", "{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"integer\"}}}",
+                        "count", 3)
+        );
+
+        mockMvc.perform(post("/generateJsonExample")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(wrappedRequestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jsonExample").isNotEmpty())
+                .andExpect(jsonPath("$.jsonExamples.length()").value(3));
+    }
+
+    @Test
+    void shouldStreamNdjsonExamples_forEventInGraph() throws Exception {
+        String eventId = "123e4567-e89b-12d3-a456-426614174001";
+        Map<String, Object> event = Map.of(
+                "id", eventId,
+                "name", "OrderCreated",
+                "schema", "{\"type\":\"object\",\"properties\":{\"orderId\":{\"type\":\"integer\"}}}");
+        String requestBody = objectMapper.writeValueAsString(Map.of(
+                "eventGraph", Map.of("name", "graph", "nodes", List.of(), "links", List.of(), "events", List.of(event)),
+                "eventId", eventId,
+                "count", 10,
+                "seed", 1));
+
+        String body = mockMvc.perform(post("/generateJsonExamples")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(10, body.lines().count());
+        body.lines().forEach(line -> assertTrue(line.startsWith("{\"orderId\":")));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenEventForExamplesIsMissing() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(Map.of("count", 10));
+
+        mockMvc.perform(post("/generateJsonExamples")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(70040));
+    }
+
     @Test
     void shouldReturnBadRequest_whenSchemaIsNull() throws Exception {
         String nullSchema = """
@@ -0,0 +1,239 @@
+package pro.axenix_innovation.axenapi.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import pro.axenix_innovation.axenapi.web.util.JsonPatch;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "axenapi.workspace.delta-history=2")
+@AutoConfigureMockMvc
+class WorkspaceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testAddServicesReturnsDeltaThatReproducesGraph() throws Exception {
+        UUID workspaceId = createWorkspace("consume_one_event_service");
+        JsonNode before = getGraph(workspaceId);
+
+        JsonNode delta = addService(workspaceId, "consume_three_events_from_different_brokers_service", "0");
+
+        assertEquals(0, delta.get("fromVersion").asLong());
+        assertEquals(1, delta.get("version").asLong());
+        assertEquals("ADD_SERVICES", delta.get("operation").asText());
+        assertFalse(delta.get("operations").isEmpty());
+        assertTrue(delta.get("errors").isEmpty());
+
+        JsonNode after = getGraph(workspaceId);
+        assertEquals(after, JsonPatch.apply(before, delta.get("operations")));
+
+        // дельты с версии 0 содержат ту же операцию
+        JsonNode deltas = read(mockMvc.perform(get("/workspaces/{id}/deltas", workspaceId).param("sinceVersion", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(1, deltas.size());
+        assertEquals(delta.get("operations"), deltas.get(0).get("operations"));
+    }
+
+    @Test
+    void testStaleBaseVersionIsRejected() throws Exception {
+        UUID workspaceId = createWorkspace("consume_one_event_service");
+        addService(workspaceId, "consume_three_events_from_different_brokers_service", "0");
+
+        mockMvc.perform(multipart("/workspaces/{id}/services", workspaceId)
+                        .file(specFile("consume_two_events_in_one_topic"))
+                        .param("baseVersion", "0"))
+                .andExpect(status().isConflict());
+
+        String patch = "{\"baseVersion\":0,\"operations\":[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"x\"}]}";
+        mockMvc.perform(patch("/workspaces/{id}", workspaceId).contentType(MediaType.APPLICATION_JSON).content(patch))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testPatchWorkspace() throws Exception {
+        UUID workspaceId = createWorkspace("consume_one_event_service");
+
+        String patch = "{\"baseVersion\":0,\"operations\":[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"renamed\"}]}";
+        JsonNode delta = read(mockMvc.perform(patch("/workspaces/{id}", workspaceId)
+                        .contentType(MediaType.APPLICATION_JSON).content(patch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(1, delta.get("version").asLong());
+        assertEquals("renamed", getGraph(workspaceId).get("name").asText());
+
+        String invalid = "{\"baseVersion\":1,\"operations\":[{\"op\":\"remove\",\"path\":\"/nodes/100\"}]}";
+        mockMvc.perform(patch("/workspaces/{id}", workspaceId).contentType(MediaType.APPLICATION_JSON).content(invalid))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRemoveService() throws Exception {
+        UUID workspaceId = createWorkspace("consume_one_event_service");
+        JsonNode before = getGraph(workspaceId);
+        String serviceId = nodeId(before, "SERVICE");
+        String topicId = nodeId(before, "TOPIC");
+
+        mockMvc.perform(delete("/workspaces/{id}/services/{nodeId}", workspaceId, topicId))
+                .andExpect(status().isBadRequest());
+
+        JsonNode delta = read(mockMvc.perform(delete("/workspaces/{id}/services/{nodeId}", workspaceId, serviceId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode after = getGraph(workspaceId);
+        assertEquals(after, JsonPatch.apply(before, delta.get("operations")));
+        assertTrue(after.get("nodes").findValues("id").stream().noneMatch(id -> id.asText().equals(serviceId)));
+    }
+
+    @Test
+    void testUpdateService() throws Exception {
+        String service = "consume_three_events_from_different_brokers_service";
+        UUID workspaceId = createWorkspace(service);
+        JsonNode before = getGraph(workspaceId);
+        String serviceId = nodeId(before, "SERVICE");
+        String specification;
+        try (InputStream input = resource("specs/json/" + service + "_updated.json")) {
+            specification = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String body = objectMapper.writeValueAsString(objectMapper.createObjectNode().put("specification", specification));
+
+        mockMvc.perform(put("/workspaces/{id}/services/{nodeId}", workspaceId, nodeId(before, "TOPIC"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+
+        JsonNode delta = read(mockMvc.perform(put("/workspaces/{id}/services/{nodeId}", workspaceId, serviceId)
+                        .contentType(MediaType.APPLICATION_JSON).content(body).param("baseVersion", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals("UPDATE_SERVICE", delta.get("operation").asText());
+        assertEquals(1, delta.get("version").asLong());
+        assertFalse(delta.get("operations").isEmpty());
+        JsonNode after = getGraph(workspaceId);
+        assertEquals(after, JsonPatch.apply(before, delta.get("operations")));
+        assertTrue(after.get("nodes").findValues("id").stream().anyMatch(id -> id.asText().equals(serviceId)));
+    }
+
+    @Test
+    void testGenerateSpec() throws Exception {
+        UUID workspaceId = createWorkspace("service_no_common_consume_topics_common_events_common_outgoing_topics_2");
+
+        mockMvc.perform(post("/workspaces/{id}/generateSpec", workspaceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.downloadLinks").isNotEmpty());
+        mockMvc.perform(post("/workspaces/{id}/generateSpec", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testTruncatedHistoryIsGone() throws Exception {
+        UUID workspaceId = createWorkspace("consume_one_event_service");
+        for (int version = 0; version < 3; version++) {
+            String patch = "{\"baseVersion\":" + version
+                    + ",\"operations\":[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"v" + version + "\"}]}";
+            mockMvc.perform(patch("/workspaces/{id}", workspaceId).contentType(MediaType.APPLICATION_JSON).content(patch))
+                    .andExpect(status().isOk());
+        }
+
+        // хранятся две последние дельты: 1 -> 2 и 2 -> 3
+        mockMvc.perform(get("/workspaces/{id}/deltas", workspaceId).param("sinceVersion", "0"))
+                .andExpect(status().isGone());
+        JsonNode deltas = read(mockMvc.perform(get("/workspaces/{id}/deltas", workspaceId).param("sinceVersion", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(2, deltas.size());
+        assertEquals(3, deltas.get(1).get("version").asLong());
+        assertEquals("v2", getGraph(workspaceId).get("name").asText());
+    }
+
+    @Test
+    void testUnknownWorkspace() throws Exception {
+        UUID workspaceId = UUID.randomUUID();
+        mockMvc.perform(get("/workspaces/{id}", workspaceId)).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/workspaces/{id}", workspaceId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/workspaces/{id}/deltas", workspaceId).param("sinceVersion", "0"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDeleteWorkspace() throws Exception {
+        UUID workspaceId = createWorkspace("consume_one_event_service");
+        mockMvc.perform(delete("/workspaces/{id}", workspaceId)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/workspaces/{id}", workspaceId)).andExpect(status().isNotFound());
+    }
+
+    private UUID createWorkspace(String graphName) throws Exception {
+        try (InputStream input = resource("results/" + graphName + ".json")) {
+            JsonNode workspace = read(mockMvc.perform(post("/workspaces")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(input.readAllBytes()))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(0, workspace.get("version").asLong());
+            return UUID.fromString(workspace.get("id").asText());
+        }
+    }
+
+    private JsonNode getGraph(UUID workspaceId) throws Exception {
+        return read(mockMvc.perform(get("/workspaces/{id}", workspaceId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode addService(UUID workspaceId, String specName, String baseVersion) throws Exception {
+        return read(mockMvc.perform(multipart("/workspaces/{id}/services", workspaceId)
+                        .file(specFile(specName))
+                        .param("baseVersion", baseVersion))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private MockMultipartFile specFile(String specName) throws Exception {
+        try (InputStream input = resource("specs/json/" + specName + ".json")) {
+            return new MockMultipartFile("files", specName + ".json", MediaType.APPLICATION_JSON_VALUE, input);
+        }
+    }
+
+    private static String nodeId(JsonNode graph, String type) {
+        for (JsonNode node : graph.get("nodes")) {
+            if (type.equals(node.get("type").asText())) {
+                return node.get("id").asText();
+            }
+        }
+        throw new AssertionError("Нет узла типа " + type);
+    }
+
+    private InputStream resource(String path) {
+        InputStream input = getClass().getClassLoader().getResourceAsStream(path);
+        assertNotNull(input, "Файл не найден: " + path);
+        return input;
+    }
+
+    private JsonNode read(String content) throws Exception {
+        return objectMapper.readTree(content);
+    }
+}
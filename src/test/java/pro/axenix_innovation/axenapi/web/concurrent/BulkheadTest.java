@@ -0,0 +1,195 @@
+package pro.axenix_innovation.axenapi.web.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import pro.axenix_innovation.axenapi.web.exception.BulkheadFullException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final List<Bulkhead> bulkheads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.forEach(Bulkhead::close);
+    }
+
+    @Test
+    void testCallRunsOnOwnPlatformThread() {
+        Bulkhead bulkhead = track(Bulkhead.withExecutor("render", 1, 0, Duration.ofSeconds(1)));
+
+        Thread thread = bulkhead.call(Thread::currentThread);
+
+        assertNotSame(Thread.currentThread(), thread);
+        assertFalse(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("axenapi-render-"));
+    }
+
+    @Test
+    void testCallerBulkheadRunsOnCallerThread() {
+        Bulkhead bulkhead = track(Bulkhead.onCaller("git", 1, 0, Duration.ofSeconds(1)));
+
+        assertSame(Thread.currentThread(), bulkhead.call(Thread::currentThread));
+    }
+
+    @Test
+    void testExceptionsArePropagatedAsIs() {
+        Bulkhead bulkhead = track(Bulkhead.withExecutor("render", 1, 0, Duration.ofSeconds(1)));
+
+        assertThrows(IOException.class, () -> bulkhead.call(() -> {
+            throw new IOException("broken");
+        }));
+        assertThrows(IllegalArgumentException.class, () -> bulkhead.call(() -> {
+            throw new IllegalArgumentException("bad graph");
+        }));
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        Bulkhead bulkhead = track(Bulkhead.onCaller("git", 1, 1, Duration.ofSeconds(10)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> bulkhead.call(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> bulkhead.call(() -> "second"));
+        awaitQueued(bulkhead, 1);
+
+        // одно место выполнения и одно место в очереди заняты
+        BulkheadFullException e = assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "third"));
+        assertEquals("git", e.getBulkhead());
+        assertEquals(1, bulkhead.getRejected());
+        assertEquals(1, bulkhead.getActive());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getActive());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    void testRejectsAfterQueueTimeout() throws Exception {
+        Bulkhead bulkhead = track(Bulkhead.withExecutor("render", 1, 4, Duration.ofMillis(50)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> bulkhead.call(() -> {
+            started.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "late"));
+        assertEquals(0, bulkhead.getQueued());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testPermitHeldUntilInterruptedCallFinishes() throws Exception {
+        Bulkhead bulkhead = track(Bulkhead.withExecutor("render", 1, 0, Duration.ofSeconds(1)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                bulkhead.call(() -> {
+                    started.countDown();
+                    // задача не реагирует на прерывание
+                    while (release.getCount() > 0) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException ignored) {
+                        }
+                    }
+                    return null;
+                });
+            } catch (Throwable e) {
+                failure.complete(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        assertInstanceOf(IllegalStateException.class, failure.get(5, TimeUnit.SECONDS));
+
+        // прерванный вызов еще выполняется и занимает разрешение
+        assertEquals(1, bulkhead.getActive());
+        assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "second"));
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getActive() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Разрешение не освобождено");
+            Thread.sleep(5);
+        }
+        assertEquals("third", bulkhead.call(() -> "third"));
+    }
+
+    @Test
+    void testEndpointsAreIsolated() {
+        Bulkheads bulkheads = new Bulkheads(new MockEnvironment()
+                .withProperty("axenapi.bulkhead.generateAllServicePdf.max-concurrent", "1")
+                .withProperty("axenapi.bulkhead.generateAllServicePdf.max-queue", "0"),
+                2, 4, 3, 4, 1, 0, Duration.ofSeconds(1));
+        try {
+            Bulkhead allPdf = bulkheads.of(Bulkheads.Endpoint.GENERATE_ALL_SERVICE_PDF);
+            Bulkhead pdf = bulkheads.of(Bulkheads.Endpoint.GENERATE_PDF);
+            assertNotSame(allPdf, pdf);
+            assertEquals("generateAllServicePdf", allPdf.getName());
+            assertEquals(1, allPdf.getMaxConcurrent());
+            assertEquals(2, pdf.getMaxConcurrent());
+            assertEquals(3, bulkheads.of(Bulkheads.Endpoint.GENERATE_CODE).getMaxConcurrent());
+
+            // занятый /generateAllServicePdf не мешает /generatePdf
+            assertEquals("pdf", allPdf.call(() -> pdf.call(() -> "pdf")));
+        } finally {
+            bulkheads.destroy();
+        }
+    }
+
+    @Test
+    void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.onCaller("git", 0, 1, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> Bulkhead.onCaller("git", 1, -1, Duration.ofSeconds(1)));
+    }
+
+    private Bulkhead track(Bulkhead bulkhead) {
+        bulkheads.add(bulkhead);
+        return bulkhead;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQueued(Bulkhead bulkhead, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getQueued() < expected) {
+            assertTrue(System.nanoTime() < deadline, "Вызов не встал в очередь");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphDiffDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.util.SolidOpenAPITranslator;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventGraphDiffTest {
+
+    private static final String SERVICE = "consume_three_events_from_different_brokers_service";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSameGraphWithDifferentIdsIsIdentical() throws Exception {
+        // две трансляции одной спецификации дают разные id узлов, событий и связей
+        GraphDiffDTO diff = EventGraphDiff.diff(translate(SERVICE), translate(SERVICE));
+
+        assertTrue(diff.getIdentical());
+        assertTrue(diff.getServices().getChanged().isEmpty());
+        assertTrue(diff.getLinks().getAdded().isEmpty());
+    }
+
+    @Test
+    void testChangedTopicIsReportedAsRemovedAndAdded() throws Exception {
+        GraphDiffDTO diff = EventGraphDiff.diff(translate(SERVICE), translate(SERVICE + "_updated"));
+
+        assertFalse(diff.getIdentical());
+        assertEquals(List.of("topicKafka"), diff.getTopics().getRemoved().stream().map(NodeDTO::getName).toList());
+        assertEquals(Set.of("topicKafkaUpdated", "newTopicOutKafka"),
+                diff.getTopics().getAdded().stream().map(NodeDTO::getName).collect(Collectors.toSet()));
+        assertTrue(diff.getServices().getAdded().isEmpty());
+        assertTrue(diff.getServices().getRemoved().isEmpty());
+        assertEquals(List.of("EventKafkaOut"), diff.getEvents().getAdded().stream().map(EventDTO::getName).toList());
+        assertTrue(diff.getEvents().getRemoved().isEmpty());
+        assertEquals(1, diff.getLinks().getRemoved().size());
+        assertEquals(2, diff.getLinks().getAdded().size());
+    }
+
+    @Test
+    void testSchemaChangesIgnoreFormatting() throws Exception {
+        EventGraphDTO base = readGraph(SERVICE);
+        EventGraphDTO target = readGraph(SERVICE);
+        EventDTO reformatted = target.getEvents().get(0);
+        reformatted.setSchema(objectMapper.readTree(reformatted.getSchema()).toPrettyString());
+
+        assertTrue(EventGraphDiff.diff(base, target).getIdentical());
+
+        EventDTO changed = target.getEvents().get(1);
+        changed.setSchema("{\"type\":\"object\",\"properties\":{\"changed\":{\"type\":\"string\"}}}");
+        GraphDiffDTO diff = EventGraphDiff.diff(base, target);
+
+        assertEquals(1, diff.getEvents().getChanged().size());
+        assertEquals(changed.getName(), diff.getEvents().getChanged().get(0).getAfter().getName());
+        assertEquals(List.of("schema"), diff.getEvents().getChanged().get(0).getChangedFields());
+    }
+
+    @Test
+    void testChangedNodeAndLinkFields() throws Exception {
+        EventGraphDTO base = readGraph(SERVICE);
+        EventGraphDTO target = readGraph(SERVICE);
+        NodeDTO topic = target.getNodes().stream()
+                .filter(node -> node.getType() == NodeDTO.TypeEnum.TOPIC)
+                .findFirst().orElseThrow();
+        Set<String> tags = topic.getTags() != null ? new HashSet<>(topic.getTags()) : new HashSet<>();
+        tags.add("new-tag");
+        topic.setTags(tags);
+        topic.setNodeDescription("changed");
+        LinkDTO link = target.getLinks().get(0);
+        link.setGroup("other-group");
+
+        GraphDiffDTO diff = EventGraphDiff.diff(base, target);
+
+        assertEquals(1, diff.getTopics().getChanged().size());
+        assertEquals(List.of("nodeDescription", "tags"), diff.getTopics().getChanged().get(0).getChangedFields());
+        assertEquals(1, diff.getLinks().getChanged().size());
+        assertEquals(List.of("group"), diff.getLinks().getChanged().get(0).getChangedFields());
+        assertEquals(link.getId(), diff.getLinks().getChanged().get(0).getAfter().getId());
+    }
+
+    @Test
+    void testLargeLandscapeDiff() {
+        EventGraphDTO base = LandscapeGenerator.generate(LandscapeOptions.ofServices(5_000));
+        EventGraphDTO target = LandscapeGenerator.generate(LandscapeOptions.ofServices(5_000));
+        UUID removedService = target.getNodes().stream()
+                .filter(node -> node.getType() == NodeDTO.TypeEnum.SERVICE)
+                .findFirst().orElseThrow().getId();
+        target.getLinks().removeIf(l -> l.getFromId().equals(removedService) || l.getToId().equals(removedService));
+        target.getNodes().removeIf(node -> node.getId().equals(removedService));
+
+        // время сравнения измеряется в LandscapeBenchmark.diff
+        GraphDiffDTO diff = EventGraphDiff.diff(base, target);
+
+        assertEquals(List.of(removedService), diff.getServices().getRemoved().stream().map(NodeDTO::getId).toList());
+        assertTrue(diff.getServices().getAdded().isEmpty());
+        assertFalse(diff.getLinks().getRemoved().isEmpty());
+        assertTrue(diff.getLinks().getAdded().isEmpty());
+        assertTrue(diff.getTopics().getRemoved().isEmpty());
+    }
+
+    @Test
+    void testUntypedNodeIsNotMatchedWithTopic() throws Exception {
+        EventGraphDTO base = readGraph(SERVICE);
+        EventGraphDTO target = readGraph(SERVICE);
+        NodeDTO topic = target.getNodes().stream()
+                .filter(node -> node.getType() == NodeDTO.TypeEnum.TOPIC)
+                .findFirst().orElseThrow();
+        NodeDTO untyped = NodeDTO.builder().id(UUID.randomUUID()).name(topic.getName())
+                .brokerType(topic.getBrokerType()).belongsToGraph(topic.getBelongsToGraph()).build();
+        target.getNodes().add(untyped);
+
+        GraphDiffDTO diff = EventGraphDiff.diff(base, target);
+
+        assertFalse(diff.getIdentical());
+        assertEquals(List.of(untyped), diff.getUntypedNodes().getAdded());
+        assertTrue(diff.getTopics().getAdded().isEmpty());
+        assertTrue(diff.getTopics().getChanged().isEmpty());
+        assertTrue(EventGraphDiff.diff(target, target).getIdentical());
+    }
+
+    private EventGraphDTO readGraph(String name) throws Exception {
+        try (InputStream input = resource("results/" + name + ".json")) {
+            return objectMapper.readValue(input, EventGraphDTO.class);
+        }
+    }
+
+    private EventGraphDTO translate(String specName) throws Exception {
+        try (InputStream input = resource("specs/json/" + specName + ".json")) {
+            return SolidOpenAPITranslator.parseOPenAPI(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .eventGraph();
+        }
+    }
+
+    private InputStream resource(String path) {
+        InputStream input = getClass().getClassLoader().getResourceAsStream(path);
+        assertNotNull(input, "Файл не найден: " + path);
+        return input;
+    }
+}
@@ -5,11 +5,14 @@ import pro.axenix_innovation.axenapi.web.model.EventDTO;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.LinkDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.util.SolidOpenAPITranslator;
 
 
 import static org.junit.jupiter.api.Assertions.*;
 import static pro.axenix_innovation.axenapi.web.graph.EventGraphFacade.merge;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class EventGraphFacadeMergeTest {
@@ -519,6 +522,86 @@ public class EventGraphFacadeMergeTest {
         assertTrue(hasLink2);
     }
 
+    @Test
+    public void test_merge_all_equals_sequential_merge() throws Exception {
+        List<String> specs = List.of(
+                "consume_one_event_service",
+                "consume_three_events_from_different_brokers_service",
+                "service_no_common_consume_topics_common_events_common_outgoing_topics_with_tags_1",
+                "service_no_common_consume_topics_common_events_common_outgoing_topics_with_tags_2",
+                "http_request_processing_service");
+        List<EventGraphDTO> graphs = new ArrayList<>();
+        for (String spec : specs) {
+            graphs.add(translate(spec));
+        }
+
+        EventGraphDTO sequential = new EventGraphDTO();
+        for (EventGraphDTO graph : graphs) {
+            sequential = merge(sequential, graph);
+        }
+        EventGraphDTO batch = EventGraphFacade.mergeAll(null, graphs);
+
+        assertTrue(EventGraphDiff.diff(sequential, batch).getIdentical());
+        assertEquals(sequential.getNodes().size(), batch.getNodes().size());
+        assertEquals(sequential.getEvents().size(), batch.getEvents().size());
+        assertEquals(sequential.getLinks().size(), batch.getLinks().size());
+        assertEquals(sequential.getName(), batch.getName());
+    }
+
+    @Test
+    public void test_merge_all_into_existing_graph() throws Exception {
+        EventGraphDTO base = translate("service_no_common_consume_topics_common_events_common_outgoing_topics_1");
+        int baseNodes = base.getNodes().size();
+        List<UUID> baseIds = base.getNodes().stream().map(NodeDTO::getId).toList();
+
+        EventGraphDTO merged = EventGraphFacade.mergeAll(base,
+                List.of(translate("service_no_common_consume_topics_common_events_common_outgoing_topics_2")));
+
+        // общие топики не дублируются, id исходного графа сохраняются
+        assertTrue(merged.getNodes().size() > baseNodes);
+        assertTrue(merged.getNodes().stream().map(NodeDTO::getId).toList().containsAll(baseIds));
+        assertEquals(merged.getNodes().size(), merged.getNodes().stream()
+                .map(n -> n.getType() + "|" + n.getBrokerType() + "|" + n.getName()).distinct().count());
+        assertEquals(merged.getEvents().size(), merged.getEvents().stream().map(EventDTO::getName).distinct().count());
+    }
+
+    @Test
+    public void test_merge_keeps_response_body_and_event_description() {
+        UUID serviceId = UUID.randomUUID();
+        UUID httpId = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+        EventGraphDTO g2 = EventGraphDTO.builder()
+                .name("http")
+                .nodes(new ArrayList<>(List.of(
+                        NodeDTO.builder().id(serviceId).name("http").type(NodeDTO.TypeEnum.SERVICE)
+                                .belongsToGraph(new ArrayList<>(List.of(serviceId))).build(),
+                        NodeDTO.builder().id(httpId).name("/orders").type(NodeDTO.TypeEnum.HTTP)
+                                .belongsToGraph(new ArrayList<>(List.of(serviceId)))
+                                .requestBody("{\"type\":\"object\"}").responseBody("{\"type\":\"string\"}")
+                                .build())))
+                .events(new ArrayList<>(List.of(EventDTO.builder().id(eventId).name("Order").schema("{}")
+                        .eventType("order").eventDescription("Order created").build())))
+                .links(new ArrayList<>(List.of(new LinkDTO(UUID.randomUUID(), httpId, serviceId, null, eventId, null))))
+                .build();
+
+        for (EventGraphDTO merged : List.of(merge(new EventGraphDTO(), g2), EventGraphFacade.mergeAll(null, List.of(g2)))) {
+            NodeDTO http = new EventGraphFacade(merged).getNodeById(httpId);
+            assertEquals("{\"type\":\"object\"}", http.getRequestBody());
+            assertEquals("{\"type\":\"string\"}", http.getResponseBody());
+            EventDTO event = merged.getEvents().getFirst();
+            assertEquals("order", event.getEventType());
+            assertEquals("Order created", event.getEventDescription());
+        }
+    }
+
+    private EventGraphDTO translate(String specName) throws Exception {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("specs/json/" + specName + ".json")) {
+            assertNotNull(input, "Файл не найден: " + specName);
+            return SolidOpenAPITranslator.parseOPenAPI(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .eventGraph();
+        }
+    }
+
     public EventGraphDTO cloneEventGraph(EventGraphDTO original) {
         EventGraphDTO clone = new EventGraphDTO();
         clone.setName(original.getName());
@@ -0,0 +1,169 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import org.junit.jupiter.api.Test;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphProjectionDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphProjectionTest {
+
+    // orders -> ordersTopic(KAFKA) -> billing -> invoices(JMS) -> reports, api(HTTP) -> orders
+    private final UUID orders = UUID.randomUUID();
+    private final UUID billing = UUID.randomUUID();
+    private final UUID reports = UUID.randomUUID();
+    private final UUID ordersTopic = UUID.randomUUID();
+    private final UUID invoices = UUID.randomUUID();
+    private final UUID api = UUID.randomUUID();
+    private final UUID orderCreated = UUID.randomUUID();
+    private final UUID invoiceIssued = UUID.randomUUID();
+    private final UUID createOrder = UUID.randomUUID();
+
+    private final EventGraphDTO graph = EventGraphDTO.builder()
+            .name("shop")
+            .tags(new HashSet<>(Set.of("shop")))
+            .nodes(new ArrayList<>(List.of(
+                    service(orders, "orders"),
+                    service(billing, "billing"),
+                    service(reports, "reports"),
+                    topic(ordersTopic, "ordersTopic", NodeDTO.BrokerTypeEnum.KAFKA, Set.of("core"), orders, billing),
+                    topic(invoices, "invoices", NodeDTO.BrokerTypeEnum.JMS, Set.of(), billing, reports),
+                    NodeDTO.builder().id(api).name("/orders").type(NodeDTO.TypeEnum.HTTP)
+                            .belongsToGraph(List.of(orders)).tags(new HashSet<>()).build())))
+            .events(new ArrayList<>(List.of(
+                    event(orderCreated, "OrderCreated", Set.of()),
+                    event(invoiceIssued, "InvoiceIssued", Set.of("finance")),
+                    event(createOrder, "CreateOrder", Set.of()))))
+            .links(new ArrayList<>(List.of(
+                    link(orders, ordersTopic, orderCreated, Set.of()),
+                    link(ordersTopic, billing, orderCreated, Set.of()),
+                    link(billing, invoices, invoiceIssued, Set.of()),
+                    link(invoices, reports, invoiceIssued, Set.of("audit")),
+                    link(api, orders, createOrder, Set.of()))))
+            .build();
+
+    @Test
+    void testEmptyProjectionReturnsWholeGraphInOrder() {
+        EventGraphDTO result = GraphProjection.project(graph, new GraphProjectionDTO());
+
+        assertEquals(graph.getNodes(), result.getNodes());
+        assertEquals(graph.getLinks(), result.getLinks());
+        assertEquals(graph.getEvents(), result.getEvents());
+        assertEquals("shop", result.getName());
+        assertEquals(Set.of("shop"), result.getTags());
+    }
+
+    @Test
+    void testServiceSet() {
+        EventGraphDTO result = project(GraphProjectionDTO.builder().serviceIds(List.of(orders)).build());
+
+        assertEquals(List.of(orders, ordersTopic, api), nodeIds(result));
+        assertEquals(2, result.getLinks().size());
+        assertEquals(List.of("OrderCreated", "CreateOrder"), eventNames(result));
+    }
+
+    @Test
+    void testTagsMatchNodesLinksAndEvents() {
+        // core - тег топика, finance - тег события, audit - тег связи
+        assertEquals(List.of(ordersTopic), nodeIds(project(GraphProjectionDTO.builder().tags(List.of("core")).build())));
+        assertEquals(List.of(billing, reports, invoices),
+                nodeIds(project(GraphProjectionDTO.builder().tags(List.of("finance")).build())));
+        EventGraphDTO audit = project(GraphProjectionDTO.builder().tags(List.of("audit")).build());
+        assertEquals(List.of(reports, invoices), nodeIds(audit));
+        assertEquals(List.of("InvoiceIssued"), eventNames(audit));
+        assertTrue(nodeIds(project(GraphProjectionDTO.builder().tags(List.of("unknown")).build())).isEmpty());
+    }
+
+    @Test
+    void testTypeAndBrokerCriteriaAreCombined() {
+        EventGraphDTO topics = project(GraphProjectionDTO.builder()
+                .nodeTypes(List.of(GraphProjectionDTO.NodeTypesEnum.TOPIC))
+                .build());
+        assertEquals(List.of(ordersTopic, invoices), nodeIds(topics));
+        assertTrue(topics.getLinks().isEmpty());
+        assertTrue(topics.getEvents().isEmpty());
+
+        EventGraphDTO kafka = project(GraphProjectionDTO.builder()
+                .nodeTypes(List.of(GraphProjectionDTO.NodeTypesEnum.TOPIC))
+                .brokerTypes(List.of(GraphProjectionDTO.BrokerTypesEnum.KAFKA))
+                .build());
+        assertEquals(List.of(ordersTopic), nodeIds(kafka));
+
+        EventGraphDTO billingKafka = project(GraphProjectionDTO.builder()
+                .serviceIds(List.of(billing))
+                .brokerTypes(List.of(GraphProjectionDTO.BrokerTypesEnum.KAFKA))
+                .build());
+        assertEquals(List.of(ordersTopic), nodeIds(billingKafka));
+    }
+
+    @Test
+    void testNeighborhood() {
+        // начинаем с одного узла сервиса: его топики добавляются только соседством
+        EventGraphDTO oneHop = project(neighborhoodOfReports(1));
+        assertEquals(List.of(reports, invoices), nodeIds(oneHop));
+        assertEquals(1, oneHop.getLinks().size());
+
+        EventGraphDTO twoHops = project(neighborhoodOfReports(2));
+        assertEquals(List.of(billing, reports, invoices), nodeIds(twoHops));
+        assertEquals(2, twoHops.getLinks().size());
+        assertEquals(List.of("InvoiceIssued"), eventNames(twoHops));
+
+        EventGraphDTO all = project(neighborhoodOfReports(16));
+        assertEquals(graph.getNodes(), all.getNodes());
+        assertEquals(graph.getLinks(), all.getLinks());
+    }
+
+    private GraphProjectionDTO neighborhoodOfReports(int hops) {
+        return GraphProjectionDTO.builder()
+                .serviceIds(List.of(reports))
+                .nodeTypes(List.of(GraphProjectionDTO.NodeTypesEnum.SERVICE))
+                .hops(hops)
+                .build();
+    }
+
+    @Test
+    void testFilterByServiceUUIDsUsesProjection() {
+        EventGraphDTO filtered = pro.axenix_innovation.axenapi.web.service.MarkdownSpecService
+                .filterByServiceUUIDs(graph, Set.of(billing));
+
+        assertEquals("shop_filtered", filtered.getName());
+        assertEquals(List.of(billing, ordersTopic, invoices), nodeIds(filtered));
+        assertEquals(List.of("OrderCreated", "InvoiceIssued"), eventNames(filtered));
+    }
+
+    private EventGraphDTO project(GraphProjectionDTO projection) {
+        return GraphProjection.project(graph, projection);
+    }
+
+    private static List<UUID> nodeIds(EventGraphDTO graph) {
+        return graph.getNodes().stream().map(NodeDTO::getId).toList();
+    }
+
+    private static List<String> eventNames(EventGraphDTO graph) {
+        return graph.getEvents().stream().map(EventDTO::getName).toList();
+    }
+
+    private static NodeDTO service(UUID id, String name) {
+        return NodeDTO.builder().id(id).name(name).type(NodeDTO.TypeEnum.SERVICE)
+                .belongsToGraph(List.of(id)).tags(new HashSet<>()).build();
+    }
+
+    private static NodeDTO topic(UUID id, String name, NodeDTO.BrokerTypeEnum broker, Set<String> tags, UUID... services) {
+        return NodeDTO.builder().id(id).name(name).type(NodeDTO.TypeEnum.TOPIC).brokerType(broker)
+                .belongsToGraph(List.of(services)).tags(new HashSet<>(tags)).build();
+    }
+
+    private static EventDTO event(UUID id, String name, Set<String> tags) {
+        return EventDTO.builder().id(id).name(name).schema("{}").tags(new HashSet<>(tags)).build();
+    }
+
+    private static LinkDTO link(UUID from, UUID to, UUID event, Set<String> tags) {
+        return LinkDTO.builder().id(UUID.randomUUID()).fromId(from).toId(to).eventId(event)
+                .tags(new HashSet<>(tags)).build();
+    }
+}
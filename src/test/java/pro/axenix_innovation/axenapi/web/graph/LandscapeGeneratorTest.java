@@ -0,0 +1,100 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.mock.web.MockMultipartFile;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+import pro.axenix_innovation.axenapi.web.util.JacksonMappers;
+import pro.axenix_innovation.axenapi.web.validate.EventGraphDTOValidator;
+import pro.axenix_innovation.axenapi.web.validate.OpenApiValidator;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandscapeGeneratorTest {
+
+    @BeforeAll
+    static void setUpMessages() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        MessageHelper.setStaticMessageSource(messageSource);
+    }
+
+    @Test
+    void testGeneratesRequestedCounts() {
+        LandscapeOptions options = new LandscapeOptions(50, 100, 100, 2, 3, 2,
+                Map.of(NodeDTO.BrokerTypeEnum.KAFKA, 1), 1L);
+
+        EventGraphDTO graph = LandscapeGenerator.generate(options);
+
+        assertEquals(50, countNodes(graph, NodeDTO.TypeEnum.SERVICE));
+        assertEquals(100, countNodes(graph, NodeDTO.TypeEnum.TOPIC));
+        assertEquals(100, countNodes(graph, NodeDTO.TypeEnum.HTTP));
+        assertEquals(100, graph.getEvents().size());
+        // по одному событию на топик: 3 входящих, 2 исходящих и 2 HTTP-связи на сервис
+        assertEquals(50 * (3 + 2 + 2), graph.getLinks().size());
+        assertTrue(EventGraphDTOValidator.validate(graph, 100).isValid());
+    }
+
+    @Test
+    void testSameSeedGivesSameGraph() {
+        LandscapeOptions options = LandscapeOptions.ofServices(20);
+
+        assertEquals(LandscapeGenerator.generate(options), LandscapeGenerator.generate(options));
+        assertNotEquals(LandscapeGenerator.generate(options), LandscapeGenerator.generate(options.withSeed(7L)));
+    }
+
+    @Test
+    void testBrokerMixIsRespected() {
+        Map<NodeDTO.BrokerTypeEnum, Integer> mix = new EnumMap<>(NodeDTO.BrokerTypeEnum.class);
+        mix.put(NodeDTO.BrokerTypeEnum.JMS, 1);
+        mix.put(NodeDTO.BrokerTypeEnum.RABBITMQ, 0);
+        LandscapeOptions options = new LandscapeOptions(10, 20, 20, 0, 1, 1, mix, 1L);
+
+        EventGraphDTO graph = LandscapeGenerator.generate(options);
+
+        assertTrue(graph.getNodes().stream()
+                .filter(node -> node.getType() == NodeDTO.TypeEnum.TOPIC)
+                .allMatch(node -> node.getBrokerType() == NodeDTO.BrokerTypeEnum.JMS));
+    }
+
+    @Test
+    void testSpecificationsPassValidation() throws Exception {
+        EventGraphDTO graph = LandscapeGenerator.generate(LandscapeOptions.ofServices(10));
+
+        Map<String, OpenAPI> specifications = LandscapeGenerator.specifications(graph);
+
+        assertEquals(10, specifications.size());
+        for (Map.Entry<String, OpenAPI> entry : specifications.entrySet()) {
+            byte[] content = JacksonMappers.openApiJson().writeValueAsBytes(entry.getValue());
+            MockMultipartFile file = new MockMultipartFile("file", entry.getKey() + ".json",
+                    "application/json", content);
+            assertDoesNotThrow(() -> OpenApiValidator.validateOpenApiSpec(file), entry.getKey());
+        }
+    }
+
+    @Test
+    void testScalesToTenThousandServices() {
+        EventGraphDTO graph = LandscapeGenerator.generate(LandscapeOptions.ofServices(10_000));
+
+        assertEquals(10_000, countNodes(graph, NodeDTO.TypeEnum.SERVICE));
+        assertEquals(20_000, countNodes(graph, NodeDTO.TypeEnum.TOPIC));
+    }
+
+    @Test
+    void testRejectsFanOutLargerThanTopics() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LandscapeOptions(1, 2, 2, 0, 1, 3, null, 1L));
+    }
+
+    private static long countNodes(EventGraphDTO graph, NodeDTO.TypeEnum type) {
+        return graph.getNodes().stream().filter(node -> node.getType() == type).count();
+    }
+}
@@ -0,0 +1,256 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.util.SolidOpenAPITranslator;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceSubgraphUpdaterTest {
+
+    private static final String SERVICE = "consume_three_events_from_different_brokers_service";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSameSpecificationKeepsAllIds() throws Exception {
+        EventGraphDTO graph = readGraph(SERVICE);
+        UUID serviceId = serviceId(graph);
+        Map<String, UUID> nodeIds = nodeIdsByKey(graph);
+        Set<UUID> eventIds = graph.getEvents().stream().map(EventDTO::getId).collect(Collectors.toSet());
+        Set<UUID> linkIds = graph.getLinks().stream().map(LinkDTO::getId).collect(Collectors.toSet());
+
+        EventGraphDTO result = ServiceSubgraphUpdater.replace(graph, serviceId, translate(SERVICE, serviceId), true);
+
+        assertSame(graph, result);
+        assertEquals(nodeIds, nodeIdsByKey(result));
+        assertEquals(eventIds, result.getEvents().stream().map(EventDTO::getId).collect(Collectors.toSet()));
+        assertEquals(linkIds, result.getLinks().stream().map(LinkDTO::getId).collect(Collectors.toSet()));
+        assertConsistent(result);
+    }
+
+    @Test
+    void testChangedSpecificationKeepsIdsOfUnchangedElements() throws Exception {
+        EventGraphDTO graph = readGraph(SERVICE);
+        UUID serviceId = serviceId(graph);
+        Map<String, UUID> nodeIds = nodeIdsByKey(graph);
+
+        EventGraphDTO result = ServiceSubgraphUpdater.replace(graph, serviceId,
+                translate(SERVICE + "_updated", serviceId), true);
+
+        Map<String, UUID> updatedIds = nodeIdsByKey(result);
+        assertEquals(serviceId, serviceId(result));
+        for (Map.Entry<String, UUID> entry : updatedIds.entrySet()) {
+            if (nodeIds.containsKey(entry.getKey())) {
+                assertEquals(nodeIds.get(entry.getKey()), entry.getValue(), entry.getKey());
+            }
+        }
+        assertTrue(updatedIds.keySet().stream().anyMatch(key -> key.endsWith("topicKafkaUpdated")));
+        assertFalse(updatedIds.keySet().stream().anyMatch(key -> key.endsWith("|topicKafka")));
+        assertConsistent(result);
+    }
+
+    @Test
+    void testSharedNodesAndEventsStayWithOtherServices() {
+        UUID serviceA = UUID.randomUUID();
+        UUID serviceB = UUID.randomUUID();
+        UUID shared = UUID.randomUUID();
+        UUID own = UUID.randomUUID();
+        UUID sharedEvent = UUID.randomUUID();
+        UUID ownEvent = UUID.randomUUID();
+        UUID ownLink = UUID.randomUUID();
+
+        EventGraphDTO graph = EventGraphDTO.builder()
+                .name("A&B")
+                .nodes(new ArrayList<>(List.of(
+                        service(serviceA, "A"),
+                        service(serviceB, "B"),
+                        topic(shared, "shared", serviceA, serviceB),
+                        topic(own, "own", serviceA))))
+                .events(new ArrayList<>(List.of(event(sharedEvent, "Shared"), event(ownEvent, "Own"))))
+                .links(new ArrayList<>(List.of(
+                        link(UUID.randomUUID(), shared, serviceA, sharedEvent),
+                        link(UUID.randomUUID(), shared, serviceB, sharedEvent),
+                        link(ownLink, own, serviceA, ownEvent))))
+                .build();
+
+        // новая версия A читает только свой топик и переименована
+        UUID newService = UUID.randomUUID();
+        UUID newTopic = UUID.randomUUID();
+        UUID newEvent = UUID.randomUUID();
+        LinkDTO newLink = link(UUID.randomUUID(), newTopic, newService, newEvent);
+        newLink.setGroup("group1");
+        EventGraphDTO serviceGraph = EventGraphDTO.builder()
+                .name("A2")
+                .nodes(new ArrayList<>(List.of(service(newService, "A2"), topic(newTopic, "own", newService))))
+                .events(new ArrayList<>(List.of(event(newEvent, "Own"))))
+                .links(new ArrayList<>(List.of(newLink)))
+                .build();
+
+        EventGraphDTO result = ServiceSubgraphUpdater.replace(graph, serviceA, serviceGraph, true);
+
+        EventGraphFacade facade = new EventGraphFacade(result);
+        assertEquals(4, result.getNodes().size());
+        assertEquals("A2", facade.getNodeById(serviceA).getName());
+        assertEquals(List.of(serviceB), facade.getNodeById(shared).getBelongsToGraph());
+        assertEquals(List.of(serviceA), facade.getNodeById(own).getBelongsToGraph());
+
+        assertEquals(2, result.getLinks().size());
+        LinkDTO kept = result.getLinks().stream().filter(l -> l.getId().equals(ownLink)).findFirst().orElseThrow();
+        assertEquals(own, kept.getFromId());
+        assertEquals(serviceA, kept.getToId());
+        assertEquals(ownEvent, kept.getEventId());
+        assertEquals("group1", kept.getGroup());
+        assertTrue(result.getLinks().stream().noneMatch(l -> l.getFromId().equals(shared) && l.getToId().equals(serviceA)));
+
+        assertEquals(Set.of(sharedEvent, ownEvent),
+                result.getEvents().stream().map(EventDTO::getId).collect(Collectors.toSet()));
+        assertEquals("A&B&A2", result.getName());
+        assertConsistent(result);
+    }
+
+    @Test
+    void testReplaceAllKeepsNodeSharedOnlyByReplacedServices() {
+        UUID serviceA = UUID.randomUUID();
+        UUID serviceB = UUID.randomUUID();
+        UUID shared = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+        EventGraphDTO graph = EventGraphDTO.builder()
+                .name("A&B")
+                .nodes(new ArrayList<>(List.of(
+                        service(serviceA, "A"),
+                        service(serviceB, "B"),
+                        topic(shared, "shared", serviceA, serviceB))))
+                .events(new ArrayList<>(List.of(event(eventId, "Shared"))))
+                .links(new ArrayList<>(List.of(
+                        link(UUID.randomUUID(), shared, serviceA, eventId),
+                        link(UUID.randomUUID(), shared, serviceB, eventId))))
+                .build();
+
+        // новая A по-прежнему читает общий топик, новая B - только свой
+        UUID newA = UUID.randomUUID();
+        UUID newShared = UUID.randomUUID();
+        UUID newEvent = UUID.randomUUID();
+        EventGraphDTO serviceGraphA = EventGraphDTO.builder()
+                .name("A")
+                .nodes(new ArrayList<>(List.of(service(newA, "A"), topic(newShared, "shared", newA))))
+                .events(new ArrayList<>(List.of(event(newEvent, "Shared"))))
+                .links(new ArrayList<>(List.of(link(UUID.randomUUID(), newShared, newA, newEvent))))
+                .build();
+        UUID newB = UUID.randomUUID();
+        UUID ownB = UUID.randomUUID();
+        EventGraphDTO serviceGraphB = EventGraphDTO.builder()
+                .name("B")
+                .nodes(new ArrayList<>(List.of(service(newB, "B"), topic(ownB, "own", newB))))
+                .build();
+
+        Map<UUID, EventGraphDTO> services = new LinkedHashMap<>();
+        services.put(serviceA, serviceGraphA);
+        services.put(serviceB, serviceGraphB);
+        EventGraphDTO result = ServiceSubgraphUpdater.replaceAll(graph, services, true);
+
+        EventGraphFacade facade = new EventGraphFacade(result);
+        assertEquals(4, result.getNodes().size());
+        assertEquals(List.of(serviceA), facade.getNodeById(shared).getBelongsToGraph());
+        assertEquals(List.of(serviceB), facade.getNodeById(ownB).getBelongsToGraph());
+        assertEquals(List.of(eventId), result.getEvents().stream().map(EventDTO::getId).toList());
+        assertEquals(1, result.getLinks().size());
+        assertEquals(serviceA, result.getLinks().getFirst().getToId());
+        assertConsistent(result);
+    }
+
+    @Test
+    void testUnusedEventsKeptWhenNotDropped() {
+        UUID serviceA = UUID.randomUUID();
+        UUID topic = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+        EventGraphDTO graph = EventGraphDTO.builder()
+                .name("A")
+                .nodes(new ArrayList<>(List.of(service(serviceA, "A"), topic(topic, "t", serviceA))))
+                .events(new ArrayList<>(List.of(event(eventId, "E"))))
+                .links(new ArrayList<>(List.of(link(UUID.randomUUID(), topic, serviceA, eventId))))
+                .build();
+        UUID newService = UUID.randomUUID();
+        EventGraphDTO serviceGraph = EventGraphDTO.builder()
+                .name("A")
+                .nodes(new ArrayList<>(List.of(service(newService, "A"))))
+                .build();
+
+        EventGraphDTO result = ServiceSubgraphUpdater.replace(graph, serviceA, serviceGraph, false);
+
+        assertEquals(List.of(serviceA), result.getNodes().stream().map(NodeDTO::getId).toList());
+        assertTrue(result.getLinks().isEmpty());
+        assertEquals(1, result.getEvents().size());
+    }
+
+    private static void assertConsistent(EventGraphDTO graph) {
+        Set<UUID> nodeIds = graph.getNodes().stream().map(NodeDTO::getId).collect(Collectors.toSet());
+        Set<UUID> eventIds = graph.getEvents().stream().map(EventDTO::getId).collect(Collectors.toSet());
+        assertEquals(graph.getNodes().size(), nodeIds.size(), "Дублирующиеся id узлов");
+        for (NodeDTO node : graph.getNodes()) {
+            assertTrue(nodeIds.containsAll(node.getBelongsToGraph()), "belongsToGraph узла " + node.getName());
+        }
+        for (LinkDTO link : graph.getLinks()) {
+            assertTrue(nodeIds.contains(link.getFromId()) && nodeIds.contains(link.getToId()), "Связь " + link);
+            assertTrue(link.getEventId() == null || eventIds.contains(link.getEventId()), "Событие связи " + link);
+        }
+    }
+
+    private EventGraphDTO readGraph(String name) throws Exception {
+        try (InputStream input = resource("results/" + name + ".json")) {
+            return objectMapper.readValue(input, EventGraphDTO.class);
+        }
+    }
+
+    private EventGraphDTO translate(String specName, UUID serviceId) throws Exception {
+        try (InputStream input = resource("specs/json/" + specName + ".json")) {
+            String specification = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            return SolidOpenAPITranslator.parseOPenAPI(specification, serviceId).eventGraph();
+        }
+    }
+
+    private InputStream resource(String path) {
+        InputStream input = getClass().getClassLoader().getResourceAsStream(path);
+        assertNotNull(input, "Файл не найден: " + path);
+        return input;
+    }
+
+    private static UUID serviceId(EventGraphDTO graph) {
+        return graph.getNodes().stream()
+                .filter(node -> node.getType() == NodeDTO.TypeEnum.SERVICE)
+                .findFirst().orElseThrow().getId();
+    }
+
+    private static Map<String, UUID> nodeIdsByKey(EventGraphDTO graph) {
+        return graph.getNodes().stream().collect(Collectors.toMap(
+                node -> node.getType() + "|" + node.getBrokerType() + "|" + node.getName(), NodeDTO::getId));
+    }
+
+    private static NodeDTO service(UUID id, String name) {
+        return NodeDTO.builder().id(id).name(name).type(NodeDTO.TypeEnum.SERVICE)
+                .belongsToGraph(new ArrayList<>(List.of(id))).tags(new HashSet<>()).build();
+    }
+
+    private static NodeDTO topic(UUID id, String name, UUID... services) {
+        return NodeDTO.builder().id(id).name(name).type(NodeDTO.TypeEnum.TOPIC)
+                .brokerType(NodeDTO.BrokerTypeEnum.KAFKA)
+                .belongsToGraph(new ArrayList<>(List.of(services))).tags(new HashSet<>()).build();
+    }
+
+    private static EventDTO event(UUID id, String name) {
+        return EventDTO.builder().id(id).name(name).schema("{}").tags(new HashSet<>()).build();
+    }
+
+    private static LinkDTO link(UUID id, UUID from, UUID to, UUID event) {
+        return LinkDTO.builder().id(id).fromId(from).toId(to).eventId(event).tags(new HashSet<>()).build();
+    }
+}
@@ -0,0 +1,121 @@
+package pro.axenix_innovation.axenapi.web.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pro.axenix_innovation.axenapi.web.exception.InvalidTagQueryException;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.GraphProjectionDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagQueryTest {
+
+    private final UUID orders = UUID.randomUUID();
+    private final UUID billing = UUID.randomUUID();
+    private final UUID topic = UUID.randomUUID();
+    private final UUID event = UUID.randomUUID();
+
+    private final EventGraphDTO graph = EventGraphDTO.builder()
+            .name("shop")
+            .nodes(new ArrayList<>(List.of(
+                    node(orders, NodeDTO.TypeEnum.SERVICE, "core", "orders"),
+                    node(billing, NodeDTO.TypeEnum.SERVICE, "core", "billing", "deprecated"),
+                    node(topic, NodeDTO.TypeEnum.TOPIC, "kafka", "two words"))))
+            .events(new ArrayList<>(List.of(
+                    EventDTO.builder().id(event).name("OrderCreated").schema("{}")
+                            .tags(new HashSet<>(Set.of("orders", "kafka"))).build())))
+            .links(new ArrayList<>(List.of(
+                    LinkDTO.builder().id(UUID.randomUUID()).fromId(orders).toId(topic).eventId(event)
+                            .tags(new HashSet<>(Set.of("kafka"))).build(),
+                    LinkDTO.builder().id(UUID.randomUUID()).fromId(topic).toId(billing).eventId(event)
+                            .tags(new HashSet<>()).build())))
+            .build();
+
+    private final TagIndex index = TagIndex.of(graph);
+
+    @Test
+    void testOperatorsAndPrecedence() {
+        assertEquals(Set.of(0, 1), nodes("core"));
+        assertEquals(Set.of(0), nodes("core AND NOT deprecated"));
+        assertEquals(Set.of(0), nodes("core & !deprecated"));
+        assertEquals(Set.of(0, 2), nodes("orders OR kafka"));
+        // NOT сильнее AND, AND сильнее OR
+        assertEquals(Set.of(0, 2), nodes("kafka or core and not deprecated"));
+        assertEquals(Set.of(0), nodes("(kafka OR core) AND NOT deprecated AND NOT kafka"));
+        assertEquals(Set.of(2), nodes("\"two words\""));
+        assertEquals(Set.of(), nodes("unknown"));
+        assertEquals(Set.of(0, 1, 2), nodes("NOT unknown"));
+    }
+
+    @Test
+    void testEventsAndLinksUseOwnTags() {
+        TagMatch match = TagQuery.parse("kafka AND NOT core").evaluate(index);
+
+        assertEquals(Set.of(2), ordinals(match.nodes()));
+        assertEquals(Set.of(0), ordinals(match.events()));
+        assertEquals(Set.of(0), ordinals(match.links()));
+    }
+
+    @Test
+    void testEvaluationDoesNotChangeIndex() {
+        TagQuery.parse("NOT core").evaluate(index);
+        TagQuery.parse("core AND deprecated").evaluate(index);
+
+        assertEquals(Set.of(0, 1), nodes("core"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "  ", "core AND", "(core", "core)", "AND core", "core deprecated", "\"core", "NOT"})
+    void testInvalidExpressions(String expression) {
+        assertThrows(InvalidTagQueryException.class, () -> TagQuery.parse(expression));
+    }
+
+    @Test
+    void testExpressionLimits() {
+        int depth = TagQuery.Parser.MAX_DEPTH;
+        assertEquals(Set.of(0, 1), nodes("(".repeat(depth) + "core" + ")".repeat(depth)));
+        assertThrows(InvalidTagQueryException.class,
+                () -> TagQuery.parse("(".repeat(depth + 1) + "core" + ")".repeat(depth + 1)));
+        assertThrows(InvalidTagQueryException.class, () -> TagQuery.parse("(".repeat(100_000) + "core"));
+        assertThrows(InvalidTagQueryException.class, () -> TagQuery.parse("!".repeat(depth + 1) + "core"));
+        assertThrows(InvalidTagQueryException.class,
+                () -> TagQuery.parse(String.join(" OR ", Collections.nCopies(TagQuery.Parser.MAX_TOKENS, "core"))));
+    }
+
+    @Test
+    void testProjectionByTagQuery() {
+        // узел billing исключен выражением, но попадает как конец связи с событием OrderCreated
+        EventGraphDTO result = GraphProjection.project(graph,
+                GraphProjectionDTO.builder().tagQuery("orders AND NOT deprecated").build());
+
+        assertEquals(List.of(orders, billing, topic), result.getNodes().stream().map(NodeDTO::getId).toList());
+        assertEquals(2, result.getLinks().size());
+
+        EventGraphDTO services = GraphProjection.project(graph, GraphProjectionDTO.builder()
+                .tagQuery("core AND NOT deprecated")
+                .nodeTypes(List.of(GraphProjectionDTO.NodeTypesEnum.SERVICE))
+                .build());
+        assertEquals(List.of(orders), services.getNodes().stream().map(NodeDTO::getId).toList());
+    }
+
+    private Set<Integer> nodes(String expression) {
+        return ordinals(TagQuery.parse(expression).evaluate(index).nodes());
+    }
+
+    private static Set<Integer> ordinals(BitSet bits) {
+        Set<Integer> result = new HashSet<>();
+        bits.stream().forEach(result::add);
+        return result;
+    }
+
+    private static NodeDTO node(UUID id, NodeDTO.TypeEnum type, String... tags) {
+        return NodeDTO.builder().id(id).name(id.toString()).type(type)
+                .belongsToGraph(List.of(id)).tags(new HashSet<>(Set.of(tags))).build();
+    }
+}
@@ -0,0 +1,107 @@
+package pro.axenix_innovation.axenapi.web.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    void testTimeRecordsSuccess() {
+        long before = count(PipelineMetrics.Stage.MERGE, "success");
+
+        String result = PipelineMetrics.time(PipelineMetrics.Stage.MERGE, () -> "merged");
+
+        assertEquals("merged", result);
+        assertEquals(before + 1, count(PipelineMetrics.Stage.MERGE, "success"));
+    }
+
+    @Test
+    void testTimeRethrowsAndRecordsError() {
+        long before = count(PipelineMetrics.Stage.PARSE, "error");
+
+        IOException thrown = assertThrows(IOException.class,
+                () -> PipelineMetrics.time(PipelineMetrics.Stage.PARSE, () -> {
+                    throw new IOException("broken");
+                }));
+
+        assertEquals("broken", thrown.getMessage());
+        assertEquals(before + 1, count(PipelineMetrics.Stage.PARSE, "error"));
+    }
+
+    @Test
+    void testStartWithoutSuccessRecordsError() {
+        long successBefore = count(PipelineMetrics.Stage.DOWNLOAD, "success");
+        long errorBefore = count(PipelineMetrics.Stage.DOWNLOAD, "error");
+
+        try (PipelineMetrics.StageTimer ignored = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            // этап прерван до success()
+        }
+        try (PipelineMetrics.StageTimer timer = PipelineMetrics.start(PipelineMetrics.Stage.DOWNLOAD)) {
+            timer.success();
+        }
+
+        assertEquals(successBefore + 1, count(PipelineMetrics.Stage.DOWNLOAD, "success"));
+        assertEquals(errorBefore + 1, count(PipelineMetrics.Stage.DOWNLOAD, "error"));
+    }
+
+    @Test
+    void testRecordGraphUpdatesGauges() {
+        UUID service = UUID.randomUUID();
+        UUID topic = UUID.randomUUID();
+        EventGraphDTO graph = new EventGraphDTO();
+        graph.setNodes(new ArrayList<>(List.of(
+                NodeDTO.builder().id(service).name("service").type(NodeDTO.TypeEnum.SERVICE).build(),
+                NodeDTO.builder().id(topic).name("topic").type(NodeDTO.TypeEnum.TOPIC).build())));
+        graph.setLinks(new ArrayList<>(List.of(new LinkDTO(UUID.randomUUID(), topic, service, null, null, null))));
+
+        PipelineMetrics.recordGraph(PipelineMetrics.GraphKind.MERGED, graph);
+
+        assertEquals(2, gauge("merged", "nodes"));
+        assertEquals(0, gauge("merged", "events"));
+        assertEquals(1, gauge("merged", "links"));
+    }
+
+    private long count(PipelineMetrics.Stage stage, String outcome) {
+        Timer timer = registry.find(PipelineMetrics.STAGE_TIMER)
+                .tag("stage", stage.tag())
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double gauge(String graph, String element) {
+        return registry.get(PipelineMetrics.GRAPH_SIZE)
+                .tag("graph", graph)
+                .tag("element", element)
+                .gauge()
+                .value();
+    }
+}
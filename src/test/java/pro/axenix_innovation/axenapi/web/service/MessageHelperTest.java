@@ -3,6 +3,8 @@ package pro.axenix_innovation.axenapi.web.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
 import org.springframework.context.MessageSource;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
@@ -11,6 +13,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import java.util.Locale;
 
@@ -91,6 +94,46 @@ public class MessageHelperTest {
         assertEquals("Code: [50014], message: Не удалось подготовить директорию abc.", ru);
     }
 
+    @Test
+    void testLogSkipsLookupWhenLevelDisabled() {
+        MessageHelper.setStaticMessageSource(mockMessageSource);
+        Logger logger = Mockito.mock(Logger.class);
+        Mockito.when(logger.isEnabledForLevel(Level.DEBUG)).thenReturn(false);
+
+        MessageHelper.log(logger, Level.DEBUG, "axenapi.error.fail.prepare.dir", "dir");
+        MessageHelper.log(logger, Level.DEBUG, AppCodeMessageKey.FAIL_TO_PREPARE_DIR, "dir");
+
+        Mockito.verifyNoInteractions(mockMessageSource);
+        Mockito.verify(logger, Mockito.never()).atLevel(any());
+    }
+
+    @Test
+    void testStaticTemplateIsCompiledOncePerKeyAndLocale() {
+        Mockito.when(mockMessageSource.getMessage(eq("axenapi.error.fail.prepare.dir"), isNull(), eq(Locale.ENGLISH)))
+                .thenReturn("Failed to prepare directory {0}.");
+        MessageHelper.setStaticMessageSource(mockMessageSource);
+
+        assertEquals("Failed to prepare directory a.", MessageHelper.formatStatic("axenapi.error.fail.prepare.dir", Locale.ENGLISH, "a"));
+        assertEquals("Failed to prepare directory b.", MessageHelper.formatStatic("axenapi.error.fail.prepare.dir", Locale.ENGLISH, "b"));
+
+        Mockito.verify(mockMessageSource, Mockito.times(1))
+                .getMessage(eq("axenapi.error.fail.prepare.dir"), isNull(), eq(Locale.ENGLISH));
+    }
+
+    @Test
+    void testLazyMessageMatchesStaticMessage() {
+        ResourceBundleMessageSource realSource = new ResourceBundleMessageSource();
+        realSource.setBasenames("messages");
+        realSource.setDefaultEncoding("UTF-8");
+        MessageHelper.setStaticMessageSource(realSource);
+
+        Supplier<String> lazy = MessageHelper.lazyMessage(AppCodeMessageKey.FAIL_TO_PREPARE_DIR, "abc");
+        Supplier<String> lazyByKey = MessageHelper.lazyMessage("axenapi.info.processing.open.api.path");
+
+        assertEquals(MessageHelper.getStaticMessage(AppCodeMessageKey.FAIL_TO_PREPARE_DIR, "abc"), lazy.get());
+        assertEquals(MessageHelper.getStaticMessage("axenapi.info.processing.open.api.path"), lazyByKey.get());
+    }
+
     @Test
     void allKeysInMessagesPropertiesExists() throws IOException {
         Properties en = new Properties();
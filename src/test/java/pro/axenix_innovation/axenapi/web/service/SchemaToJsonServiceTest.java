@@ -538,4 +538,131 @@ class SchemaToJsonServiceTest {
         JsonNode result = SchemaToJsonService.generateFieldValue(schemaNode, "flag", null);
         assertTrue(result.isBoolean());
     }
+
+    @Test
+    void generateJsonFromSchema_withCount_shouldReturnRequestedNumberOfExamples() throws Exception {
+        InputStream schemaStream = getClass().getResourceAsStream("/shemas/course.json");
+        assertNotNull(schemaStream, "Не удалось найти файл схемы course.json");
+        JsonNode schemaNode = objectMapper.readTree(schemaStream);
+
+        List<String> examples = SchemaToJsonService.generateJsonFromSchema(schemaNode, 500);
+
+        assertEquals(500, examples.size());
+        for (String example : examples) {
+            JsonNode generated = objectMapper.readTree(example);
+            assertTrue(generated.get("courseId").asText().matches("^[A-Z0-9]{8}$"));
+        }
+    }
+
+    @Test
+    void generateJsonFromSchema_withInvalidCount_shouldThrowException() {
+        JsonNode schemaNode = objectMapper.createObjectNode();
+        assertThrows(IllegalArgumentException.class, () -> SchemaToJsonService.generateJsonFromSchema(schemaNode, 0));
+    }
+
+    @Test
+    void compiledSchema_shouldGenerateSameShapeAsGenerateFieldValue() throws Exception {
+        JsonNode schemaNode = objectMapper.readTree("""
+                {
+                  "type": "object",
+                  "properties": {
+                    "code": { "type": "string", "pattern": "^[A-F]{3}-[0-9]{2}$" },
+                    "status": { "type": "string", "enum": ["NEW", "DONE"] },
+                    "amount": { "type": "integer", "minimum": 5, "maximum": 7 },
+                    "mail": { "type": "string", "format": "email" },
+                    "items": { "type": "array", "items": { "type": "string" } }
+                  }
+                }
+                """);
+
+        CompiledSchema compiled = CompiledSchema.compile(schemaNode, null);
+        for (JsonNode generated : compiled.generate(200)) {
+            assertTrue(generated.get("code").asText().matches("[A-F]{3}-[0-9]{2}"));
+            assertTrue(Set.of("NEW", "DONE").contains(generated.get("status").asText()));
+            int amount = generated.get("amount").asInt();
+            assertTrue(amount >= 5 && amount <= 7);
+            assertEquals("example@example.com", generated.get("mail").asText());
+            assertEquals("example_items_0", generated.get("items").get(0).asText());
+        }
+
+        JsonNode single = SchemaToJsonService.generateFieldValue(schemaNode, "root", null);
+        Set<String> fields = new HashSet<>();
+        single.fieldNames().forEachRemaining(fields::add);
+        assertEquals(Set.of("code", "status", "amount", "mail", "items"), fields);
+    }
+
+    @Test
+    void compiledSchema_shouldReuseCompiledPattern() {
+        assertSame(CompiledSchema.compilePattern("^[a-z]{4}$"), CompiledSchema.compilePattern("[a-z]{4}"));
+    }
+
+    @Test
+    void generateJsonFromSchema_withSeed_shouldBeReproducible() throws Exception {
+        InputStream schemaStream = getClass().getResourceAsStream("/shemas/course.json");
+        assertNotNull(schemaStream, "Не удалось найти файл схемы course.json");
+        JsonNode schemaNode = objectMapper.readTree(schemaStream);
+
+        List<String> first = SchemaToJsonService.generateJsonFromSchema(schemaNode, 1000, 42L);
+        List<String> second = SchemaToJsonService.generateJsonFromSchema(schemaNode, 1000, 42L);
+        List<String> other = SchemaToJsonService.generateJsonFromSchema(schemaNode, 1000, 43L);
+
+        assertEquals(first, second, "При одинаковом seed примеры должны совпадать");
+        assertNotEquals(first, other, "При разных seed примеры должны отличаться");
+    }
+
+    @Test
+    void generateGraphJson_withSeed_shouldBeReproducible() throws Exception {
+        InputStream schemaStream = getClass().getResourceAsStream("/shemas/consume_one_event_service_shema.json");
+        assertNotNull(schemaStream);
+        JsonNode schemaNode = objectMapper.readTree(schemaStream);
+
+        assertEquals(SchemaToJsonService.generateJsonFromSchema(schemaNode, 3, 7L),
+                SchemaToJsonService.generateJsonFromSchema(schemaNode, 3, 7L));
+    }
+
+    @Test
+    void generationContext_forkShouldDependOnlyOnSeedAndIndex() {
+        GenerationContext first = GenerationContext.create(5L).fork(3);
+        GenerationContext second = GenerationContext.create(5L).fork(3);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextInt(1000), second.nextInt(1000));
+        }
+        assertEquals(first.randomUUID(), second.randomUUID());
+        assertEquals(first.faker().lorem().word(), second.faker().lorem().word());
+    }
+
+    @Test
+    void streamExamples_shouldProduceNdjsonMatchingBulkGeneration() throws Exception {
+        InputStream schemaStream = getClass().getResourceAsStream("/shemas/book.json");
+        assertNotNull(schemaStream);
+        JsonNode schemaNode = objectMapper.readTree(schemaStream);
+
+        List<String> lines;
+        try (InputStream ndjson = SchemaToJsonService.streamExamples(schemaNode, 1000, 11L, false)) {
+            lines = new String(ndjson.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8).lines().toList();
+        }
+
+        List<String> expected = CompiledSchema.compile(schemaNode, null).generate(1000, 11L).stream()
+                .map(JsonNode::toString)
+                .toList();
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    void streamExamples_withGzip_shouldProduceCompressedNdjson() throws Exception {
+        JsonNode schemaNode = objectMapper.readTree("""
+                {"type": "object", "properties": {"id": {"type": "integer"}, "name": {"type": "string"}}}
+                """);
+
+        long lineCount;
+        try (InputStream gzip = SchemaToJsonService.streamExamples(schemaNode, 5000, null, true);
+             java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(
+                     new java.util.zip.GZIPInputStream(gzip), java.nio.charset.StandardCharsets.UTF_8))) {
+            lineCount = reader.lines()
+                    .peek(line -> assertTrue(line.startsWith("{\"id\":")))
+                    .count();
+        }
+        assertEquals(5000, lineCount);
+    }
 }
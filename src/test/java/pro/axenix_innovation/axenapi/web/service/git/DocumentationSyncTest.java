@@ -0,0 +1,162 @@
+package pro.axenix_innovation.axenapi.web.service.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentationSyncTest {
+
+    private static final PersonIdent AUTHOR = new PersonIdent("docs", "docs@example.com");
+
+    @TempDir
+    Path tmp;
+
+    private Path remoteDir;
+    private String remoteUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        remoteDir = tmp.resolve("remote");
+        try (Git remote = Git.init().setDirectory(remoteDir.toFile()).setInitialBranch("develop").call()) {
+            Files.createDirectories(remoteDir.resolve("docs"));
+            for (int i = 0; i < 3; i++) {
+                Files.writeString(remoteDir.resolve("other" + i + ".txt"), "other " + i);
+                Files.writeString(remoteDir.resolve("docs/readme.md"), "version " + i);
+                remote.add().addFilepattern(".").call();
+                remote.commit().setMessage("commit " + i).setAuthor(AUTHOR).setCommitter(AUTHOR).call();
+            }
+        }
+        remoteUrl = remoteDir.toUri().toString();
+    }
+
+    @Test
+    void testOneCommitOnTopOfShallowFetch() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put(DocumentationSync.resolvePath("docs", "readme.md"), bytes("generated"));
+        files.put(DocumentationSync.resolvePath("docs", "section1/service.md"), bytes("service"));
+
+        try (Repository repository = DocumentationSync.openRepository(tmp.resolve("sync.git").toFile())) {
+            DocumentationSync.fetch(repository, remoteUrl, "develop", 1, null);
+            assertTrue(Files.isRegularFile(tmp.resolve("sync.git/shallow")));
+
+            DocumentationSync.Commit commit = DocumentationSync.commit(repository, "develop", "docs-1", files,
+                    AUTHOR, "Update documentation");
+            assertEquals(List.of("docs/readme.md", "docs/section1/service.md"), commit.paths());
+
+            DocumentationSync.push(repository, remoteUrl, "docs-1", null);
+            assertNull(repository.exactRef("refs/heads/docs-1"));
+        }
+
+        try (Git remote = Git.open(remoteDir.toFile()); RevWalk walk = new RevWalk(remote.getRepository())) {
+            RevCommit pushed = walk.parseCommit(remote.getRepository().resolve("refs/heads/docs-1"));
+            assertEquals(remote.getRepository().resolve("refs/heads/develop"), pushed.getParent(0).getId());
+            assertEquals("Update documentation", pushed.getFullMessage());
+            assertEquals(Map.of(
+                    "docs/readme.md", "generated",
+                    "docs/section1/service.md", "service",
+                    "other0.txt", "other 0",
+                    "other1.txt", "other 1",
+                    "other2.txt", "other 2"), tree(remote.getRepository(), pushed));
+        }
+    }
+
+    @Test
+    void testNoCommitWithoutChanges() throws Exception {
+        try (Repository repository = DocumentationSync.openRepository(tmp.resolve("sync.git").toFile())) {
+            DocumentationSync.fetch(repository, remoteUrl, "develop", 1, null);
+
+            assertNull(DocumentationSync.commit(repository, "develop", "docs-1",
+                    Map.of("docs/readme.md", bytes("version 2")), AUTHOR, "Nothing"));
+            assertNull(repository.exactRef("refs/heads/docs-1"));
+        }
+    }
+
+    @Test
+    void testRejectedPushFailsAndRemovesLocalBranch() throws Exception {
+        // в удаленном репозитории уже есть ветка docs-1 с другой историей
+        try (Git remote = Git.open(remoteDir.toFile())) {
+            remote.checkout().setCreateBranch(true).setName("docs-1").call();
+            Files.writeString(remoteDir.resolve("docs/readme.md"), "foreign");
+            remote.commit().setAll(true).setMessage("foreign").setAuthor(AUTHOR).setCommitter(AUTHOR).call();
+            remote.checkout().setName("develop").call();
+        }
+
+        try (Repository repository = DocumentationSync.openRepository(tmp.resolve("sync.git").toFile())) {
+            DocumentationSync.fetch(repository, remoteUrl, "develop", 1, null);
+            DocumentationSync.commit(repository, "develop", "docs-1",
+                    Map.of("docs/readme.md", bytes("generated")), AUTHOR, "Update documentation");
+
+            IOException e = assertThrows(IOException.class,
+                    () -> DocumentationSync.push(repository, remoteUrl, "docs-1", null));
+            assertTrue(e.getMessage().contains("REJECTED_NONFASTFORWARD"), e.getMessage());
+            assertNull(repository.exactRef("refs/heads/docs-1"));
+        }
+    }
+
+    @Test
+    void testDeleteRemoteBranch() throws Exception {
+        try (Repository repository = DocumentationSync.openRepository(tmp.resolve("sync.git").toFile())) {
+            DocumentationSync.fetch(repository, remoteUrl, "develop", 1, null);
+            DocumentationSync.commit(repository, "develop", "docs-1",
+                    Map.of("docs/readme.md", bytes("generated")), AUTHOR, "Update documentation");
+            DocumentationSync.push(repository, remoteUrl, "docs-1", null);
+
+            DocumentationSync.deleteRemoteBranch(repository, remoteUrl, "docs-1", null);
+            // повторное удаление отсутствующей ветки не ошибка
+            DocumentationSync.deleteRemoteBranch(repository, remoteUrl, "docs-1", null);
+        }
+        try (Git remote = Git.open(remoteDir.toFile())) {
+            assertNull(remote.getRepository().exactRef("refs/heads/docs-1"));
+        }
+    }
+
+    @Test
+    void testResolvePath() {
+        assertEquals("docs/a/b.md", DocumentationSync.resolvePath("/docs/", "./a//b.md"));
+        assertEquals("a/b.md", DocumentationSync.resolvePath("", "a\\b.md"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "/etc/passwd", "../secret.md", "a/../../b.md", ".git/config", ".GIT/config",
+            "docs/.Git/x", "."})
+    void testResolvePathRejectsOutsideOfRoot(String path) {
+        assertThrows(IllegalArgumentException.class, () -> DocumentationSync.resolvePath("docs", path));
+    }
+
+    private static Map<String, String> tree(Repository repository, RevCommit commit) throws Exception {
+        Map<String, String> files = new HashMap<>();
+        try (TreeWalk walk = new TreeWalk(repository)) {
+            walk.addTree(commit.getTree());
+            walk.setRecursive(true);
+            while (walk.next()) {
+                ObjectId id = walk.getObjectId(0);
+                files.put(walk.getPathString(), new String(repository.open(id).getBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
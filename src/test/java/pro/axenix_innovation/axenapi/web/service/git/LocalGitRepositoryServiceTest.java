@@ -0,0 +1,93 @@
+package pro.axenix_innovation.axenapi.web.service.git;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import pro.axenix_innovation.axenapi.web.entity.GitRepo;
+import pro.axenix_innovation.axenapi.web.entity.GitRepoType;
+import pro.axenix_innovation.axenapi.web.service.GitRepositoryService;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocalGitRepositoryServiceTest {
+
+    private final GitRepositoryService gitRepositoryService = mock(GitRepositoryService.class);
+    private final LocalGitRepositoryService service = new LocalGitRepositoryService(gitRepositoryService);
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void testSessionIsCachedWithinTtl() {
+        when(gitRepositoryService.getDocumentationGitRepository())
+                .thenReturn(repo("https://gitlab.example.com/docs/articles", "token"));
+
+        assertEquals("https://gitlab.example.com/docs/articles", service.getRepositoryUrl());
+        assertEquals("token", service.getRepositoryToken());
+        assertSame(service.getGitLabApi(), service.getGitLabApi());
+        assertEquals("https://gitlab.example.com", service.getGitLabApi().getGitLabServerUrl());
+
+        verify(gitRepositoryService, times(1)).getDocumentationGitRepository();
+    }
+
+    @Test
+    void testSessionIsRecreatedAfterTtl() {
+        ReflectionTestUtils.setField(service, "sessionTtl", Duration.ZERO);
+        when(gitRepositoryService.getDocumentationGitRepository())
+                .thenReturn(repo("https://gitlab.example.com/docs/articles", "old"))
+                .thenReturn(repo("https://gitlab.example.com/docs/articles", "new"));
+
+        assertEquals("old", service.getRepositoryToken());
+        assertEquals("new", service.getRepositoryToken());
+    }
+
+    @Test
+    void testMissingRepositorySettings() {
+        when(gitRepositoryService.getDocumentationGitRepository()).thenReturn(null);
+
+        assertThrows(RuntimeException.class, service::getRepositoryUrl);
+    }
+
+    @Test
+    void testFlowHoldsWorkTreeUntilEnded() throws Exception {
+        service.withWorkTree(() -> {
+            service.beginFlow();
+            return null;
+        });
+        // клонирование для другой цепочки отклоняется, пока первая не создала merge request
+        assertThrows(IllegalStateException.class, () -> service.withWorkTree(() -> {
+            service.beginFlow();
+            return null;
+        }));
+
+        service.withWorkTree(() -> {
+            service.endFlow();
+            service.beginFlow();
+            return null;
+        });
+    }
+
+    @Test
+    void testExpiredFlowIsReleased() throws Exception {
+        ReflectionTestUtils.setField(service, "flowLease", Duration.ZERO);
+        service.withWorkTree(() -> {
+            service.beginFlow();
+            service.beginFlow();
+            return null;
+        });
+    }
+
+    @Test
+    void testFlowRequiresWorkTreeLock() {
+        assertThrows(IllegalStateException.class, service::beginFlow);
+    }
+
+    private static GitRepo repo(String url, String token) {
+        return new GitRepo(null, token, url, GitRepoType.DOCUMENTATION);
+    }
+}
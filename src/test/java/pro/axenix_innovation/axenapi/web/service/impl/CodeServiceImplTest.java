@@ -7,15 +7,15 @@ import org.mockito.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.test.util.ReflectionTestUtils;
 import pro.axenix_innovation.axenapi.web.entity.ServiceCode;
+import pro.axenix_innovation.axenapi.web.generate.CodeArtifactCache;
+import pro.axenix_innovation.axenapi.web.generate.CodeGenerationSink;
 import pro.axenix_innovation.axenapi.web.generate.CodeGenerator;
 import pro.axenix_innovation.axenapi.web.model.*;
 import pro.axenix_innovation.axenapi.web.repository.ServiceCodeRepository;
 import pro.axenix_innovation.axenapi.web.service.MessageHelper;
 
 import java.io.*;
-import java.lang.reflect.Method;
 import java.nio.file.*;
 import java.time.Instant;
 import java.util.*;
@@ -45,8 +45,7 @@ class CodeServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper);
-        codeService.exportCodeDirectory = tempDir.resolve("testdir").toString();
+        codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper, new CodeArtifactCache(16));
     }
 
     @Test
@@ -61,26 +60,34 @@ class CodeServiceImplTest {
         EventGraphDTO graph = new EventGraphDTO();
         graph.setNodes(List.of(serviceNode));
 
-        Path generatedFile = tempDir.resolve("testdir").resolve("TestService.java");
-        Files.createDirectories(generatedFile.getParent());
-        Files.writeString(generatedFile, "public class TestService {}");
-
         doAnswer(invocation -> {
-            Files.writeString(tempDir.resolve("testdir").resolve("TestService.java"), "class TestService {}");
+            CodeGenerationSink sink = invocation.getArgument(1);
+            sink.addFile("TestService/TestService.java",
+                    new ByteArrayInputStream("class TestService {}".getBytes()));
             return null;
-        }).when(codeGenerator).generateCode(any(), eq(tempDir.resolve("testdir").toString()));
+        }).when(codeGenerator).generateCode(anyList(), any(CodeGenerationSink.class));
 
+        ArgumentCaptor<ServiceCode> captor = ArgumentCaptor.forClass(ServiceCode.class);
         ServiceCode mockCode = new ServiceCode();
         mockCode.setServiceCodeFile(new byte[]{1, 2, 3});
-        when(serviceCodeRepository.save(any())).thenReturn(mockCode);
+        when(serviceCodeRepository.save(captor.capture())).thenReturn(mockCode);
 
         byte[] result = codeService.generateCode(graph);
 
         assertNotNull(result);
         assertArrayEquals(new byte[]{1, 2, 3}, result);
-        verify(codeGenerator, times(1)).generateCode(any(), eq(tempDir.resolve("testdir").toString()));
+        verify(codeGenerator, times(1)).generateCode(anyList(), any(CodeGenerationSink.class));
         verify(serviceCodeRepository, times(1)).save(any());
-        assertFalse(Files.exists(generatedFile));
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(
+                new ByteArrayInputStream(captor.getValue().getServiceCodeFile()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(List.of("TestService/TestService.java"), entries);
     }
 
     @Test
@@ -118,9 +125,6 @@ class CodeServiceImplTest {
         EventGraphDTO graph = new EventGraphDTO();
         graph.setNodes(List.of(serviceNode));
 
-        Path generatedFile = Files.createFile(tempDir.resolve("TestService.txt"));
-        Files.writeString(generatedFile, "test content");
-
         ServiceCode savedCode = new ServiceCode();
         savedCode.setId("1");
         savedCode.setServiceCodeFile("dummy zip".getBytes());
@@ -130,7 +134,7 @@ class CodeServiceImplTest {
         byte[] result = codeService.generateCode(graph);
 
         assertArrayEquals("dummy zip".getBytes(), result);
-        verify(codeGenerator).generateCode(anyList(), anyString());
+        verify(codeGenerator).generateCode(anyList(), any(CodeGenerationSink.class));
         verify(serviceCodeRepository).save(any(ServiceCode.class));
     }
 
@@ -148,13 +152,12 @@ class CodeServiceImplTest {
         serviceCode.setServiceCodeFile("empty".getBytes());
 
         when(serviceCodeRepository.save(any())).thenReturn(serviceCode);
-        ReflectionTestUtils.setField(codeService, "exportCodeDirectory", tempDir.toString());
 
         byte[] result = codeService.generateCode(graph);
 
         assertNotNull(result);
         assertArrayEquals("empty".getBytes(), result);
-        verify(codeGenerator).generateCode(eq(List.of()), eq(tempDir.toString()));
+        verify(codeGenerator, never()).generateCode(anyList(), any(CodeGenerationSink.class));
     }
 
 
@@ -206,60 +209,191 @@ class CodeServiceImplTest {
         serviceCode.setServiceCodeFile("some content".getBytes());
 
         when(serviceCodeRepository.save(any())).thenReturn(serviceCode);
-        ReflectionTestUtils.setField(codeService, "exportCodeDirectory", tempDir.toString());
 
         byte[] result = codeService.generateCode(graph);
 
         assertNotNull(result);
         verify(codeGenerator).generateCode(argThat(list ->
                 list.size() == 1 && list.get(0).getName().equals("ServiceNode")
-        ), eq(tempDir.toString()));
+        ), any(CodeGenerationSink.class));
 
     }
 
     @Test
-    void generateCode_ShouldCreateExportDirectory() throws IOException {
-        Files.deleteIfExists(tempDir);
+    void generateCode_ConcurrentRequestsShouldNotShareEntries() throws Exception {
+        doAnswer(invocation -> {
+            List<ServiceInfo> infos = invocation.getArgument(0);
+            CodeGenerationSink sink = invocation.getArgument(1);
+            for (ServiceInfo info : infos) {
+                sink.addFile(info.getName() + "/Main.java", new ByteArrayInputStream(info.getName().getBytes()));
+            }
+            return null;
+        }).when(codeGenerator).generateCode(anyList(), any(CodeGenerationSink.class));
+        when(serviceCodeRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        EventGraphDTO graph = new EventGraphDTO();
-        graph.setNodes(List.of(
-                NodeDTO.builder()
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(4);
+        try {
+            List<java.util.concurrent.Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String name = "Service" + i;
+                EventGraphDTO graph = new EventGraphDTO();
+                graph.setNodes(List.of(NodeDTO.builder()
                         .id(UUID.randomUUID())
-                        .name("ServiceNode")
+                        .name(name)
                         .type(NodeDTO.TypeEnum.SERVICE)
-                        .build()
-        ));
+                        .build()));
+                futures.add(executor.submit(() -> codeService.generateCode(graph)));
+            }
 
-        when(serviceCodeRepository.save(any())).thenReturn(new ServiceCode());
+            for (int i = 0; i < futures.size(); i++) {
+                List<String> entries = new ArrayList<>();
+                try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(futures.get(i).get()))) {
+                    ZipEntry entry;
+                    while ((entry = zis.getNextEntry()) != null) {
+                        entries.add(entry.getName());
+                    }
+                }
+                assertEquals(List.of("Service" + i + "/Main.java"), entries);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void generateCode_ShouldReuseCachedArtifactsForUnchangedServices() throws IOException {
+        doAnswer(invocation -> {
+            List<ServiceInfo> infos = invocation.getArgument(0);
+            CodeGenerationSink sink = invocation.getArgument(1);
+            ServiceInfo info = infos.get(0);
+            assertTrue(Files.exists(Path.of(info.getSpecificationPath())), "Спецификация должна быть записана в файл");
+            sink.addFile(info.getName() + "/Main.java", new ByteArrayInputStream(info.getName().getBytes()));
+            return null;
+        }).when(codeGenerator).generateCode(anyList(), any(CodeGenerationSink.class));
+        ArgumentCaptor<ServiceCode> captor = ArgumentCaptor.forClass(ServiceCode.class);
+        when(serviceCodeRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NodeDTO first = NodeDTO.builder().id(UUID.randomUUID()).name("First").type(NodeDTO.TypeEnum.SERVICE).build();
+        NodeDTO second = NodeDTO.builder().id(UUID.randomUUID()).name("Second").type(NodeDTO.TypeEnum.SERVICE).build();
+        EventGraphDTO graph = new EventGraphDTO();
+        graph.setNodes(List.of(first, second));
 
         codeService.generateCode(graph);
+        codeService.generateCode(graph);
+
+        verify(codeGenerator, times(2)).generateCode(anyList(), any(CodeGenerationSink.class));
 
-        assertTrue(Files.exists(tempDir), "Директория должна быть создана методом prepareCodeDirectory");
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(captor.getValue().getServiceCodeFile()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(List.of("First/Main.java", "Second/Main.java"), entries);
+
+        NodeDTO renamed = NodeDTO.builder().id(second.getId()).name("Third").type(NodeDTO.TypeEnum.SERVICE).build();
+        EventGraphDTO changed = new EventGraphDTO();
+        changed.setNodes(List.of(first, renamed));
+
+        codeService.generateCode(changed);
+
+        verify(codeGenerator, times(3)).generateCode(anyList(), any(CodeGenerationSink.class));
+        verify(codeGenerator).generateCode(argThat(list -> list.get(0).getName().equals("Third")),
+                any(CodeGenerationSink.class));
     }
 
     @Test
-    void generateCode_ShouldCleanDirectoryBeforeGeneration() throws Exception {
-        Path junkFile = Files.createFile(tempDir.resolve("old.txt"));
-        Files.writeString(junkFile, "old content");
+    void generateCode_ShouldNotCacheEmptyGenerationResult() {
+        when(serviceCodeRepository.save(any())).thenReturn(new ServiceCode());
 
         EventGraphDTO graph = new EventGraphDTO();
-        graph.setNodes(List.of(
-                NodeDTO.builder()
-                        .id(UUID.randomUUID())
-                        .name("ServiceNode")
-                        .type(NodeDTO.TypeEnum.SERVICE)
-                        .build()
-        ));
+        graph.setNodes(List.of(NodeDTO.builder()
+                .id(UUID.randomUUID())
+                .name("Broken")
+                .type(NodeDTO.TypeEnum.SERVICE)
+                .build()));
 
-        when(serviceCodeRepository.save(any())).thenReturn(new ServiceCode());
+        codeService.generateCode(graph);
+        codeService.generateCode(graph);
 
-        Method prepareCodeDirectoryMethod = CodeServiceImpl.class.getDeclaredMethod("prepareCodeDirectory", String.class);
-        prepareCodeDirectoryMethod.setAccessible(true);
-        prepareCodeDirectoryMethod.invoke(codeService, tempDir.toString());
+        verify(codeGenerator, times(2)).generateCode(anyList(), any(CodeGenerationSink.class));
+    }
 
+    @Test
+    void codeArtifactCache_ShouldDependOnGenerationOptions() {
+        ServiceInfo info = new ServiceInfo("spec.json", "8080", "Service", "localhost:9092");
+        ServiceInfo otherPort = new ServiceInfo("spec.json", "8081", "Service", "localhost:9092");
+        ServiceInfo otherBroker = new ServiceInfo("spec.json", "8080", "Service", "localhost:9093");
+
+        assertEquals(CodeArtifactCache.key("{}", info), CodeArtifactCache.key("{}", info));
+        assertNotEquals(CodeArtifactCache.key("{}", info), CodeArtifactCache.key("{}", otherPort));
+        assertNotEquals(CodeArtifactCache.key("{}", info), CodeArtifactCache.key("{}", otherBroker));
+        assertNotEquals(CodeArtifactCache.key("{}", info), CodeArtifactCache.key("{\"a\":1}", info));
+    }
+
+    @Test
+    void generateCode_ShouldRegenerateServicesWhosePortChanged() throws IOException {
+        doAnswer(invocation -> {
+            List<ServiceInfo> infos = invocation.getArgument(0);
+            ServiceInfo info = infos.get(0);
+            CodeGenerationSink sink = invocation.getArgument(1);
+            sink.addFile(info.getName() + "/application.yml",
+                    new ByteArrayInputStream(("server.port: " + info.getPort()).getBytes()));
+            return null;
+        }).when(codeGenerator).generateCode(anyList(), any(CodeGenerationSink.class));
+        ArgumentCaptor<ServiceCode> captor = ArgumentCaptor.forClass(ServiceCode.class);
+        when(serviceCodeRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NodeDTO orders = NodeDTO.builder().id(UUID.randomUUID()).name("Orders").type(NodeDTO.TypeEnum.SERVICE).build();
+        NodeDTO billing = NodeDTO.builder().id(UUID.randomUUID()).name("Billing").type(NodeDTO.TypeEnum.SERVICE).build();
+        EventGraphDTO graph = new EventGraphDTO();
+        graph.setNodes(List.of(orders, billing));
         codeService.generateCode(graph);
+        assertEquals(Map.of("Orders/application.yml", "server.port: 88", "Billing/application.yml", "server.port: 89"),
+                zipContents(captor.getValue().getServiceCodeFile()));
 
-        assertFalse(Files.exists(junkFile), "prepareCodeDirectory должна очистить старые файлы");
+        // повторная генерация с теми же портами берется из кэша
+        codeService.generateCode(graph);
+        verify(codeGenerator, times(2)).generateCode(anyList(), any(CodeGenerationSink.class));
+
+        // новый сервис в начале сдвигает порты, код остальных генерируется заново с новыми портами
+        NodeDTO audit = NodeDTO.builder().id(UUID.randomUUID()).name("Audit").type(NodeDTO.TypeEnum.SERVICE).build();
+        EventGraphDTO extended = new EventGraphDTO();
+        extended.setNodes(List.of(audit, orders, billing));
+        codeService.generateCode(extended);
+
+        verify(codeGenerator, times(5)).generateCode(anyList(), any(CodeGenerationSink.class));
+        assertEquals(Map.of(
+                        "Audit/application.yml", "server.port: 88",
+                        "Orders/application.yml", "server.port: 89",
+                        "Billing/application.yml", "server.port: 90"),
+                zipContents(captor.getValue().getServiceCodeFile()));
+    }
+
+    private static Map<String, String> zipContents(byte[] zip) throws IOException {
+        Map<String, String> contents = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                contents.put(entry.getName(), new String(zis.readAllBytes()));
+            }
+        }
+        return contents;
+    }
+
+    @Test
+    void codeArtifactCache_ShouldEvictLeastRecentlyUsed() {
+        CodeArtifactCache cache = new CodeArtifactCache(2);
+        cache.put("a", Map.of("a.txt", new byte[]{1}));
+        cache.put("b", Map.of("b.txt", new byte[]{2}));
+        cache.get("a");
+        cache.put("c", Map.of("c.txt", new byte[]{3}));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
     }
 
     @Test
@@ -290,7 +424,7 @@ class CodeServiceImplTest {
 
         Files.write(tempFile, "Test content".getBytes());
 
-        CodeServiceImpl codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper);
+        CodeServiceImpl codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper, new CodeArtifactCache(16));
 
         byte[] zipBytes = codeService.packToZip(tempDir);
 
@@ -308,7 +442,7 @@ class CodeServiceImplTest {
 
         Files.write(tempFile, "Test content".getBytes());
 
-        CodeServiceImpl codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper);
+        CodeServiceImpl codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper, new CodeArtifactCache(16));
 
         byte[] zipBytes = codeService.packToZip(tempDir);
 
@@ -326,7 +460,7 @@ class CodeServiceImplTest {
     void shouldReturnEmptyZipWhenNoFilesInDirectory() throws IOException {
         Path tempDir = Files.createTempDirectory("emptyDir");
 
-        CodeServiceImpl codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper);
+        CodeServiceImpl codeService = new CodeServiceImpl(serviceCodeRepository, codeGenerator, messageHelper, new CodeArtifactCache(16));
 
         byte[] zipBytes = codeService.packToZip(tempDir);
 
@@ -336,7 +470,7 @@ class CodeServiceImplTest {
     }
 
 
-    CodeServiceImpl service = new CodeServiceImpl(null, null, messageHelper);
+    CodeServiceImpl service = new CodeServiceImpl(null, null, messageHelper, null);
 
     @Test
     void testPackToZipCreatesValidZip() throws IOException {
@@ -416,7 +550,7 @@ class CodeServiceImplTest {
 
         Files.deleteIfExists(badFile);
 
-        CodeServiceImpl service = new CodeServiceImpl(null, null, messageHelper);
+        CodeServiceImpl service = new CodeServiceImpl(null, null, messageHelper, null);
 
         try {
             log.info("Пытаемся создать ZIP архив из директории: {}", tempDir);
@@ -509,7 +643,7 @@ class CodeServiceImplTest {
 
         Files.delete(problematicFile);
 
-        CodeServiceImpl codeService = new CodeServiceImpl(null, null, messageHelper);
+        CodeServiceImpl codeService = new CodeServiceImpl(null, null, messageHelper, null);
         byte[] zipBytes = codeService.packToZip(tempDir);
 
         try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
@@ -537,7 +671,7 @@ class CodeServiceImplTest {
         Path tempDir = Files.createTempDirectory("code-test");
         Files.delete(tempDir);
 
-        CodeServiceImpl codeService = new CodeServiceImpl(null, null, messageHelper);
+        CodeServiceImpl codeService = new CodeServiceImpl(null, null, messageHelper, null);
         byte[] zipBytes = codeService.packToZip(tempDir);
 
         assertNotNull(zipBytes);
@@ -551,7 +685,7 @@ class CodeServiceImplTest {
         Files.writeString(subDir.resolve("file.txt"), "test content");
         Files.writeString(tempDir.resolve("file2.txt"), "other content");
 
-        CodeServiceImpl codeService = new CodeServiceImpl(null, null, messageHelper);
+        CodeServiceImpl codeService = new CodeServiceImpl(null, null, messageHelper, null);
 
         byte[] zipBytes = codeService.packToZip(tempDir);
 
@@ -0,0 +1,50 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JacksonMappersTest {
+
+    @Test
+    void returnsSharedInstances() {
+        assertSame(JacksonMappers.json(), JacksonMappers.json());
+        assertSame(JacksonMappers.yaml(), JacksonMappers.yaml());
+        assertSame(JacksonMappers.json(), JacksonMappers.forFileName("spec.json"));
+        assertSame(JacksonMappers.yaml(), JacksonMappers.forFileName("spec.yaml"));
+        assertSame(JacksonMappers.yaml(), JacksonMappers.forFileName("spec.yml"));
+        assertSame(JacksonMappers.yamlFactory(), JacksonMappers.factoryForFileName("spec.yml"));
+        assertSame(JacksonMappers.jsonFactory(), JacksonMappers.factoryForFileName("spec.json"));
+    }
+
+    @Test
+    void readsYamlLargerThanDefaultCodePointLimit() throws Exception {
+        // по умолчанию SnakeYAML отклоняет документы больше 3 МБ
+        String description = "x".repeat(4 * 1024 * 1024);
+        String yaml = "openapi: 3.0.1\ninfo:\n  title: big\n  description: " + description + "\n";
+
+        JsonNode root = JacksonMappers.yaml().readTree(yaml);
+
+        assertEquals(description.length(), root.path("info").path("description").asText().length());
+    }
+
+    @Test
+    void readsJsonStringLongerThanDefaultLimit() throws Exception {
+        String value = "y".repeat(25_000_000);
+
+        JsonNode root = JacksonMappers.json().readTree("{\"example\":\"" + value + "\"}");
+
+        assertEquals(value.length(), root.path("example").asText().length());
+    }
+
+    @Test
+    void tuneAppliesReadConstraints() {
+        ObjectMapper mapper = JacksonMappers.tune(new ObjectMapper());
+
+        assertEquals(JacksonMappers.MAX_STRING_LENGTH,
+                mapper.getFactory().streamReadConstraints().getMaxStringLength());
+    }
+}
@@ -0,0 +1,161 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPatchTest {
+
+    private static final List<String> GRAPHS = List.of(
+            "consume_one_event_service",
+            "consume_three_events_from_different_brokers_service",
+            "consume_two_events_in_one_topic",
+            "http_request_processing_service",
+            "service_no_common_consume_topics_common_events_common_outgoing_topics",
+            "empty_service");
+
+    static Stream<Arguments> graphPairs() {
+        List<Arguments> pairs = new ArrayList<>();
+        for (String source : GRAPHS) {
+            for (String target : GRAPHS) {
+                pairs.add(Arguments.of(source, target));
+            }
+        }
+        return pairs.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphPairs")
+    void testDiffThenApplyGivesTarget(String sourceName, String targetName) throws Exception {
+        JsonNode source = graph(sourceName);
+        JsonNode target = graph(targetName);
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals(target, JsonPatch.apply(source, patch));
+        assertEquals(graph(sourceName), source, "apply must not modify the source document");
+        if (sourceName.equals(targetName)) {
+            assertTrue(patch.isEmpty());
+        }
+    }
+
+    @Test
+    void testArraysWithIdsAreDiffedByElement() throws Exception {
+        JsonNode source = json("{\"nodes\":[{\"id\":\"a\",\"name\":\"A\"},{\"id\":\"b\",\"name\":\"B\"},"
+                + "{\"id\":\"c\",\"name\":\"C\"}]}");
+        JsonNode target = json("{\"nodes\":[{\"id\":\"a\",\"name\":\"A\"},{\"id\":\"c\",\"name\":\"C2\"},"
+                + "{\"id\":\"d\",\"name\":\"D\"}]}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals(json("[{\"op\":\"remove\",\"path\":\"/nodes/1\"},"
+                + "{\"op\":\"replace\",\"path\":\"/nodes/1/name\",\"value\":\"C2\"},"
+                + "{\"op\":\"add\",\"path\":\"/nodes/2\",\"value\":{\"id\":\"d\",\"name\":\"D\"}}]"), patch);
+        assertEquals(target, JsonPatch.apply(source, patch));
+    }
+
+    @Test
+    void testReorderedElementsAreMoved() throws Exception {
+        JsonNode source = json("{\"events\":[{\"id\":\"a\"},{\"id\":\"b\"},{\"id\":\"c\"}]}");
+        JsonNode target = json("{\"events\":[{\"id\":\"c\"},{\"id\":\"a\"},{\"id\":\"b\"}]}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals(1, patch.size());
+        assertEquals("move", patch.get(0).get("op").asText());
+        assertEquals(target, JsonPatch.apply(source, patch));
+    }
+
+    @Test
+    void testShuffledArrayWithRemovalsAndAdditions() {
+        Random random = new Random(42);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            ids.add(i);
+        }
+        ArrayNode sourceNodes = JsonNodeFactory.instance.arrayNode();
+        ids.forEach(id -> sourceNodes.addObject().put("id", "n" + id).put("value", id));
+        Collections.shuffle(ids, random);
+        ArrayNode targetNodes = JsonNodeFactory.instance.arrayNode();
+        for (int id : ids.subList(0, 1_500)) {
+            targetNodes.addObject().put("id", "n" + id).put("value", id % 7 == 0 ? -id : id);
+        }
+        for (int id = 2_000; id < 2_300; id++) {
+            targetNodes.insertObject(random.nextInt(targetNodes.size() + 1)).put("id", "n" + id).put("value", id);
+        }
+        ObjectNode source = JsonNodeFactory.instance.objectNode().set("nodes", sourceNodes);
+        ObjectNode target = JsonNodeFactory.instance.objectNode().set("nodes", targetNodes);
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals(target, JsonPatch.apply(source, patch));
+    }
+
+    @Test
+    void testPointerEscaping() throws Exception {
+        JsonNode source = json("{\"a/b\":1,\"c~d\":2}");
+        JsonNode target = json("{\"a/b\":3,\"c~d\":4}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals("/a~1b", patch.get(0).get("path").asText());
+        assertEquals("/c~0d", patch.get(1).get("path").asText());
+        assertEquals(target, JsonPatch.apply(source, patch));
+    }
+
+    @Test
+    void testApplySupportsAllOperations() throws Exception {
+        JsonNode source = json("{\"tags\":[\"x\"],\"name\":\"g\",\"nodes\":[]}");
+        JsonNode patch = json("[{\"op\":\"test\",\"path\":\"/name\",\"value\":\"g\"},"
+                + "{\"op\":\"add\",\"path\":\"/tags/-\",\"value\":\"y\"},"
+                + "{\"op\":\"copy\",\"from\":\"/name\",\"path\":\"/title\"},"
+                + "{\"op\":\"move\",\"from\":\"/title\",\"path\":\"/label\"},"
+                + "{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"h\"},"
+                + "{\"op\":\"remove\",\"path\":\"/nodes\"}]");
+
+        assertEquals(json("{\"tags\":[\"x\",\"y\"],\"name\":\"h\",\"label\":\"g\"}"), JsonPatch.apply(source, patch));
+    }
+
+    @Test
+    void testApplyRejectsInvalidOperations() throws Exception {
+        JsonNode source = json("{\"nodes\":[{\"id\":\"a\"}]}");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatch.apply(source, json("[{\"op\":\"remove\",\"path\":\"/nodes/1\"}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatch.apply(source, json("[{\"op\":\"replace\",\"path\":\"/missing\",\"value\":1}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatch.apply(source, json("[{\"op\":\"test\",\"path\":\"/nodes/0/id\",\"value\":\"b\"}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatch.apply(source, json("[{\"op\":\"add\",\"path\":\"nodes\",\"value\":1}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatch.apply(source, json("[{\"op\":\"rename\",\"path\":\"/nodes\"}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatch.apply(source, json("{\"op\":\"remove\",\"path\":\"/nodes\"}")));
+    }
+
+    private JsonNode graph(String name) throws Exception {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("results/" + name + ".json")) {
+            assertNotNull(input, name);
+            return JacksonMappers.json().readTree(input);
+        }
+    }
+
+    private static JsonNode json(String content) throws Exception {
+        return JacksonMappers.json().readTree(content);
+    }
+}
@@ -0,0 +1,87 @@
+package pro.axenix_innovation.axenapi.web.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.MessageSource;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAPIParserTest {
+
+    @BeforeEach
+    void setUp() {
+        MessageSource messageSource = Mockito.mock(MessageSource.class);
+        Mockito.when(messageSource.getMessage(Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .thenReturn("stub message");
+        MessageHelper.setStaticMessageSource(messageSource);
+        OpenAPIParser.setCacheSize(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        OpenAPIParser.setCacheSize(64);
+    }
+
+    @Test
+    void testJsonAndYamlProduceTreeAndModel() throws IOException {
+        ParsedSpecification json = OpenAPIParser.parse(read("src/test/resources/validate/complex_service.json"));
+        ParsedSpecification yaml = OpenAPIParser.parse(read("src/test/resources/validate/complex_service.yaml"));
+
+        for (ParsedSpecification parsed : new ParsedSpecification[]{json, yaml}) {
+            assertNotNull(parsed);
+            assertTrue(parsed.isOpenAPI());
+            assertNotNull(parsed.openAPI());
+            assertEquals(parsed.tree().path("info").path("title").asText(), parsed.openAPI().getInfo().getTitle());
+        }
+    }
+
+    @Test
+    void testSameContentIsParsedOnce() throws IOException {
+        String content = read("src/test/resources/validate/complex_service.json");
+
+        ParsedSpecification first = OpenAPIParser.parse(content);
+        ParsedSpecification second = OpenAPIParser.parse(new String(content));
+
+        assertSame(first, second);
+        assertEquals(first.openAPI().getInfo().getTitle(), OpenAPIParser.parseSpecification(content).getInfo().getTitle());
+        assertEquals(1, OpenAPIParser.cacheSize());
+    }
+
+    @Test
+    void testCacheHitReturnsCachedTreeAndModel() throws IOException {
+        String content = read("src/test/resources/validate/complex_service.json");
+        ParsedSpecification parsed = OpenAPIParser.parse(content);
+
+        ParsedSpecification cached = OpenAPIParser.parse(content);
+        assertTrue(cached.hasTree());
+        assertTrue(cached.hasOpenAPI());
+        assertSame(parsed.tree(), cached.tree());
+        assertSame(parsed.openAPI(), cached.openAPI());
+        assertSame(parsed.openAPI(), OpenAPIParser.parseSpecification(content));
+    }
+
+    @Test
+    void testCacheIsBoundedAndSkipsNonSpecifications() throws IOException {
+        String content = read("src/test/resources/validate/complex_service.json");
+        for (int i = 0; i < 10; i++) {
+            OpenAPIParser.parse(content + "\n".repeat(i));
+        }
+        ParsedSpecification graph = OpenAPIParser.parse("{\"name\":\"graph\",\"nodes\":[]}");
+
+        assertEquals(4, OpenAPIParser.cacheSize());
+        assertFalse(graph.isOpenAPI());
+        assertNull(graph.openAPI());
+        assertNull(OpenAPIParser.parse("   "));
+    }
+
+    private static String read(String path) throws IOException {
+        return Files.readString(Path.of(path));
+    }
+}
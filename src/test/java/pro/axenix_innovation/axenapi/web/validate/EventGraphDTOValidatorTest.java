@@ -0,0 +1,149 @@
+package pro.axenix_innovation.axenapi.web.validate;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessage;
+import pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey;
+import pro.axenix_innovation.axenapi.web.model.EventDTO;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.LinkDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static pro.axenix_innovation.axenapi.web.entity.AppCodeMessageKey.*;
+
+class EventGraphDTOValidatorTest {
+
+    @BeforeAll
+    static void setUpMessages() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        MessageHelper.setStaticMessageSource(messageSource);
+    }
+
+    @Test
+    void testValidGraphHasNoViolations() {
+        EventGraphDTO graph = validGraph();
+
+        GraphValidationReport report = EventGraphDTOValidator.validate(graph, 100);
+
+        assertTrue(report.isValid());
+        assertFalse(report.isTruncated());
+        assertNull(EventGraphDTOValidator.validateEventGraph(graph));
+    }
+
+    @Test
+    void testCollectsAllViolationsInOnePass() {
+        EventGraphDTO graph = validGraph();
+        NodeDTO service = graph.getNodes().get(0);
+        NodeDTO topic = graph.getNodes().get(1);
+        UUID eventId = graph.getEvents().get(0).getId();
+        UUID linkId = graph.getLinks().get(0).getId();
+
+        // дубль узла, связь на несуществующий узел, связь без события, дубль id связи, TOPIC -> TOPIC
+        graph.getNodes().add(node(service.getId(), "ServiceCopy", NodeDTO.TypeEnum.SERVICE));
+        NodeDTO secondTopic = node(UUID.randomUUID(), "topic-2", NodeDTO.TypeEnum.TOPIC);
+        graph.getNodes().add(secondTopic);
+        UUID missingNode = UUID.randomUUID();
+        graph.getLinks().add(new LinkDTO(UUID.randomUUID(), service.getId(), missingNode, null, eventId, new HashSet<>()));
+        graph.getLinks().add(new LinkDTO(UUID.randomUUID(), service.getId(), topic.getId(), null, null, new HashSet<>()));
+        graph.getLinks().add(new LinkDTO(linkId, topic.getId(), service.getId(), null, eventId, new HashSet<>()));
+        graph.getLinks().add(new LinkDTO(UUID.randomUUID(), topic.getId(), secondTopic.getId(), null, eventId, new HashSet<>()));
+
+        GraphValidationReport report = EventGraphDTOValidator.validate(graph, 100);
+
+        assertFalse(report.isValid());
+        assertFalse(report.isTruncated());
+        List<AppCodeMessageKey> keys = report.getViolations().stream()
+                .map(violation -> violation.message().getEnumItem())
+                .toList();
+        assertEquals(List.of(
+                RESP_ERROR_VALID_NODE_ID_DUPLICATE,
+                RESP_ERROR_VALID_NODE_ID_TO_NULL,
+                RESP_ERROR_VALID_LINKS_NULL_EVENTS,
+                RESP_ERROR_VALID_LINK_ID_DUPLICATE,
+                RESP_ERROR_VALID_LINK_TYPE), keys);
+        assertEquals(service.getId(), report.getViolations().get(0).elementId());
+        assertEquals(linkId, report.getViolations().get(3).elementId());
+    }
+
+    @Test
+    void testReportIsTruncatedAtLimit() {
+        EventGraphDTO graph = validGraph();
+        for (int i = 0; i < 10; i++) {
+            graph.getEvents().add(EventDTO.builder().id(UUID.randomUUID()).build());
+        }
+
+        GraphValidationReport report = EventGraphDTOValidator.validate(graph, 5);
+
+        assertEquals(5, report.getViolations().size());
+        assertTrue(report.isTruncated());
+        assertEquals(5, report.getLimit());
+    }
+
+    @Test
+    void testValidateEventGraphReturnsFirstStructuralViolation() {
+        EventGraphDTO graph = validGraph();
+        graph.setName(null);
+        graph.getNodes().get(0).setName(null);
+
+        AppCodeMessage result = EventGraphDTOValidator.validateEventGraph(graph);
+
+        assertEquals(RESP_ERROR_VALID_GRAPH_NAME_NULL, result.getEnumItem());
+    }
+
+    @Test
+    void testValidateEventGraphIgnoresLinkTypeRules() {
+        EventGraphDTO graph = validGraph();
+        NodeDTO secondTopic = node(UUID.randomUUID(), "topic-2", NodeDTO.TypeEnum.TOPIC);
+        graph.getNodes().add(secondTopic);
+        graph.getLinks().add(new LinkDTO(UUID.randomUUID(), graph.getNodes().get(1).getId(), secondTopic.getId(),
+                null, graph.getEvents().get(0).getId(), new HashSet<>()));
+
+        assertNull(EventGraphDTOValidator.validateEventGraph(graph));
+        assertEquals(RESP_ERROR_VALID_LINK_TYPE, EventGraphDTOValidator.validate(graph, 10).first().getEnumItem());
+    }
+
+    @Test
+    void testNullGraph() {
+        GraphValidationReport report = EventGraphDTOValidator.validate(null, 10);
+
+        assertEquals(RESP_ERROR_VALID_EVENT_GRAPH_NULL, report.first().getEnumItem());
+        assertEquals(RESP_ERROR_VALID_EVENT_GRAPH_NULL, EventGraphDTOValidator.validateEventGraph(null).getEnumItem());
+    }
+
+    private static EventGraphDTO validGraph() {
+        NodeDTO service = node(UUID.randomUUID(), "ServiceA", NodeDTO.TypeEnum.SERVICE);
+        NodeDTO topic = node(UUID.randomUUID(), "topic-1", NodeDTO.TypeEnum.TOPIC);
+        EventDTO event = EventDTO.builder()
+                .id(UUID.randomUUID())
+                .name("Event")
+                .schema("{\"type\":\"object\"}")
+                .build();
+
+        EventGraphDTO graph = new EventGraphDTO();
+        graph.setName("graph");
+        graph.setNodes(new ArrayList<>(List.of(service, topic)));
+        graph.setEvents(new ArrayList<>(List.of(event)));
+        graph.setLinks(new ArrayList<>(List.of(
+                new LinkDTO(UUID.randomUUID(), topic.getId(), service.getId(), "group", event.getId(), new HashSet<>()))));
+        return graph;
+    }
+
+    private static NodeDTO node(UUID id, String name, NodeDTO.TypeEnum type) {
+        return NodeDTO.builder()
+                .id(id)
+                .name(name)
+                .type(type)
+                .belongsToGraph(new ArrayList<>())
+                .build();
+    }
+}
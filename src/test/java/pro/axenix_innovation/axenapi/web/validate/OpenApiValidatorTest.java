@@ -3,6 +3,9 @@ package pro.axenix_innovation.axenapi.web.validate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.mock.web.MockMultipartFile;
 import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
 import pro.axenix_innovation.axenapi.web.model.NodeDTO;
@@ -296,4 +299,40 @@ class OpenApiValidatorTest {
         assertTrue(result, "Ожидалось, что метод вернет true, так как узел с заданным ID присутствует в графе");
     }
 
-}
\ No newline at end of file
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "test_service.json", "test_service.yaml", "complex_service.json", "complex_service.yaml",
+            "invalid_path_format.json", "kafka_missing_group_path.json", "missing_event_in_path.json",
+            "missing_info_field.json", "missing_openapi_field.json", "missing_title_field.json",
+            "missing_version_field.json", "non_existent_event_in_components.json", "unused_event.json"
+    })
+    void testStreamingValidationMatchesTreeValidation(String fileName) throws IOException {
+        MockMultipartFile multipartFile = createMultipartFileFromFile(
+                Path.of("src/test/resources/validate/" + fileName).toFile());
+
+        String expected = outcome(() -> OpenApiValidator.validateOpenApiSpec(multipartFile));
+        String actual = outcome(() -> OpenApiValidator.validateOpenApiSpecStreaming(multipartFile));
+
+        assertEquals(expected, actual, "Потоковая валидация должна давать тот же результат для " + fileName);
+    }
+
+    @Test
+    void testStreamingValidationDetectsDuplicateEvents() {
+        File specFile = Path.of("src/test/resources/validate/duplicate_event.json").toFile();
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> OpenApiValidator.validateOpenApiSpecStreaming(createMultipartFileFromFile(specFile)));
+
+        assertEquals("Событие с именем 'EventCommonConsumeKafka' уже существует в schemas.", exception.getMessage());
+    }
+
+    private static String outcome(Executable validation) {
+        try {
+            validation.execute();
+            return "valid";
+        } catch (Throwable e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package pro.axenix_innovation.axenapi.web.validate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import pro.axenix_innovation.axenapi.web.model.EventGraphDTO;
+import pro.axenix_innovation.axenapi.web.model.NodeDTO;
+import pro.axenix_innovation.axenapi.web.service.MessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationAuditTest {
+
+    @BeforeAll
+    static void setUpMessages() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        MessageHelper.setStaticMessageSource(messageSource);
+    }
+
+    @AfterEach
+    void resetSampleRate() {
+        ValidationAudit.setSampleRate(0);
+    }
+
+    @Test
+    void testCanonicalHashIsStableForEqualGraphs() {
+        UUID id = UUID.randomUUID();
+        EventGraphDTO first = graph(id);
+        EventGraphDTO second = graph(id);
+
+        String hash = ValidationAudit.canonicalHash(first);
+        assertEquals(16, hash.length());
+        assertEquals(hash, ValidationAudit.canonicalHash(second));
+    }
+
+    @Test
+    void testCanonicalHashDiffersForDifferentGraphs() {
+        EventGraphDTO first = graph(UUID.randomUUID());
+        EventGraphDTO second = graph(UUID.randomUUID());
+
+        assertNotEquals(ValidationAudit.canonicalHash(first), ValidationAudit.canonicalHash(second));
+    }
+
+    @Test
+    void testAuditDoesNotFailForNullAndSampledGraph() {
+        ValidationAudit.setSampleRate(1);
+        assertDoesNotThrow(() -> ValidationAudit.auditEventGraph(null));
+        assertDoesNotThrow(() -> ValidationAudit.auditEventGraph(graph(UUID.randomUUID())));
+    }
+
+    private static EventGraphDTO graph(UUID nodeId) {
+        EventGraphDTO graph = new EventGraphDTO();
+        graph.setName("graph");
+        graph.setNodes(new ArrayList<>(List.of(NodeDTO.builder()
+                .id(nodeId)
+                .name("ServiceA")
+                .type(NodeDTO.TypeEnum.SERVICE)
+                .belongsToGraph(new ArrayList<>(List.of(nodeId)))
+                .build())));
+        graph.setEvents(new ArrayList<>());
+        graph.setLinks(new ArrayList<>());
+        return graph;
+    }
+}